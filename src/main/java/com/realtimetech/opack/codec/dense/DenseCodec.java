@@ -24,12 +24,17 @@ package com.realtimetech.opack.codec.dense;
 
 import com.realtimetech.opack.codec.OpackCodec;
 import com.realtimetech.opack.codec.dense.reader.ByteArrayReader;
+import com.realtimetech.opack.codec.dense.reader.MappedFileReader;
 import com.realtimetech.opack.codec.dense.reader.Reader;
 import com.realtimetech.opack.codec.dense.writer.ByteArrayWriter;
+import com.realtimetech.opack.codec.dense.writer.ByteBufferWriter;
+import com.realtimetech.opack.codec.dense.writer.PatchableWriter;
 import com.realtimetech.opack.codec.dense.writer.Writer;
 import com.realtimetech.opack.exception.DecodeException;
 import com.realtimetech.opack.exception.EncodeException;
+import com.realtimetech.opack.util.CharsetUtil;
 import com.realtimetech.opack.util.ReflectionUtil;
+import com.realtimetech.opack.util.StringCache;
 import com.realtimetech.opack.util.UnsafeOpackValue;
 import com.realtimetech.opack.util.structure.FastStack;
 import com.realtimetech.opack.util.structure.NativeList;
@@ -40,9 +45,18 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class DenseCodec extends OpackCodec<Reader, Writer> {
     public static final class Builder {
@@ -57,14 +71,26 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
 
         private int encodeStackInitialSize;
         private int decodeStackInitialSize;
+        private int stringCacheSize;
+        private int stringCacheMaxLength;
 
         boolean ignoreVersionCompare;
+        boolean enableSkippableContainer;
+        boolean enableFloatingPointArrayCompression;
+        boolean enableIntegerArrayCompression;
+        boolean enableBitmapNativeArray;
 
         Builder() {
             this.encodeStackInitialSize = 128;
             this.decodeStackInitialSize = 128;
+            this.stringCacheSize = 1024;
+            this.stringCacheMaxLength = 32;
 
             this.ignoreVersionCompare = false;
+            this.enableSkippableContainer = false;
+            this.enableFloatingPointArrayCompression = false;
+            this.enableIntegerArrayCompression = false;
+            this.enableBitmapNativeArray = false;
         }
 
         /**
@@ -89,6 +115,29 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
             return this;
         }
 
+        /**
+         * Sets the number of slots of the cache that decodes repeated keys and short string values into one canonical string
+         * A slot is overwritten on a collision, so the cache stays bounded. 0 disables the cache.
+         *
+         * @param stringCacheSize the number of slots, rounded up to a power of two
+         * @return the current instance of the builder for method chaining
+         */
+        public @NotNull Builder setStringCacheSize(int stringCacheSize) {
+            this.stringCacheSize = stringCacheSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum length in bytes of the strings kept in the string cache
+         *
+         * @param stringCacheMaxLength the maximum length of cached strings
+         * @return the current instance of the builder for method chaining
+         */
+        public @NotNull Builder setStringCacheMaxLength(int stringCacheMaxLength) {
+            this.stringCacheMaxLength = stringCacheMaxLength;
+            return this;
+        }
+
         /**
          * Sets whether version comparison should be ignored
          *
@@ -100,6 +149,53 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
             return this;
         }
 
+        /**
+         * Sets whether containers should be encoded with their byte length, so that decoders can skip them without parsing
+         *
+         * @param enableSkippableContainer the flag indicating whether to encode skippable containers
+         * @return the current instance of the builder for method chaining
+         */
+        public @NotNull Builder setEnableSkippableContainer(boolean enableSkippableContainer) {
+            this.enableSkippableContainer = enableSkippableContainer;
+            return this;
+        }
+
+        /**
+         * Sets whether float and double native arrays should be encoded as XOR with the previous value (Gorilla style bit packing)
+         * Slowly varying series take a few bits per value, and arrays that would not shrink are written as they are.
+         *
+         * @param enableFloatingPointArrayCompression the flag indicating whether to compress floating point native arrays
+         * @return the current instance of the builder for method chaining
+         */
+        public @NotNull Builder setEnableFloatingPointArrayCompression(boolean enableFloatingPointArrayCompression) {
+            this.enableFloatingPointArrayCompression = enableFloatingPointArrayCompression;
+            return this;
+        }
+
+        /**
+         * Sets whether int and long native arrays should be bit packed in blocks, each with the smallest of raw, delta varint,
+         * frame of reference, delta frame of reference and run length schemes, so sorted or repetitive arrays take a few bits per value
+         *
+         * @param enableIntegerArrayCompression the flag indicating whether to compress integer native arrays
+         * @return the current instance of the builder for method chaining
+         */
+        public @NotNull Builder setEnableIntegerArrayCompression(boolean enableIntegerArrayCompression) {
+            this.enableIntegerArrayCompression = enableIntegerArrayCompression;
+            return this;
+        }
+
+        /**
+         * Sets whether boolean native arrays should be written 8 elements per byte, and wrapper native arrays as a leading null bitmap
+         * followed by the non-null values written contiguously, instead of a presence byte before every element
+         *
+         * @param enableBitmapNativeArray the flag indicating whether to encode bitmap native arrays
+         * @return the current instance of the builder for method chaining
+         */
+        public @NotNull Builder setEnableBitmapNativeArray(boolean enableBitmapNativeArray) {
+            this.enableBitmapNativeArray = enableBitmapNativeArray;
+            return this;
+        }
+
         /**
          * Build the {@link DenseCodec DenseCodec}
          *
@@ -119,51 +215,111 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
         !! IMPORTANT !!
         If the structure of Dense Codec changes, you must change(increase) the version
      */
-    private static final byte[] CONST_DENSE_CODEC_VERSION = new byte[]{0x00, 0x01};
-
-    private static final byte CONST_TYPE_OPACK_OBJECT = 0x00;
-    private static final byte CONST_TYPE_OPACK_ARRAY = 0x01;
-
-    private static final byte CONST_TYPE_BOOLEAN = 0x10;
-    private static final byte CONST_TYPE_BYTE = 0x11;
-    private static final byte CONST_TYPE_CHARACTER = 0x12;
-    private static final byte CONST_TYPE_SHORT = 0x13;
-    private static final byte CONST_TYPE_INTEGER = 0x14;
-    private static final byte CONST_TYPE_FLOAT = 0x15;
-    private static final byte CONST_TYPE_LONG = 0x16;
-    private static final byte CONST_TYPE_DOUBLE = 0x17;
-    private static final byte CONST_TYPE_NULL = 0x18;
-    private static final byte CONST_TYPE_STRING = 0x19;
-
-    private static final byte CONST_PRIMITIVE_BOOLEAN_NATIVE_ARRAY = 0x20;
-    private static final byte CONST_PRIMITIVE_BYTE_NATIVE_ARRAY = 0x21;
-    private static final byte CONST_PRIMITIVE_CHARACTER_NATIVE_ARRAY = 0x22;
-    private static final byte CONST_PRIMITIVE_SHORT_NATIVE_ARRAY = 0x23;
-    private static final byte CONST_PRIMITIVE_INTEGER_NATIVE_ARRAY = 0x24;
-    private static final byte CONST_PRIMITIVE_FLOAT_NATIVE_ARRAY = 0x25;
-    private static final byte CONST_PRIMITIVE_LONG_NATIVE_ARRAY = 0x26;
-    private static final byte CONST_PRIMITIVE_DOUBLE_NATIVE_ARRAY = 0x27;
-
-    private static final byte CONST_WRAPPER_BOOLEAN_NATIVE_ARRAY = 0x30;
-    private static final byte CONST_WRAPPER_BYTE_NATIVE_ARRAY = 0x31;
-    private static final byte CONST_WRAPPER_CHARACTER_NATIVE_ARRAY = 0x32;
-    private static final byte CONST_WRAPPER_SHORT_NATIVE_ARRAY = 0x33;
-    private static final byte CONST_WRAPPER_INTEGER_NATIVE_ARRAY = 0x34;
-    private static final byte CONST_WRAPPER_FLOAT_NATIVE_ARRAY = 0x35;
-    private static final byte CONST_WRAPPER_LONG_NATIVE_ARRAY = 0x36;
-    private static final byte CONST_WRAPPER_DOUBLE_NATIVE_ARRAY = 0x37;
-
-    private static final byte CONST_NO_NATIVE_ARRAY = 0x0F;
+    private static final byte[] CONST_DENSE_CODEC_VERSION = new byte[]{0x00, 0x02};
+
+    /*
+        Older versions that the current decoder can still read, since their structure is a subset of the current version
+     */
+    private static final byte[][] CONST_DENSE_CODEC_COMPATIBLE_VERSIONS = new byte[][]{
+            new byte[]{0x00, 0x01}
+    };
+
+    static final byte CONST_TYPE_OPACK_OBJECT = 0x00;
+    static final byte CONST_TYPE_OPACK_ARRAY = 0x01;
+    static final byte CONST_TYPE_SKIPPABLE_OPACK_OBJECT = 0x02;
+    static final byte CONST_TYPE_SKIPPABLE_OPACK_ARRAY = 0x03;
+    static final byte CONST_TYPE_SCHEMA_OPACK_OBJECT = 0x04;
+
+    static final byte CONST_SCHEMA_WITHOUT_DESCRIPTION = 0x00;
+    static final byte CONST_SCHEMA_WITH_DESCRIPTION = 0x01;
+
+    static final int CONST_SCHEMA_FIELD_COUNT_LIMIT = 1 << 16;
+    static final int CONST_LEARNED_SCHEMA_LIMIT = 256;
+    static final int CONST_ENCODE_BUFFER_RETAINED_SIZE = 1 << 20;
+
+    static final byte CONST_TYPE_BOOLEAN = 0x10;
+    static final byte CONST_TYPE_BYTE = 0x11;
+    static final byte CONST_TYPE_CHARACTER = 0x12;
+    static final byte CONST_TYPE_SHORT = 0x13;
+    static final byte CONST_TYPE_INTEGER = 0x14;
+    static final byte CONST_TYPE_FLOAT = 0x15;
+    static final byte CONST_TYPE_LONG = 0x16;
+    static final byte CONST_TYPE_DOUBLE = 0x17;
+    static final byte CONST_TYPE_NULL = 0x18;
+    static final byte CONST_TYPE_STRING = 0x19;
+    static final byte CONST_TYPE_BIG_INTEGER = 0x1A;
+    static final byte CONST_TYPE_BIG_DECIMAL = 0x1B;
+    static final byte CONST_TYPE_LATIN1_STRING = 0x1C;
+
+    static final byte CONST_BIG_NUMBER_LONG = 0x00;
+    static final byte CONST_BIG_NUMBER_BYTES = 0x01;
+
+    static final byte CONST_PRIMITIVE_BOOLEAN_NATIVE_ARRAY = 0x20;
+    static final byte CONST_PRIMITIVE_BYTE_NATIVE_ARRAY = 0x21;
+    static final byte CONST_PRIMITIVE_CHARACTER_NATIVE_ARRAY = 0x22;
+    static final byte CONST_PRIMITIVE_SHORT_NATIVE_ARRAY = 0x23;
+    static final byte CONST_PRIMITIVE_INTEGER_NATIVE_ARRAY = 0x24;
+    static final byte CONST_PRIMITIVE_FLOAT_NATIVE_ARRAY = 0x25;
+    static final byte CONST_PRIMITIVE_LONG_NATIVE_ARRAY = 0x26;
+    static final byte CONST_PRIMITIVE_DOUBLE_NATIVE_ARRAY = 0x27;
+
+    static final byte CONST_WRAPPER_BOOLEAN_NATIVE_ARRAY = 0x30;
+    static final byte CONST_WRAPPER_BYTE_NATIVE_ARRAY = 0x31;
+    static final byte CONST_WRAPPER_CHARACTER_NATIVE_ARRAY = 0x32;
+    static final byte CONST_WRAPPER_SHORT_NATIVE_ARRAY = 0x33;
+    static final byte CONST_WRAPPER_INTEGER_NATIVE_ARRAY = 0x34;
+    static final byte CONST_WRAPPER_FLOAT_NATIVE_ARRAY = 0x35;
+    static final byte CONST_WRAPPER_LONG_NATIVE_ARRAY = 0x36;
+    static final byte CONST_WRAPPER_DOUBLE_NATIVE_ARRAY = 0x37;
+
+    static final byte CONST_BITMAP_BOOLEAN_NATIVE_ARRAY = 0x40;
+    static final byte CONST_PACKED_INTEGER_NATIVE_ARRAY = 0x44;
+    static final byte CONST_XOR_FLOAT_NATIVE_ARRAY = 0x45;
+    static final byte CONST_PACKED_LONG_NATIVE_ARRAY = 0x46;
+    static final byte CONST_XOR_DOUBLE_NATIVE_ARRAY = 0x47;
+
+    static final byte CONST_BITMAP_WRAPPER_BOOLEAN_NATIVE_ARRAY = 0x50;
+    static final byte CONST_BITMAP_WRAPPER_BYTE_NATIVE_ARRAY = 0x51;
+    static final byte CONST_BITMAP_WRAPPER_CHARACTER_NATIVE_ARRAY = 0x52;
+    static final byte CONST_BITMAP_WRAPPER_SHORT_NATIVE_ARRAY = 0x53;
+    static final byte CONST_BITMAP_WRAPPER_INTEGER_NATIVE_ARRAY = 0x54;
+    static final byte CONST_BITMAP_WRAPPER_FLOAT_NATIVE_ARRAY = 0x55;
+    static final byte CONST_BITMAP_WRAPPER_LONG_NATIVE_ARRAY = 0x56;
+    static final byte CONST_BITMAP_WRAPPER_DOUBLE_NATIVE_ARRAY = 0x57;
+
+    static final byte CONST_NO_NATIVE_ARRAY = 0x0F;
 
     private static final Object CONTEXT_NULL_OBJECT = new Object();
     private static final Object CONTEXT_BRANCH_CONTEXT_OBJECT = new Object();
+    private static final Object CONTEXT_CONTAINER_END_OBJECT = new Object();
 
     private final @NotNull FastStack<@Nullable Object> encodeStack;
+    private int @NotNull [] encodeLengthPositionStack;
+    private int encodeLengthPositionSize;
+    private final @NotNull ByteArrayWriter encodeBufferWriter;
+    private final DensePackedArray.@NotNull BitWriter encodeBitWriter;
 
     private final @NotNull FastStack<@Nullable Object> decodeStack;
-    private final @NotNull FastStack<@NotNull Object @NotNull []> decodeContextStack;
+    private int @NotNull [] decodeSizeStack;
+    private int @NotNull [] decodeOffsetStack;
+    private @Nullable Object @NotNull [] decodeKeyStack;
+    private @Nullable DenseSchema @NotNull [] decodeSchemaStack;
+
+    private final byte @NotNull [] decodeClassifierBuffer;
+    private final byte @NotNull [] decodeVersionBuffer;
+
+    private final @Nullable StringCache decodeStringCache;
+    private final int stringCacheSize;
+    private final int stringCacheMaxLength;
+
+    private final @NotNull Map<@NotNull Long, @NotNull DenseSchema> schemaMap;
+    private final @NotNull Map<@NotNull Long, @NotNull DenseSchema> learnedSchemaMap;
 
     private final boolean ignoreVersionCompare;
+    private final boolean enableSkippableContainer;
+    private final boolean enableFloatingPointArrayCompression;
+    private final boolean enableIntegerArrayCompression;
+    private final boolean enableBitmapNativeArray;
 
     /**
      * Constructs the DenseCodec with the builder of DenseCodec
@@ -174,14 +330,60 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
         super();
 
         this.encodeStack = new FastStack<>(builder.encodeStackInitialSize);
+        this.encodeLengthPositionStack = new int[builder.encodeStackInitialSize];
+        this.encodeLengthPositionSize = 0;
+        this.encodeBufferWriter = new ByteArrayWriter();
+        this.encodeBitWriter = new DensePackedArray.BitWriter();
 
         this.decodeStack = new FastStack<>(builder.decodeStackInitialSize);
-        this.decodeContextStack = new FastStack<>(builder.decodeStackInitialSize);
+        this.decodeSizeStack = new int[builder.decodeStackInitialSize];
+        this.decodeOffsetStack = new int[builder.decodeStackInitialSize];
+        this.decodeKeyStack = new Object[builder.decodeStackInitialSize];
+        this.decodeSchemaStack = new DenseSchema[builder.decodeStackInitialSize];
+
+        this.decodeClassifierBuffer = new byte[CONST_DENSE_CODEC_CLASSIFIER.length];
+        this.decodeVersionBuffer = new byte[CONST_DENSE_CODEC_VERSION.length];
+
+        this.stringCacheSize = builder.stringCacheSize;
+        this.stringCacheMaxLength = builder.stringCacheMaxLength;
+        this.decodeStringCache = this.createStringCache();
+
+        this.schemaMap = new HashMap<>();
+        this.learnedSchemaMap = new LinkedHashMap<Long, DenseSchema>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, DenseSchema> eldest) {
+                return this.size() > CONST_LEARNED_SCHEMA_LIMIT;
+            }
+        };
 
         this.ignoreVersionCompare = builder.ignoreVersionCompare;
+        this.enableSkippableContainer = builder.enableSkippableContainer;
+        this.enableFloatingPointArrayCompression = builder.enableFloatingPointArrayCompression;
+        this.enableIntegerArrayCompression = builder.enableIntegerArrayCompression;
+        this.enableBitmapNativeArray = builder.enableBitmapNativeArray;
     }
 
 
+    /**
+     * Registers a schema, so that values encoded with it can be decoded without a schema description
+     *
+     * @param denseSchema the schema to register
+     * @return true if the schema registration is successful, false if a schema with the same fingerprint is already registered
+     */
+    public synchronized boolean registerSchema(@NotNull DenseSchema denseSchema) {
+        return this.schemaMap.putIfAbsent(denseSchema.getFingerprint(), denseSchema) == null;
+    }
+
+    /**
+     * Unregisters a schema
+     *
+     * @param denseSchema the schema to unregister
+     * @return true if the cancellation of schema registration is successful, false otherwise
+     */
+    public synchronized boolean unregisterSchema(@NotNull DenseSchema denseSchema) {
+        return this.schemaMap.remove(denseSchema.getFingerprint(), denseSchema);
+    }
+
     /**
      * Encodes the {@link OpackValue OpackValue} into dense bytes
      *
@@ -190,9 +392,32 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
      * @throws EncodeException if a problem occurs during encoding, if the type of data to be encoded is not allowed in a specific codec
      */
     public synchronized byte @NotNull [] encode(@NotNull OpackValue opackValue) throws EncodeException {
-        ByteArrayWriter byteArrayWriter = new ByteArrayWriter();
-        this.encode(byteArrayWriter, opackValue);
-        return byteArrayWriter.toByteArray();
+        // The reused buffer keeps its grown size up to a limit, so only the exact sized result is allocated
+        try {
+            this.encode(this.encodeBufferWriter, opackValue);
+            return this.encodeBufferWriter.toByteArray();
+        } finally {
+            this.encodeBufferWriter.reset(CONST_ENCODE_BUFFER_RETAINED_SIZE);
+        }
+    }
+
+    /**
+     * Encodes the {@link OpackValue OpackValue} into the remaining space of the heap or direct byte buffer
+     * The position of the byte buffer is advanced by the number of bytes written only when encoding succeeds.
+     *
+     * @param byteBuffer the byte buffer to store an encoded result
+     * @param opackValue the opack value to encode
+     * @return the number of bytes written
+     * @throws EncodeException if a problem occurs during encoding, if the byte buffer does not have enough remaining space
+     */
+    public synchronized int encode(@NotNull ByteBuffer byteBuffer, @NotNull OpackValue opackValue) throws EncodeException {
+        ByteBufferWriter byteBufferWriter = new ByteBufferWriter(byteBuffer);
+        this.encode(byteBufferWriter, opackValue);
+
+        int length = byteBufferWriter.getLength();
+        byteBuffer.position(byteBuffer.position() + length);
+
+        return length;
     }
 
     /**
@@ -203,11 +428,52 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
      * @throws EncodeException if a problem occurs during encoding, if the type of data to be encoded is not allowed in a specific codec
      */
     public synchronized byte @NotNull [] encodeObject(@NotNull Object object) throws EncodeException {
-        ByteArrayWriter byteArrayWriter = new ByteArrayWriter();
-        this.encodeObject(byteArrayWriter, object);
-        return byteArrayWriter.toByteArray();
+        try {
+            this.encodeObject(this.encodeBufferWriter, object);
+            return this.encodeBufferWriter.toByteArray();
+        } finally {
+            this.encodeBufferWriter.reset(CONST_ENCODE_BUFFER_RETAINED_SIZE);
+        }
+    }
+
+
+    /**
+     * Encodes the {@link OpackObject OpackObject} into dense bytes positionally, following the schema instead of writing field names
+     *
+     * @param opackObject              the opack object to encode
+     * @param denseSchema              the schema of the opack object
+     * @param includeSchemaDescription true if field names should be written once, so that decoders without the schema can decode
+     * @return the encoded dense bytes
+     * @throws EncodeException if a problem occurs during encoding, if the opack object does not match the schema
+     */
+    public synchronized byte @NotNull [] encode(@NotNull OpackObject opackObject, @NotNull DenseSchema denseSchema, boolean includeSchemaDescription) throws EncodeException {
+        try {
+            this.encode(this.encodeBufferWriter, opackObject, denseSchema, includeSchemaDescription);
+            return this.encodeBufferWriter.toByteArray();
+        } finally {
+            this.encodeBufferWriter.reset(CONST_ENCODE_BUFFER_RETAINED_SIZE);
+        }
     }
 
+    /**
+     * Encodes the {@link OpackObject OpackObject} positionally, following the schema instead of writing field names
+     * The schema applies to the given object only, nested values are encoded as usual.
+     *
+     * @param writer                   the writer to store an encoded result
+     * @param opackObject              the opack object to encode
+     * @param denseSchema              the schema of the opack object
+     * @param includeSchemaDescription true if field names should be written once, so that decoders without the schema can decode
+     * @throws EncodeException if a problem occurs during encoding, if the opack object does not match the schema
+     */
+    public synchronized void encode(@NotNull Writer writer, @NotNull OpackObject opackObject, @NotNull DenseSchema denseSchema, boolean includeSchemaDescription) throws EncodeException {
+        int fieldCount = denseSchema.getFieldCount();
+
+        if (opackObject.size() != fieldCount) {
+            throw new EncodeException("Given object has " + opackObject.size() + " fields, but schema has " + fieldCount + " fields.");
+        }
+
+        this.encodeObject(writer, opackObject, denseSchema, includeSchemaDescription);
+    }
 
     /**
      * Encodes the {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue} into dense bytes
@@ -218,11 +484,45 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
      */
     @Override
     public synchronized void encodeObject(@NotNull Writer writer, @Nullable Object object) throws EncodeException {
+        this.encodeObject(writer, object, null, false);
+    }
+
+    /**
+     * Encodes the {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue} into dense bytes
+     *
+     * @param writer                   the writer to store an encoded result
+     * @param object                   the object to encode
+     * @param rootSchema               the schema of the root object, or null to encode field names
+     * @param includeSchemaDescription true if field names of the root schema should be written
+     * @throws EncodeException if a problem occurs during encoding
+     */
+    private void encodeObject(@NotNull Writer writer, @Nullable Object object, @Nullable DenseSchema rootSchema, boolean includeSchemaDescription) throws EncodeException {
+        if (this.enableSkippableContainer && !(writer instanceof PatchableWriter)) {
+            // Length prefixes are patched after their content, so encode into a patchable buffer first
+            try {
+                this.encodeObject(this.encodeBufferWriter, object, rootSchema, includeSchemaDescription);
+                this.encodeBufferWriter.writeTo(writer);
+            } catch (IOException ioException) {
+                throw new EncodeException(ioException);
+            } finally {
+                this.encodeBufferWriter.reset(CONST_ENCODE_BUFFER_RETAINED_SIZE);
+            }
+
+            return;
+        }
+
         try {
             writer.writeBytes(CONST_DENSE_CODEC_CLASSIFIER);
             writer.writeBytes(CONST_DENSE_CODEC_VERSION);
 
-            this.encodeStack.push(object);
+            this.encodeStack.reset();
+            this.encodeLengthPositionSize = 0;
+
+            if (rootSchema != null) {
+                this.encodeSchemaObject(writer, (OpackObject) object, rootSchema, includeSchemaDescription);
+            } else {
+                this.encodeStack.push(object);
+            }
 
             while (!this.encodeStack.isEmpty()) {
                 Object currentObject = this.encodeStack.pop();
@@ -232,6 +532,11 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
                     continue;
                 }
 
+                if (currentObject == CONTEXT_CONTAINER_END_OBJECT) {
+                    this.patchContainerLength((PatchableWriter) writer);
+                    continue;
+                }
+
                 Class<?> objectType = currentObject.getClass();
 
                 if (ReflectionUtil.isWrapperType(objectType)) {
@@ -242,8 +547,16 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
                     OpackObject opackObject = (OpackObject) currentObject;
                     int size = opackObject.size();
 
-                    writer.writeByte(CONST_TYPE_OPACK_OBJECT);
-                    writer.writeInt(size);
+                    if (this.enableSkippableContainer) {
+                        writer.writeByte(CONST_TYPE_SKIPPABLE_OPACK_OBJECT);
+                        writer.writeInt(size);
+
+                        this.writeContainerLengthPlaceholder((PatchableWriter) writer);
+                        this.encodeStack.push(CONTEXT_CONTAINER_END_OBJECT);
+                    } else {
+                        writer.writeByte(CONST_TYPE_OPACK_OBJECT);
+                        writer.writeInt(size);
+                    }
 
                     for (Object key : opackObject.keySet()) {
                         Object value = opackObject.get(key);
@@ -256,8 +569,15 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
 
                     List<?> opackArrayList = UnsafeOpackValue.getList(opackArray);
 
-                    writer.writeByte(CONST_TYPE_OPACK_ARRAY);
-                    writer.writeInt(length);
+                    if (this.enableSkippableContainer) {
+                        writer.writeByte(CONST_TYPE_SKIPPABLE_OPACK_ARRAY);
+                        writer.writeInt(length);
+
+                        this.writeContainerLengthPlaceholder((PatchableWriter) writer);
+                    } else {
+                        writer.writeByte(CONST_TYPE_OPACK_ARRAY);
+                        writer.writeInt(length);
+                    }
 
                     boolean optimized = false;
 
@@ -265,8 +585,15 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
                         NativeList nativeList = (NativeList) opackArrayList;
                         Object arrayObject = nativeList.getArrayObject();
                         Class<?> arrayType = arrayObject.getClass();
+                        byte bitmapType = this.enableBitmapNativeArray ? DensePackedArray.getBitmapType(arrayType) : CONST_NO_NATIVE_ARRAY;
+
+                        if (bitmapType != CONST_NO_NATIVE_ARRAY && DensePackedArray.isBitmapSmaller(length)) {
+                            this.encodeBitWriter.reset();
+                            DensePackedArray.packBitmap(arrayObject, bitmapType, this.encodeBitWriter);
+                            this.writePackedArray(writer, bitmapType);
 
-                        if (arrayType == boolean[].class) {
+                            optimized = true;
+                        } else if (arrayType == boolean[].class) {
                             boolean[] array = (boolean[]) arrayObject;
 
                             writer.writeByte(CONST_PRIMITIVE_BOOLEAN_NATIVE_ARRAY);
@@ -309,40 +636,76 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
                         } else if (arrayType == int[].class) {
                             int[] array = (int[]) arrayObject;
 
-                            writer.writeByte(CONST_PRIMITIVE_INTEGER_NATIVE_ARRAY);
+                            if (this.enableIntegerArrayCompression) {
+                                this.encodeBitWriter.reset();
+                                DensePackedArray.packIntegers(array, this.encodeBitWriter);
+                            }
+
+                            if (this.enableIntegerArrayCompression && this.encodeBitWriter.getBitLength() < array.length * 32L) {
+                                this.writePackedArray(writer, CONST_PACKED_INTEGER_NATIVE_ARRAY);
+                            } else {
+                                writer.writeByte(CONST_PRIMITIVE_INTEGER_NATIVE_ARRAY);
 
-                            for (int value : array) {
-                                writer.writeInt(value);
+                                for (int value : array) {
+                                    writer.writeInt(value);
+                                }
                             }
 
                             optimized = true;
                         } else if (arrayType == float[].class) {
                             float[] array = (float[]) arrayObject;
 
-                            writer.writeByte(CONST_PRIMITIVE_FLOAT_NATIVE_ARRAY);
+                            if (this.enableFloatingPointArrayCompression) {
+                                this.encodeBitWriter.reset();
+                                DensePackedArray.packXorFloats(array, this.encodeBitWriter);
+                            }
 
-                            for (float value : array) {
-                                writer.writeFloat(value);
+                            if (this.enableFloatingPointArrayCompression && this.encodeBitWriter.getBitLength() < array.length * 32L) {
+                                this.writePackedArray(writer, CONST_XOR_FLOAT_NATIVE_ARRAY);
+                            } else {
+                                writer.writeByte(CONST_PRIMITIVE_FLOAT_NATIVE_ARRAY);
+
+                                for (float value : array) {
+                                    writer.writeFloat(value);
+                                }
                             }
 
                             optimized = true;
                         } else if (arrayType == long[].class) {
                             long[] array = (long[]) arrayObject;
 
-                            writer.writeByte(CONST_PRIMITIVE_LONG_NATIVE_ARRAY);
+                            if (this.enableIntegerArrayCompression) {
+                                this.encodeBitWriter.reset();
+                                DensePackedArray.packLongs(array, this.encodeBitWriter);
+                            }
+
+                            if (this.enableIntegerArrayCompression && this.encodeBitWriter.getBitLength() < array.length * 64L) {
+                                this.writePackedArray(writer, CONST_PACKED_LONG_NATIVE_ARRAY);
+                            } else {
+                                writer.writeByte(CONST_PRIMITIVE_LONG_NATIVE_ARRAY);
 
-                            for (long value : array) {
-                                writer.writeLong(value);
+                                for (long value : array) {
+                                    writer.writeLong(value);
+                                }
                             }
 
                             optimized = true;
                         } else if (arrayType == double[].class) {
                             double[] array = (double[]) arrayObject;
 
-                            writer.writeByte(CONST_PRIMITIVE_DOUBLE_NATIVE_ARRAY);
+                            if (this.enableFloatingPointArrayCompression) {
+                                this.encodeBitWriter.reset();
+                                DensePackedArray.packXorDoubles(array, this.encodeBitWriter);
+                            }
+
+                            if (this.enableFloatingPointArrayCompression && this.encodeBitWriter.getBitLength() < array.length * 64L) {
+                                this.writePackedArray(writer, CONST_XOR_DOUBLE_NATIVE_ARRAY);
+                            } else {
+                                writer.writeByte(CONST_PRIMITIVE_DOUBLE_NATIVE_ARRAY);
 
-                            for (double value : array) {
-                                writer.writeDouble(value);
+                                for (double value : array) {
+                                    writer.writeDouble(value);
+                                }
                             }
 
                             optimized = true;
@@ -472,10 +835,16 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
                     if (!optimized) {
                         writer.writeByte(CONST_NO_NATIVE_ARRAY);
 
+                        if (this.enableSkippableContainer) {
+                            this.encodeStack.push(CONTEXT_CONTAINER_END_OBJECT);
+                        }
+
                         for (int index = length - 1; index >= 0; index--) {
                             Object value = opackArray.get(index);
                             encodeStack.push(value);
                         }
+                    } else if (this.enableSkippableContainer) {
+                        this.patchContainerLength((PatchableWriter) writer);
                     }
                 } else {
                     if (objectType == boolean.class) {
@@ -504,11 +873,27 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
                         writer.writeDouble((double) currentObject);
                     } else if (objectType == String.class) {
                         String string = (String) currentObject;
-                        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
 
-                        writer.writeByte(CONST_TYPE_STRING);
-                        writer.writeInt(bytes.length);
-                        writer.writeBytes(bytes);
+                        if (CharsetUtil.isLatin1(string)) {
+                            writer.writeByte(CONST_TYPE_LATIN1_STRING);
+                            writer.writeInt(string.length());
+                            writer.writeLatin1String(string);
+                        } else {
+                            int encodedLength = CharsetUtil.getUtf8Length(string);
+
+                            writer.writeByte(CONST_TYPE_STRING);
+                            writer.writeInt(encodedLength);
+                            writer.writeUtf8String(string, encodedLength);
+                        }
+                    } else if (objectType == BigInteger.class) {
+                        writer.writeByte(CONST_TYPE_BIG_INTEGER);
+                        this.encodeBigInteger(writer, (BigInteger) currentObject);
+                    } else if (objectType == BigDecimal.class) {
+                        BigDecimal bigDecimal = (BigDecimal) currentObject;
+
+                        writer.writeByte(CONST_TYPE_BIG_DECIMAL);
+                        writer.writeInt(bigDecimal.scale());
+                        this.encodeBigInteger(writer, bigDecimal.unscaledValue());
                     } else {
                         throw new EncodeException(objectType + " is not allowed in dense format. (unknown literal currentObject type).");
                     }
@@ -520,6 +905,111 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
     }
 
 
+    /**
+     * Writes the big integer as a long if it fits, or as two's-complement bytes otherwise
+     *
+     * @param writer     the writer to store an encoded result
+     * @param bigInteger the big integer to encode
+     * @throws IOException if an I/O error occurs
+     */
+    private void encodeBigInteger(@NotNull Writer writer, @NotNull BigInteger bigInteger) throws IOException {
+        if (bigInteger.bitLength() < Long.SIZE) {
+            writer.writeByte(CONST_BIG_NUMBER_LONG);
+            writer.writeLong(bigInteger.longValue());
+        } else {
+            byte[] bytes = bigInteger.toByteArray();
+
+            writer.writeByte(CONST_BIG_NUMBER_BYTES);
+            writer.writeInt(bytes.length);
+            writer.writeBytes(bytes);
+        }
+    }
+
+    /**
+     * Writes the header of a schema object and pushes its values in schema order
+     *
+     * @param writer                   the writer to store an encoded result
+     * @param opackObject              the opack object to encode
+     * @param denseSchema              the schema of the opack object
+     * @param includeSchemaDescription true if field names should be written
+     * @throws EncodeException if the opack object does not match the schema
+     * @throws IOException     if an I/O error occurs
+     */
+    private void encodeSchemaObject(@NotNull Writer writer, @NotNull OpackObject opackObject, @NotNull DenseSchema denseSchema, boolean includeSchemaDescription) throws EncodeException, IOException {
+        int fieldCount = denseSchema.getFieldCount();
+
+        writer.writeByte(CONST_TYPE_SCHEMA_OPACK_OBJECT);
+        writer.writeLong(denseSchema.getFingerprint());
+
+        if (includeSchemaDescription) {
+            writer.writeByte(CONST_SCHEMA_WITH_DESCRIPTION);
+            writer.writeInt(fieldCount);
+
+            for (int index = 0; index < fieldCount; index++) {
+                String fieldName = denseSchema.getFieldName(index);
+                int encodedLength = CharsetUtil.getUtf8Length(fieldName);
+
+                writer.writeInt(encodedLength);
+                writer.writeUtf8String(fieldName, encodedLength);
+            }
+        } else {
+            writer.writeByte(CONST_SCHEMA_WITHOUT_DESCRIPTION);
+        }
+
+        for (int index = fieldCount - 1; index >= 0; index--) {
+            String fieldName = denseSchema.getFieldName(index);
+            Object value = opackObject.get(fieldName);
+
+            if (value == null && !opackObject.containsKey(fieldName)) {
+                throw new EncodeException("Given object does not have " + fieldName + " field of schema.");
+            }
+
+            this.encodeStack.push(value);
+        }
+    }
+
+    /**
+     * Writes the native array type and the bytes packed into the encode bit writer, prefixed with their byte length
+     *
+     * @param writer     the writer to store an encoded result
+     * @param nativeType the bit packed native array type
+     * @throws IOException if an I/O error occurs
+     */
+    private void writePackedArray(@NotNull Writer writer, byte nativeType) throws IOException {
+        this.encodeBitWriter.finish();
+
+        writer.writeByte(nativeType);
+        writer.writeInt(this.encodeBitWriter.getLength());
+        writer.writeBytes(this.encodeBitWriter.getBytes(), 0, this.encodeBitWriter.getLength());
+    }
+
+    /**
+     * Writes a placeholder of the container byte length and remembers its position
+     *
+     * @param writer the writer to store an encoded result
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeContainerLengthPlaceholder(@NotNull PatchableWriter writer) throws IOException {
+        if (this.encodeLengthPositionSize >= this.encodeLengthPositionStack.length) {
+            this.encodeLengthPositionStack = Arrays.copyOf(this.encodeLengthPositionStack, Math.max(this.encodeLengthPositionStack.length << 1, 16));
+        }
+
+        this.encodeLengthPositionStack[this.encodeLengthPositionSize++] = writer.getLength();
+        writer.writeInt(0);
+    }
+
+    /**
+     * Patches the byte length of the most recently opened container with the bytes written after its placeholder
+     *
+     * @param writer the writer to store an encoded result
+     * @throws IOException if an I/O error occurs
+     */
+    private void patchContainerLength(@NotNull PatchableWriter writer) throws IOException {
+        int position = this.encodeLengthPositionStack[--this.encodeLengthPositionSize];
+
+        writer.patchInt(position, writer.getLength() - position - 4);
+    }
+
     /**
      * Decodes the dense bytes into {@link OpackValue OpackValue}
      *
@@ -546,6 +1036,36 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
         return this.decodeObject(byteArrayReader);
     }
 
+    /**
+     * Decodes the dense file into {@link OpackValue OpackValue} through memory-mapped reads
+     *
+     * @param path the path of the dense file to decode
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding, if the file cannot be mapped
+     */
+    public synchronized @NotNull OpackValue decode(@NotNull Path path) throws DecodeException {
+        try {
+            return this.decode(MappedFileReader.of(path));
+        } catch (IOException ioException) {
+            throw new DecodeException(ioException);
+        }
+    }
+
+    /**
+     * Decodes the dense file into {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue} through memory-mapped reads
+     *
+     * @param path the path of the dense file to decode
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding, if the file cannot be mapped
+     */
+    public synchronized @Nullable Object decodeObject(@NotNull Path path) throws DecodeException {
+        try {
+            return this.decodeObject(MappedFileReader.of(path));
+        } catch (IOException ioException) {
+            throw new DecodeException(ioException);
+        }
+    }
+
 
     /**
      * Decodes the dense bytes into {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue}
@@ -557,111 +1077,434 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
     @Override
     public synchronized @Nullable Object decodeObject(@NotNull Reader reader) throws DecodeException {
         try {
-            byte[] classifier = new byte[CONST_DENSE_CODEC_CLASSIFIER.length];
-            reader.readBytes(classifier);
+            this.decodeHeader(reader);
+
+            return this.decodeValue(reader);
+        } catch (IOException ioException) {
+            throw new DecodeException(ioException);
+        }
+    }
+
+    /**
+     * Decodes only the requested keys of the dense bytes whose root is an {@link OpackObject OpackObject}
+     *
+     * @param bytes the bytes to decode
+     * @param keys  the keys to materialize
+     * @return the decoded object containing only the requested keys
+     * @throws DecodeException if a problem occurs during decoding, if the root of the data is not an object
+     */
+    public synchronized @NotNull OpackObject decodeProjection(byte @NotNull [] bytes, @NotNull Collection<?> keys) throws DecodeException {
+        return this.decodeProjection(new ByteArrayReader(bytes), keys);
+    }
+
+    /**
+     * Decodes only the requested keys of the dense data whose root is an {@link OpackObject OpackObject}
+     * Values of the other keys are skipped, in constant time if they were encoded as skippable containers.
+     *
+     * @param reader the reader to load an encoded result
+     * @param keys   the keys to materialize
+     * @return the decoded object containing only the requested keys
+     * @throws DecodeException if a problem occurs during decoding, if the root of the data is not an object
+     */
+    public synchronized @NotNull OpackObject decodeProjection(@NotNull Reader reader, @NotNull Collection<?> keys) throws DecodeException {
+        try {
+            this.decodeHeader(reader);
+
+            byte readByte = (byte) reader.readByte();
+
+            if (readByte == CONST_TYPE_SCHEMA_OPACK_OBJECT) {
+                DenseSchema denseSchema = this.decodeSchema(reader);
+                OpackObject opackObject = new OpackObject(Math.min(denseSchema.getFieldCount(), keys.size()));
 
-            if (!Arrays.equals(CONST_DENSE_CODEC_CLASSIFIER, classifier)) {
-                throw new DecodeException("Decoding data is not dense format data. (Expected " + Arrays.toString(CONST_DENSE_CODEC_CLASSIFIER) + ", got " + Arrays.toString(classifier) + ")");
+                for (int index = 0; index < denseSchema.getFieldCount(); index++) {
+                    String key = denseSchema.getFieldName(index);
+
+                    if (keys.contains(key)) {
+                        opackObject.put(key, this.decodeValue(reader));
+                    } else {
+                        this.skipValue(reader);
+                    }
+                }
+
+                return opackObject;
+            }
+
+            if (readByte != CONST_TYPE_OPACK_OBJECT && readByte != CONST_TYPE_SKIPPABLE_OPACK_OBJECT) {
+                throw new DecodeException("Projection requires an object at the root, but got block header " + readByte + ".");
             }
 
-            byte[] version = new byte[CONST_DENSE_CODEC_VERSION.length];
-            reader.readBytes(version);
+            int size = reader.readInt();
 
-            if (!this.ignoreVersionCompare) {
-                if (!Arrays.equals(CONST_DENSE_CODEC_VERSION, version)) {
-                    throw new DecodeException("Decoding data does not match current version of dense codec. (Expected " + Arrays.toString(CONST_DENSE_CODEC_VERSION) + ", got " + Arrays.toString(version) + ")");
+            if (readByte == CONST_TYPE_SKIPPABLE_OPACK_OBJECT) {
+                reader.readInt();
+            }
+
+            OpackObject opackObject = new OpackObject(Math.min(size, keys.size()));
+
+            for (int index = 0; index < size; index++) {
+                Object key = this.decodeValue(reader);
+
+                if (keys.contains(key)) {
+                    opackObject.put(key, this.decodeValue(reader));
+                } else {
+                    this.skipValue(reader);
                 }
             }
 
+            return opackObject;
+        } catch (IOException ioException) {
+            throw new DecodeException(ioException);
+        }
+    }
+
+    /**
+     * Skips one complete value
+     * Skippable containers and fixed size literals are skipped without parsing, other values are decoded and discarded.
+     *
+     * @param reader the reader to load an encoded result
+     * @throws DecodeException if a problem occurs during decoding
+     * @throws IOException     if an I/O exception occurs
+     */
+    private void skipValue(@NotNull Reader reader) throws DecodeException, IOException {
+        byte readByte = (byte) reader.readByte();
+
+        if (readByte == CONST_TYPE_SKIPPABLE_OPACK_OBJECT || readByte == CONST_TYPE_SKIPPABLE_OPACK_ARRAY) {
+            reader.readInt();
+            reader.skipBytes(reader.readInt());
+        } else if (readByte == CONST_TYPE_NULL) {
+            // Nothing to skip
+        } else if (readByte == CONST_TYPE_BOOLEAN || readByte == CONST_TYPE_BYTE) {
+            reader.skipBytes(1);
+        } else if (readByte == CONST_TYPE_CHARACTER || readByte == CONST_TYPE_SHORT) {
+            reader.skipBytes(2);
+        } else if (readByte == CONST_TYPE_INTEGER || readByte == CONST_TYPE_FLOAT) {
+            reader.skipBytes(4);
+        } else if (readByte == CONST_TYPE_LONG || readByte == CONST_TYPE_DOUBLE) {
+            reader.skipBytes(8);
+        } else if (readByte == CONST_TYPE_STRING || readByte == CONST_TYPE_LATIN1_STRING) {
+            reader.skipBytes(reader.readInt());
+        } else if (readByte == CONST_TYPE_BIG_INTEGER || readByte == CONST_TYPE_BIG_DECIMAL) {
+            if (readByte == CONST_TYPE_BIG_DECIMAL) {
+                reader.skipBytes(4);
+            }
+
+            if ((byte) reader.readByte() == CONST_BIG_NUMBER_LONG) {
+                reader.skipBytes(8);
+            } else {
+                reader.skipBytes(reader.readInt());
+            }
+        } else {
             this.decodeStack.reset();
-            this.decodeContextStack.reset();
 
-            Object decodeResult = this.decodeBlock(reader);
-            Object rootValue = this.decodeStack.peek();
+            if (this.decodeBlock(reader, readByte) == CONTEXT_BRANCH_CONTEXT_OBJECT) {
+                this.decodeContainers(reader);
+            }
+        }
+    }
 
-            if (decodeResult != CONTEXT_BRANCH_CONTEXT_OBJECT) {
-                return rootValue;
+    /**
+     * Reads and verifies the classifier and version of dense format data
+     *
+     * @param reader the reader to load an encoded result
+     * @throws DecodeException if the data is not dense format data, if the version does not match
+     * @throws IOException     if an I/O exception occurs
+     */
+    private void decodeHeader(@NotNull Reader reader) throws DecodeException, IOException {
+        reader.readBytes(this.decodeClassifierBuffer);
+        reader.readBytes(this.decodeVersionBuffer);
+
+        this.verifyHeader(this.decodeClassifierBuffer, this.decodeVersionBuffer);
+    }
+
+    /**
+     * Verifies the classifier and version of dense format data
+     *
+     * @param classifier the classifier read
+     * @param version    the version read
+     * @throws DecodeException if the data is not dense format data, if the version does not match
+     */
+    void verifyHeader(byte @NotNull [] classifier, byte @NotNull [] version) throws DecodeException {
+        if (!Arrays.equals(CONST_DENSE_CODEC_CLASSIFIER, classifier)) {
+            throw new DecodeException("Decoding data is not dense format data. (Expected " + Arrays.toString(CONST_DENSE_CODEC_CLASSIFIER) + ", got " + Arrays.toString(classifier) + ")");
+        }
+
+        if (!this.ignoreVersionCompare && !Arrays.equals(CONST_DENSE_CODEC_VERSION, version)) {
+            boolean compatible = false;
+
+            for (byte[] compatibleVersion : CONST_DENSE_CODEC_COMPATIBLE_VERSIONS) {
+                if (Arrays.equals(compatibleVersion, version)) {
+                    compatible = true;
+                    break;
+                }
             }
 
-            while (!this.decodeStack.isEmpty()) {
-                Object currentValue = this.decodeStack.peek();
-                Object[] context = this.decodeContextStack.peek();
+            if (!compatible) {
+                throw new DecodeException("Decoding data does not match current version of dense codec. (Expected " + Arrays.toString(CONST_DENSE_CODEC_VERSION) + ", got " + Arrays.toString(version) + ")");
+            }
+        }
+    }
+
+    /**
+     * Creates a string cache with the settings of this codec, for a decoder of its own
+     *
+     * @return the string cache, or null if the cache is disabled
+     */
+    @Nullable StringCache createStringCache() {
+        return this.stringCacheSize > 0 ? new StringCache(this.stringCacheSize, this.stringCacheMaxLength) : null;
+    }
+
+    /**
+     * Reads a length-prefixed string, through the string cache if enabled
+     *
+     * @param reader  the reader to read from
+     * @param charset the charset of the string
+     * @return the string read
+     * @throws IOException if an I/O exception occurs
+     */
+    private @NotNull String readString(@NotNull Reader reader, @NotNull Charset charset) throws IOException {
+        int length = reader.readInt();
+
+        if (this.decodeStringCache != null) {
+            return reader.readString(length, charset, this.decodeStringCache);
+        }
 
-                Integer size = (Integer) context[0];
-                Integer offset = (Integer) context[1];
+        return reader.readString(length, charset);
+    }
 
-                boolean bypass = false;
-                int index = offset;
+    /**
+     * Decodes one complete value, including all nested containers
+     *
+     * @param reader the reader to load an encoded result
+     * @return the decoded value
+     * @throws DecodeException if a problem occurs during decoding
+     * @throws IOException     if an I/O exception occurs
+     */
+    private @Nullable Object decodeValue(@NotNull Reader reader) throws DecodeException, IOException {
+        this.decodeStack.reset();
 
-                if (currentValue instanceof OpackObject) {
-                    OpackObject opackObject = (OpackObject) currentValue;
+        Object decodeResult = this.decodeBlock(reader);
 
-                    for (; index < size; index++) {
-                        Object key = context[2];
-                        Object value = context[3];
+        if (decodeResult != CONTEXT_BRANCH_CONTEXT_OBJECT) {
+            return decodeResult;
+        }
 
-                        if (key == CONTEXT_NULL_OBJECT) {
-                            key = this.decodeBlock(reader);
-                            if (key == CONTEXT_BRANCH_CONTEXT_OBJECT) {
-                                context[2] = this.decodeStack.peek();
-                                bypass = true;
-                                break;
-                            } else {
-                                context[2] = key;
-                            }
-                        }
+        Object rootValue = this.decodeStack.peek();
+        this.decodeContainers(reader);
 
-                        if (value == CONTEXT_NULL_OBJECT) {
-                            value = this.decodeBlock(reader);
-                            if (value == CONTEXT_BRANCH_CONTEXT_OBJECT) {
-                                context[3] = this.decodeStack.peek();
-                                bypass = true;
-                                break;
-                            } else {
-                                context[3] = value;
-                            }
-                        }
+        return rootValue;
+    }
 
-                        opackObject.put(key, value);
-                        context[2] = CONTEXT_NULL_OBJECT;
-                        context[3] = CONTEXT_NULL_OBJECT;
-                    }
-                } else if (currentValue instanceof OpackArray) {
-                    OpackArray opackArray = (OpackArray) currentValue;
+    /**
+     * Decodes the remaining elements of all containers on the decode stack until the stack is empty
+     *
+     * @param reader the reader to load an encoded result
+     * @throws DecodeException if a problem occurs during decoding
+     * @throws IOException     if an I/O exception occurs
+     */
+    private void decodeContainers(@NotNull Reader reader) throws DecodeException, IOException {
+        while (!this.decodeStack.isEmpty()) {
+            int depth = this.decodeStack.getSize() - 1;
+            Object currentValue = this.decodeStack.peek();
+
+            int size = this.decodeSizeStack[depth];
+            int index = this.decodeOffsetStack[depth];
+
+            boolean bypass = false;
 
-                    for (; index < size; index++) {
-                        Object value = this.decodeBlock(reader);
+            if (currentValue instanceof OpackObject) {
+                OpackObject opackObject = (OpackObject) currentValue;
+                DenseSchema denseSchema = this.decodeSchemaStack[depth];
 
-                        if (value == CONTEXT_BRANCH_CONTEXT_OBJECT) {
-                            index++;
-                            opackArray.add(this.decodeStack.peek());
+                for (; index < size; index++) {
+                    Object key = this.decodeKeyStack[depth];
 
+                    if (denseSchema != null) {
+                        key = denseSchema.getFieldName(index);
+                    } else if (key == CONTEXT_NULL_OBJECT) {
+                        key = this.decodeBlock(reader);
+
+                        if (key == CONTEXT_BRANCH_CONTEXT_OBJECT) {
+                            // The key is a container, it must be completed before being hashed into the object
+                            this.decodeKeyStack[depth] = this.decodeStack.peek();
                             bypass = true;
                             break;
-                        } else {
-                            opackArray.add(value);
                         }
                     }
-                } else {
-                    assert currentValue != null;
 
-                    throw new DecodeException(currentValue.getClass() + " is not a type of opack value. (unknown opack value type)");
+                    Object value = this.decodeBlock(reader);
+                    this.decodeKeyStack[depth] = CONTEXT_NULL_OBJECT;
+
+                    if (value == CONTEXT_BRANCH_CONTEXT_OBJECT) {
+                        index++;
+                        opackObject.put(key, this.decodeStack.peek());
+
+                        bypass = true;
+                        break;
+                    } else {
+                        opackObject.put(key, value);
+                    }
                 }
+            } else if (currentValue instanceof OpackArray) {
+                OpackArray opackArray = (OpackArray) currentValue;
 
-                if (!bypass) {
-                    this.decodeStack.pop();
-                    this.decodeContextStack.pop();
-                } else {
-                    context[1] = index;
+                for (; index < size; index++) {
+                    Object value = this.decodeBlock(reader);
+
+                    if (value == CONTEXT_BRANCH_CONTEXT_OBJECT) {
+                        index++;
+                        opackArray.add(this.decodeStack.peek());
+
+                        bypass = true;
+                        break;
+                    } else {
+                        opackArray.add(value);
+                    }
                 }
+            } else {
+                assert currentValue != null;
+
+                throw new DecodeException(currentValue.getClass() + " is not a type of opack value. (unknown opack value type)");
             }
 
-            return rootValue;
-        } catch (IOException ioException) {
-            throw new DecodeException(ioException);
+            if (!bypass) {
+                this.decodeStack.pop();
+                this.decodeKeyStack[depth] = null;
+                this.decodeSchemaStack[depth] = null;
+            } else {
+                this.decodeOffsetStack[depth] = index;
+            }
         }
     }
 
+    /**
+     * Reads a big integer written as two's-complement bytes
+     *
+     * @param reader the reader to load an encoded result
+     * @param form   the form of the big integer
+     * @return the big integer
+     * @throws DecodeException if the form is unknown, or the length is not positive
+     * @throws IOException     if an I/O exception occurs
+     */
+    private @NotNull BigInteger decodeBigIntegerBytes(@NotNull Reader reader, byte form) throws DecodeException, IOException {
+        if (form != CONST_BIG_NUMBER_BYTES) {
+            throw new DecodeException(form + " is not registered big number form in dense format.");
+        }
+
+        int length = reader.readInt();
+
+        if (length <= 0) {
+            throw new DecodeException("Big number has invalid length " + length + " in dense format. (corrupted data)");
+        }
+
+        byte[] bytes = new byte[length];
+        reader.readBytes(bytes);
+
+        return new BigInteger(bytes);
+    }
+
+    /**
+     * Reads the schema fingerprint and optional description, and returns the matching schema
+     * Schemas read from descriptions are learned for the following values.
+     *
+     * @param reader the reader to load an encoded result
+     * @return the schema
+     * @throws DecodeException if the schema is not described and not registered
+     * @throws IOException     if an I/O exception occurs
+     */
+    private @NotNull DenseSchema decodeSchema(@NotNull Reader reader) throws DecodeException, IOException {
+        long fingerprint = reader.readLong();
+        byte descriptionFlag = (byte) reader.readByte();
+
+        if (descriptionFlag == CONST_SCHEMA_WITH_DESCRIPTION) {
+            int fieldCount = reader.readInt();
+
+            if (fieldCount < 0 || fieldCount > CONST_SCHEMA_FIELD_COUNT_LIMIT) {
+                throw new DecodeException("Schema description has invalid field count " + fieldCount + ".");
+            }
+
+            String[] fieldNames = new String[fieldCount];
+
+            for (int index = 0; index < fieldCount; index++) {
+                fieldNames[index] = reader.readString(reader.readInt(), StandardCharsets.UTF_8);
+            }
+
+            return this.resolveSchema(fingerprint, fieldNames);
+        } else if (descriptionFlag != CONST_SCHEMA_WITHOUT_DESCRIPTION) {
+            throw new DecodeException(descriptionFlag + " is not registered schema description flag in dense format.");
+        }
+
+        return this.resolveSchema(fingerprint, null);
+    }
+
+    /**
+     * Returns the schema of the fingerprint, learning a schema from the described field names if needed
+     * A description must hash to its fingerprint and match the registered schema of the fingerprint, if any.
+     * Learned schemas are kept apart from the registered schemas, in a cache bounded to {@link #CONST_LEARNED_SCHEMA_LIMIT} schemas.
+     *
+     * @param fingerprint the fingerprint of the schema
+     * @param fieldNames  the described field names, or null if the schema is not described
+     * @return the schema
+     * @throws DecodeException if the description does not match the fingerprint, if the schema is not described and not known
+     */
+    synchronized @NotNull DenseSchema resolveSchema(long fingerprint, @NotNull String @Nullable [] fieldNames) throws DecodeException {
+        DenseSchema denseSchema = this.schemaMap.get(fingerprint);
+
+        if (denseSchema == null) {
+            denseSchema = this.learnedSchemaMap.get(fingerprint);
+        }
+
+        if (fieldNames != null) {
+            if (DenseSchema.getFingerprint(fieldNames) != fingerprint) {
+                throw new DecodeException("Schema description does not match its fingerprint " + Long.toHexString(fingerprint) + ". (schema mismatch)");
+            }
+
+            if (denseSchema != null) {
+                if (!Arrays.equals(denseSchema.getFieldNames(), fieldNames)) {
+                    throw new DecodeException("Schema description does not match the known schema " + Long.toHexString(fingerprint) + ". (schema mismatch)");
+                }
+
+                return denseSchema;
+            }
+
+            denseSchema = new DenseSchema(fieldNames, fingerprint);
+            this.learnedSchemaMap.put(fingerprint, denseSchema);
+
+            return denseSchema;
+        }
+
+        if (denseSchema == null) {
+            throw new DecodeException("Schema " + Long.toHexString(fingerprint) + " is not registered and not described in given data. (schema mismatch)");
+        }
+
+        return denseSchema;
+    }
+
+    /**
+     * Pushes a container onto the decode stack with its primitive context (size, offset, pending key)
+     *
+     * @param container the container to push
+     * @param size      the number of elements of the container
+     */
+    private void pushDecodeContext(@NotNull Object container, int size) {
+        int depth = this.decodeStack.getSize();
+
+        if (depth >= this.decodeSizeStack.length) {
+            int newLength = Math.max(this.decodeSizeStack.length << 1, depth + 1);
+
+            this.decodeSizeStack = Arrays.copyOf(this.decodeSizeStack, newLength);
+            this.decodeOffsetStack = Arrays.copyOf(this.decodeOffsetStack, newLength);
+            this.decodeKeyStack = Arrays.copyOf(this.decodeKeyStack, newLength);
+            this.decodeSchemaStack = Arrays.copyOf(this.decodeSchemaStack, newLength);
+        }
+
+        this.decodeSizeStack[depth] = size;
+        this.decodeOffsetStack[depth] = 0;
+        this.decodeKeyStack[depth] = CONTEXT_NULL_OBJECT;
+        this.decodeSchemaStack[depth] = null;
+
+        this.decodeStack.push(container);
+    }
+
     /**
      * Decodes one block to OpackValue (basic block protocol: header(1 byte), data (variable))
      * If data of the block to be decoded is OpackObject or OpackArray(excluding a primitive array),
@@ -673,8 +1516,19 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
      *                                  if an unknown block header is parsed
      */
     private @Nullable Object decodeBlock(@NotNull Reader reader) throws DecodeException, IOException {
-        byte readByte = (byte) reader.readByte();
+        return this.decodeBlock(reader, (byte) reader.readByte());
+    }
 
+    /**
+     * Decodes one block whose header has already been read
+     *
+     * @param reader   the reader to load an encoded result
+     * @param readByte the header of the block
+     * @return the decoded object or CONTEXT_BRANCH_CONTEXT_OBJECT
+     * @throws IllegalArgumentException if the type of data to be decoded is not allowed in dense format,
+     *                                  if an unknown block header is parsed
+     */
+    private @Nullable Object decodeBlock(@NotNull Reader reader, byte readByte) throws DecodeException, IOException {
         if (readByte == CONST_TYPE_BOOLEAN) {
             return (byte) reader.readByte() == 1;
         } else if (readByte == CONST_TYPE_BYTE) {
@@ -693,30 +1547,73 @@ public final class DenseCodec extends OpackCodec<Reader, Writer> {
             return reader.readDouble();
         } else if (readByte == CONST_TYPE_NULL) {
             return null;
+        } else if (readByte == CONST_TYPE_LATIN1_STRING) {
+            return this.readString(reader, StandardCharsets.ISO_8859_1);
         } else if (readByte == CONST_TYPE_STRING) {
-            int length = reader.readInt();
-            byte[] bytes = new byte[length];
-            reader.readBytes(bytes);
+            return this.readString(reader, StandardCharsets.UTF_8);
+        } else if (readByte == CONST_TYPE_BIG_INTEGER) {
+            byte form = (byte) reader.readByte();
+
+            if (form == CONST_BIG_NUMBER_LONG) {
+                return BigInteger.valueOf(reader.readLong());
+            }
+
+            return this.decodeBigIntegerBytes(reader, form);
+        } else if (readByte == CONST_TYPE_BIG_DECIMAL) {
+            int scale = reader.readInt();
+            byte form = (byte) reader.readByte();
+
+            if (form == CONST_BIG_NUMBER_LONG) {
+                return BigDecimal.valueOf(reader.readLong(), scale);
+            }
 
-            return new String(bytes, StandardCharsets.UTF_8);
-        } else if (readByte == CONST_TYPE_OPACK_OBJECT) {
+            return new BigDecimal(this.decodeBigIntegerBytes(reader, form), scale);
+        } else if (readByte == CONST_TYPE_OPACK_OBJECT || readByte == CONST_TYPE_SKIPPABLE_OPACK_OBJECT) {
             int size = reader.readInt();
+
+            if (readByte == CONST_TYPE_SKIPPABLE_OPACK_OBJECT) {
+                // Skip the byte length, only needed to skip this container
+                reader.readInt();
+            }
+
             OpackObject opackObject = new OpackObject(size);
 
-            decodeContextStack.push(new Object[]{size, 0, CONTEXT_NULL_OBJECT, CONTEXT_NULL_OBJECT});
-            decodeStack.push(opackObject);
+            this.pushDecodeContext(opackObject, size);
+
+            return CONTEXT_BRANCH_CONTEXT_OBJECT;
+        } else if (readByte == CONST_TYPE_SCHEMA_OPACK_OBJECT) {
+            DenseSchema denseSchema = this.decodeSchema(reader);
+            OpackObject opackObject = new OpackObject(denseSchema.getFieldCount());
+
+            this.pushDecodeContext(opackObject, denseSchema.getFieldCount());
+            this.decodeSchemaStack[this.decodeStack.getSize() - 1] = denseSchema;
 
             return CONTEXT_BRANCH_CONTEXT_OBJECT;
-        } else if (readByte == CONST_TYPE_OPACK_ARRAY) {
+        } else if (readByte == CONST_TYPE_OPACK_ARRAY || readByte == CONST_TYPE_SKIPPABLE_OPACK_ARRAY) {
             int length = reader.readInt();
 
+            if (readByte == CONST_TYPE_SKIPPABLE_OPACK_ARRAY) {
+                // Skip the byte length, only needed to skip this container
+                reader.readInt();
+            }
+
             byte nativeType = (byte) reader.readByte();
 
-            if (nativeType == CONST_NO_NATIVE_ARRAY) {
+            if (DensePackedArray.isPackedType(nativeType)) {
+                int byteLength = reader.readInt();
+
+                if (byteLength < 0) {
+                    throw new DecodeException("Length " + byteLength + " is negative in dense format. (corrupted data)");
+                }
+
+                byte[] packedBytes = new byte[byteLength];
+                reader.readBytes(packedBytes);
+
+                return OpackArray.createWithArrayObject(DensePackedArray.unpack(nativeType, length, packedBytes, 0, byteLength));
+            } else if (nativeType == CONST_NO_NATIVE_ARRAY) {
                 OpackArray opackArray = new OpackArray(length);
 
-                decodeContextStack.push(new Object[]{length, 0});
-                decodeStack.push(opackArray);
+                this.pushDecodeContext(opackArray, length);
 
                 return CONTEXT_BRANCH_CONTEXT_OBJECT;
             } else {
@@ -0,0 +1,875 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense;
+
+import com.realtimetech.opack.exception.DecodeException;
+import com.realtimetech.opack.util.StringCache;
+import com.realtimetech.opack.value.OpackArray;
+import com.realtimetech.opack.value.OpackObject;
+import com.realtimetech.opack.value.OpackValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.realtimetech.opack.codec.dense.DenseCodec.*;
+
+/**
+ * Decodes dense format data pushed in arbitrary chunks, without blocking and without buffering the whole message
+ * Values are built while bytes arrive, so only the value under construction (a string or native array being filled) is kept between chunks.
+ * This decoder is not thread-safe, use one decoder per connection.
+ */
+public class DenseFeedDecoder {
+    public enum Status {
+        /**
+         * All given bytes were consumed and the value is not complete yet
+         */
+        NEED_MORE,
+
+        /**
+         * A value is complete and can be taken by {@link #poll()}, the given bytes after the value are not consumed
+         */
+        COMPLETED
+    }
+
+    private static final int STATE_HEADER = 0;
+    private static final int STATE_TAG = 1;
+    private static final int STATE_FIXED = 2;
+    private static final int STATE_BYTES_LENGTH = 3;
+    private static final int STATE_BYTES = 4;
+    private static final int STATE_BIG_NUMBER_SCALE = 5;
+    private static final int STATE_BIG_NUMBER_FORM = 6;
+    private static final int STATE_CONTAINER_HEADER = 7;
+    private static final int STATE_SCHEMA_HEADER = 8;
+    private static final int STATE_SCHEMA_FIELD_COUNT = 9;
+    private static final int STATE_NATIVE_ARRAY = 10;
+    private static final int STATE_COMPLETED = 11;
+
+    private static final int[] NATIVE_ELEMENT_SIZES = new int[]{1, 1, 2, 2, 4, 4, 8, 8};
+
+    private static final Object CONTEXT_KEY_PENDING_OBJECT = new Object();
+
+    private final @NotNull DenseCodec denseCodec;
+
+    private final byte @NotNull [] classifierBuffer;
+    private final byte @NotNull [] versionBuffer;
+
+    private final byte @NotNull [] scratch;
+    private final @Nullable StringCache stringCache;
+    private int scratchLength;
+
+    private int state;
+    private byte tag;
+    private int fixedSize;
+
+    private byte @Nullable [] bytesTarget;
+    private int bytesOffset;
+    private int bigDecimalScale;
+
+    private long schemaFingerprint;
+    private @NotNull String @Nullable [] schemaFieldNames;
+    private int schemaFieldIndex;
+
+    private byte nativeType;
+    private @Nullable Object nativeArray;
+    private int nativeLength;
+    private int nativeIndex;
+    private boolean nativeValuePresent;
+
+    private @Nullable Object @NotNull [] containerStack;
+    private int @NotNull [] sizeStack;
+    private int @NotNull [] offsetStack;
+    private @Nullable Object @NotNull [] keyStack;
+    private @Nullable DenseSchema @NotNull [] schemaStack;
+    private int depth;
+
+    private @Nullable Object result;
+
+    /**
+     * Constructs a DenseFeedDecoder
+     *
+     * @param denseCodec the dense codec that provides the version policy and the registered schemas
+     */
+    public DenseFeedDecoder(@NotNull DenseCodec denseCodec) {
+        this.denseCodec = denseCodec;
+
+        this.classifierBuffer = new byte[4];
+        this.versionBuffer = new byte[2];
+
+        this.scratch = new byte[16];
+        this.stringCache = denseCodec.createStringCache();
+
+        this.containerStack = new Object[16];
+        this.sizeStack = new int[16];
+        this.offsetStack = new int[16];
+        this.keyStack = new Object[16];
+        this.schemaStack = new DenseSchema[16];
+
+        this.reset();
+    }
+
+    /**
+     * Discards the value under construction and waits for the header of the next value
+     */
+    public void reset() {
+        this.scratchLength = 0;
+        this.state = STATE_HEADER;
+
+        this.bytesTarget = null;
+        this.schemaFieldNames = null;
+        this.nativeArray = null;
+
+        Arrays.fill(this.containerStack, 0, this.depth, null);
+        Arrays.fill(this.keyStack, 0, this.depth, null);
+        Arrays.fill(this.schemaStack, 0, this.depth, null);
+        this.depth = 0;
+
+        this.result = null;
+    }
+
+    /**
+     * Returns true if a completed value is waiting to be taken by {@link #poll()}
+     *
+     * @return true if a value is completed
+     */
+    public boolean isCompleted() {
+        return this.state == STATE_COMPLETED;
+    }
+
+    /**
+     * Takes the completed value, and prepares to decode the next value
+     *
+     * @return the completed value
+     * @throws IllegalStateException if no value is completed
+     */
+    public @Nullable Object poll() {
+        if (this.state != STATE_COMPLETED) {
+            throw new IllegalStateException("No completed value, feed more bytes.");
+        }
+
+        Object value = this.result;
+
+        this.result = null;
+        this.state = STATE_HEADER;
+
+        return value;
+    }
+
+    /**
+     * Takes the completed value as {@link OpackValue OpackValue}
+     *
+     * @return the completed value
+     * @throws DecodeException       if the completed value is not an OpackValue
+     * @throws IllegalStateException if no value is completed
+     */
+    public @NotNull OpackValue pollValue() throws DecodeException {
+        Object value = this.poll();
+
+        if (value instanceof OpackValue) {
+            return (OpackValue) value;
+        }
+
+        throw new DecodeException("Successfully decoded but given input is not an OpackValue.");
+    }
+
+    /**
+     * Consumes the remaining bytes of the byte buffer until a value completes or the bytes run out
+     * The position of the byte buffer is advanced by the number of bytes consumed.
+     *
+     * @param byteBuffer the byte buffer that holds the received bytes
+     * @return {@link Status#COMPLETED} if a value is complete, {@link Status#NEED_MORE} otherwise
+     * @throws DecodeException if a problem occurs during decoding, the decoder must be {@link #reset() reset} afterwards
+     */
+    public @NotNull Status feed(@NotNull ByteBuffer byteBuffer) throws DecodeException {
+        while (this.state != STATE_COMPLETED) {
+            switch (this.state) {
+                case STATE_HEADER:
+                    if (!this.fill(byteBuffer, 6)) {
+                        return Status.NEED_MORE;
+                    }
+
+                    System.arraycopy(this.scratch, 0, this.classifierBuffer, 0, 4);
+                    System.arraycopy(this.scratch, 4, this.versionBuffer, 0, 2);
+                    this.denseCodec.verifyHeader(this.classifierBuffer, this.versionBuffer);
+
+                    this.state = STATE_TAG;
+                    break;
+                case STATE_TAG:
+                    if (!this.fill(byteBuffer, 1)) {
+                        return Status.NEED_MORE;
+                    }
+
+                    this.decodeTag(this.scratch[0]);
+                    break;
+                case STATE_FIXED:
+                    if (!this.fill(byteBuffer, this.fixedSize)) {
+                        return Status.NEED_MORE;
+                    }
+
+                    this.completeValue(this.decodeFixed());
+                    break;
+                case STATE_BYTES_LENGTH:
+                    if (!this.fill(byteBuffer, 4)) {
+                        return Status.NEED_MORE;
+                    }
+
+                    this.decodeBytes(byteBuffer, this.readScratchInt(0));
+                    break;
+                case STATE_BYTES:
+                    if (!this.fillBytes(byteBuffer)) {
+                        return Status.NEED_MORE;
+                    }
+
+                    byte[] bytes = this.bytesTarget;
+                    assert bytes != null;
+
+                    this.bytesTarget = null;
+                    this.completeBytes(bytes, 0, bytes.length);
+                    break;
+                case STATE_BIG_NUMBER_SCALE:
+                    if (!this.fill(byteBuffer, 4)) {
+                        return Status.NEED_MORE;
+                    }
+
+                    this.bigDecimalScale = this.readScratchInt(0);
+                    this.state = STATE_BIG_NUMBER_FORM;
+                    break;
+                case STATE_BIG_NUMBER_FORM:
+                    if (!this.fill(byteBuffer, 1)) {
+                        return Status.NEED_MORE;
+                    }
+
+                    if (this.scratch[0] == CONST_BIG_NUMBER_LONG) {
+                        this.fixedSize = 8;
+                        this.state = STATE_FIXED;
+                    } else if (this.scratch[0] == CONST_BIG_NUMBER_BYTES) {
+                        this.state = STATE_BYTES_LENGTH;
+                    } else {
+                        throw new DecodeException(this.scratch[0] + " is not registered big number form in dense format.");
+                    }
+                    break;
+                case STATE_CONTAINER_HEADER:
+                    if (!this.fill(byteBuffer, this.fixedSize)) {
+                        return Status.NEED_MORE;
+                    }
+
+                    this.decodeContainerHeader();
+                    break;
+                case STATE_SCHEMA_HEADER:
+                    if (!this.fill(byteBuffer, 9)) {
+                        return Status.NEED_MORE;
+                    }
+
+                    this.schemaFingerprint = this.readScratchLong(0);
+
+                    if (this.scratch[8] == CONST_SCHEMA_WITH_DESCRIPTION) {
+                        this.state = STATE_SCHEMA_FIELD_COUNT;
+                    } else if (this.scratch[8] == CONST_SCHEMA_WITHOUT_DESCRIPTION) {
+                        this.pushSchemaObject(this.denseCodec.resolveSchema(this.schemaFingerprint, null));
+                    } else {
+                        throw new DecodeException(this.scratch[8] + " is not registered schema description flag in dense format.");
+                    }
+                    break;
+                case STATE_SCHEMA_FIELD_COUNT:
+                    if (!this.fill(byteBuffer, 4)) {
+                        return Status.NEED_MORE;
+                    }
+
+                    int fieldCount = this.readScratchInt(0);
+
+                    if (fieldCount < 0 || fieldCount > CONST_SCHEMA_FIELD_COUNT_LIMIT) {
+                        throw new DecodeException("Schema description has invalid field count " + fieldCount + ".");
+                    }
+
+                    this.schemaFieldNames = new String[fieldCount];
+                    this.schemaFieldIndex = 0;
+
+                    if (this.schemaFieldNames.length == 0) {
+                        this.pushSchemaObject(this.denseCodec.resolveSchema(this.schemaFingerprint, this.schemaFieldNames));
+                    } else {
+                        this.state = STATE_BYTES_LENGTH;
+                    }
+                    break;
+                case STATE_NATIVE_ARRAY:
+                    if (!this.fillNativeArray(byteBuffer)) {
+                        return Status.NEED_MORE;
+                    }
+
+                    this.completeValue(OpackArray.createWithArrayObject(this.nativeArray));
+                    this.nativeArray = null;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown decoder state " + this.state + ".");
+            }
+        }
+
+        return Status.COMPLETED;
+    }
+
+    /**
+     * Collects the bytes of a fixed size field into the scratch, across chunks
+     *
+     * @param byteBuffer the byte buffer to consume
+     * @param size       the size of the field
+     * @return true if the field is complete in the scratch
+     */
+    private boolean fill(@NotNull ByteBuffer byteBuffer, int size) {
+        int length = Math.min(size - this.scratchLength, byteBuffer.remaining());
+
+        byteBuffer.get(this.scratch, this.scratchLength, length);
+        this.scratchLength += length;
+
+        if (this.scratchLength < size) {
+            return false;
+        }
+
+        this.scratchLength = 0;
+        return true;
+    }
+
+    /**
+     * Collects the bytes of a length-prefixed field into its target, across chunks
+     *
+     * @param byteBuffer the byte buffer to consume
+     * @return true if the field is complete in the target
+     */
+    private boolean fillBytes(@NotNull ByteBuffer byteBuffer) {
+        assert this.bytesTarget != null;
+
+        int length = Math.min(this.bytesTarget.length - this.bytesOffset, byteBuffer.remaining());
+
+        byteBuffer.get(this.bytesTarget, this.bytesOffset, length);
+        this.bytesOffset += length;
+
+        return this.bytesOffset == this.bytesTarget.length;
+    }
+
+    /**
+     * Reads a big-endian short from the scratch
+     *
+     * @param offset the offset in the scratch
+     * @return the short
+     */
+    private short readScratchShort(int offset) {
+        return (short) (((this.scratch[offset] & 0xFF) << 8) | (this.scratch[offset + 1] & 0xFF));
+    }
+
+    /**
+     * Reads a big-endian int from the scratch
+     *
+     * @param offset the offset in the scratch
+     * @return the int
+     */
+    private int readScratchInt(int offset) {
+        return ((this.scratch[offset] & 0xFF) << 24) |
+                ((this.scratch[offset + 1] & 0xFF) << 16) |
+                ((this.scratch[offset + 2] & 0xFF) << 8) |
+                (this.scratch[offset + 3] & 0xFF);
+    }
+
+    /**
+     * Reads a big-endian long from the scratch
+     *
+     * @param offset the offset in the scratch
+     * @return the long
+     */
+    private long readScratchLong(int offset) {
+        return ((long) this.readScratchInt(offset) << 32) | (this.readScratchInt(offset + 4) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Dispatches the block header to the state that reads the block
+     *
+     * @param readByte the block header
+     * @throws DecodeException if an unknown block header is read
+     */
+    private void decodeTag(byte readByte) throws DecodeException {
+        this.tag = readByte;
+
+        switch (readByte) {
+            case CONST_TYPE_BOOLEAN:
+            case CONST_TYPE_BYTE:
+                this.fixedSize = 1;
+                this.state = STATE_FIXED;
+                break;
+            case CONST_TYPE_CHARACTER:
+            case CONST_TYPE_SHORT:
+                this.fixedSize = 2;
+                this.state = STATE_FIXED;
+                break;
+            case CONST_TYPE_INTEGER:
+            case CONST_TYPE_FLOAT:
+                this.fixedSize = 4;
+                this.state = STATE_FIXED;
+                break;
+            case CONST_TYPE_LONG:
+            case CONST_TYPE_DOUBLE:
+                this.fixedSize = 8;
+                this.state = STATE_FIXED;
+                break;
+            case CONST_TYPE_NULL:
+                this.completeValue(null);
+                break;
+            case CONST_TYPE_STRING:
+            case CONST_TYPE_LATIN1_STRING:
+                this.state = STATE_BYTES_LENGTH;
+                break;
+            case CONST_TYPE_BIG_INTEGER:
+                this.state = STATE_BIG_NUMBER_FORM;
+                break;
+            case CONST_TYPE_BIG_DECIMAL:
+                this.state = STATE_BIG_NUMBER_SCALE;
+                break;
+            case CONST_TYPE_OPACK_OBJECT:
+                this.fixedSize = 4;
+                this.state = STATE_CONTAINER_HEADER;
+                break;
+            case CONST_TYPE_SKIPPABLE_OPACK_OBJECT:
+                this.fixedSize = 8;
+                this.state = STATE_CONTAINER_HEADER;
+                break;
+            case CONST_TYPE_OPACK_ARRAY:
+                this.fixedSize = 5;
+                this.state = STATE_CONTAINER_HEADER;
+                break;
+            case CONST_TYPE_SKIPPABLE_OPACK_ARRAY:
+                this.fixedSize = 9;
+                this.state = STATE_CONTAINER_HEADER;
+                break;
+            case CONST_TYPE_SCHEMA_OPACK_OBJECT:
+                this.state = STATE_SCHEMA_HEADER;
+                break;
+            default:
+                throw new DecodeException(readByte + " is not registered block header binary in dense codec. (unknown block header)");
+        }
+    }
+
+    /**
+     * Decodes the fixed size block collected in the scratch
+     *
+     * @return the decoded value
+     */
+    private @NotNull Object decodeFixed() {
+        switch (this.tag) {
+            case CONST_TYPE_BOOLEAN:
+                return this.scratch[0] == 1;
+            case CONST_TYPE_BYTE:
+                return this.scratch[0];
+            case CONST_TYPE_CHARACTER:
+                return (char) this.readScratchShort(0);
+            case CONST_TYPE_SHORT:
+                return this.readScratchShort(0);
+            case CONST_TYPE_INTEGER:
+                return this.readScratchInt(0);
+            case CONST_TYPE_FLOAT:
+                return Float.intBitsToFloat(this.readScratchInt(0));
+            case CONST_TYPE_LONG:
+                return this.readScratchLong(0);
+            case CONST_TYPE_DOUBLE:
+                return Double.longBitsToDouble(this.readScratchLong(0));
+            case CONST_TYPE_BIG_INTEGER:
+                return BigInteger.valueOf(this.readScratchLong(0));
+            case CONST_TYPE_BIG_DECIMAL:
+                return BigDecimal.valueOf(this.readScratchLong(0), this.bigDecimalScale);
+            default:
+                throw new IllegalStateException(this.tag + " is not a fixed size block header.");
+        }
+    }
+
+    /**
+     * Starts reading a length-prefixed field, decoding straight from the byte buffer if the field is already complete in it
+     *
+     * @param byteBuffer the byte buffer to consume
+     * @param length     the length of the field
+     * @throws DecodeException if the length is negative, or the completed field is invalid
+     */
+    private void decodeBytes(@NotNull ByteBuffer byteBuffer, int length) throws DecodeException {
+        if (length < 0) {
+            throw new DecodeException("Length " + length + " is negative in dense format. (corrupted data)");
+        }
+
+        if (byteBuffer.hasArray() && byteBuffer.remaining() >= length) {
+            int position = byteBuffer.position();
+
+            byteBuffer.position(position + length);
+            this.completeBytes(byteBuffer.array(), byteBuffer.arrayOffset() + position, length);
+        } else {
+            this.bytesTarget = new byte[length];
+            this.bytesOffset = 0;
+            this.state = STATE_BYTES;
+        }
+    }
+
+    /**
+     * Reads the two's-complement bytes of a big number
+     *
+     * @param bytes  the byte array that holds the bytes
+     * @param offset the offset of the bytes
+     * @param length the number of bytes
+     * @return the big integer
+     * @throws DecodeException if there are no bytes
+     */
+    private @NotNull BigInteger decodeBigInteger(byte @NotNull [] bytes, int offset, int length) throws DecodeException {
+        if (length == 0) {
+            throw new DecodeException("Big number has no bytes in dense format. (corrupted data)");
+        }
+
+        return new BigInteger(bytes, offset, length);
+    }
+
+    /**
+     * Completes the length-prefixed field
+     *
+     * @param bytes  the byte array that holds the field
+     * @param offset the offset of the field
+     * @param length the length of the field
+     * @throws DecodeException if the completed field is invalid
+     */
+    private void completeBytes(byte @NotNull [] bytes, int offset, int length) throws DecodeException {
+        switch (this.tag) {
+            case CONST_TYPE_STRING:
+                this.completeValue(this.stringCache != null ? this.stringCache.get(bytes, offset, length, StandardCharsets.UTF_8) : new String(bytes, offset, length, StandardCharsets.UTF_8));
+                break;
+            case CONST_TYPE_LATIN1_STRING:
+                this.completeValue(this.stringCache != null ? this.stringCache.get(bytes, offset, length, StandardCharsets.ISO_8859_1) : new String(bytes, offset, length, StandardCharsets.ISO_8859_1));
+                break;
+            case CONST_TYPE_BIG_INTEGER:
+                this.completeValue(this.decodeBigInteger(bytes, offset, length));
+                break;
+            case CONST_TYPE_BIG_DECIMAL:
+                this.completeValue(new BigDecimal(this.decodeBigInteger(bytes, offset, length), this.bigDecimalScale));
+                break;
+            case CONST_TYPE_SCHEMA_OPACK_OBJECT:
+                String[] fieldNames = this.schemaFieldNames;
+                assert fieldNames != null;
+
+                fieldNames[this.schemaFieldIndex++] = new String(bytes, offset, length, StandardCharsets.UTF_8);
+
+                if (this.schemaFieldIndex < fieldNames.length) {
+                    this.state = STATE_BYTES_LENGTH;
+                } else {
+                    this.schemaFieldNames = null;
+                    this.pushSchemaObject(this.denseCodec.resolveSchema(this.schemaFingerprint, fieldNames));
+                }
+                break;
+            case CONST_TYPE_OPACK_ARRAY:
+            case CONST_TYPE_SKIPPABLE_OPACK_ARRAY:
+                this.completeValue(OpackArray.createWithArrayObject(DensePackedArray.unpack(this.nativeType, this.nativeLength, bytes, offset, length)));
+                break;
+            default:
+                throw new IllegalStateException(this.tag + " is not a length-prefixed block header.");
+        }
+    }
+
+    /**
+     * Decodes the container header collected in the scratch, and starts the container
+     *
+     * @throws DecodeException if the size is negative, if an unknown native array type is read
+     */
+    private void decodeContainerHeader() throws DecodeException {
+        int size = this.readScratchInt(0);
+
+        if (size < 0) {
+            throw new DecodeException("Size " + size + " is negative in dense format. (corrupted data)");
+        }
+
+        if (this.tag == CONST_TYPE_OPACK_OBJECT || this.tag == CONST_TYPE_SKIPPABLE_OPACK_OBJECT) {
+            this.pushContainer(new OpackObject(size), size, null);
+            return;
+        }
+
+        byte type = this.scratch[this.fixedSize - 1];
+
+        if (type == CONST_NO_NATIVE_ARRAY) {
+            this.pushContainer(new OpackArray(size), size, null);
+            return;
+        }
+
+        if (DensePackedArray.isPackedType(type)) {
+            this.nativeType = type;
+            this.nativeLength = size;
+            this.state = STATE_BYTES_LENGTH;
+            return;
+        }
+
+        this.nativeType = type;
+        this.nativeLength = size;
+        this.nativeIndex = 0;
+        this.nativeValuePresent = false;
+
+        switch (type) {
+            case CONST_PRIMITIVE_BOOLEAN_NATIVE_ARRAY:
+                this.nativeArray = new boolean[size];
+                break;
+            case CONST_PRIMITIVE_BYTE_NATIVE_ARRAY:
+                this.nativeArray = new byte[size];
+                break;
+            case CONST_PRIMITIVE_CHARACTER_NATIVE_ARRAY:
+                this.nativeArray = new char[size];
+                break;
+            case CONST_PRIMITIVE_SHORT_NATIVE_ARRAY:
+                this.nativeArray = new short[size];
+                break;
+            case CONST_PRIMITIVE_INTEGER_NATIVE_ARRAY:
+                this.nativeArray = new int[size];
+                break;
+            case CONST_PRIMITIVE_FLOAT_NATIVE_ARRAY:
+                this.nativeArray = new float[size];
+                break;
+            case CONST_PRIMITIVE_LONG_NATIVE_ARRAY:
+                this.nativeArray = new long[size];
+                break;
+            case CONST_PRIMITIVE_DOUBLE_NATIVE_ARRAY:
+                this.nativeArray = new double[size];
+                break;
+            case CONST_WRAPPER_BOOLEAN_NATIVE_ARRAY:
+                this.nativeArray = new Boolean[size];
+                break;
+            case CONST_WRAPPER_BYTE_NATIVE_ARRAY:
+                this.nativeArray = new Byte[size];
+                break;
+            case CONST_WRAPPER_CHARACTER_NATIVE_ARRAY:
+                this.nativeArray = new Character[size];
+                break;
+            case CONST_WRAPPER_SHORT_NATIVE_ARRAY:
+                this.nativeArray = new Short[size];
+                break;
+            case CONST_WRAPPER_INTEGER_NATIVE_ARRAY:
+                this.nativeArray = new Integer[size];
+                break;
+            case CONST_WRAPPER_FLOAT_NATIVE_ARRAY:
+                this.nativeArray = new Float[size];
+                break;
+            case CONST_WRAPPER_LONG_NATIVE_ARRAY:
+                this.nativeArray = new Long[size];
+                break;
+            case CONST_WRAPPER_DOUBLE_NATIVE_ARRAY:
+                this.nativeArray = new Double[size];
+                break;
+            default:
+                throw new DecodeException(type + " is not registered native array type binary in dense format. (unknown native array type)");
+        }
+
+        this.state = STATE_NATIVE_ARRAY;
+    }
+
+    /**
+     * Fills the elements of the native array under construction, resuming from the last filled element
+     *
+     * @param byteBuffer the byte buffer to consume
+     * @return true if all elements are filled
+     */
+    private boolean fillNativeArray(@NotNull ByteBuffer byteBuffer) {
+        if (this.nativeType == CONST_PRIMITIVE_BYTE_NATIVE_ARRAY) {
+            byte[] array = (byte[]) this.nativeArray;
+            assert array != null;
+
+            int length = Math.min(this.nativeLength - this.nativeIndex, byteBuffer.remaining());
+
+            byteBuffer.get(array, this.nativeIndex, length);
+            this.nativeIndex += length;
+
+            return this.nativeIndex == this.nativeLength;
+        }
+
+        boolean wrapper = this.nativeType >= CONST_WRAPPER_BOOLEAN_NATIVE_ARRAY;
+        int elementSize = NATIVE_ELEMENT_SIZES[this.nativeType & 0x07];
+
+        while (this.nativeIndex < this.nativeLength) {
+            if (wrapper && !this.nativeValuePresent) {
+                if (!this.fill(byteBuffer, 1)) {
+                    return false;
+                }
+
+                if (this.scratch[0] != 1) {
+                    this.nativeIndex++;
+                    continue;
+                }
+
+                this.nativeValuePresent = true;
+            }
+
+            if (!this.fill(byteBuffer, elementSize)) {
+                return false;
+            }
+
+            this.setNativeElement();
+
+            this.nativeValuePresent = false;
+            this.nativeIndex++;
+        }
+
+        return true;
+    }
+
+    /**
+     * Sets the element collected in the scratch into the native array under construction
+     */
+    private void setNativeElement() {
+        Object array = this.nativeArray;
+        int index = this.nativeIndex;
+
+        switch (this.nativeType) {
+            case CONST_PRIMITIVE_BOOLEAN_NATIVE_ARRAY:
+                ((boolean[]) array)[index] = this.scratch[0] == 1;
+                break;
+            case CONST_PRIMITIVE_CHARACTER_NATIVE_ARRAY:
+                ((char[]) array)[index] = (char) this.readScratchShort(0);
+                break;
+            case CONST_PRIMITIVE_SHORT_NATIVE_ARRAY:
+                ((short[]) array)[index] = this.readScratchShort(0);
+                break;
+            case CONST_PRIMITIVE_INTEGER_NATIVE_ARRAY:
+                ((int[]) array)[index] = this.readScratchInt(0);
+                break;
+            case CONST_PRIMITIVE_FLOAT_NATIVE_ARRAY:
+                ((float[]) array)[index] = Float.intBitsToFloat(this.readScratchInt(0));
+                break;
+            case CONST_PRIMITIVE_LONG_NATIVE_ARRAY:
+                ((long[]) array)[index] = this.readScratchLong(0);
+                break;
+            case CONST_PRIMITIVE_DOUBLE_NATIVE_ARRAY:
+                ((double[]) array)[index] = Double.longBitsToDouble(this.readScratchLong(0));
+                break;
+            case CONST_WRAPPER_BOOLEAN_NATIVE_ARRAY:
+                ((Boolean[]) array)[index] = this.scratch[0] == 1;
+                break;
+            case CONST_WRAPPER_BYTE_NATIVE_ARRAY:
+                ((Byte[]) array)[index] = this.scratch[0];
+                break;
+            case CONST_WRAPPER_CHARACTER_NATIVE_ARRAY:
+                ((Character[]) array)[index] = (char) this.readScratchShort(0);
+                break;
+            case CONST_WRAPPER_SHORT_NATIVE_ARRAY:
+                ((Short[]) array)[index] = this.readScratchShort(0);
+                break;
+            case CONST_WRAPPER_INTEGER_NATIVE_ARRAY:
+                ((Integer[]) array)[index] = this.readScratchInt(0);
+                break;
+            case CONST_WRAPPER_FLOAT_NATIVE_ARRAY:
+                ((Float[]) array)[index] = Float.intBitsToFloat(this.readScratchInt(0));
+                break;
+            case CONST_WRAPPER_LONG_NATIVE_ARRAY:
+                ((Long[]) array)[index] = this.readScratchLong(0);
+                break;
+            case CONST_WRAPPER_DOUBLE_NATIVE_ARRAY:
+                ((Double[]) array)[index] = Double.longBitsToDouble(this.readScratchLong(0));
+                break;
+            default:
+                throw new IllegalStateException(this.nativeType + " is not a native array type.");
+        }
+    }
+
+    /**
+     * Starts a schema object whose values follow in schema order
+     *
+     * @param denseSchema the schema of the object
+     */
+    private void pushSchemaObject(@NotNull DenseSchema denseSchema) {
+        int fieldCount = denseSchema.getFieldCount();
+
+        this.pushContainer(new OpackObject(fieldCount), fieldCount, denseSchema);
+    }
+
+    /**
+     * Pushes a container onto the container stack, or completes it immediately if it is empty
+     *
+     * @param container   the container to push
+     * @param size        the number of elements of the container
+     * @param denseSchema the schema of the container, or null
+     */
+    private void pushContainer(@NotNull Object container, int size, @Nullable DenseSchema denseSchema) {
+        if (size == 0) {
+            this.completeValue(container);
+            return;
+        }
+
+        if (this.depth == this.containerStack.length) {
+            int newLength = this.depth << 1;
+
+            this.containerStack = Arrays.copyOf(this.containerStack, newLength);
+            this.sizeStack = Arrays.copyOf(this.sizeStack, newLength);
+            this.offsetStack = Arrays.copyOf(this.offsetStack, newLength);
+            this.keyStack = Arrays.copyOf(this.keyStack, newLength);
+            this.schemaStack = Arrays.copyOf(this.schemaStack, newLength);
+        }
+
+        this.containerStack[this.depth] = container;
+        this.sizeStack[this.depth] = size;
+        this.offsetStack[this.depth] = 0;
+        this.keyStack[this.depth] = CONTEXT_KEY_PENDING_OBJECT;
+        this.schemaStack[this.depth] = denseSchema;
+        this.depth++;
+
+        this.state = STATE_TAG;
+    }
+
+    /**
+     * Puts the completed value into its parent container, completing every container filled up by it
+     *
+     * @param value the completed value
+     */
+    private void completeValue(@Nullable Object value) {
+        while (this.depth > 0) {
+            int top = this.depth - 1;
+            Object container = this.containerStack[top];
+
+            if (container instanceof OpackObject) {
+                DenseSchema denseSchema = this.schemaStack[top];
+
+                if (denseSchema != null) {
+                    ((OpackObject) container).put(denseSchema.getFieldName(this.offsetStack[top]), value);
+                } else if (this.keyStack[top] == CONTEXT_KEY_PENDING_OBJECT) {
+                    this.keyStack[top] = value;
+                    this.state = STATE_TAG;
+                    return;
+                } else {
+                    ((OpackObject) container).put(this.keyStack[top], value);
+                    this.keyStack[top] = CONTEXT_KEY_PENDING_OBJECT;
+                }
+            } else {
+                assert container != null;
+                ((OpackArray) container).add(value);
+            }
+
+            if (++this.offsetStack[top] < this.sizeStack[top]) {
+                this.state = STATE_TAG;
+                return;
+            }
+
+            this.containerStack[top] = null;
+            this.keyStack[top] = null;
+            this.schemaStack[top] = null;
+            this.depth = top;
+
+            value = container;
+        }
+
+        this.result = value;
+        this.state = STATE_COMPLETED;
+    }
+}
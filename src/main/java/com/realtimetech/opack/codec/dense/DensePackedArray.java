@@ -0,0 +1,1085 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense;
+
+import com.realtimetech.opack.exception.DecodeException;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.realtimetech.opack.codec.dense.DenseCodec.*;
+
+/**
+ * Bit packed encodings of native arrays in dense format, written as a byte length followed by the packed bytes
+ */
+final class DensePackedArray {
+    /**
+     * Writes bits most significant first into a growing byte array
+     */
+    static final class BitWriter {
+        private byte @NotNull [] bytes;
+        private int length;
+
+        private long buffer;
+        private int bufferBits;
+
+        BitWriter() {
+            this.bytes = new byte[256];
+        }
+
+        void reset() {
+            this.length = 0;
+            this.buffer = 0;
+            this.bufferBits = 0;
+        }
+
+        byte @NotNull [] getBytes() {
+            return this.bytes;
+        }
+
+        /**
+         * Returns the number of bytes written, once {@link #finish()} was called
+         *
+         * @return the byte length
+         */
+        int getLength() {
+            return this.length;
+        }
+
+        /**
+         * Returns the number of bits written so far
+         *
+         * @return the bit length
+         */
+        long getBitLength() {
+            return (long) this.length * 8 + this.bufferBits;
+        }
+
+        /**
+         * Writes the low bits of the value
+         *
+         * @param value the value
+         * @param count the number of bits to write, from 0 to 64
+         */
+        void write(long value, int count) {
+            if (count == 0) {
+                return;
+            }
+
+            if (count < 64) {
+                value &= (1L << count) - 1;
+            }
+
+            int free = 64 - this.bufferBits;
+
+            if (count < free) {
+                this.buffer |= value << (free - count);
+                this.bufferBits += count;
+            } else {
+                int remaining = count - free;
+
+                this.buffer |= value >>> remaining;
+                this.flushBuffer();
+
+                if (remaining > 0) {
+                    this.buffer = value << (64 - remaining);
+                    this.bufferBits = remaining;
+                }
+            }
+        }
+
+        private void flushBuffer() {
+            if (this.length + 8 > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, this.bytes.length << 1);
+            }
+
+            long buffer = this.buffer;
+
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                this.bytes[this.length++] = (byte) (buffer >>> shift);
+            }
+
+            this.buffer = 0;
+            this.bufferBits = 0;
+        }
+
+        /**
+         * Pads the pending bits with zero bits up to the next byte boundary
+         */
+        void align() {
+            int padding = (8 - (this.bufferBits & 7)) & 7;
+
+            this.write(0, padding);
+        }
+
+        /**
+         * Writes the pending bits, padding the last byte with zero bits
+         */
+        void finish() {
+            if (this.length + 8 > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, this.bytes.length << 1);
+            }
+
+            long buffer = this.buffer;
+
+            for (int shift = 56; this.bufferBits > 0; shift -= 8) {
+                this.bytes[this.length++] = (byte) (buffer >>> shift);
+                this.bufferBits -= Math.min(8, this.bufferBits);
+            }
+
+            this.buffer = 0;
+        }
+    }
+
+    /**
+     * Reads bits most significant first from a byte array region
+     */
+    static final class BitReader {
+        private final byte @NotNull [] bytes;
+        private final int end;
+        private int index;
+
+        private long buffer;
+        private int bufferBits;
+
+        BitReader(byte @NotNull [] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.end = offset + length;
+            this.index = offset;
+        }
+
+        private void refill() {
+            this.buffer = 0;
+            this.bufferBits = 0;
+
+            while (this.bufferBits <= 56 && this.index < this.end) {
+                this.buffer |= (long) (this.bytes[this.index++] & 0xFF) << (56 - this.bufferBits);
+                this.bufferBits += 8;
+            }
+        }
+
+        /**
+         * Reads bits as the low bits of a value
+         *
+         * @param count the number of bits to read, from 0 to 64
+         * @return the value
+         * @throws DecodeException if the packed bytes end before the bits
+         */
+        long read(int count) throws DecodeException {
+            if (count == 0) {
+                return 0;
+            }
+
+            if (count < this.bufferBits) {
+                long value = this.buffer >>> (64 - count);
+
+                this.buffer <<= count;
+                this.bufferBits -= count;
+
+                return value;
+            }
+
+            long value = this.bufferBits == 0 ? 0 : this.buffer >>> (64 - this.bufferBits);
+            int need = count - this.bufferBits;
+
+            this.refill();
+
+            if (need == 0) {
+                return value;
+            }
+
+            if (this.bufferBits < need) {
+                throw new DecodeException("Packed native array is truncated in dense format. (corrupted data)");
+            }
+
+            value = (need == 64 ? 0 : value << need) | (this.buffer >>> (64 - need));
+
+            this.buffer = need == 64 ? 0 : this.buffer << need;
+            this.bufferBits -= need;
+
+            return value;
+        }
+
+        /**
+         * Reads a single bit
+         *
+         * @return true if the bit is set
+         * @throws DecodeException if the packed bytes end before the bit
+         */
+        boolean readBit() throws DecodeException {
+            if (this.bufferBits == 0) {
+                this.refill();
+
+                if (this.bufferBits == 0) {
+                    throw new DecodeException("Packed native array is truncated in dense format. (corrupted data)");
+                }
+            }
+
+            boolean bit = this.buffer < 0;
+
+            this.buffer <<= 1;
+            this.bufferBits--;
+
+            return bit;
+        }
+    }
+
+    private static final int INTEGER_BLOCK_SIZE = 128;
+
+    private static final int SCHEME_RAW = 0;
+    private static final int SCHEME_DELTA_VARINT = 1;
+    private static final int SCHEME_FRAME_OF_REFERENCE = 2;
+    private static final int SCHEME_DELTA_FRAME_OF_REFERENCE = 3;
+    private static final int SCHEME_RUN_LENGTH = 4;
+    private static final int SCHEME_BITS = 3;
+    private static final int BIT_WIDTH_BITS = 7;
+
+    private DensePackedArray() {
+    }
+
+    /**
+     * Returns whether the native array type is a bit packed type, with a byte length before its elements
+     *
+     * @param nativeType the native array type
+     * @return true if the type is bit packed
+     */
+    static boolean isPackedType(byte nativeType) {
+        return nativeType == CONST_XOR_FLOAT_NATIVE_ARRAY || nativeType == CONST_XOR_DOUBLE_NATIVE_ARRAY ||
+                nativeType == CONST_PACKED_INTEGER_NATIVE_ARRAY || nativeType == CONST_PACKED_LONG_NATIVE_ARRAY ||
+                isBitmapType(nativeType);
+    }
+
+    private static boolean isBitmapType(byte nativeType) {
+        return nativeType == CONST_BITMAP_BOOLEAN_NATIVE_ARRAY ||
+                (nativeType >= CONST_BITMAP_WRAPPER_BOOLEAN_NATIVE_ARRAY && nativeType <= CONST_BITMAP_WRAPPER_DOUBLE_NATIVE_ARRAY);
+    }
+
+    /**
+     * Returns the bitmap type of the native array class, if it has one
+     *
+     * @param arrayType the native array class
+     * @return the bitmap type, {@link DenseCodec#CONST_NO_NATIVE_ARRAY} if the class has no bitmap type
+     */
+    static byte getBitmapType(@NotNull Class<?> arrayType) {
+        if (arrayType == boolean[].class) {
+            return CONST_BITMAP_BOOLEAN_NATIVE_ARRAY;
+        } else if (arrayType == Boolean[].class) {
+            return CONST_BITMAP_WRAPPER_BOOLEAN_NATIVE_ARRAY;
+        } else if (arrayType == Byte[].class) {
+            return CONST_BITMAP_WRAPPER_BYTE_NATIVE_ARRAY;
+        } else if (arrayType == Character[].class) {
+            return CONST_BITMAP_WRAPPER_CHARACTER_NATIVE_ARRAY;
+        } else if (arrayType == Short[].class) {
+            return CONST_BITMAP_WRAPPER_SHORT_NATIVE_ARRAY;
+        } else if (arrayType == Integer[].class) {
+            return CONST_BITMAP_WRAPPER_INTEGER_NATIVE_ARRAY;
+        } else if (arrayType == Float[].class) {
+            return CONST_BITMAP_WRAPPER_FLOAT_NATIVE_ARRAY;
+        } else if (arrayType == Long[].class) {
+            return CONST_BITMAP_WRAPPER_LONG_NATIVE_ARRAY;
+        } else if (arrayType == Double[].class) {
+            return CONST_BITMAP_WRAPPER_DOUBLE_NATIVE_ARRAY;
+        }
+
+        return CONST_NO_NATIVE_ARRAY;
+    }
+
+    /**
+     * Returns the byte size of a present element of the wrapper bitmap type, 0 for booleans which take a bit
+     */
+    private static int getBitmapElementSize(byte nativeType) {
+        switch (nativeType) {
+            case CONST_BITMAP_WRAPPER_BYTE_NATIVE_ARRAY:
+                return 1;
+            case CONST_BITMAP_WRAPPER_CHARACTER_NATIVE_ARRAY:
+            case CONST_BITMAP_WRAPPER_SHORT_NATIVE_ARRAY:
+                return 2;
+            case CONST_BITMAP_WRAPPER_INTEGER_NATIVE_ARRAY:
+            case CONST_BITMAP_WRAPPER_FLOAT_NATIVE_ARRAY:
+                return 4;
+            case CONST_BITMAP_WRAPPER_LONG_NATIVE_ARRAY:
+            case CONST_BITMAP_WRAPPER_DOUBLE_NATIVE_ARRAY:
+                return 8;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Returns whether the bitmap layout is smaller than the plain layout for an array of the length
+     * The plain layout takes a byte per boolean or per presence flag, the bitmap layout takes a byte length and a bit per element.
+     *
+     * @param length the number of elements
+     * @return true if the bitmap layout is smaller
+     */
+    static boolean isBitmapSmaller(int length) {
+        return 4 + (length + 7L) / 8 < length;
+    }
+
+    /**
+     * Packs the array as a bitmap
+     * A boolean array takes a bit per element. A wrapper array takes a leading bitmap of the non-null elements,
+     * followed by the non-null values written contiguously from the next byte boundary, Boolean values again as bits.
+     *
+     * @param arrayObject the array to pack
+     * @param nativeType  the bitmap type of the array, see {@link #getBitmapType(Class)}
+     * @param bitWriter   the bit writer to write into
+     */
+    static void packBitmap(@NotNull Object arrayObject, byte nativeType, @NotNull BitWriter bitWriter) {
+        if (nativeType == CONST_BITMAP_BOOLEAN_NATIVE_ARRAY) {
+            boolean[] array = (boolean[]) arrayObject;
+
+            for (int start = 0; start < array.length; start += 8) {
+                int count = Math.min(8, array.length - start);
+                int bits = 0;
+
+                for (int index = 0; index < count; index++) {
+                    bits = (bits << 1) | (array[start + index] ? 1 : 0);
+                }
+
+                bitWriter.write(bits, count);
+            }
+
+            return;
+        }
+
+        Object[] array = (Object[]) arrayObject;
+
+        for (int start = 0; start < array.length; start += 8) {
+            int count = Math.min(8, array.length - start);
+            int bits = 0;
+
+            for (int index = 0; index < count; index++) {
+                bits = (bits << 1) | (array[start + index] != null ? 1 : 0);
+            }
+
+            bitWriter.write(bits, count);
+        }
+
+        bitWriter.align();
+
+        for (Object value : array) {
+            if (value == null) {
+                continue;
+            }
+
+            switch (nativeType) {
+                case CONST_BITMAP_WRAPPER_BOOLEAN_NATIVE_ARRAY:
+                    bitWriter.write((Boolean) value ? 1 : 0, 1);
+                    break;
+                case CONST_BITMAP_WRAPPER_BYTE_NATIVE_ARRAY:
+                    bitWriter.write((Byte) value, 8);
+                    break;
+                case CONST_BITMAP_WRAPPER_CHARACTER_NATIVE_ARRAY:
+                    bitWriter.write((Character) value, 16);
+                    break;
+                case CONST_BITMAP_WRAPPER_SHORT_NATIVE_ARRAY:
+                    bitWriter.write((Short) value, 16);
+                    break;
+                case CONST_BITMAP_WRAPPER_INTEGER_NATIVE_ARRAY:
+                    bitWriter.write((Integer) value, 32);
+                    break;
+                case CONST_BITMAP_WRAPPER_FLOAT_NATIVE_ARRAY:
+                    bitWriter.write(Float.floatToRawIntBits((Float) value), 32);
+                    break;
+                case CONST_BITMAP_WRAPPER_LONG_NATIVE_ARRAY:
+                    bitWriter.write((Long) value, 64);
+                    break;
+                case CONST_BITMAP_WRAPPER_DOUBLE_NATIVE_ARRAY:
+                    bitWriter.write(Double.doubleToRawLongBits((Double) value), 64);
+                    break;
+            }
+        }
+    }
+
+    private static boolean isBitSet(byte @NotNull [] bytes, int offset, int index) {
+        return (bytes[offset + (index >>> 3)] << (index & 7) & 0x80) != 0;
+    }
+
+    private static @NotNull Object unpackBitmap(byte nativeType, int length, byte @NotNull [] bytes, int offset, int byteLength) throws DecodeException {
+        if (length < 0) {
+            throw new DecodeException("Bitmap native array has a negative length " + length + " in dense format. (corrupted data)");
+        }
+
+        long bitmapLength = (length + 7L) >>> 3;
+
+        if (bitmapLength > byteLength) {
+            throw new DecodeException("Bitmap native array is truncated in dense format. (corrupted data)");
+        }
+
+        if (nativeType == CONST_BITMAP_BOOLEAN_NATIVE_ARRAY) {
+            boolean[] array = new boolean[length];
+
+            for (int index = 0; index < length; index++) {
+                array[index] = isBitSet(bytes, offset, index);
+            }
+
+            return array;
+        }
+
+        int present = 0;
+
+        for (int index = 0; index < length; index++) {
+            if (isBitSet(bytes, offset, index)) {
+                present++;
+            }
+        }
+
+        int valueOffset = offset + (int) bitmapLength;
+        int valueLength = byteLength - (int) bitmapLength;
+        long requiredLength = nativeType == CONST_BITMAP_WRAPPER_BOOLEAN_NATIVE_ARRAY ? (present + 7L) >>> 3 : (long) present * getBitmapElementSize(nativeType);
+
+        if (requiredLength > valueLength) {
+            throw new DecodeException("Bitmap native array is truncated in dense format. (corrupted data)");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, valueOffset, valueLength);
+
+        switch (nativeType) {
+            case CONST_BITMAP_WRAPPER_BOOLEAN_NATIVE_ARRAY: {
+                Boolean[] array = new Boolean[length];
+
+                for (int index = 0, valueIndex = 0; index < length; index++) {
+                    if (isBitSet(bytes, offset, index)) {
+                        array[index] = isBitSet(bytes, valueOffset, valueIndex++);
+                    }
+                }
+
+                return array;
+            }
+            case CONST_BITMAP_WRAPPER_BYTE_NATIVE_ARRAY: {
+                Byte[] array = new Byte[length];
+
+                for (int index = 0; index < length; index++) {
+                    if (isBitSet(bytes, offset, index)) {
+                        array[index] = buffer.get();
+                    }
+                }
+
+                return array;
+            }
+            case CONST_BITMAP_WRAPPER_CHARACTER_NATIVE_ARRAY: {
+                Character[] array = new Character[length];
+
+                for (int index = 0; index < length; index++) {
+                    if (isBitSet(bytes, offset, index)) {
+                        array[index] = buffer.getChar();
+                    }
+                }
+
+                return array;
+            }
+            case CONST_BITMAP_WRAPPER_SHORT_NATIVE_ARRAY: {
+                Short[] array = new Short[length];
+
+                for (int index = 0; index < length; index++) {
+                    if (isBitSet(bytes, offset, index)) {
+                        array[index] = buffer.getShort();
+                    }
+                }
+
+                return array;
+            }
+            case CONST_BITMAP_WRAPPER_INTEGER_NATIVE_ARRAY: {
+                Integer[] array = new Integer[length];
+
+                for (int index = 0; index < length; index++) {
+                    if (isBitSet(bytes, offset, index)) {
+                        array[index] = buffer.getInt();
+                    }
+                }
+
+                return array;
+            }
+            case CONST_BITMAP_WRAPPER_FLOAT_NATIVE_ARRAY: {
+                Float[] array = new Float[length];
+
+                for (int index = 0; index < length; index++) {
+                    if (isBitSet(bytes, offset, index)) {
+                        array[index] = buffer.getFloat();
+                    }
+                }
+
+                return array;
+            }
+            case CONST_BITMAP_WRAPPER_LONG_NATIVE_ARRAY: {
+                Long[] array = new Long[length];
+
+                for (int index = 0; index < length; index++) {
+                    if (isBitSet(bytes, offset, index)) {
+                        array[index] = buffer.getLong();
+                    }
+                }
+
+                return array;
+            }
+            case CONST_BITMAP_WRAPPER_DOUBLE_NATIVE_ARRAY: {
+                Double[] array = new Double[length];
+
+                for (int index = 0; index < length; index++) {
+                    if (isBitSet(bytes, offset, index)) {
+                        array[index] = buffer.getDouble();
+                    }
+                }
+
+                return array;
+            }
+        }
+
+        throw new DecodeException(nativeType + " is not registered native array type binary in dense format. (unknown native array type)");
+    }
+
+    /**
+     * Packs the doubles as XOR with the previous value, in the style of Gorilla
+     * A value equal to the previous one takes 1 bit. Otherwise the meaningful bits of the XOR are written,
+     * reusing the leading and trailing zero counts of the last window when they fit, so slowly varying series take few bits per value.
+     *
+     * @param array     the doubles to pack
+     * @param bitWriter the bit writer to write into
+     */
+    static void packXorDoubles(double @NotNull [] array, @NotNull BitWriter bitWriter) {
+        if (array.length == 0) {
+            return;
+        }
+
+        long previous = Double.doubleToRawLongBits(array[0]);
+        bitWriter.write(previous, 64);
+
+        int windowLeading = -1;
+        int windowTrailing = 0;
+
+        for (int index = 1; index < array.length; index++) {
+            long current = Double.doubleToRawLongBits(array[index]);
+            long xor = current ^ previous;
+
+            if (xor == 0) {
+                bitWriter.write(0b0, 1);
+            } else {
+                int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                int trailing = Long.numberOfTrailingZeros(xor);
+
+                if (windowLeading >= 0 && leading >= windowLeading && trailing >= windowTrailing) {
+                    bitWriter.write(0b10, 2);
+                    bitWriter.write(xor >>> windowTrailing, 64 - windowLeading - windowTrailing);
+                } else {
+                    int significant = 64 - leading - trailing;
+
+                    bitWriter.write(0b11, 2);
+                    bitWriter.write(leading, 5);
+                    bitWriter.write(significant == 64 ? 0 : significant, 6);
+                    bitWriter.write(xor >>> trailing, significant);
+
+                    windowLeading = leading;
+                    windowTrailing = trailing;
+                }
+            }
+
+            previous = current;
+        }
+    }
+
+    /**
+     * Packs the floats as XOR with the previous value, see {@link #packXorDoubles(double[], BitWriter)}
+     *
+     * @param array     the floats to pack
+     * @param bitWriter the bit writer to write into
+     */
+    static void packXorFloats(float @NotNull [] array, @NotNull BitWriter bitWriter) {
+        if (array.length == 0) {
+            return;
+        }
+
+        int previous = Float.floatToRawIntBits(array[0]);
+        bitWriter.write(previous, 32);
+
+        int windowLeading = -1;
+        int windowTrailing = 0;
+
+        for (int index = 1; index < array.length; index++) {
+            int current = Float.floatToRawIntBits(array[index]);
+            int xor = current ^ previous;
+
+            if (xor == 0) {
+                bitWriter.write(0b0, 1);
+            } else {
+                int leading = Math.min(Integer.numberOfLeadingZeros(xor), 31);
+                int trailing = Integer.numberOfTrailingZeros(xor);
+
+                if (windowLeading >= 0 && leading >= windowLeading && trailing >= windowTrailing) {
+                    bitWriter.write(0b10, 2);
+                    bitWriter.write(xor >>> windowTrailing, 32 - windowLeading - windowTrailing);
+                } else {
+                    int significant = 32 - leading - trailing;
+
+                    bitWriter.write(0b11, 2);
+                    bitWriter.write(leading, 5);
+                    bitWriter.write(significant == 32 ? 0 : significant, 5);
+                    bitWriter.write(xor >>> trailing, significant);
+
+                    windowLeading = leading;
+                    windowTrailing = trailing;
+                }
+            }
+
+            previous = current;
+        }
+    }
+
+    /**
+     * Packs the ints in blocks of 128, each with the smallest of raw, delta varint, frame of reference, delta frame of reference and run length schemes
+     *
+     * @param array     the ints to pack
+     * @param bitWriter the bit writer to write into
+     */
+    static void packIntegers(int @NotNull [] array, @NotNull BitWriter bitWriter) {
+        long[] values = new long[INTEGER_BLOCK_SIZE];
+        long[] deltas = new long[INTEGER_BLOCK_SIZE];
+        long previous = 0;
+
+        for (int start = 0; start < array.length; start += INTEGER_BLOCK_SIZE) {
+            int count = Math.min(INTEGER_BLOCK_SIZE, array.length - start);
+
+            for (int index = 0; index < count; index++) {
+                values[index] = array[start + index];
+            }
+
+            packIntegerBlock(values, deltas, count, 32, previous, bitWriter);
+            previous = values[count - 1];
+        }
+    }
+
+    /**
+     * Packs the longs in blocks of 128, see {@link #packIntegers(int[], BitWriter)}
+     *
+     * @param array     the longs to pack
+     * @param bitWriter the bit writer to write into
+     */
+    static void packLongs(long @NotNull [] array, @NotNull BitWriter bitWriter) {
+        long[] values = new long[INTEGER_BLOCK_SIZE];
+        long[] deltas = new long[INTEGER_BLOCK_SIZE];
+        long previous = 0;
+
+        for (int start = 0; start < array.length; start += INTEGER_BLOCK_SIZE) {
+            int count = Math.min(INTEGER_BLOCK_SIZE, array.length - start);
+
+            System.arraycopy(array, start, values, 0, count);
+
+            packIntegerBlock(values, deltas, count, 64, previous, bitWriter);
+            previous = values[count - 1];
+        }
+    }
+
+    /**
+     * Narrows the value to the width, so that int arithmetic wraps the same way on both sides
+     */
+    private static long narrow(long value, int width) {
+        return width == 32 ? (int) value : value;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int getVarIntBits(long value) {
+        return Math.max(1, (64 - Long.numberOfLeadingZeros(value) + 6) / 7) * 8;
+    }
+
+    private static int getBitWidth(long @NotNull [] values, int count, long minimum) {
+        long bits = 0;
+
+        for (int index = 0; index < count; index++) {
+            bits |= values[index] - minimum;
+        }
+
+        return 64 - Long.numberOfLeadingZeros(bits);
+    }
+
+    private static long getMinimum(long @NotNull [] values, int count) {
+        long minimum = values[0];
+
+        for (int index = 1; index < count; index++) {
+            minimum = Math.min(minimum, values[index]);
+        }
+
+        return minimum;
+    }
+
+    /**
+     * Packs a block with the scheme that takes the fewest bits
+     *
+     * @param values    the values of the block, sign extended to long
+     * @param deltas    the scratch for deltas
+     * @param count     the number of values
+     * @param width     the element width in bits, 32 or 64
+     * @param previous  the last value of the previous block, or 0
+     * @param bitWriter the bit writer to write into
+     */
+    private static void packIntegerBlock(long @NotNull [] values, long @NotNull [] deltas, int count, int width, long previous, @NotNull BitWriter bitWriter) {
+        long deltaVarIntBits = 0;
+        long runLengthBits = 0;
+
+        for (int index = 0; index < count; index++) {
+            deltas[index] = narrow(values[index] - previous, width);
+            deltaVarIntBits += getVarIntBits(zigzag(deltas[index]));
+            previous = values[index];
+        }
+
+        for (int index = 0; index < count; ) {
+            int runEnd = index + 1;
+
+            while (runEnd < count && values[runEnd] == values[index]) {
+                runEnd++;
+            }
+
+            runLengthBits += getVarIntBits(runEnd - index) + width;
+            index = runEnd;
+        }
+
+        long minimum = getMinimum(values, count);
+        int bitWidth = getBitWidth(values, count, minimum);
+        long frameOfReferenceBits = width + BIT_WIDTH_BITS + (long) count * bitWidth;
+
+        long deltaMinimum = getMinimum(deltas, count);
+        int deltaBitWidth = getBitWidth(deltas, count, deltaMinimum);
+        long deltaFrameOfReferenceBits = width + BIT_WIDTH_BITS + (long) count * deltaBitWidth;
+
+        int scheme = SCHEME_RAW;
+        long bestBits = (long) count * width;
+
+        if (deltaVarIntBits < bestBits) {
+            scheme = SCHEME_DELTA_VARINT;
+            bestBits = deltaVarIntBits;
+        }
+
+        if (frameOfReferenceBits < bestBits) {
+            scheme = SCHEME_FRAME_OF_REFERENCE;
+            bestBits = frameOfReferenceBits;
+        }
+
+        if (deltaFrameOfReferenceBits < bestBits) {
+            scheme = SCHEME_DELTA_FRAME_OF_REFERENCE;
+            bestBits = deltaFrameOfReferenceBits;
+        }
+
+        if (runLengthBits < bestBits) {
+            scheme = SCHEME_RUN_LENGTH;
+        }
+
+        bitWriter.write(scheme, SCHEME_BITS);
+
+        switch (scheme) {
+            case SCHEME_RAW:
+                for (int index = 0; index < count; index++) {
+                    bitWriter.write(values[index], width);
+                }
+                break;
+            case SCHEME_DELTA_VARINT:
+                for (int index = 0; index < count; index++) {
+                    writeVarInt(zigzag(deltas[index]), bitWriter);
+                }
+                break;
+            case SCHEME_FRAME_OF_REFERENCE:
+                writeFrameOfReference(values, count, width, minimum, bitWidth, bitWriter);
+                break;
+            case SCHEME_DELTA_FRAME_OF_REFERENCE:
+                writeFrameOfReference(deltas, count, width, deltaMinimum, deltaBitWidth, bitWriter);
+                break;
+            case SCHEME_RUN_LENGTH:
+                for (int index = 0; index < count; ) {
+                    int runEnd = index + 1;
+
+                    while (runEnd < count && values[runEnd] == values[index]) {
+                        runEnd++;
+                    }
+
+                    writeVarInt(runEnd - index, bitWriter);
+                    bitWriter.write(values[index], width);
+                    index = runEnd;
+                }
+                break;
+        }
+    }
+
+    private static void writeFrameOfReference(long @NotNull [] values, int count, int width, long minimum, int bitWidth, @NotNull BitWriter bitWriter) {
+        bitWriter.write(minimum, width);
+        bitWriter.write(bitWidth, BIT_WIDTH_BITS);
+
+        for (int index = 0; index < count; index++) {
+            bitWriter.write(values[index] - minimum, bitWidth);
+        }
+    }
+
+    private static void writeVarInt(long value, @NotNull BitWriter bitWriter) {
+        while ((value & ~0x7FL) != 0) {
+            bitWriter.write((value & 0x7F) | 0x80, 8);
+            value >>>= 7;
+        }
+
+        bitWriter.write(value, 8);
+    }
+
+    private static long readVarInt(@NotNull BitReader bitReader) throws DecodeException {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            long read = bitReader.read(8);
+            value |= (read & 0x7F) << shift;
+
+            if ((read & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new DecodeException("Packed integer array has a malformed varint in dense format. (corrupted data)");
+    }
+
+    /**
+     * Unpacks a block into the scratch
+     *
+     * @param bitReader the bit reader to read from
+     * @param values    the scratch to unpack into
+     * @param count     the number of values
+     * @param width     the element width in bits, 32 or 64
+     * @param previous  the last value of the previous block, or 0
+     * @throws DecodeException if the block is corrupted
+     */
+    private static void unpackIntegerBlock(@NotNull BitReader bitReader, long @NotNull [] values, int count, int width, long previous) throws DecodeException {
+        int scheme = (int) bitReader.read(SCHEME_BITS);
+
+        switch (scheme) {
+            case SCHEME_RAW:
+                for (int index = 0; index < count; index++) {
+                    values[index] = narrow(bitReader.read(width), width);
+                }
+                break;
+            case SCHEME_DELTA_VARINT:
+                for (int index = 0; index < count; index++) {
+                    long zigzag = readVarInt(bitReader);
+
+                    previous = narrow(previous + ((zigzag >>> 1) ^ -(zigzag & 1)), width);
+                    values[index] = previous;
+                }
+                break;
+            case SCHEME_FRAME_OF_REFERENCE:
+            case SCHEME_DELTA_FRAME_OF_REFERENCE:
+                long minimum = narrow(bitReader.read(width), width);
+                int bitWidth = (int) bitReader.read(BIT_WIDTH_BITS);
+
+                if (bitWidth > 64) {
+                    throw new DecodeException("Packed integer array has an invalid bit width " + bitWidth + " in dense format. (corrupted data)");
+                }
+
+                for (int index = 0; index < count; index++) {
+                    values[index] = bitReader.read(bitWidth) + minimum;
+                }
+
+                // Prefix sum of the deltas, kept apart from the unpacking loop so that stays simple
+                if (scheme == SCHEME_DELTA_FRAME_OF_REFERENCE) {
+                    for (int index = 0; index < count; index++) {
+                        previous = narrow(previous + values[index], width);
+                        values[index] = previous;
+                    }
+                } else if (width == 32) {
+                    for (int index = 0; index < count; index++) {
+                        values[index] = (int) values[index];
+                    }
+                }
+                break;
+            case SCHEME_RUN_LENGTH:
+                for (int index = 0; index < count; ) {
+                    long runLength = readVarInt(bitReader);
+
+                    if (runLength <= 0 || runLength > count - index) {
+                        throw new DecodeException("Packed integer array has an invalid run length " + runLength + " in dense format. (corrupted data)");
+                    }
+
+                    long value = narrow(bitReader.read(width), width);
+
+                    Arrays.fill(values, index, index + (int) runLength, value);
+                    index += (int) runLength;
+                }
+                break;
+            default:
+                throw new DecodeException("Packed integer array has an unknown scheme " + scheme + " in dense format. (corrupted data)");
+        }
+    }
+
+    private static int @NotNull [] unpackIntegers(int length, @NotNull BitReader bitReader) throws DecodeException {
+        if (length < 0) {
+            throw new DecodeException("Packed integer array has a negative length " + length + " in dense format. (corrupted data)");
+        }
+
+        int[] array = new int[length];
+        long[] values = new long[INTEGER_BLOCK_SIZE];
+        long previous = 0;
+
+        for (int start = 0; start < length; start += INTEGER_BLOCK_SIZE) {
+            int count = Math.min(INTEGER_BLOCK_SIZE, length - start);
+
+            unpackIntegerBlock(bitReader, values, count, 32, previous);
+
+            for (int index = 0; index < count; index++) {
+                array[start + index] = (int) values[index];
+            }
+
+            previous = values[count - 1];
+        }
+
+        return array;
+    }
+
+    private static long @NotNull [] unpackLongs(int length, @NotNull BitReader bitReader) throws DecodeException {
+        if (length < 0) {
+            throw new DecodeException("Packed long array has a negative length " + length + " in dense format. (corrupted data)");
+        }
+
+        long[] array = new long[length];
+        long[] values = new long[INTEGER_BLOCK_SIZE];
+        long previous = 0;
+
+        for (int start = 0; start < length; start += INTEGER_BLOCK_SIZE) {
+            int count = Math.min(INTEGER_BLOCK_SIZE, length - start);
+
+            unpackIntegerBlock(bitReader, values, count, 64, previous);
+            System.arraycopy(values, 0, array, start, count);
+
+            previous = values[count - 1];
+        }
+
+        return array;
+    }
+
+    /**
+     * Unpacks a bit packed native array
+     *
+     * @param nativeType the native array type
+     * @param length     the number of elements
+     * @param bytes      the byte array that holds the packed bytes
+     * @param offset     the offset of the packed bytes
+     * @param byteLength the length of the packed bytes
+     * @return the unpacked array
+     * @throws DecodeException if the packed bytes are corrupted, if the native array type is not bit packed
+     */
+    static @NotNull Object unpack(byte nativeType, int length, byte @NotNull [] bytes, int offset, int byteLength) throws DecodeException {
+        if (isBitmapType(nativeType)) {
+            return unpackBitmap(nativeType, length, bytes, offset, byteLength);
+        }
+
+        BitReader bitReader = new BitReader(bytes, offset, byteLength);
+
+        if (nativeType == CONST_XOR_DOUBLE_NATIVE_ARRAY) {
+            return unpackXorDoubles(length, bitReader);
+        } else if (nativeType == CONST_XOR_FLOAT_NATIVE_ARRAY) {
+            return unpackXorFloats(length, bitReader);
+        } else if (nativeType == CONST_PACKED_INTEGER_NATIVE_ARRAY) {
+            return unpackIntegers(length, bitReader);
+        } else if (nativeType == CONST_PACKED_LONG_NATIVE_ARRAY) {
+            return unpackLongs(length, bitReader);
+        }
+
+        throw new DecodeException(nativeType + " is not registered native array type binary in dense format. (unknown native array type)");
+    }
+
+    private static double @NotNull [] unpackXorDoubles(int length, @NotNull BitReader bitReader) throws DecodeException {
+        if (length < 0) {
+            throw new DecodeException("Packed double array has a negative length " + length + " in dense format. (corrupted data)");
+        }
+
+        double[] array = new double[length];
+
+        if (length == 0) {
+            return array;
+        }
+
+        long previous = bitReader.read(64);
+        array[0] = Double.longBitsToDouble(previous);
+
+        int windowLeading = -1;
+        int windowTrailing = 0;
+
+        for (int index = 1; index < length; index++) {
+            if (bitReader.readBit()) {
+                if (bitReader.readBit()) {
+                    windowLeading = (int) bitReader.read(5);
+
+                    int significant = (int) bitReader.read(6);
+                    windowTrailing = 64 - windowLeading - (significant == 0 ? 64 : significant);
+
+                    if (windowTrailing < 0) {
+                        throw new DecodeException("Packed double array has an invalid window in dense format. (corrupted data)");
+                    }
+                } else if (windowLeading < 0) {
+                    throw new DecodeException("Packed double array reuses a window before defining one in dense format. (corrupted data)");
+                }
+
+                previous ^= bitReader.read(64 - windowLeading - windowTrailing) << windowTrailing;
+            }
+
+            array[index] = Double.longBitsToDouble(previous);
+        }
+
+        return array;
+    }
+
+    private static float @NotNull [] unpackXorFloats(int length, @NotNull BitReader bitReader) throws DecodeException {
+        if (length < 0) {
+            throw new DecodeException("Packed float array has a negative length " + length + " in dense format. (corrupted data)");
+        }
+
+        float[] array = new float[length];
+
+        if (length == 0) {
+            return array;
+        }
+
+        int previous = (int) bitReader.read(32);
+        array[0] = Float.intBitsToFloat(previous);
+
+        int windowLeading = -1;
+        int windowTrailing = 0;
+
+        for (int index = 1; index < length; index++) {
+            if (bitReader.readBit()) {
+                if (bitReader.readBit()) {
+                    windowLeading = (int) bitReader.read(5);
+
+                    int significant = (int) bitReader.read(5);
+                    windowTrailing = 32 - windowLeading - (significant == 0 ? 32 : significant);
+
+                    if (windowTrailing < 0) {
+                        throw new DecodeException("Packed float array has an invalid window in dense format. (corrupted data)");
+                    }
+                } else if (windowLeading < 0) {
+                    throw new DecodeException("Packed float array reuses a window before defining one in dense format. (corrupted data)");
+                }
+
+                previous ^= (int) bitReader.read(32 - windowLeading - windowTrailing) << windowTrailing;
+            }
+
+            array[index] = Float.intBitsToFloat(previous);
+        }
+
+        return array;
+    }
+}
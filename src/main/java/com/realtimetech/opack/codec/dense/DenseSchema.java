@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense;
+
+import com.realtimetech.opack.Opacker;
+import com.realtimetech.opack.capture.CapturedType;
+import com.realtimetech.opack.exception.TypeCaptureException;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Field layout of an {@link com.realtimetech.opack.value.OpackObject OpackObject} shared by the producer and the consumer,
+ * used by {@link DenseCodec DenseCodec} to encode values positionally without field names
+ */
+public final class DenseSchema {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Creates a schema from the fields of a captured type, in the order of {@link CapturedType#getFields()}
+     * The fingerprint covers the field names, so that a decoder can verify a schema described in the data against it.
+     *
+     * @param capturedType the captured type
+     * @return the created schema
+     */
+    public static @NotNull DenseSchema of(@NotNull CapturedType capturedType) {
+        CapturedType.FieldProperty[] fields = capturedType.getFields();
+        String[] fieldNames = new String[fields.length];
+
+        for (int index = 0; index < fields.length; index++) {
+            fieldNames[index] = fields[index].getName();
+        }
+
+        return new DenseSchema(fieldNames, DenseSchema.getFingerprint(fieldNames));
+    }
+
+    /**
+     * Creates a schema for the class using the type capturer of the opacker
+     *
+     * @param opacker the opacker that serializes the class
+     * @param type    the class to create a schema for
+     * @return the created schema
+     * @throws TypeCaptureException if a problem occurs during capturing the class
+     */
+    public static @NotNull DenseSchema of(@NotNull Opacker opacker, @NotNull Class<?> type) throws TypeCaptureException {
+        return DenseSchema.of(opacker.getTypeCapturer().get(type));
+    }
+
+    /**
+     * Creates a schema from field names, the fingerprint covers the field names
+     *
+     * @param fieldNames the field names in encoding order
+     * @return the created schema
+     */
+    public static @NotNull DenseSchema of(@NotNull String @NotNull ... fieldNames) {
+        return new DenseSchema(fieldNames.clone(), DenseSchema.getFingerprint(fieldNames));
+    }
+
+    /**
+     * Computes the fingerprint of the field names, FNV-1a over the UTF-8 bytes of each name
+     *
+     * @param fieldNames the field names in encoding order
+     * @return the fingerprint
+     */
+    static long getFingerprint(@NotNull String @NotNull [] fieldNames) {
+        long fingerprint = FNV_OFFSET_BASIS;
+
+        for (String fieldName : fieldNames) {
+            fingerprint = DenseSchema.hash(fingerprint, fieldName);
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * Accumulates FNV-1a hash of the string into the hash
+     *
+     * @param hash   the hash to accumulate
+     * @param string the string to hash
+     * @return the accumulated hash
+     */
+    private static long hash(long hash, @NotNull String string) {
+        for (byte value : string.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= value & 0xFF;
+            hash *= FNV_PRIME;
+        }
+
+        // Separator, so that ("ab", "c") and ("a", "bc") differ
+        hash ^= 0xFF;
+        hash *= FNV_PRIME;
+
+        return hash;
+    }
+
+    private final @NotNull String @NotNull [] fieldNames;
+    private final long fingerprint;
+
+    /**
+     * Constructs a DenseSchema
+     *
+     * @param fieldNames  the field names in encoding order
+     * @param fingerprint the fingerprint identifying this schema
+     */
+    DenseSchema(@NotNull String @NotNull [] fieldNames, long fingerprint) {
+        this.fieldNames = fieldNames;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Returns the field names in encoding order
+     *
+     * @return the field names
+     */
+    public @NotNull String @NotNull [] getFieldNames() {
+        return this.fieldNames.clone();
+    }
+
+    /**
+     * Returns the number of fields
+     *
+     * @return the field count
+     */
+    public int getFieldCount() {
+        return this.fieldNames.length;
+    }
+
+    /**
+     * Returns the field name at a specific position
+     *
+     * @param index the position of the field
+     * @return the field name
+     */
+    public @NotNull String getFieldName(int index) {
+        return this.fieldNames[index];
+    }
+
+    /**
+     * Returns the fingerprint identifying this schema
+     *
+     * @return the fingerprint
+     */
+    public long getFingerprint() {
+        return this.fingerprint;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (object == null || getClass() != object.getClass()) return false;
+
+        DenseSchema denseSchema = (DenseSchema) object;
+        return this.fingerprint == denseSchema.fingerprint && Arrays.equals(this.fieldNames, denseSchema.fieldNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.fingerprint);
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.compress;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.realtimetech.opack.codec.dense.compress.BlockFormat.*;
+
+/**
+ * Random access to the original bytes of a file written by {@link BlockCompressedOutputStream}, through its block index
+ * Reading at a position decompresses only the block that contains it, and the last decompressed block is cached.
+ */
+public class BlockCompressedFile implements Closeable {
+    /**
+     * Opens the block compressed file and loads its block index
+     *
+     * @param path the path of the file
+     * @return the opened file
+     * @throws IOException if an I/O exception occurs, if the file has no valid block index
+     */
+    public static @NotNull BlockCompressedFile open(@NotNull Path path) throws IOException {
+        FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            return new BlockCompressedFile(fileChannel);
+        } catch (IOException ioException) {
+            fileChannel.close();
+            throw ioException;
+        }
+    }
+
+    private final @NotNull FileChannel fileChannel;
+    private final int blockSize;
+    private final long length;
+    private final long indexPosition;
+
+    private final long @NotNull [] blockPositions;
+    private final long @NotNull [] blockOffsets;
+
+    private final @NotNull BlockCompressorSet blockCompressorSet;
+    private final byte @NotNull [] header;
+    private final byte @NotNull [] stored;
+    private final byte @NotNull [] block;
+
+    private int blockIndex;
+    private int blockLength;
+
+    /**
+     * Constructs a BlockCompressedFile
+     *
+     * @param fileChannel the file channel to read from
+     * @throws IOException if an I/O exception occurs, if the file has no valid block index
+     */
+    BlockCompressedFile(@NotNull FileChannel fileChannel) throws IOException {
+        this.fileChannel = fileChannel;
+
+        long size = fileChannel.size();
+
+        if (size < CONST_HEADER_SIZE + CONST_INDEX_HEADER_SIZE + CONST_FOOTER_SIZE) {
+            throw new IOException("File is too small to be a block compressed file.");
+        }
+
+        byte[] fileHeader = new byte[CONST_HEADER_SIZE];
+        this.readFully(fileHeader, 0, fileHeader.length, 0);
+        this.blockSize = BlockFormat.readHeader(fileHeader);
+
+        byte[] footer = new byte[CONST_FOOTER_SIZE];
+        this.readFully(footer, 0, footer.length, size - CONST_FOOTER_SIZE);
+
+        if (!Arrays.equals(footer, 8, CONST_FOOTER_SIZE, CONST_INDEX_MAGIC, 0, CONST_INDEX_MAGIC.length)) {
+            throw new IOException("Block index footer is missing, the file may not have been closed by its writer.");
+        }
+
+        long indexPosition = BlockFormat.getLong(footer, 0);
+        long indexLength = size - CONST_FOOTER_SIZE - indexPosition;
+
+        if (indexPosition < CONST_HEADER_SIZE || indexLength < CONST_INDEX_HEADER_SIZE || (indexLength - CONST_INDEX_HEADER_SIZE) % CONST_INDEX_ENTRY_SIZE != 0) {
+            throw new IOException("Block index position " + indexPosition + " is out of range.");
+        }
+
+        byte[] index = new byte[(int) indexLength];
+        this.readFully(index, 0, index.length, indexPosition);
+
+        int blockCount = BlockFormat.getInt(index, 1);
+
+        if (index[0] != CONST_END_MARKER || (long) blockCount * CONST_INDEX_ENTRY_SIZE != indexLength - CONST_INDEX_HEADER_SIZE) {
+            throw new IOException("Block index is malformed.");
+        }
+
+        this.length = BlockFormat.getLong(index, 5);
+        this.indexPosition = indexPosition;
+        this.blockPositions = new long[blockCount];
+        this.blockOffsets = new long[blockCount];
+
+        long previousPosition = CONST_HEADER_SIZE - CONST_BLOCK_HEADER_SIZE;
+        long previousOffset = 0;
+
+        for (int blockIndex = 0; blockIndex < blockCount; blockIndex++) {
+            long blockPosition = BlockFormat.getLong(index, CONST_INDEX_HEADER_SIZE + blockIndex * CONST_INDEX_ENTRY_SIZE);
+            long blockOffset = BlockFormat.getLong(index, CONST_INDEX_HEADER_SIZE + blockIndex * CONST_INDEX_ENTRY_SIZE + 8);
+
+            // Blocks follow the header in order, each holds between 1 and the block size of original bytes
+            boolean validPosition = blockPosition >= previousPosition + CONST_BLOCK_HEADER_SIZE && blockPosition <= indexPosition - CONST_BLOCK_HEADER_SIZE;
+            boolean validOffset = blockIndex == 0 ? blockOffset == 0 : blockOffset > previousOffset && blockOffset - previousOffset <= this.blockSize;
+
+            if (!validPosition || !validOffset) {
+                throw new IOException("Block index entry " + blockIndex + " is malformed. (position " + blockPosition + ", offset " + blockOffset + ")");
+            }
+
+            this.blockPositions[blockIndex] = blockPosition;
+            this.blockOffsets[blockIndex] = blockOffset;
+
+            previousPosition = blockPosition;
+            previousOffset = blockOffset;
+        }
+
+        long lastLength = this.length - previousOffset;
+
+        if (blockCount == 0 ? this.length != 0 : lastLength <= 0 || lastLength > this.blockSize) {
+            throw new IOException("Block index length " + this.length + " does not match its blocks.");
+        }
+
+        this.blockCompressorSet = new BlockCompressorSet();
+        this.header = new byte[CONST_BLOCK_HEADER_SIZE];
+        this.stored = new byte[this.blockSize];
+        this.block = new byte[this.blockSize];
+
+        this.blockIndex = -1;
+        this.blockLength = 0;
+    }
+
+    private void readFully(byte @NotNull [] bytes, int offset, int length, long position) throws IOException {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(bytes, offset, length);
+
+        while (byteBuffer.hasRemaining()) {
+            int read = this.fileChannel.read(byteBuffer, position + byteBuffer.position() - offset);
+
+            if (read < 0) {
+                throw new EOFException("Block compressed file is truncated.");
+            }
+        }
+    }
+
+    /**
+     * Returns the length of the original bytes
+     *
+     * @return the original length
+     */
+    public long getLength() {
+        return this.length;
+    }
+
+    /**
+     * Returns the number of blocks
+     *
+     * @return the block count
+     */
+    public int getBlockCount() {
+        return this.blockPositions.length;
+    }
+
+    /**
+     * Loads and decompresses the block, unless it is the cached block
+     *
+     * @param blockIndex the index of the block
+     * @throws IOException if an I/O exception occurs, if the block is malformed or does not match its index entry
+     */
+    private void loadBlock(int blockIndex) throws IOException {
+        if (this.blockIndex == blockIndex) {
+            return;
+        }
+
+        this.blockIndex = -1;
+
+        boolean lastBlock = blockIndex == this.blockPositions.length - 1;
+        long position = this.blockPositions[blockIndex];
+        long endPosition = lastBlock ? this.indexPosition : this.blockPositions[blockIndex + 1];
+        long expectedLength = (lastBlock ? this.length : this.blockOffsets[blockIndex + 1]) - this.blockOffsets[blockIndex];
+
+        this.readFully(this.header, 0, this.header.length, position);
+        int storedLength = BlockFormat.readStoredLength(this.header, this.blockSize);
+
+        if (position + CONST_BLOCK_HEADER_SIZE + storedLength > endPosition) {
+            throw new IOException("Block " + blockIndex + " overlaps the next block. (stored " + storedLength + ")");
+        }
+
+        this.readFully(this.stored, 0, storedLength, position + CONST_BLOCK_HEADER_SIZE);
+        int blockLength = BlockFormat.readBlock(this.blockCompressorSet, this.header, this.stored, this.block);
+
+        if (blockLength != expectedLength) {
+            throw new IOException("Block " + blockIndex + " length " + blockLength + " does not match its index entry. (expected " + expectedLength + ")");
+        }
+
+        this.blockLength = blockLength;
+        this.blockIndex = blockIndex;
+    }
+
+    /**
+     * Reads original bytes starting at the position
+     *
+     * @param position the position in the original bytes
+     * @param bytes    the byte array to read into
+     * @param offset   the start offset in the byte array
+     * @param length   the maximum number of bytes to read
+     * @return the number of bytes read, at least 1 unless the length is 0, or -1 if the position is at the end
+     * @throws IOException if an I/O exception occurs, if a block is malformed
+     */
+    public synchronized int read(long position, byte @NotNull [] bytes, int offset, int length) throws IOException {
+        if ((offset | length | (bytes.length - offset - length)) < 0 || position < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (position >= this.length) {
+            return -1;
+        }
+
+        int blockIndex = Arrays.binarySearch(this.blockOffsets, position);
+
+        if (blockIndex < 0) {
+            blockIndex = -blockIndex - 2;
+        }
+
+        int read = 0;
+
+        while (read < length && blockIndex < this.blockOffsets.length) {
+            this.loadBlock(blockIndex);
+
+            int blockOffset = (int) (position + read - this.blockOffsets[blockIndex]);
+            int copyLength = Math.min(length - read, this.blockLength - blockOffset);
+
+            System.arraycopy(this.block, blockOffset, bytes, offset + read, copyLength);
+            read += copyLength;
+            blockIndex++;
+        }
+
+        if (read == 0 && length > 0) {
+            throw new EOFException("Block compressed file ended before position " + position + ".");
+        }
+
+        return read;
+    }
+
+    /**
+     * Returns an input stream of the original bytes starting at the position, which shares the block cache of this file
+     *
+     * @param position the position in the original bytes
+     * @return the input stream
+     */
+    public @NotNull InputStream newInputStream(long position) {
+        return new InputStream() {
+            private final byte[] singleByte = new byte[1];
+            private long currentPosition = position;
+
+            @Override
+            public int read() throws IOException {
+                return this.read(this.singleByte, 0, 1) <= 0 ? -1 : this.singleByte[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte @NotNull [] bytes, int offset, int length) throws IOException {
+                if (length == 0) {
+                    return 0;
+                }
+
+                int read = BlockCompressedFile.this.read(this.currentPosition, bytes, offset, length);
+
+                if (read > 0) {
+                    this.currentPosition += read;
+                }
+
+                return read;
+            }
+
+            @Override
+            public long skip(long count) {
+                long skipped = Math.max(0, Math.min(count, BlockCompressedFile.this.length - this.currentPosition));
+                this.currentPosition += skipped;
+
+                return skipped;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.blockCompressorSet.end();
+        this.fileChannel.close();
+    }
+}
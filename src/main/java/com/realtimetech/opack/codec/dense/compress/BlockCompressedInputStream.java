@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.compress;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.realtimetech.opack.codec.dense.compress.BlockFormat.*;
+
+/**
+ * Input stream that reads a stream written by {@link BlockCompressedOutputStream} from the start, up to the block index
+ * With an executor service, the following blocks are read ahead and decompressed on its threads.
+ */
+public class BlockCompressedInputStream extends InputStream {
+    /**
+     * Block read from the input stream, waiting to be decompressed
+     */
+    private static final class StoredBlock {
+        private final byte @NotNull [] header;
+        private final byte @NotNull [] stored;
+
+        StoredBlock(byte @NotNull [] header, byte @NotNull [] stored) {
+            this.header = header;
+            this.stored = stored;
+        }
+    }
+
+    private final @NotNull InputStream inputStream;
+    private final @Nullable ExecutorService executorService;
+    private final int readAheadBlocks;
+    private final int blockSize;
+
+    private final @NotNull ConcurrentLinkedQueue<BlockCompressorSet> blockCompressorSets;
+    private final @NotNull ConcurrentLinkedQueue<byte[]> blockBuffers;
+    private final @NotNull ArrayDeque<Future<byte[]>> pendingBlocks;
+
+    private byte @NotNull [] block;
+    private int blockLength;
+    private int blockIndex;
+
+    private boolean endReached;
+    private boolean closed;
+
+    /**
+     * Whether close has ended the pooled compressors, guarded by the pool, after which released compressors are ended by their task
+     */
+    private boolean compressorsEnded;
+
+    /**
+     * Constructs a BlockCompressedInputStream that decompresses on the reading thread
+     *
+     * @param inputStream the input stream to read compressed blocks from
+     * @throws IOException if an I/O exception occurs, if the stream header is malformed
+     */
+    public BlockCompressedInputStream(@NotNull InputStream inputStream) throws IOException {
+        this(inputStream, null, 0);
+    }
+
+    /**
+     * Constructs a BlockCompressedInputStream
+     *
+     * @param inputStream     the input stream to read compressed blocks from
+     * @param executorService the executor service to decompress blocks on, or null to decompress on the reading thread
+     * @param readAheadBlocks the number of blocks decompressed ahead with an executor service
+     * @throws IOException if an I/O exception occurs, if the stream header is malformed
+     */
+    public BlockCompressedInputStream(@NotNull InputStream inputStream, @Nullable ExecutorService executorService, int readAheadBlocks) throws IOException {
+        if (executorService != null && readAheadBlocks <= 0) {
+            throw new IllegalArgumentException("Read ahead blocks must be positive, but " + readAheadBlocks + ".");
+        }
+
+        this.inputStream = inputStream;
+        this.executorService = executorService;
+        this.readAheadBlocks = readAheadBlocks;
+
+        byte[] header = new byte[CONST_HEADER_SIZE];
+        this.readFully(header, 0, header.length);
+        this.blockSize = BlockFormat.readHeader(header);
+
+        this.blockCompressorSets = new ConcurrentLinkedQueue<>();
+        this.blockBuffers = new ConcurrentLinkedQueue<>();
+        this.pendingBlocks = new ArrayDeque<>();
+
+        this.block = new byte[0];
+        this.blockLength = 0;
+        this.blockIndex = 0;
+    }
+
+    /**
+     * Reads the next stored block from the input stream
+     *
+     * @return the stored block, or null if the block index or the end of the input stream has been reached
+     * @throws IOException if an I/O exception occurs, if the block header is malformed
+     */
+    private @Nullable StoredBlock readStoredBlock() throws IOException {
+        if (this.endReached) {
+            return null;
+        }
+
+        int method = this.inputStream.read();
+
+        // A stream without block index (not closed by the writer) ends at its last complete block
+        if (method < 0 || (byte) method == CONST_END_MARKER) {
+            this.endReached = true;
+            return null;
+        }
+
+        byte[] header = new byte[CONST_BLOCK_HEADER_SIZE];
+        header[0] = (byte) method;
+        this.readFully(header, 1, header.length - 1);
+
+        byte[] stored = new byte[BlockFormat.readStoredLength(header, this.blockSize)];
+        this.readFully(stored, 0, stored.length);
+
+        return new StoredBlock(header, stored);
+    }
+
+    private void readFully(byte @NotNull [] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            int read = this.inputStream.read(bytes, offset, length);
+
+            if (read < 0) {
+                throw new EOFException("Block compressed stream is truncated.");
+            }
+
+            offset += read;
+            length -= read;
+        }
+    }
+
+    private byte @NotNull [] decompress(@NotNull StoredBlock storedBlock) throws IOException {
+        BlockCompressorSet blockCompressorSet = this.blockCompressorSets.poll();
+        byte[] target = this.blockBuffers.poll();
+
+        if (blockCompressorSet == null) {
+            blockCompressorSet = new BlockCompressorSet();
+        }
+
+        if (target == null) {
+            target = new byte[this.blockSize];
+        }
+
+        try {
+            int length = BlockFormat.readBlock(blockCompressorSet, storedBlock.header, storedBlock.stored, target);
+
+            // Only full size buffers go back to the pool, so a short last block gets its own array
+            if (length != this.blockSize) {
+                byte[] shortBlock = Arrays.copyOf(target, length);
+                this.blockBuffers.offer(target);
+
+                return shortBlock;
+            }
+
+            return target;
+        } finally {
+            this.releaseBlockCompressorSet(blockCompressorSet);
+        }
+    }
+
+    /**
+     * Returns the compressors to the pool, or ends them if the stream has been closed while they were in use
+     *
+     * @param blockCompressorSet the compressors to release
+     */
+    private void releaseBlockCompressorSet(@NotNull BlockCompressorSet blockCompressorSet) {
+        synchronized (this.blockCompressorSets) {
+            if (!this.compressorsEnded) {
+                this.blockCompressorSets.offer(blockCompressorSet);
+                return;
+            }
+        }
+
+        blockCompressorSet.end();
+    }
+
+    /**
+     * Moves to the next block
+     *
+     * @return true if there is a next block
+     * @throws IOException if an I/O exception occurs, if a block is malformed
+     */
+    private boolean nextBlock() throws IOException {
+        if (this.closed) {
+            throw new IOException("Stream is closed.");
+        }
+
+        byte[] nextBlock;
+
+        if (this.executorService == null) {
+            StoredBlock storedBlock = this.readStoredBlock();
+
+            if (storedBlock == null) {
+                return false;
+            }
+
+            nextBlock = this.decompress(storedBlock);
+        } else {
+            while (this.pendingBlocks.size() < this.readAheadBlocks) {
+                StoredBlock storedBlock = this.readStoredBlock();
+
+                if (storedBlock == null) {
+                    break;
+                }
+
+                this.pendingBlocks.add(this.executorService.submit(() -> this.decompress(storedBlock)));
+            }
+
+            if (this.pendingBlocks.isEmpty()) {
+                return false;
+            }
+
+            try {
+                nextBlock = this.pendingBlocks.poll().get();
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while decompressing a block.");
+            } catch (ExecutionException executionException) {
+                Throwable cause = executionException.getCause();
+
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+
+                throw new IOException("Failed to decompress a block.", cause);
+            }
+        }
+
+        if (this.block.length == this.blockSize) {
+            this.blockBuffers.offer(this.block);
+        }
+
+        this.block = nextBlock;
+        this.blockLength = nextBlock.length;
+        this.blockIndex = 0;
+
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (this.blockIndex == this.blockLength && !this.nextBlock()) {
+            return -1;
+        }
+
+        return this.block[this.blockIndex++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte @NotNull [] bytes, int offset, int length) throws IOException {
+        if ((offset | length | (bytes.length - offset - length)) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (length == 0) {
+            return 0;
+        }
+
+        int read = 0;
+
+        while (read < length) {
+            if (this.blockIndex == this.blockLength && (read > 0 || !this.nextBlock())) {
+                break;
+            }
+
+            int copyLength = Math.min(length - read, this.blockLength - this.blockIndex);
+            System.arraycopy(this.block, this.blockIndex, bytes, offset + read, copyLength);
+
+            this.blockIndex += copyLength;
+            read += copyLength;
+        }
+
+        return read == 0 ? -1 : read;
+    }
+
+    @Override
+    public int available() {
+        return this.blockLength - this.blockIndex;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+
+        // Blocks not started yet never run, blocks being decompressed end their own compressors once released
+        for (Future<byte[]> future : this.pendingBlocks) {
+            future.cancel(false);
+        }
+
+        this.pendingBlocks.clear();
+
+        synchronized (this.blockCompressorSets) {
+            this.compressorsEnded = true;
+
+            BlockCompressorSet blockCompressorSet;
+
+            while ((blockCompressorSet = this.blockCompressorSets.poll()) != null) {
+                blockCompressorSet.end();
+            }
+        }
+
+        this.inputStream.close();
+    }
+}
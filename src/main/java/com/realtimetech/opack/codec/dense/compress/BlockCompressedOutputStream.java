@@ -0,0 +1,428 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.compress;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+import static com.realtimetech.opack.codec.dense.compress.BlockFormat.*;
+
+/**
+ * Output stream that compresses fixed-size blocks independently, followed by a block index for {@link BlockCompressedFile random access}
+ * Writes go into the current block buffer, so wrapping this stream with an {@link com.realtimetech.opack.codec.dense.writer.OutputStreamWriter OutputStreamWriter} is cheap.
+ * With an executor service, full blocks are compressed on its threads and written in order.
+ */
+public class BlockCompressedOutputStream extends OutputStream {
+    public static final class Builder {
+        /**
+         * Creates a builder for the stream writing to the output stream
+         *
+         * @param outputStream the output stream to write compressed blocks to
+         * @return the builder
+         */
+        public static @NotNull Builder create(@NotNull OutputStream outputStream) {
+            return new Builder(outputStream);
+        }
+
+        private final @NotNull OutputStream outputStream;
+
+        private @NotNull BlockCompression blockCompression;
+        private int compressionLevel;
+        private int blockSize;
+        private @Nullable ExecutorService executorService;
+        private int maxPendingBlocks;
+
+        Builder(@NotNull OutputStream outputStream) {
+            this.outputStream = outputStream;
+
+            this.blockCompression = BlockCompression.LZ;
+            this.compressionLevel = Deflater.DEFAULT_COMPRESSION;
+            this.blockSize = CONST_DEFAULT_BLOCK_SIZE;
+            this.executorService = null;
+            this.maxPendingBlocks = Runtime.getRuntime().availableProcessors() * 2;
+        }
+
+        /**
+         * Sets the compression method of blocks
+         *
+         * @param blockCompression the compression method
+         * @return the current builder
+         */
+        public @NotNull Builder setBlockCompression(@NotNull BlockCompression blockCompression) {
+            this.blockCompression = blockCompression;
+            return this;
+        }
+
+        /**
+         * Sets the compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}, for {@link BlockCompression#DEFLATE}
+         *
+         * @param compressionLevel the compression level
+         * @return the current builder
+         */
+        public @NotNull Builder setCompressionLevel(int compressionLevel) {
+            if ((compressionLevel < Deflater.BEST_SPEED || compressionLevel > Deflater.BEST_COMPRESSION) && compressionLevel != Deflater.DEFAULT_COMPRESSION) {
+                throw new IllegalArgumentException("Compression level must be between 1 and 9, but " + compressionLevel + ".");
+            }
+
+            this.compressionLevel = compressionLevel;
+            return this;
+        }
+
+        /**
+         * Sets the original length of each block, the unit of compression and random access
+         *
+         * @param blockSize the block size
+         * @return the current builder
+         */
+        public @NotNull Builder setBlockSize(int blockSize) {
+            if (blockSize < 64 || blockSize > CONST_MAX_BLOCK_SIZE) {
+                throw new IllegalArgumentException("Block size must be between 64 and " + CONST_MAX_BLOCK_SIZE + ", but " + blockSize + ".");
+            }
+
+            this.blockSize = blockSize;
+            return this;
+        }
+
+        /**
+         * Sets the executor service to compress blocks on, or null to compress on the writing thread
+         *
+         * @param executorService the executor service
+         * @return the current builder
+         */
+        public @NotNull Builder setExecutorService(@Nullable ExecutorService executorService) {
+            this.executorService = executorService;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of blocks being compressed at once with an executor service, which bounds the memory in use
+         *
+         * @param maxPendingBlocks the maximum number of pending blocks
+         * @return the current builder
+         */
+        public @NotNull Builder setMaxPendingBlocks(int maxPendingBlocks) {
+            if (maxPendingBlocks <= 0) {
+                throw new IllegalArgumentException("Max pending blocks must be positive, but " + maxPendingBlocks + ".");
+            }
+
+            this.maxPendingBlocks = maxPendingBlocks;
+            return this;
+        }
+
+        /**
+         * Builds the stream and writes the stream header
+         *
+         * @return the created stream
+         * @throws IOException if an I/O exception occurs
+         */
+        public @NotNull BlockCompressedOutputStream build() throws IOException {
+            return new BlockCompressedOutputStream(this);
+        }
+    }
+
+    /**
+     * Block compressed into a buffer, waiting to be written in order
+     */
+    private static final class CompressedBlock {
+        private final byte @NotNull [] source;
+        private final byte @NotNull [] target;
+        private final int targetLength;
+
+        CompressedBlock(byte @NotNull [] source, byte @NotNull [] target, int targetLength) {
+            this.source = source;
+            this.target = target;
+            this.targetLength = targetLength;
+        }
+    }
+
+    private final @NotNull OutputStream outputStream;
+    private final @NotNull BlockCompression blockCompression;
+    private final int compressionLevel;
+    private final int blockSize;
+    private final @Nullable ExecutorService executorService;
+    private final int maxPendingBlocks;
+
+    private final @NotNull ConcurrentLinkedQueue<BlockCompressor> blockCompressors;
+    private final @NotNull ConcurrentLinkedQueue<byte[]> sourceBuffers;
+    private final @NotNull ConcurrentLinkedQueue<byte[]> targetBuffers;
+    private final @NotNull ArrayDeque<Future<CompressedBlock>> pendingBlocks;
+
+    private byte @NotNull [] block;
+    private int blockLength;
+
+    private long position;
+    private long originalPosition;
+
+    private long @NotNull [] blockPositions;
+    private long @NotNull [] blockOffsets;
+    private int blockCount;
+    private int writtenBlockCount;
+
+    private boolean closed;
+
+    /**
+     * Constructs a BlockCompressedOutputStream
+     *
+     * @param builder the builder of BlockCompressedOutputStream
+     * @throws IOException if an I/O exception occurs
+     */
+    BlockCompressedOutputStream(@NotNull Builder builder) throws IOException {
+        this.outputStream = builder.outputStream;
+        this.blockCompression = builder.blockCompression;
+        this.compressionLevel = builder.compressionLevel;
+        this.blockSize = builder.blockSize;
+        this.executorService = builder.executorService;
+        this.maxPendingBlocks = builder.maxPendingBlocks;
+
+        this.blockCompressors = new ConcurrentLinkedQueue<>();
+        this.sourceBuffers = new ConcurrentLinkedQueue<>();
+        this.targetBuffers = new ConcurrentLinkedQueue<>();
+        this.pendingBlocks = new ArrayDeque<>();
+
+        this.block = new byte[this.blockSize];
+        this.blockLength = 0;
+
+        this.blockPositions = new long[64];
+        this.blockOffsets = new long[64];
+        this.blockCount = 0;
+        this.writtenBlockCount = 0;
+
+        byte[] header = new byte[CONST_HEADER_SIZE];
+        BlockFormat.writeHeader(header, this.blockSize);
+
+        this.outputStream.write(header);
+        this.position = header.length;
+    }
+
+    /**
+     * Returns the number of original bytes written to this stream
+     *
+     * @return the original length
+     */
+    public long getOriginalLength() {
+        return this.originalPosition + this.blockLength;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        if (this.blockLength == this.blockSize) {
+            this.writeBlock();
+        }
+
+        this.block[this.blockLength++] = (byte) value;
+    }
+
+    @Override
+    public void write(byte @NotNull [] bytes, int offset, int length) throws IOException {
+        if ((offset | length | (bytes.length - offset - length)) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        while (length > 0) {
+            if (this.blockLength == this.blockSize) {
+                this.writeBlock();
+            }
+
+            int copyLength = Math.min(length, this.blockSize - this.blockLength);
+            System.arraycopy(bytes, offset, this.block, this.blockLength, copyLength);
+
+            this.blockLength += copyLength;
+            offset += copyLength;
+            length -= copyLength;
+        }
+    }
+
+    /**
+     * Compresses the current block, on the executor service if one is set
+     *
+     * @throws IOException if an I/O exception occurs
+     */
+    private void writeBlock() throws IOException {
+        if (this.closed) {
+            throw new IOException("Stream is closed.");
+        }
+
+        if (this.blockLength == 0) {
+            return;
+        }
+
+        byte[] source = this.block;
+        int length = this.blockLength;
+
+        this.addBlockIndex(length);
+
+        if (this.executorService == null) {
+            byte[] target = this.acquireTarget();
+            BlockCompressor blockCompressor = this.acquireCompressor();
+
+            int targetLength = BlockFormat.writeBlock(blockCompressor, this.blockCompression.getMethod(), source, length, target);
+
+            this.blockCompressors.offer(blockCompressor);
+            this.writeCompressedBlock(new CompressedBlock(source, target, targetLength));
+
+            this.blockLength = 0;
+            return;
+        }
+
+        while (this.pendingBlocks.size() >= this.maxPendingBlocks) {
+            this.writeCompressedBlock(this.waitPendingBlock());
+        }
+
+        this.pendingBlocks.add(this.executorService.submit(() -> {
+            byte[] target = this.acquireTarget();
+            BlockCompressor blockCompressor = this.acquireCompressor();
+
+            try {
+                return new CompressedBlock(source, target, BlockFormat.writeBlock(blockCompressor, this.blockCompression.getMethod(), source, length, target));
+            } finally {
+                this.blockCompressors.offer(blockCompressor);
+            }
+        }));
+
+        byte[] nextBlock = this.sourceBuffers.poll();
+        this.block = nextBlock == null ? new byte[this.blockSize] : nextBlock;
+        this.blockLength = 0;
+    }
+
+    private void addBlockIndex(int length) {
+        if (this.blockCount == this.blockPositions.length) {
+            this.blockPositions = Arrays.copyOf(this.blockPositions, this.blockCount << 1);
+            this.blockOffsets = Arrays.copyOf(this.blockOffsets, this.blockCount << 1);
+        }
+
+        this.blockOffsets[this.blockCount] = this.originalPosition;
+        this.blockCount++;
+
+        this.originalPosition += length;
+    }
+
+    private byte @NotNull [] acquireTarget() {
+        byte[] target = this.targetBuffers.poll();
+        return target == null ? new byte[CONST_BLOCK_HEADER_SIZE + this.blockSize] : target;
+    }
+
+    private @NotNull BlockCompressor acquireCompressor() {
+        BlockCompressor blockCompressor = this.blockCompressors.poll();
+        return blockCompressor == null ? this.blockCompression.createCompressor(this.compressionLevel) : blockCompressor;
+    }
+
+    private @NotNull CompressedBlock waitPendingBlock() throws IOException {
+        Future<CompressedBlock> future = this.pendingBlocks.poll();
+
+        try {
+            return future.get();
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing a block.");
+        } catch (ExecutionException executionException) {
+            throw new IOException("Failed to compress a block.", executionException.getCause());
+        }
+    }
+
+    private void writeCompressedBlock(@NotNull CompressedBlock compressedBlock) throws IOException {
+        // Blocks are written in submission order, so the stream position belongs to the first block not written yet
+        this.blockPositions[this.writtenBlockCount++] = this.position;
+
+        this.outputStream.write(compressedBlock.target, 0, compressedBlock.targetLength);
+        this.position += compressedBlock.targetLength;
+
+        this.targetBuffers.offer(compressedBlock.target);
+
+        if (compressedBlock.source != this.block) {
+            this.sourceBuffers.offer(compressedBlock.source);
+        }
+    }
+
+    /**
+     * Compresses and writes the current block even if it is not full, then flushes the output stream
+     *
+     * @throws IOException if an I/O exception occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        this.writeBlock();
+
+        while (!this.pendingBlocks.isEmpty()) {
+            this.writeCompressedBlock(this.waitPendingBlock());
+        }
+
+        this.outputStream.flush();
+    }
+
+    /**
+     * Writes the remaining blocks, the block index and the footer, then closes the output stream
+     *
+     * @throws IOException if an I/O exception occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        try {
+            this.flush();
+
+            byte[] index = new byte[CONST_INDEX_HEADER_SIZE + this.blockCount * CONST_INDEX_ENTRY_SIZE + CONST_FOOTER_SIZE];
+            int offset = 0;
+
+            index[offset++] = CONST_END_MARKER;
+            putInt(index, offset, this.blockCount);
+            putLong(index, offset + 4, this.originalPosition);
+            offset += 12;
+
+            for (int blockIndex = 0; blockIndex < this.blockCount; blockIndex++) {
+                putLong(index, offset, this.blockPositions[blockIndex]);
+                putLong(index, offset + 8, this.blockOffsets[blockIndex]);
+                offset += CONST_INDEX_ENTRY_SIZE;
+            }
+
+            putLong(index, offset, this.position);
+            System.arraycopy(CONST_INDEX_MAGIC, 0, index, offset + 8, CONST_INDEX_MAGIC.length);
+
+            this.outputStream.write(index);
+            this.position += index.length;
+
+            this.outputStream.close();
+        } finally {
+            this.closed = true;
+
+            BlockCompressor blockCompressor;
+
+            while ((blockCompressor = this.blockCompressors.poll()) != null) {
+                blockCompressor.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.compress;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Compression method of a block in a block compressed stream
+ */
+public enum BlockCompression {
+    /**
+     * Blocks are stored as they are
+     */
+    NONE((byte) 0x00),
+
+    /**
+     * Blocks are compressed with {@link java.util.zip.Deflater Deflater}, the level decides between speed and ratio
+     */
+    DEFLATE((byte) 0x01),
+
+    /**
+     * Blocks are compressed with the built-in LZ77 family codec, which favors speed over ratio and ignores the level
+     */
+    LZ((byte) 0x02);
+
+    private final byte method;
+
+    BlockCompression(byte method) {
+        this.method = method;
+    }
+
+    /**
+     * Returns the method id written in each block header
+     *
+     * @return the method id
+     */
+    byte getMethod() {
+        return this.method;
+    }
+
+    /**
+     * Creates a new compressor of this compression method
+     *
+     * @param level the compression level, for {@link #DEFLATE}
+     * @return the created compressor
+     */
+    @NotNull BlockCompressor createCompressor(int level) {
+        switch (this) {
+            case NONE:
+                return StoreBlockCompressor.INSTANCE;
+            case DEFLATE:
+                return new DeflateBlockCompressor(level);
+            case LZ:
+                return new LzBlockCompressor();
+        }
+
+        throw new IllegalStateException("Unknown block compression " + this + ".");
+    }
+
+    /**
+     * Returns the compression method of the method id
+     *
+     * @param method the method id
+     * @return the block compression, or null if the method id is unknown
+     */
+    static BlockCompression of(byte method) {
+        for (BlockCompression blockCompression : values()) {
+            if (blockCompression.method == method) {
+                return blockCompression;
+            }
+        }
+
+        return null;
+    }
+}
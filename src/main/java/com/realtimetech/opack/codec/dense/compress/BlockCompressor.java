@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.compress;
+
+import java.io.IOException;
+
+/**
+ * Compresses and decompresses independent blocks, an instance is used by one thread at a time
+ */
+interface BlockCompressor {
+    /**
+     * Compresses the source region into the target region
+     *
+     * @param source       the source bytes
+     * @param sourceOffset the start offset in the source bytes
+     * @param sourceLength the number of bytes to compress
+     * @param target       the target bytes
+     * @param targetOffset the start offset in the target bytes
+     * @param targetLimit  the end offset in the target bytes, exclusive
+     * @return the compressed length, or -1 if the compressed block does not fit in the target region
+     */
+    int compress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset, int targetLimit);
+
+    /**
+     * Decompresses the source region into the target region, which must be filled exactly
+     *
+     * @param source       the compressed bytes
+     * @param sourceOffset the start offset in the compressed bytes
+     * @param sourceLength the number of compressed bytes
+     * @param target       the target bytes
+     * @param targetOffset the start offset in the target bytes
+     * @param targetLength the decompressed length
+     * @throws IOException if the compressed block is malformed
+     */
+    void decompress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset, int targetLength) throws IOException;
+
+    /**
+     * Releases native resources held by this compressor
+     */
+    void end();
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.compress;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.zip.Deflater;
+
+/**
+ * Lazily created compressors of every compression method, for one thread at a time
+ */
+final class BlockCompressorSet {
+    private final int level;
+    private final BlockCompressor[] blockCompressors;
+
+    BlockCompressorSet() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    BlockCompressorSet(int level) {
+        this.level = level;
+        this.blockCompressors = new BlockCompressor[BlockCompression.values().length];
+    }
+
+    /**
+     * Returns the compressor of the compression method
+     *
+     * @param blockCompression the compression method
+     * @return the compressor
+     */
+    @NotNull BlockCompressor get(@NotNull BlockCompression blockCompression) {
+        BlockCompressor blockCompressor = this.blockCompressors[blockCompression.ordinal()];
+
+        if (blockCompressor == null) {
+            blockCompressor = blockCompression.createCompressor(this.level);
+            this.blockCompressors[blockCompression.ordinal()] = blockCompressor;
+        }
+
+        return blockCompressor;
+    }
+
+    /**
+     * Releases native resources held by the created compressors
+     */
+    void end() {
+        for (BlockCompressor blockCompressor : this.blockCompressors) {
+            if (blockCompressor != null) {
+                blockCompressor.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.compress;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.zip.CRC32C;
+
+/**
+ * Layout of block compressed streams
+ * Header: magic (4 bytes), version (1 byte), block size (4 bytes)
+ * Block: method (1 byte), original length (4 bytes), stored length (4 bytes), CRC32C of the original bytes (4 bytes), stored bytes
+ * Index: end marker (1 byte), block count (4 bytes), total original length (8 bytes), per block its stream position and original offset (8 + 8 bytes)
+ * Footer: index position (8 bytes), index magic (4 bytes)
+ */
+final class BlockFormat {
+    static final byte[] CONST_MAGIC = new byte[]{0x20, 0x22, 'D', 'B'};
+    static final byte[] CONST_INDEX_MAGIC = new byte[]{'D', 'B', 'I', 'X'};
+    static final byte CONST_VERSION = 0x01;
+
+    static final byte CONST_END_MARKER = (byte) 0xFF;
+
+    static final int CONST_HEADER_SIZE = CONST_MAGIC.length + 1 + 4;
+    static final int CONST_BLOCK_HEADER_SIZE = 1 + 4 + 4 + 4;
+    static final int CONST_INDEX_HEADER_SIZE = 1 + 4 + 8;
+    static final int CONST_INDEX_ENTRY_SIZE = 8 + 8;
+    static final int CONST_FOOTER_SIZE = 8 + CONST_INDEX_MAGIC.length;
+
+    static final int CONST_DEFAULT_BLOCK_SIZE = 256 * 1024;
+    static final int CONST_MAX_BLOCK_SIZE = 64 * 1024 * 1024;
+
+    private BlockFormat() {
+    }
+
+    static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    static int getInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8 | (bytes[offset + 3] & 0xFF);
+    }
+
+    static void putLong(byte[] bytes, int offset, long value) {
+        putInt(bytes, offset, (int) (value >>> 32));
+        putInt(bytes, offset + 4, (int) value);
+    }
+
+    static long getLong(byte[] bytes, int offset) {
+        return (long) getInt(bytes, offset) << 32 | (getInt(bytes, offset + 4) & 0xFFFFFFFFL);
+    }
+
+    static int checksum(byte[] bytes, int offset, int length) {
+        CRC32C crc32c = new CRC32C();
+        crc32c.update(bytes, offset, length);
+
+        return (int) crc32c.getValue();
+    }
+
+    /**
+     * Writes the stream header
+     *
+     * @param bytes     the byte array to write into, at least {@link #CONST_HEADER_SIZE} long
+     * @param blockSize the block size
+     */
+    static void writeHeader(byte[] bytes, int blockSize) {
+        System.arraycopy(CONST_MAGIC, 0, bytes, 0, CONST_MAGIC.length);
+        bytes[CONST_MAGIC.length] = CONST_VERSION;
+        putInt(bytes, CONST_MAGIC.length + 1, blockSize);
+    }
+
+    /**
+     * Reads the stream header
+     *
+     * @param bytes the header bytes
+     * @return the block size
+     * @throws IOException if the header is not a block compressed stream header
+     */
+    static int readHeader(byte[] bytes) throws IOException {
+        for (int index = 0; index < CONST_MAGIC.length; index++) {
+            if (bytes[index] != CONST_MAGIC[index]) {
+                throw new IOException("Not a block compressed stream, magic does not match.");
+            }
+        }
+
+        if (bytes[CONST_MAGIC.length] != CONST_VERSION) {
+            throw new IOException("Block compressed stream version " + bytes[CONST_MAGIC.length] + " is not supported.");
+        }
+
+        int blockSize = getInt(bytes, CONST_MAGIC.length + 1);
+
+        if (blockSize <= 0 || blockSize > CONST_MAX_BLOCK_SIZE) {
+            throw new IOException("Block size " + blockSize + " is out of range.");
+        }
+
+        return blockSize;
+    }
+
+    /**
+     * Compresses a block and writes its header and stored bytes into the target
+     * The block is stored as is if compression does not make it smaller.
+     *
+     * @param blockCompressor the compressor
+     * @param method          the method id of the compressor
+     * @param source          the original bytes
+     * @param length          the original length
+     * @param target          the target bytes, at least {@link #CONST_BLOCK_HEADER_SIZE} + length long
+     * @return the length written into the target
+     */
+    static int writeBlock(@NotNull BlockCompressor blockCompressor, byte method, byte[] source, int length, byte[] target) {
+        int storedLength = blockCompressor.compress(source, 0, length, target, CONST_BLOCK_HEADER_SIZE, CONST_BLOCK_HEADER_SIZE + length - 1);
+
+        if (storedLength < 0) {
+            method = BlockCompression.NONE.getMethod();
+            storedLength = length;
+
+            System.arraycopy(source, 0, target, CONST_BLOCK_HEADER_SIZE, length);
+        }
+
+        target[0] = method;
+        putInt(target, 1, length);
+        putInt(target, 5, storedLength);
+        putInt(target, 9, checksum(source, 0, length));
+
+        return CONST_BLOCK_HEADER_SIZE + storedLength;
+    }
+
+    /**
+     * Validates a block header and returns its stored length
+     *
+     * @param header    the block header bytes
+     * @param blockSize the block size of the stream
+     * @return the stored length
+     * @throws IOException if the block header is malformed, if the block is empty, which the writer never writes
+     */
+    static int readStoredLength(byte[] header, int blockSize) throws IOException {
+        if (BlockCompression.of(header[0]) == null) {
+            throw new IOException("Unknown block compression method " + header[0] + ".");
+        }
+
+        int originalLength = getInt(header, 1);
+        int storedLength = getInt(header, 5);
+
+        if (originalLength <= 0 || originalLength > blockSize || storedLength < 0 || storedLength > originalLength) {
+            throw new IOException("Block header is malformed. (original " + originalLength + ", stored " + storedLength + ")");
+        }
+
+        return storedLength;
+    }
+
+    /**
+     * Decompresses a block whose header and stored bytes were read, and verifies its checksum
+     *
+     * @param blockCompressors the compressors to decompress with
+     * @param header           the block header bytes
+     * @param stored           the stored bytes
+     * @param target           the target bytes, at least the original length long
+     * @return the original length
+     * @throws IOException if the block is malformed or does not match its checksum
+     */
+    static int readBlock(@NotNull BlockCompressorSet blockCompressors, byte[] header, byte[] stored, byte[] target) throws IOException {
+        BlockCompression blockCompression = BlockCompression.of(header[0]);
+        int originalLength = getInt(header, 1);
+        int storedLength = getInt(header, 5);
+
+        if (blockCompression == null) {
+            throw new IOException("Unknown block compression method " + header[0] + ".");
+        }
+
+        blockCompressors.get(blockCompression).decompress(stored, 0, storedLength, target, 0, originalLength);
+
+        if (checksum(target, 0, originalLength) != getInt(header, 9)) {
+            throw new IOException("Block does not match its checksum.");
+        }
+
+        return originalLength;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.compress;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Preset dictionary for compressing small messages, identified by an id written in each compressed frame
+ */
+public final class CompressionDictionary {
+    /**
+     * Maximum useful dictionary length, the window size of deflate
+     */
+    public static final int MAX_LENGTH = 32 * 1024;
+
+    /**
+     * Creates a dictionary
+     *
+     * @param id    the id of the dictionary, shared by senders and receivers
+     * @param bytes the dictionary bytes, most frequent content last
+     * @return the created dictionary
+     */
+    public static @NotNull CompressionDictionary of(int id, byte @NotNull [] bytes) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Dictionary id must not be negative, but " + id + ".");
+        }
+
+        if (bytes.length > MAX_LENGTH) {
+            // Deflate only reaches back one window, so only the tail of a longer dictionary is used
+            bytes = Arrays.copyOfRange(bytes, bytes.length - MAX_LENGTH, bytes.length);
+        } else {
+            bytes = bytes.clone();
+        }
+
+        return new CompressionDictionary(id, bytes);
+    }
+
+    private final int id;
+    private final byte @NotNull [] bytes;
+
+    CompressionDictionary(int id, byte @NotNull [] bytes) {
+        this.id = id;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Returns the id of this dictionary
+     *
+     * @return the id
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns a copy of the dictionary bytes, to be stored and shipped to receivers
+     *
+     * @return the dictionary bytes
+     */
+    public byte @NotNull [] getBytes() {
+        return this.bytes.clone();
+    }
+
+    byte @NotNull [] getBytesUnsafe() {
+        return this.bytes;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.compress;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionaries known to a receiver, looked up by the id in each compressed frame
+ */
+public final class CompressionDictionaryRegistry {
+    private final @NotNull ConcurrentHashMap<Integer, CompressionDictionary> dictionaries;
+
+    /**
+     * Constructs an empty CompressionDictionaryRegistry
+     */
+    public CompressionDictionaryRegistry() {
+        this.dictionaries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Registers the dictionary
+     *
+     * @param compressionDictionary the dictionary to register
+     * @throws IllegalArgumentException if another dictionary is registered with the same id
+     */
+    public void register(@NotNull CompressionDictionary compressionDictionary) {
+        CompressionDictionary registered = this.dictionaries.putIfAbsent(compressionDictionary.getId(), compressionDictionary);
+
+        if (registered != null && registered != compressionDictionary) {
+            throw new IllegalArgumentException("Dictionary " + compressionDictionary.getId() + " is already registered.");
+        }
+    }
+
+    /**
+     * Unregisters the dictionary of the id
+     *
+     * @param id the dictionary id
+     */
+    public void unregister(int id) {
+        this.dictionaries.remove(id);
+    }
+
+    /**
+     * Returns the dictionary of the id
+     *
+     * @param id the dictionary id
+     * @return the dictionary, or null if not registered
+     */
+    public @Nullable CompressionDictionary get(int id) {
+        return this.dictionaries.get(id);
+    }
+}
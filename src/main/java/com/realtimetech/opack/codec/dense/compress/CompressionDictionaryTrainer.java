@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.compress;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Trains a {@link CompressionDictionary} from sample messages, such as encoded Dense or JSON payloads
+ * Every k-gram is scored by the number of samples it occurs in, and the segments of samples covering the most frequent k-grams are picked greedily,
+ * each pick discounting the k-grams it covers. The best segments are placed last in the dictionary, where deflate reaches them with the shortest distances.
+ */
+public final class CompressionDictionaryTrainer {
+    private static final int KGRAM_LENGTH = 6;
+    private static final int SEGMENT_LENGTH = 48;
+    private static final int HASH_LOG = 20;
+
+    /**
+     * Candidate segment of a sample
+     */
+    private static final class Segment {
+        private final int sample;
+        private final int start;
+        private final int end;
+        private long score;
+
+        Segment(int sample, int start, int end) {
+            this.sample = sample;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private CompressionDictionaryTrainer() {
+    }
+
+    private static int hash(byte @NotNull [] bytes, int offset) {
+        long value = 0;
+
+        for (int index = 0; index < KGRAM_LENGTH; index++) {
+            value = (value << 8) | (bytes[offset + index] & 0xFF);
+        }
+
+        return (int) ((value * 0x9E3779B97F4A7C15L) >>> (64 - HASH_LOG));
+    }
+
+    /**
+     * Trains a dictionary of at most the maximum length from the samples
+     *
+     * @param id        the id of the trained dictionary
+     * @param samples   the sample messages, representative of the messages to compress
+     * @param maxLength the maximum dictionary length, at most {@link CompressionDictionary#MAX_LENGTH}
+     * @return the trained dictionary
+     */
+    public static @NotNull CompressionDictionary train(int id, @NotNull Collection<byte[]> samples, int maxLength) {
+        if (maxLength <= 0 || maxLength > CompressionDictionary.MAX_LENGTH) {
+            throw new IllegalArgumentException("Max length must be between 1 and " + CompressionDictionary.MAX_LENGTH + ", but " + maxLength + ".");
+        }
+
+        byte[][] sampleBytes = samples.toArray(new byte[0][]);
+        int[] frequencies = new int[1 << HASH_LOG];
+        int[] lastSamples = new int[1 << HASH_LOG];
+
+        // Count the samples each k-gram occurs in, so content repeated within one sample does not stand out
+        for (int sample = 0; sample < sampleBytes.length; sample++) {
+            byte[] bytes = sampleBytes[sample];
+
+            for (int offset = 0; offset + KGRAM_LENGTH <= bytes.length; offset++) {
+                int hash = hash(bytes, offset);
+
+                if (lastSamples[hash] != sample + 1) {
+                    lastSamples[hash] = sample + 1;
+                    frequencies[hash]++;
+                }
+            }
+        }
+
+        PriorityQueue<Segment> candidates = new PriorityQueue<>((left, right) -> Long.compare(right.score, left.score));
+
+        for (int sample = 0; sample < sampleBytes.length; sample++) {
+            byte[] bytes = sampleBytes[sample];
+
+            for (int start = 0; start + KGRAM_LENGTH <= bytes.length; start += SEGMENT_LENGTH / 2) {
+                Segment segment = new Segment(sample, start, Math.min(start + SEGMENT_LENGTH, bytes.length));
+                segment.score = score(sampleBytes, frequencies, segment);
+
+                if (segment.score > 0) {
+                    candidates.add(segment);
+                }
+            }
+        }
+
+        List<Segment> selected = new ArrayList<>();
+        int length = 0;
+
+        while (length < maxLength && !candidates.isEmpty()) {
+            Segment segment = candidates.poll();
+            long score = score(sampleBytes, frequencies, segment);
+
+            if (score <= 0) {
+                continue;
+            }
+
+            // Scores only decrease, so a segment still ahead of the next stale score is the best one
+            if (!candidates.isEmpty() && score < candidates.peek().score) {
+                segment.score = score;
+                candidates.add(segment);
+                continue;
+            }
+
+            byte[] bytes = sampleBytes[segment.sample];
+
+            for (int offset = segment.start; offset + KGRAM_LENGTH <= segment.end; offset++) {
+                frequencies[hash(bytes, offset)] = 0;
+            }
+
+            selected.add(segment);
+            length += segment.end - segment.start;
+        }
+
+        byte[] dictionary = new byte[Math.min(length, maxLength)];
+        int offset = dictionary.length;
+
+        for (Segment segment : selected) {
+            int segmentLength = Math.min(segment.end - segment.start, offset);
+
+            offset -= segmentLength;
+            System.arraycopy(sampleBytes[segment.sample], segment.end - segmentLength, dictionary, offset, segmentLength);
+
+            if (offset == 0) {
+                break;
+            }
+        }
+
+        return CompressionDictionary.of(id, dictionary);
+    }
+
+    private static long score(byte @NotNull [] @NotNull [] sampleBytes, int @NotNull [] frequencies, @NotNull Segment segment) {
+        byte[] bytes = sampleBytes[segment.sample];
+        long score = 0;
+
+        for (int offset = segment.start; offset + KGRAM_LENGTH <= segment.end; offset++) {
+            int frequency = frequencies[hash(bytes, offset)];
+
+            // K-grams unique to one sample do not help other messages
+            if (frequency > 1) {
+                score += frequency;
+            }
+        }
+
+        return score;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.compress;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses blocks as raw deflate streams, without zlib header and trailer since blocks carry their own checksum
+ */
+final class DeflateBlockCompressor implements BlockCompressor {
+    private final Deflater deflater;
+    private final Inflater inflater;
+
+    DeflateBlockCompressor(int level) {
+        this.deflater = new Deflater(level, true);
+        this.inflater = new Inflater(true);
+    }
+
+    @Override
+    public int compress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset, int targetLimit) {
+        this.deflater.reset();
+        this.deflater.setInput(source, sourceOffset, sourceLength);
+        this.deflater.finish();
+
+        int offset = targetOffset;
+
+        while (!this.deflater.finished()) {
+            if (offset == targetLimit) {
+                return -1;
+            }
+
+            offset += this.deflater.deflate(target, offset, targetLimit - offset);
+        }
+
+        return offset - targetOffset;
+    }
+
+    @Override
+    public void decompress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset, int targetLength) throws IOException {
+        this.inflater.reset();
+        this.inflater.setInput(source, sourceOffset, sourceLength);
+
+        int offset = targetOffset;
+        int targetLimit = targetOffset + targetLength;
+
+        try {
+            while (!this.inflater.finished()) {
+                int inflated = this.inflater.inflate(target, offset, targetLimit - offset);
+
+                if (inflated == 0 && (this.inflater.needsInput() || this.inflater.needsDictionary() || offset == targetLimit)) {
+                    throw new IOException("Deflate block is truncated or larger than its original length " + targetLength + ".");
+                }
+
+                offset += inflated;
+            }
+        } catch (DataFormatException dataFormatException) {
+            throw new IOException("Deflate block is malformed.", dataFormatException);
+        }
+
+        if (offset != targetLimit) {
+            throw new IOException("Deflate block inflated to " + (offset - targetOffset) + " bytes, but original length is " + targetLength + ".");
+        }
+    }
+
+    @Override
+    public void end() {
+        this.deflater.end();
+        this.inflater.end();
+    }
+}
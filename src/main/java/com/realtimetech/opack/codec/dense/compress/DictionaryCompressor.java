@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.compress;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses small messages independently with a preset {@link CompressionDictionary dictionary}
+ * Frame: method (1 byte, stored or deflate), dictionary id (unsigned varint), original length (unsigned varint), raw deflate stream or stored bytes
+ * A message that does not shrink is stored, so a frame is never more than a few bytes larger than its message.
+ */
+public class DictionaryCompressor implements Closeable {
+    private static final byte METHOD_STORED = 0x00;
+    private static final byte METHOD_DEFLATE = 0x01;
+
+    private static final int MAX_HEADER_SIZE = 1 + 5 + 5;
+    private static final int DEFAULT_MAX_ORIGINAL_LENGTH = 64 * 1024 * 1024;
+
+    private final @NotNull CompressionDictionaryRegistry compressionDictionaryRegistry;
+    private final int maxOriginalLength;
+
+    private final @NotNull Deflater deflater;
+    private final @NotNull Inflater inflater;
+
+    private byte @NotNull [] frameBuffer;
+
+    /**
+     * Constructs a DictionaryCompressor with the default compression level
+     *
+     * @param compressionDictionaryRegistry the registry to look up dictionaries of received frames
+     */
+    public DictionaryCompressor(@NotNull CompressionDictionaryRegistry compressionDictionaryRegistry) {
+        this(compressionDictionaryRegistry, Deflater.DEFAULT_COMPRESSION, DEFAULT_MAX_ORIGINAL_LENGTH);
+    }
+
+    /**
+     * Constructs a DictionaryCompressor
+     *
+     * @param compressionDictionaryRegistry the registry to look up dictionaries of received frames
+     * @param compressionLevel              the compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+     * @param maxOriginalLength             the maximum original length of received frames, to bound allocation on malformed input
+     */
+    public DictionaryCompressor(@NotNull CompressionDictionaryRegistry compressionDictionaryRegistry, int compressionLevel, int maxOriginalLength) {
+        this.compressionDictionaryRegistry = compressionDictionaryRegistry;
+        this.maxOriginalLength = maxOriginalLength;
+
+        this.deflater = new Deflater(compressionLevel, true);
+        this.inflater = new Inflater(true);
+
+        this.frameBuffer = new byte[1024];
+    }
+
+    /**
+     * Compresses the message with the dictionary
+     *
+     * @param compressionDictionary the dictionary to compress with
+     * @param bytes                 the message
+     * @return the compressed frame
+     */
+    public synchronized byte @NotNull [] compress(@NotNull CompressionDictionary compressionDictionary, byte @NotNull [] bytes) {
+        return this.compress(compressionDictionary, bytes, 0, bytes.length);
+    }
+
+    /**
+     * Compresses a region of the message with the dictionary
+     *
+     * @param compressionDictionary the dictionary to compress with
+     * @param bytes                 the message
+     * @param offset                the start offset in the message
+     * @param length                the length of the message
+     * @return the compressed frame
+     */
+    public synchronized byte @NotNull [] compress(@NotNull CompressionDictionary compressionDictionary, byte @NotNull [] bytes, int offset, int length) {
+        if ((offset | length | (bytes.length - offset - length)) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (this.frameBuffer.length < MAX_HEADER_SIZE + length) {
+            this.frameBuffer = new byte[Math.max(MAX_HEADER_SIZE + length, this.frameBuffer.length << 1)];
+        }
+
+        int headerLength = writeVarInt(length, this.frameBuffer, writeVarInt(compressionDictionary.getId(), this.frameBuffer, 1));
+        int frameLimit = headerLength + length;
+
+        this.deflater.reset();
+        this.deflater.setDictionary(compressionDictionary.getBytesUnsafe());
+        this.deflater.setInput(bytes, offset, length);
+        this.deflater.finish();
+
+        int frameLength = headerLength;
+
+        while (!this.deflater.finished() && frameLength < frameLimit) {
+            frameLength += this.deflater.deflate(this.frameBuffer, frameLength, frameLimit - frameLength);
+        }
+
+        if (this.deflater.finished() && frameLength < frameLimit) {
+            this.frameBuffer[0] = METHOD_DEFLATE;
+        } else {
+            this.frameBuffer[0] = METHOD_STORED;
+            System.arraycopy(bytes, offset, this.frameBuffer, headerLength, length);
+            frameLength = frameLimit;
+        }
+
+        return Arrays.copyOf(this.frameBuffer, frameLength);
+    }
+
+    /**
+     * Decompresses the frame with the registered dictionary of its dictionary id
+     *
+     * @param frame the compressed frame
+     * @return the message
+     * @throws IOException if the frame is malformed, if its dictionary is not registered
+     */
+    public synchronized byte @NotNull [] decompress(byte @NotNull [] frame) throws IOException {
+        return this.decompress(frame, 0, frame.length);
+    }
+
+    /**
+     * Decompresses a region of the frame with the registered dictionary of its dictionary id
+     *
+     * @param frame  the compressed frame
+     * @param offset the start offset in the frame
+     * @param length the length of the frame
+     * @return the message
+     * @throws IOException if the frame is malformed, if its dictionary is not registered
+     */
+    public synchronized byte @NotNull [] decompress(byte @NotNull [] frame, int offset, int length) throws IOException {
+        if ((offset | length | (frame.length - offset - length)) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        int end = offset + length;
+
+        if (length < 3) {
+            throw new IOException("Compressed frame is truncated.");
+        }
+
+        byte method = frame[offset];
+        long dictionaryId = readVarInt(frame, offset + 1, end);
+        int index = offset + 1 + varIntLength(dictionaryId);
+        long originalLength = readVarInt(frame, index, end);
+        index += varIntLength(originalLength);
+
+        if (originalLength > this.maxOriginalLength) {
+            throw new IOException("Original length " + originalLength + " exceeds the maximum " + this.maxOriginalLength + ".");
+        }
+
+        byte[] bytes = new byte[(int) originalLength];
+
+        if (method == METHOD_STORED) {
+            if (end - index != originalLength) {
+                throw new IOException("Stored frame length does not match its original length " + originalLength + ".");
+            }
+
+            System.arraycopy(frame, index, bytes, 0, bytes.length);
+            return bytes;
+        } else if (method != METHOD_DEFLATE) {
+            throw new IOException("Unknown compressed frame method " + method + ".");
+        }
+
+        CompressionDictionary compressionDictionary = this.compressionDictionaryRegistry.get((int) dictionaryId);
+
+        if (compressionDictionary == null) {
+            throw new IOException("Dictionary " + dictionaryId + " is not registered.");
+        }
+
+        this.inflater.reset();
+        this.inflater.setDictionary(compressionDictionary.getBytesUnsafe());
+        this.inflater.setInput(frame, index, end - index);
+
+        int inflatedLength = 0;
+
+        try {
+            while (!this.inflater.finished()) {
+                int inflated = this.inflater.inflate(bytes, inflatedLength, bytes.length - inflatedLength);
+
+                if (inflated == 0 && (this.inflater.needsInput() || inflatedLength == bytes.length)) {
+                    throw new IOException("Compressed frame is truncated or larger than its original length " + originalLength + ".");
+                }
+
+                inflatedLength += inflated;
+            }
+        } catch (DataFormatException dataFormatException) {
+            throw new IOException("Compressed frame is malformed.", dataFormatException);
+        }
+
+        if (inflatedLength != bytes.length) {
+            throw new IOException("Compressed frame inflated to " + inflatedLength + " bytes, but original length is " + originalLength + ".");
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Returns the dictionary id of the frame, to find out which dictionary a sender used
+     *
+     * @param frame the compressed frame
+     * @return the dictionary id
+     * @throws IOException if the frame is malformed
+     */
+    public static int getDictionaryId(byte @NotNull [] frame) throws IOException {
+        return (int) readVarInt(frame, 1, frame.length);
+    }
+
+    private static int writeVarInt(int value, byte @NotNull [] bytes, int offset) {
+        while ((value & ~0x7F) != 0) {
+            bytes[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        bytes[offset++] = (byte) value;
+
+        return offset;
+    }
+
+    private static long readVarInt(byte @NotNull [] bytes, int offset, int end) throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (offset >= end) {
+                throw new IOException("Compressed frame is truncated.");
+            }
+
+            int read = bytes[offset++] & 0xFF;
+            value |= (long) (read & 0x7F) << shift;
+
+            if ((read & 0x80) == 0) {
+                if (value > Integer.MAX_VALUE) {
+                    break;
+                }
+
+                return value;
+            }
+        }
+
+        throw new IOException("Compressed frame has a malformed varint.");
+    }
+
+    private static int varIntLength(long value) {
+        int length = 1;
+
+        while (value >= 0x80) {
+            value >>>= 7;
+            length++;
+        }
+
+        return length;
+    }
+
+    /**
+     * Releases the native resources of the deflater and inflater
+     */
+    @Override
+    public synchronized void close() {
+        this.deflater.end();
+        this.inflater.end();
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.compress;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compresses blocks with a byte oriented LZ77 codec in the style of LZ4
+ * A block is a series of sequences: token (literal length and match length nibbles), literal length extension, literals,
+ * match offset (2 bytes, little endian) and match length extension. The last sequence has literals only.
+ * Matches are found through a single hash table of 4 byte prefixes, so compression is one pass with no chain search.
+ */
+final class LzBlockCompressor implements BlockCompressor {
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 0xFFFF;
+
+    // Matches never cover the last bytes, so the decoder knows a block ends after literals
+    private static final int LAST_LITERALS = 5;
+    private static final int MATCH_FIND_LIMIT = 12;
+
+    private static final int HASH_LOG = 14;
+    private static final int SKIP_TRIGGER = 6;
+
+    private final int[] hashTable;
+
+    LzBlockCompressor() {
+        this.hashTable = new int[1 << HASH_LOG];
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8 | (bytes[offset + 2] & 0xFF) << 16 | (bytes[offset + 3] & 0xFF) << 24;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    @Override
+    public int compress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset, int targetLimit) {
+        int sourceEnd = sourceOffset + sourceLength;
+        int matchLimit = sourceEnd - LAST_LITERALS;
+        int findLimit = sourceEnd - MATCH_FIND_LIMIT;
+
+        int anchor = sourceOffset;
+        int sourceIndex = sourceOffset;
+        int targetIndex = targetOffset;
+
+        if (sourceLength >= MATCH_FIND_LIMIT) {
+            Arrays.fill(this.hashTable, -1);
+
+            int attempts = 1 << SKIP_TRIGGER;
+
+            while (sourceIndex < findLimit) {
+                int sequence = readInt(source, sourceIndex);
+                int hash = hash(sequence);
+                int reference = this.hashTable[hash];
+                this.hashTable[hash] = sourceIndex - sourceOffset;
+
+                if (reference < 0 || sourceIndex - (sourceOffset + reference) > MAX_OFFSET || readInt(source, sourceOffset + reference) != sequence) {
+                    // Step faster through data that does not match
+                    sourceIndex += attempts++ >>> SKIP_TRIGGER;
+                    continue;
+                }
+
+                attempts = 1 << SKIP_TRIGGER;
+                reference += sourceOffset;
+
+                while (sourceIndex > anchor && reference > sourceOffset && source[sourceIndex - 1] == source[reference - 1]) {
+                    sourceIndex--;
+                    reference--;
+                }
+
+                int matchLength = MIN_MATCH;
+
+                while (sourceIndex + matchLength < matchLimit && source[sourceIndex + matchLength] == source[reference + matchLength]) {
+                    matchLength++;
+                }
+
+                targetIndex = this.writeSequence(source, anchor, sourceIndex - anchor, sourceIndex - reference, matchLength, target, targetIndex, targetLimit);
+
+                if (targetIndex < 0) {
+                    return -1;
+                }
+
+                sourceIndex += matchLength;
+                anchor = sourceIndex;
+
+                if (sourceIndex - 2 < findLimit) {
+                    this.hashTable[hash(readInt(source, sourceIndex - 2))] = sourceIndex - 2 - sourceOffset;
+                }
+            }
+        }
+
+        targetIndex = this.writeSequence(source, anchor, sourceEnd - anchor, 0, 0, target, targetIndex, targetLimit);
+
+        return targetIndex < 0 ? -1 : targetIndex - targetOffset;
+    }
+
+    /**
+     * Writes a sequence of literals followed by a match, or the last sequence of literals only if the match length is 0
+     *
+     * @return the target index after the sequence, or -1 if the sequence does not fit
+     */
+    private int writeSequence(byte[] source, int literalOffset, int literalLength, int matchOffset, int matchLength, byte[] target, int targetIndex, int targetLimit) {
+        int matchCode = matchLength == 0 ? 0 : matchLength - MIN_MATCH;
+
+        if (targetIndex + 1 + literalLength + literalLength / 255 + 1 + 2 + matchCode / 255 + 1 > targetLimit) {
+            return -1;
+        }
+
+        int tokenIndex = targetIndex++;
+        int token;
+
+        if (literalLength >= 15) {
+            token = 15 << 4;
+            targetIndex = writeLengthExtension(literalLength - 15, target, targetIndex);
+        } else {
+            token = literalLength << 4;
+        }
+
+        System.arraycopy(source, literalOffset, target, targetIndex, literalLength);
+        targetIndex += literalLength;
+
+        if (matchLength != 0) {
+            target[targetIndex++] = (byte) matchOffset;
+            target[targetIndex++] = (byte) (matchOffset >>> 8);
+
+            if (matchCode >= 15) {
+                token |= 15;
+                targetIndex = writeLengthExtension(matchCode - 15, target, targetIndex);
+            } else {
+                token |= matchCode;
+            }
+        }
+
+        target[tokenIndex] = (byte) token;
+
+        return targetIndex;
+    }
+
+    private static int writeLengthExtension(int length, byte[] target, int targetIndex) {
+        while (length >= 255) {
+            target[targetIndex++] = (byte) 255;
+            length -= 255;
+        }
+
+        target[targetIndex++] = (byte) length;
+
+        return targetIndex;
+    }
+
+    @Override
+    public void decompress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset, int targetLength) throws IOException {
+        int sourceIndex = sourceOffset;
+        int sourceEnd = sourceOffset + sourceLength;
+        int targetIndex = targetOffset;
+        int targetEnd = targetOffset + targetLength;
+
+        while (true) {
+            if (sourceIndex >= sourceEnd) {
+                throw new IOException("LZ block is truncated.");
+            }
+
+            int token = source[sourceIndex++] & 0xFF;
+            int literalLength = token >>> 4;
+
+            if (literalLength == 15) {
+                int value;
+
+                do {
+                    if (sourceIndex >= sourceEnd) {
+                        throw new IOException("LZ block is truncated.");
+                    }
+
+                    value = source[sourceIndex++] & 0xFF;
+                    literalLength += value;
+                } while (value == 255);
+            }
+
+            if (literalLength > sourceEnd - sourceIndex || literalLength > targetEnd - targetIndex) {
+                throw new IOException("LZ block literals exceed the block.");
+            }
+
+            System.arraycopy(source, sourceIndex, target, targetIndex, literalLength);
+            sourceIndex += literalLength;
+            targetIndex += literalLength;
+
+            if (sourceIndex == sourceEnd) {
+                break;
+            }
+
+            if (sourceEnd - sourceIndex < 2) {
+                throw new IOException("LZ block is truncated.");
+            }
+
+            int matchOffset = (source[sourceIndex] & 0xFF) | (source[sourceIndex + 1] & 0xFF) << 8;
+            sourceIndex += 2;
+
+            if (matchOffset == 0 || matchOffset > targetIndex - targetOffset) {
+                throw new IOException("LZ block has an invalid match offset " + matchOffset + ".");
+            }
+
+            int matchLength = token & 0x0F;
+
+            if (matchLength == 15) {
+                int value;
+
+                do {
+                    if (sourceIndex >= sourceEnd) {
+                        throw new IOException("LZ block is truncated.");
+                    }
+
+                    value = source[sourceIndex++] & 0xFF;
+                    matchLength += value;
+                } while (value == 255);
+            }
+
+            matchLength += MIN_MATCH;
+
+            if (matchLength > targetEnd - targetIndex) {
+                throw new IOException("LZ block match exceeds the block.");
+            }
+
+            int matchIndex = targetIndex - matchOffset;
+
+            if (matchOffset >= matchLength) {
+                System.arraycopy(target, matchIndex, target, targetIndex, matchLength);
+                targetIndex += matchLength;
+            } else {
+                // Overlapping match repeats the last bytes, so it is copied forward one byte at a time
+                for (int index = 0; index < matchLength; index++) {
+                    target[targetIndex++] = target[matchIndex + index];
+                }
+            }
+        }
+
+        if (targetIndex != targetEnd) {
+            throw new IOException("LZ block decompressed to " + (targetIndex - targetOffset) + " bytes, but original length is " + targetLength + ".");
+        }
+    }
+
+    @Override
+    public void end() {
+    }
+}
@@ -22,12 +22,15 @@
 
 package com.realtimetech.opack.codec.dense.reader;
 
+import com.realtimetech.opack.util.StringCache;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 
 public class ByteArrayReader implements Reader {
     private final byte @NotNull [] bytes;
+    private final int limit;
 
     private int currentIndex;
 
@@ -37,8 +40,25 @@ public class ByteArrayReader implements Reader {
      * @param bytes the bytes
      */
     public ByteArrayReader(byte @NotNull [] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Constructs a ByteArrayReader that reads a region of the bytes without copying
+     *
+     * @param bytes  the bytes
+     * @param offset the start offset of the region
+     * @param length the length of the region
+     * @throws IndexOutOfBoundsException if the region is out of the bytes
+     */
+    public ByteArrayReader(byte @NotNull [] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new IndexOutOfBoundsException("Region " + offset + "+" + length + " is out of bytes. (length " + bytes.length + ")");
+        }
+
         this.bytes = bytes;
-        this.currentIndex = 0;
+        this.limit = offset + length;
+        this.currentIndex = offset;
     }
 
     /**
@@ -47,7 +67,7 @@ public class ByteArrayReader implements Reader {
      * @param size the size to be read
      */
     private void assertSize(int size) throws IOException {
-        if (this.currentIndex + size > this.bytes.length) {
+        if (size < 0 || size > this.limit - this.currentIndex) {
             throw new IOException("Reached end of array.");
         }
     }
@@ -178,4 +198,51 @@ public class ByteArrayReader implements Reader {
 
         this.currentIndex += bytes.length;
     }
+
+    /**
+     * Reads the next bytes of data as a string, decoding directly from the byte array
+     *
+     * @param length  the number of bytes to read
+     * @param charset the charset of the bytes
+     * @return the string read
+     * @throws IOException if an I/O exception occurs
+     */
+    public @NotNull String readString(int length, @NotNull Charset charset) throws IOException {
+        this.assertSize(length);
+
+        String string = new String(this.bytes, this.currentIndex, length, charset);
+        this.currentIndex += length;
+
+        return string;
+    }
+
+    /**
+     * Reads the next bytes of data as a string, looking it up directly from the byte array
+     *
+     * @param length      the number of bytes to read
+     * @param charset     the charset of the bytes
+     * @param stringCache the string cache to look the string up in
+     * @return the string read, the cached instance if the same string was read before
+     * @throws IOException if an I/O exception occurs
+     */
+    public @NotNull String readString(int length, @NotNull Charset charset, @NotNull StringCache stringCache) throws IOException {
+        this.assertSize(length);
+
+        String string = stringCache.get(this.bytes, this.currentIndex, length, charset);
+        this.currentIndex += length;
+
+        return string;
+    }
+
+    /**
+     * Skips over the next bytes of data
+     *
+     * @param length the number of bytes to skip
+     * @throws IOException if an I/O exception occurs
+     */
+    public void skipBytes(int length) throws IOException {
+        this.assertSize(length);
+
+        this.currentIndex += length;
+    }
 }
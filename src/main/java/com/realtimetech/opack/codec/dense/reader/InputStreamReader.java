@@ -22,10 +22,13 @@
 
 package com.realtimetech.opack.codec.dense.reader;
 
+import com.realtimetech.opack.util.StringCache;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 
 public class InputStreamReader implements Reader {
     /**
@@ -40,6 +43,8 @@ public class InputStreamReader implements Reader {
 
     private final @NotNull InputStream inputStream;
 
+    private byte @NotNull [] stringBuffer;
+
     /**
      * Constructs InputStreamReader
      *
@@ -47,6 +52,7 @@ public class InputStreamReader implements Reader {
      */
     InputStreamReader(@NotNull InputStream inputStream) {
         this.inputStream = inputStream;
+        this.stringBuffer = new byte[0];
     }
 
     /**
@@ -139,6 +145,103 @@ public class InputStreamReader implements Reader {
      * @throws IOException if an I/O exception occurs
      */
     public void readBytes(byte @NotNull [] bytes) throws IOException {
-        this.inputStream.readNBytes(bytes, 0, bytes.length);
+        this.readBytes(bytes, bytes.length);
+    }
+
+    /**
+     * Reads the next bytes of data from the input stream into the front of the byte array
+     *
+     * @param bytes  the byte array to write
+     * @param length the number of bytes to read
+     * @throws IOException if an I/O exception occurs
+     */
+    private void readBytes(byte @NotNull [] bytes, int length) throws IOException {
+        this.inputStream.readNBytes(bytes, 0, length);
+    }
+
+    /**
+     * Reads the next bytes of data into the front of the string buffer
+     * The buffer grows with the bytes actually read, so a corrupted length fails at the end of the stream instead of allocating it up front.
+     *
+     * @param length the number of bytes to read
+     * @throws IOException if the length is negative, the end of the stream has been reached, or an I/O exception occurs
+     */
+    private void readStringBuffer(int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("Length must not be negative, but " + length + ".");
+        }
+
+        int offset = 0;
+
+        while (offset < length) {
+            if (offset == this.stringBuffer.length) {
+                this.stringBuffer = Arrays.copyOf(this.stringBuffer, (int) Math.min(length, Math.max(8192, (long) offset << 1)));
+            }
+
+            int read = this.inputStream.read(this.stringBuffer, offset, Math.min(length, this.stringBuffer.length) - offset);
+
+            if (read < 0) {
+                throw new IOException("Reached end of stream.");
+            }
+
+            offset += read;
+        }
+    }
+
+    /**
+     * Reads the next bytes of data as a string, through a reused buffer
+     *
+     * @param length  the number of bytes to read
+     * @param charset the charset of the bytes
+     * @return the string read
+     * @throws IOException if an I/O exception occurs
+     */
+    public @NotNull String readString(int length, @NotNull Charset charset) throws IOException {
+        this.readStringBuffer(length);
+
+        return new String(this.stringBuffer, 0, length, charset);
+    }
+
+    /**
+     * Reads the next bytes of data as a string, through the string cache
+     *
+     * @param length      the number of bytes to read
+     * @param charset     the charset of the bytes
+     * @param stringCache the string cache to look the string up in
+     * @return the string read, the cached instance if the same string was read before
+     * @throws IOException if an I/O exception occurs
+     */
+    public @NotNull String readString(int length, @NotNull Charset charset, @NotNull StringCache stringCache) throws IOException {
+        this.readStringBuffer(length);
+
+        return stringCache.get(this.stringBuffer, 0, length, charset);
+    }
+
+    /**
+     * Skips over the next bytes of data
+     *
+     * @param length the number of bytes to skip
+     * @throws IOException if an I/O exception occurs
+     */
+    public void skipBytes(int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("Length must not be negative, but " + length + ".");
+        }
+
+        long remain = length;
+
+        while (remain > 0) {
+            long skipped = this.inputStream.skip(remain);
+
+            if (skipped <= 0) {
+                if (this.inputStream.read() == -1) {
+                    throw new IOException("Reached end of stream.");
+                }
+
+                skipped = 1;
+            }
+
+            remain -= skipped;
+        }
     }
 }
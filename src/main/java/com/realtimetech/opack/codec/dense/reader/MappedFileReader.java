@@ -0,0 +1,449 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.reader;
+
+import com.realtimetech.opack.util.StringCache;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class MappedFileReader implements Reader {
+    private static final int SEGMENT_SHIFT = 30;
+
+    /**
+     * Creates MappedFileReader that maps the whole file into memory
+     *
+     * @param path the path of the file to map
+     * @return the mapped file reader
+     * @throws IOException if an I/O exception occurs
+     */
+    public static @NotNull MappedFileReader of(@NotNull Path path) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return MappedFileReader.of(fileChannel, 0, fileChannel.size());
+        }
+    }
+
+    /**
+     * Creates MappedFileReader that maps a region of the file channel into memory
+     * The mapping stays valid after the file channel is closed.
+     *
+     * @param fileChannel the file channel to map
+     * @param position    the position within the file at which the mapped region is to start
+     * @param size        the size of the region to be mapped
+     * @return the mapped file reader
+     * @throws IOException if an I/O exception occurs
+     */
+    public static @NotNull MappedFileReader of(@NotNull FileChannel fileChannel, long position, long size) throws IOException {
+        return MappedFileReader.of(fileChannel, position, size, SEGMENT_SHIFT);
+    }
+
+    /**
+     * Creates MappedFileReader that maps a region of the file channel into memory, in segments of the given size
+     *
+     * @param fileChannel  the file channel to map
+     * @param position     the position within the file at which the mapped region is to start
+     * @param size         the size of the region to be mapped
+     * @param segmentShift the base 2 logarithm of the segment size, at most 30
+     * @return the mapped file reader
+     * @throws IOException if an I/O exception occurs
+     */
+    public static @NotNull MappedFileReader of(@NotNull FileChannel fileChannel, long position, long size, int segmentShift) throws IOException {
+        if (segmentShift < 0 || segmentShift > SEGMENT_SHIFT) {
+            throw new IllegalArgumentException("Segment shift must be between 0 and " + SEGMENT_SHIFT + ", but " + segmentShift + ".");
+        }
+
+        return MappedFileReader.map(fileChannel, position, size, segmentShift, new MappedByteBuffer[0]);
+    }
+
+    /**
+     * Maps the segments of the region that are not given yet
+     *
+     * @param fileChannel    the file channel to map
+     * @param position       the position within the file at which the mapped region is to start
+     * @param size           the size of the region to be mapped
+     * @param segmentShift   the base 2 logarithm of the segment size
+     * @param mappedSegments the leading segments that are already mapped, each exactly of the segment size
+     * @return the mapped file reader
+     * @throws IOException if an I/O exception occurs
+     */
+    private static @NotNull MappedFileReader map(@NotNull FileChannel fileChannel, long position, long size, int segmentShift, @NotNull MappedByteBuffer @NotNull [] mappedSegments) throws IOException {
+        if (size < 0) {
+            throw new IOException("Size " + size + " of mapped region is negative.");
+        }
+
+        long segmentSize = 1L << segmentShift;
+        int segmentCount = (int) ((size + segmentSize - 1) >>> segmentShift);
+        MappedByteBuffer[] segments = Arrays.copyOf(mappedSegments, Math.max(segmentCount, 1));
+
+        for (int index = mappedSegments.length; index < segments.length; index++) {
+            long segmentPosition = (long) index << segmentShift;
+            long mappedSize = Math.min(segmentSize, size - segmentPosition);
+
+            segments[index] = fileChannel.map(FileChannel.MapMode.READ_ONLY, position + segmentPosition, Math.max(mappedSize, 0));
+        }
+
+        return new MappedFileReader(segments, position, size, segmentShift);
+    }
+
+    private final @NotNull MappedByteBuffer @NotNull [] segments;
+    private final long position;
+    private final long size;
+
+    private final int segmentShift;
+    private final long segmentSize;
+    private final long segmentMask;
+
+    private long currentIndex;
+
+    private byte @NotNull [] stringBuffer;
+
+    /**
+     * Constructs MappedFileReader
+     *
+     * @param segments     the mapped segments, every segment except the last must be exactly of the segment size
+     * @param position     the position within the file at which the mapped region starts
+     * @param size         the total size of the mapped segments
+     * @param segmentShift the base 2 logarithm of the segment size
+     */
+    MappedFileReader(@NotNull MappedByteBuffer @NotNull [] segments, long position, long size, int segmentShift) {
+        this.segments = segments;
+        this.position = position;
+        this.size = size;
+
+        this.segmentShift = segmentShift;
+        this.segmentSize = 1L << segmentShift;
+        this.segmentMask = this.segmentSize - 1;
+
+        this.currentIndex = 0;
+        this.stringBuffer = new byte[0];
+    }
+
+    /**
+     * Creates MappedFileReader over the region of this reader grown to the given size, starting at position 0
+     * The full segments of this reader are shared, and only the rest of the region is mapped.
+     *
+     * @param fileChannel the file channel of the mapped file
+     * @param size        the size of the grown region
+     * @return the mapped file reader
+     * @throws IOException if the size is smaller than the size of this reader, if an I/O exception occurs
+     */
+    public @NotNull MappedFileReader extend(@NotNull FileChannel fileChannel, long size) throws IOException {
+        if (size < this.size) {
+            throw new IOException("Size " + size + " is smaller than mapped region. (size " + this.size + ")");
+        }
+
+        int fullSegmentCount = (int) (this.size >>> this.segmentShift);
+
+        return MappedFileReader.map(fileChannel, this.position, size, this.segmentShift, Arrays.copyOf(this.segments, fullSegmentCount));
+    }
+
+    /**
+     * Creates MappedFileReader over the same mapping with its own read position, starting at position 0
+     * Unlike this reader, the created reader can be used by another thread.
+     *
+     * @return the mapped file reader
+     */
+    public @NotNull MappedFileReader duplicate() {
+        MappedByteBuffer[] segments = new MappedByteBuffer[this.segments.length];
+
+        for (int index = 0; index < segments.length; index++) {
+            segments[index] = (MappedByteBuffer) this.segments[index].duplicate();
+        }
+
+        return new MappedFileReader(segments, this.position, this.size, this.segmentShift);
+    }
+
+    /**
+     * Returns the total size of the mapped region
+     *
+     * @return the size
+     */
+    public long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the current read position
+     *
+     * @return the position
+     */
+    public long getPosition() {
+        return this.currentIndex;
+    }
+
+    /**
+     * Moves the read position
+     *
+     * @param position the new position
+     * @throws IOException if the position is out of the mapped region
+     */
+    public void setPosition(long position) throws IOException {
+        if (position < 0 || position > this.size) {
+            throw new IOException("Position " + position + " is out of mapped region. (size " + this.size + ")");
+        }
+
+        this.currentIndex = position;
+    }
+
+    /**
+     * Assert size
+     *
+     * @param size the size to be read
+     */
+    private void assertSize(int size) throws IOException {
+        if (size < 0 || size > this.size - this.currentIndex) {
+            throw new IOException("Reached end of mapped file.");
+        }
+    }
+
+    /**
+     * Returns the segment containing the current position if the next given bytes do not cross a segment boundary,
+     * or null otherwise
+     *
+     * @param size the size to be read
+     * @return the segment or null
+     */
+    private MappedByteBuffer getContinuousSegment(int size) {
+        long offset = this.currentIndex & this.segmentMask;
+
+        if (offset + size > this.segmentSize) {
+            return null;
+        }
+
+        return this.segments[(int) (this.currentIndex >>> this.segmentShift)];
+    }
+
+    /**
+     * Reads a byte at current position without assertion (used when a value crosses a segment boundary)
+     *
+     * @return the byte read
+     */
+    private byte readSegmentedByte() {
+        byte value = this.segments[(int) (this.currentIndex >>> this.segmentShift)].get((int) (this.currentIndex & this.segmentMask));
+        this.currentIndex++;
+        return value;
+    }
+
+    /**
+     * Reads the next byte of data from the mapped file
+     * The value byte is returned as an int in the range 0 to 255.
+     *
+     * @return the byte read
+     * @throws IOException if an I/O exception occurs
+     */
+    public int readByte() throws IOException {
+        this.assertSize(1);
+
+        return this.readSegmentedByte() & 0xFF;
+    }
+
+    /**
+     * Reads the next character of data from the mapped file
+     *
+     * @return the character read
+     * @throws IOException if an I/O exception occurs
+     */
+    public char readChar() throws IOException {
+        return (char) this.readShort();
+    }
+
+    /**
+     * Reads the next short of data from the mapped file
+     *
+     * @return the short read
+     * @throws IOException if an I/O exception occurs
+     */
+    public short readShort() throws IOException {
+        this.assertSize(2);
+
+        MappedByteBuffer segment = this.getContinuousSegment(2);
+
+        if (segment != null) {
+            short value = segment.getShort((int) (this.currentIndex & this.segmentMask));
+            this.currentIndex += 2;
+            return value;
+        }
+
+        return (short) (((this.readSegmentedByte() & 0xFF) << 8) |
+                ((this.readSegmentedByte() & 0xFF)));
+    }
+
+    /**
+     * Reads the next int of data from the mapped file
+     *
+     * @return the int read
+     * @throws IOException if an I/O exception occurs
+     */
+    public int readInt() throws IOException {
+        this.assertSize(4);
+
+        MappedByteBuffer segment = this.getContinuousSegment(4);
+
+        if (segment != null) {
+            int value = segment.getInt((int) (this.currentIndex & this.segmentMask));
+            this.currentIndex += 4;
+            return value;
+        }
+
+        return ((this.readSegmentedByte() & 0xFF) << 24) |
+                ((this.readSegmentedByte() & 0xFF) << 16) |
+                ((this.readSegmentedByte() & 0xFF) << 8) |
+                ((this.readSegmentedByte() & 0xFF));
+    }
+
+    /**
+     * Reads the next float of data from the mapped file
+     *
+     * @return the float read
+     * @throws IOException if an I/O exception occurs
+     */
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(this.readInt());
+    }
+
+    /**
+     * Reads the next long of data from the mapped file
+     *
+     * @return the long read
+     * @throws IOException if an I/O exception occurs
+     */
+    public long readLong() throws IOException {
+        this.assertSize(8);
+
+        MappedByteBuffer segment = this.getContinuousSegment(8);
+
+        if (segment != null) {
+            long value = segment.getLong((int) (this.currentIndex & this.segmentMask));
+            this.currentIndex += 8;
+            return value;
+        }
+
+        return (((long) this.readInt() & 0xFFFFFFFFL) << 32) |
+                ((long) this.readInt() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Reads the next double of data from the mapped file
+     *
+     * @return the double read
+     * @throws IOException if an I/O exception occurs
+     */
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(this.readLong());
+    }
+
+    /**
+     * Reads the next bytes of data from the mapped file
+     *
+     * @param bytes the byte array to write
+     * @throws IOException if an I/O exception occurs
+     */
+    public void readBytes(byte @NotNull [] bytes) throws IOException {
+        this.readBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads the next bytes of data from the mapped file into a region of the byte array
+     *
+     * @param bytes  the byte array to write
+     * @param offset the start offset in the byte array
+     * @param length the number of bytes to read
+     * @throws IOException if an I/O exception occurs
+     */
+    public void readBytes(byte @NotNull [] bytes, int offset, int length) throws IOException {
+        this.assertSize(length);
+
+        int end = offset + length;
+
+        while (offset < end) {
+            MappedByteBuffer segment = this.segments[(int) (this.currentIndex >>> this.segmentShift)];
+            int segmentOffset = (int) (this.currentIndex & this.segmentMask);
+            int segmentLength = (int) Math.min(end - offset, this.segmentSize - segmentOffset);
+
+            segment.position(segmentOffset);
+            segment.get(bytes, offset, segmentLength);
+
+            offset += segmentLength;
+            this.currentIndex += segmentLength;
+        }
+    }
+
+    /**
+     * Reads the next bytes of data as a string, through a reused buffer
+     *
+     * @param length  the number of bytes to read
+     * @param charset the charset of the bytes
+     * @return the string read
+     * @throws IOException if an I/O exception occurs
+     */
+    public @NotNull String readString(int length, @NotNull Charset charset) throws IOException {
+        this.assertSize(length);
+
+        if (this.stringBuffer.length < length) {
+            this.stringBuffer = new byte[Math.max(length, this.stringBuffer.length << 1)];
+        }
+
+        this.readBytes(this.stringBuffer, 0, length);
+
+        return new String(this.stringBuffer, 0, length, charset);
+    }
+
+    /**
+     * Reads the next bytes of data as a string, through the string cache
+     *
+     * @param length      the number of bytes to read
+     * @param charset     the charset of the bytes
+     * @param stringCache the string cache to look the string up in
+     * @return the string read, the cached instance if the same string was read before
+     * @throws IOException if an I/O exception occurs
+     */
+    public @NotNull String readString(int length, @NotNull Charset charset, @NotNull StringCache stringCache) throws IOException {
+        this.assertSize(length);
+
+        if (this.stringBuffer.length < length) {
+            this.stringBuffer = new byte[Math.max(length, this.stringBuffer.length << 1)];
+        }
+
+        this.readBytes(this.stringBuffer, 0, length);
+
+        return stringCache.get(this.stringBuffer, 0, length, charset);
+    }
+
+    /**
+     * Skips over the next bytes of data
+     *
+     * @param length the number of bytes to skip
+     * @throws IOException if an I/O exception occurs
+     */
+    public void skipBytes(int length) throws IOException {
+        this.assertSize(length);
+
+        this.currentIndex += length;
+    }
+}
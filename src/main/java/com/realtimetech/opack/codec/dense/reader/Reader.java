@@ -22,9 +22,11 @@
 
 package com.realtimetech.opack.codec.dense.reader;
 
+import com.realtimetech.opack.util.StringCache;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 
 public interface Reader {
     /**
@@ -91,4 +93,61 @@ public interface Reader {
      * @throws IOException if an I/O exception occurs
      */
     void readBytes(byte @NotNull [] bytes) throws IOException;
+
+    /**
+     * Reads the next bytes of data as a string
+     * The default implementation reads the bytes into a new array through {@link #readBytes(byte[])}.
+     *
+     * @param length  the number of bytes to read
+     * @param charset the charset of the bytes
+     * @return the string read
+     * @throws IOException if an I/O exception occurs, if the length is negative
+     */
+    default @NotNull String readString(int length, @NotNull Charset charset) throws IOException {
+        if (length < 0) {
+            throw new IOException("Can't read string of negative length " + length + ".");
+        }
+
+        byte[] bytes = new byte[length];
+        this.readBytes(bytes);
+
+        return new String(bytes, charset);
+    }
+
+    /**
+     * Reads the next bytes of data as a string, through the string cache
+     *
+     * @param length      the number of bytes to read
+     * @param charset     the charset of the bytes
+     * @param stringCache the string cache to look the string up in
+     * @return the string read, the cached instance if the same string was read before
+     * @throws IOException if an I/O exception occurs
+     */
+    default @NotNull String readString(int length, @NotNull Charset charset, @NotNull StringCache stringCache) throws IOException {
+        return this.readString(length, charset);
+    }
+
+    /**
+     * Skips over the next bytes of data
+     * The default implementation reads the bytes through a scratch buffer, readers that can seek should override it.
+     *
+     * @param length the number of bytes to skip
+     * @throws IOException if an I/O exception occurs, if the length is negative
+     */
+    default void skipBytes(int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("Can't skip negative length " + length + ".");
+        }
+
+        byte[] skipBuffer = new byte[Math.min(length, 4096)];
+
+        while (length > 0) {
+            if (length < skipBuffer.length) {
+                skipBuffer = new byte[length];
+            }
+
+            this.readBytes(skipBuffer);
+            length -= skipBuffer.length;
+        }
+    }
 }
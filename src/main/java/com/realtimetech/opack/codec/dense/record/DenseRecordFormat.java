@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.record;
+
+/**
+ * Frame layout of dense records: sync marker (4 bytes), flags (1 byte), payload length (unsigned varint), payload, CRC32C (4 bytes, if flagged)
+ * The checksum covers the length and the payload, so a corrupted length is detected as well.
+ */
+final class DenseRecordFormat {
+    static final byte[] CONST_SYNC_MARKER = new byte[]{(byte) 0xFE, (byte) 0xD5, 'R', 'C'};
+
+    static final int CONST_FLAG_CHECKSUM = 0x01;
+    static final int CONST_KNOWN_FLAGS = CONST_FLAG_CHECKSUM;
+
+    static final int CONST_MAX_VARINT_SIZE = 5;
+    static final int CONST_MAX_HEADER_SIZE = CONST_SYNC_MARKER.length + 1 + CONST_MAX_VARINT_SIZE;
+    static final int CONST_CHECKSUM_SIZE = 4;
+
+    static final int CONST_DEFAULT_MAX_FRAME_LENGTH = 64 * 1024 * 1024;
+
+    private DenseRecordFormat() {
+    }
+
+    /**
+     * Writes the length as unsigned varint into the bytes
+     *
+     * @param length the length to write
+     * @param bytes  the byte array to write into
+     * @param offset the start offset in the byte array
+     * @return the offset after the varint
+     */
+    static int writeVarInt(int length, byte[] bytes, int offset) {
+        while ((length & ~0x7F) != 0) {
+            bytes[offset++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+
+        bytes[offset++] = (byte) length;
+
+        return offset;
+    }
+}
@@ -0,0 +1,999 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.record;
+
+import com.realtimetech.opack.codec.dense.DenseCodec;
+import com.realtimetech.opack.codec.dense.reader.ByteArrayReader;
+import com.realtimetech.opack.codec.dense.reader.MappedFileReader;
+import com.realtimetech.opack.exception.DecodeException;
+import com.realtimetech.opack.exception.EncodeException;
+import com.realtimetech.opack.value.OpackObject;
+import com.realtimetech.opack.value.OpackValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32C;
+
+import static com.realtimetech.opack.codec.dense.record.DenseRecordFormat.*;
+
+/**
+ * Append-only file of dense record frames with a sparse offset index for random access
+ * Every block of {@code indexInterval} records gets an index entry (first record number, frame position, minimum and maximum of the indexed field),
+ * stored in a sidecar file next to the data file ({@code <data file>.idx}). Reads go through a memory mapping of the data file.
+ * On open, records after the last index entry are recovered by scanning, and a partially written tail is truncated.
+ */
+public class DenseRecordLog implements Closeable {
+    public static final class Builder {
+        /**
+         * Creates a builder for the log at the path
+         *
+         * @param path the path of the data file
+         * @return the builder
+         */
+        public static @NotNull Builder create(@NotNull Path path) {
+            return new Builder(path);
+        }
+
+        private final @NotNull Path path;
+
+        private @NotNull DenseCodec.Builder denseCodecBuilder;
+        private @Nullable String indexedField;
+        private int indexInterval;
+        private int syncInterval;
+        private boolean enableChecksum;
+
+        Builder(@NotNull Path path) {
+            this.path = path;
+
+            this.denseCodecBuilder = DenseCodec.Builder.create();
+            this.indexedField = null;
+            this.indexInterval = 1024;
+            this.syncInterval = 0;
+            this.enableChecksum = true;
+        }
+
+        /**
+         * Sets the builder of the dense codecs used to encode and decode records, one codec is built per reading thread
+         *
+         * @param denseCodecBuilder the dense codec builder
+         * @return the current builder
+         */
+        public @NotNull Builder setDenseCodecBuilder(@NotNull DenseCodec.Builder denseCodecBuilder) {
+            this.denseCodecBuilder = denseCodecBuilder;
+            return this;
+        }
+
+        /**
+         * Sets the numeric field of record objects whose range is indexed per block, for {@link #findByKey(long, long, RecordConsumer)}
+         *
+         * @param indexedField the indexed field name, or null to disable
+         * @return the current builder
+         */
+        public @NotNull Builder setIndexedField(@Nullable String indexedField) {
+            this.indexedField = indexedField;
+            return this;
+        }
+
+        /**
+         * Sets the number of records per index entry
+         *
+         * @param indexInterval the index interval
+         * @return the current builder
+         */
+        public @NotNull Builder setIndexInterval(int indexInterval) {
+            if (indexInterval <= 0) {
+                throw new IllegalArgumentException("Index interval must be positive, but " + indexInterval + ".");
+            }
+
+            this.indexInterval = indexInterval;
+            return this;
+        }
+
+        /**
+         * Sets the number of appended records after which the data is forced to the storage device, 0 to force only on {@link #sync()} and close
+         *
+         * @param syncInterval the sync interval
+         * @return the current builder
+         */
+        public @NotNull Builder setSyncInterval(int syncInterval) {
+            if (syncInterval < 0) {
+                throw new IllegalArgumentException("Sync interval must not be negative, but " + syncInterval + ".");
+            }
+
+            this.syncInterval = syncInterval;
+            return this;
+        }
+
+        /**
+         * Sets whether a CRC32C checksum is written per record
+         *
+         * @param enableChecksum true if checksums should be written
+         * @return the current builder
+         */
+        public @NotNull Builder setEnableChecksum(boolean enableChecksum) {
+            this.enableChecksum = enableChecksum;
+            return this;
+        }
+
+        /**
+         * Opens the log, creating the files if they do not exist
+         *
+         * @return the opened log
+         * @throws IOException if an I/O exception occurs
+         */
+        public @NotNull DenseRecordLog open() throws IOException {
+            return new DenseRecordLog(this);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        /**
+         * Accepts a record read from the log
+         *
+         * @param recordNumber the number of the record
+         * @param opackValue   the record
+         */
+        void accept(long recordNumber, @NotNull OpackValue opackValue);
+    }
+
+    private static final int INDEX_ENTRY_SIZE = 8 + 8 + 8 + 8 + 4;
+    private static final int MAPPING_SEGMENT_SHIFT = 24;
+
+    private final @NotNull DenseCodec.Builder denseCodecBuilder;
+    private final @Nullable String indexedField;
+    private final int indexInterval;
+    private final int syncInterval;
+
+    private final @NotNull FileChannel dataChannel;
+    private final @NotNull FileChannel indexChannel;
+    private final @NotNull DenseCodec denseCodec;
+    private final @NotNull OutputStream dataOutputStream;
+    private final @NotNull DenseRecordWriter denseRecordWriter;
+    private final @NotNull ByteBuffer indexEntryBuffer;
+
+    private final long dataBasePosition;
+
+    private long @NotNull [] blockRecords;
+    private long @NotNull [] blockPositions;
+    private long @NotNull [] blockMinKeys;
+    private long @NotNull [] blockMaxKeys;
+    private int @NotNull [] blockCounts;
+    private int blockSize;
+
+    private long openBlockRecord;
+    private long openBlockPosition;
+    private long openBlockMinKey;
+    private long openBlockMaxKey;
+    private int openBlockCount;
+
+    private long recordCount;
+    private int unsyncedCount;
+    private boolean unflushed;
+
+    private @Nullable MappedFileReader mappedFileReader;
+    private @Nullable FrameCursor frameCursor;
+
+    /**
+     * Constructs a DenseRecordLog
+     *
+     * @param builder the builder of DenseRecordLog
+     * @throws IOException if an I/O exception occurs
+     */
+    DenseRecordLog(@NotNull Builder builder) throws IOException {
+        this.denseCodecBuilder = builder.denseCodecBuilder;
+        this.indexedField = builder.indexedField;
+        this.indexInterval = builder.indexInterval;
+        this.syncInterval = builder.syncInterval;
+
+        Path indexPath = builder.path.resolveSibling(builder.path.getFileName() + ".idx");
+
+        this.dataChannel = FileChannel.open(builder.path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.indexChannel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.denseCodec = this.denseCodecBuilder.build();
+        this.indexEntryBuffer = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+
+        this.blockRecords = new long[16];
+        this.blockPositions = new long[16];
+        this.blockMinKeys = new long[16];
+        this.blockMaxKeys = new long[16];
+        this.blockCounts = new int[16];
+        this.blockSize = 0;
+
+        try {
+            this.dataBasePosition = this.recover();
+
+            this.dataChannel.position(this.dataBasePosition);
+            this.dataOutputStream = new BufferedOutputStream(Channels.newOutputStream(this.dataChannel), 64 * 1024);
+            this.denseRecordWriter = new DenseRecordWriter(this.denseCodec, this.dataOutputStream, builder.enableChecksum);
+        } catch (IOException ioException) {
+            this.dataChannel.close();
+            this.indexChannel.close();
+
+            throw ioException;
+        }
+    }
+
+    /**
+     * Loads the index entries that point into the data file, and recovers the records after them
+     * The last index entry is always rebuilt by scanning its block, since the index may have been written ahead of the data.
+     *
+     * @return the end position of the valid data
+     * @throws IOException if an I/O exception occurs
+     */
+    private long recover() throws IOException {
+        long dataSize = this.dataChannel.size();
+        long entryCount = this.indexChannel.size() / INDEX_ENTRY_SIZE;
+
+        ByteBuffer indexBuffer = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+
+        for (long index = 0; index < entryCount; index++) {
+            indexBuffer.clear();
+            this.indexChannel.read(indexBuffer, index * INDEX_ENTRY_SIZE);
+            indexBuffer.flip();
+
+            long blockRecord = indexBuffer.getLong();
+            long blockPosition = indexBuffer.getLong();
+            long blockMinKey = indexBuffer.getLong();
+            long blockMaxKey = indexBuffer.getLong();
+            int blockCount = indexBuffer.getInt();
+
+            boolean ordered = this.blockSize == 0 ? blockPosition == 0 : blockPosition > this.blockPositions[this.blockSize - 1];
+
+            if (blockRecord != this.recordCount || blockCount <= 0 || !ordered || blockPosition >= dataSize) {
+                break;
+            }
+
+            this.addBlock(blockRecord, blockPosition, blockMinKey, blockMaxKey, blockCount);
+            this.recordCount += blockCount;
+        }
+
+        long position = 0;
+
+        if (this.blockSize > 0) {
+            this.blockSize--;
+            this.recordCount = this.blockRecords[this.blockSize];
+
+            position = this.blockPositions[this.blockSize];
+        }
+
+        this.indexChannel.truncate((long) this.blockSize * INDEX_ENTRY_SIZE);
+        this.indexChannel.position(this.indexChannel.size());
+
+        this.resetOpenBlock();
+
+        long end = position;
+
+        // Scans through the file channel, so that no mapping of the data file is live when it is truncated
+        FrameScanner scanner = new FrameScanner(this.dataChannel, dataSize);
+
+        while (end < dataSize) {
+            long frameEnd = scanner.scan(end, this.indexedField != null);
+
+            if (frameEnd < 0) {
+                break;
+            }
+
+            OpackValue opackValue = null;
+
+            if (this.indexedField != null) {
+                try {
+                    opackValue = this.denseCodec.decode(new ByteArrayReader(scanner.payloadBuffer, 0, scanner.payloadLength));
+                } catch (DecodeException decodeException) {
+                    // The frame itself is intact, so it is kept and indexed without a key rather than truncated
+                    opackValue = null;
+                }
+            }
+
+            this.addToOpenBlock(end, opackValue);
+
+            end = frameEnd;
+        }
+
+        if (end < dataSize) {
+            this.dataChannel.truncate(end);
+        }
+
+        return end;
+    }
+
+    /**
+     * Returns the number of records in this log
+     *
+     * @return the record count
+     */
+    public synchronized long getRecordCount() {
+        return this.recordCount;
+    }
+
+    /**
+     * Appends the {@link OpackValue OpackValue} as a record
+     *
+     * @param opackValue the record to append
+     * @return the number of the appended record
+     * @throws EncodeException if a problem occurs during encoding
+     * @throws IOException     if an I/O exception occurs
+     */
+    public synchronized long append(@NotNull OpackValue opackValue) throws EncodeException, IOException {
+        long framePosition = this.dataBasePosition + this.denseRecordWriter.write(opackValue);
+        long recordNumber = this.recordCount;
+
+        this.unflushed = true;
+        this.addToOpenBlock(framePosition, opackValue);
+
+        if (this.syncInterval > 0 && ++this.unsyncedCount >= this.syncInterval) {
+            this.sync();
+        }
+
+        return recordNumber;
+    }
+
+    /**
+     * Adds a record to the open block, and writes the index entry of the block once it is full
+     *
+     * @param framePosition the position of the record frame
+     * @param opackValue    the record, or null if the key is not needed
+     * @throws IOException if an I/O exception occurs
+     */
+    private void addToOpenBlock(long framePosition, @Nullable OpackValue opackValue) throws IOException {
+        if (this.openBlockCount == 0) {
+            this.openBlockRecord = this.recordCount;
+            this.openBlockPosition = framePosition;
+        }
+
+        if (this.indexedField != null && opackValue instanceof OpackObject) {
+            Object key = ((OpackObject) opackValue).get(this.indexedField);
+
+            if (key instanceof Number) {
+                long longKey = ((Number) key).longValue();
+
+                this.openBlockMinKey = Math.min(this.openBlockMinKey, longKey);
+                this.openBlockMaxKey = Math.max(this.openBlockMaxKey, longKey);
+            }
+        }
+
+        this.openBlockCount++;
+        this.recordCount++;
+
+        if (this.openBlockCount == this.indexInterval) {
+            this.indexEntryBuffer.clear();
+            this.indexEntryBuffer.putLong(this.openBlockRecord);
+            this.indexEntryBuffer.putLong(this.openBlockPosition);
+            this.indexEntryBuffer.putLong(this.openBlockMinKey);
+            this.indexEntryBuffer.putLong(this.openBlockMaxKey);
+            this.indexEntryBuffer.putInt(this.openBlockCount);
+            this.indexEntryBuffer.flip();
+
+            while (this.indexEntryBuffer.hasRemaining()) {
+                this.indexChannel.write(this.indexEntryBuffer);
+            }
+
+            this.addBlock(this.openBlockRecord, this.openBlockPosition, this.openBlockMinKey, this.openBlockMaxKey, this.openBlockCount);
+            this.resetOpenBlock();
+        }
+    }
+
+    /**
+     * Adds a complete block to the in-memory index
+     */
+    private void addBlock(long blockRecord, long blockPosition, long blockMinKey, long blockMaxKey, int blockCount) {
+        if (this.blockSize == this.blockRecords.length) {
+            int newLength = this.blockSize << 1;
+
+            this.blockRecords = Arrays.copyOf(this.blockRecords, newLength);
+            this.blockPositions = Arrays.copyOf(this.blockPositions, newLength);
+            this.blockMinKeys = Arrays.copyOf(this.blockMinKeys, newLength);
+            this.blockMaxKeys = Arrays.copyOf(this.blockMaxKeys, newLength);
+            this.blockCounts = Arrays.copyOf(this.blockCounts, newLength);
+        }
+
+        this.blockRecords[this.blockSize] = blockRecord;
+        this.blockPositions[this.blockSize] = blockPosition;
+        this.blockMinKeys[this.blockSize] = blockMinKey;
+        this.blockMaxKeys[this.blockSize] = blockMaxKey;
+        this.blockCounts[this.blockSize] = blockCount;
+        this.blockSize++;
+    }
+
+    /**
+     * Resets the open block to be empty
+     */
+    private void resetOpenBlock() {
+        this.openBlockCount = 0;
+        this.openBlockMinKey = Long.MAX_VALUE;
+        this.openBlockMaxKey = Long.MIN_VALUE;
+    }
+
+    /**
+     * Forces the appended records and their index entries to the storage device
+     *
+     * @throws IOException if an I/O exception occurs
+     */
+    public synchronized void sync() throws IOException {
+        this.denseRecordWriter.flush();
+        this.unflushed = false;
+
+        // Data first, so a durable index entry never points to missing data
+        this.dataChannel.force(false);
+        this.indexChannel.force(false);
+
+        this.unsyncedCount = 0;
+    }
+
+    /**
+     * Reads the record of the number
+     *
+     * @param recordNumber the number of the record
+     * @return the record
+     * @throws DecodeException           if a problem occurs during decoding
+     * @throws IOException               if an I/O exception occurs
+     * @throws IndexOutOfBoundsException if the record does not exist
+     */
+    public synchronized @NotNull OpackValue read(long recordNumber) throws DecodeException, IOException {
+        if (recordNumber < 0 || recordNumber >= this.recordCount) {
+            throw new IndexOutOfBoundsException("Record " + recordNumber + " does not exist. (record count " + this.recordCount + ")");
+        }
+
+        OpackValue[] result = new OpackValue[1];
+        this.read(recordNumber, recordNumber + 1, (number, opackValue) -> result[0] = opackValue);
+
+        return result[0];
+    }
+
+    /**
+     * Reads the records in the range of numbers
+     *
+     * @param fromRecord     the first record number, inclusive
+     * @param toRecord       the last record number, exclusive
+     * @param recordConsumer the consumer of the records
+     * @throws DecodeException if a problem occurs during decoding
+     * @throws IOException     if an I/O exception occurs
+     */
+    public synchronized void read(long fromRecord, long toRecord, @NotNull RecordConsumer recordConsumer) throws DecodeException, IOException {
+        fromRecord = Math.max(fromRecord, 0);
+        toRecord = Math.min(toRecord, this.recordCount);
+
+        if (fromRecord >= toRecord) {
+            return;
+        }
+
+        int block = this.findBlock(fromRecord);
+        FrameCursor cursor = this.getFrameCursor();
+
+        cursor.reader.setPosition(this.getBlockPosition(block));
+
+        for (long recordNumber = this.getBlockRecord(block); recordNumber < toRecord; recordNumber++) {
+            int length = cursor.readValidHeader();
+
+            if (recordNumber < fromRecord) {
+                cursor.skipRemaining();
+            } else {
+                recordConsumer.accept(recordNumber, cursor.decode(length, true));
+            }
+        }
+    }
+
+    /**
+     * Reads the records whose indexed field is in the range of keys, skipping blocks whose key range does not overlap
+     *
+     * @param fromKey        the minimum key, inclusive
+     * @param toKey          the maximum key, inclusive
+     * @param recordConsumer the consumer of the records
+     * @throws DecodeException       if a problem occurs during decoding
+     * @throws IOException           if an I/O exception occurs
+     * @throws IllegalStateException if the log has no indexed field
+     */
+    public synchronized void findByKey(long fromKey, long toKey, @NotNull RecordConsumer recordConsumer) throws DecodeException, IOException {
+        String indexedField = this.indexedField;
+
+        if (indexedField == null) {
+            throw new IllegalStateException("This log has no indexed field.");
+        }
+
+        FrameCursor cursor = this.getFrameCursor();
+
+        for (int block = 0; block < this.getBlockCount(); block++) {
+            if (this.getBlockMaxKey(block) < fromKey || this.getBlockMinKey(block) > toKey) {
+                continue;
+            }
+
+            cursor.reader.setPosition(this.getBlockPosition(block));
+            long blockRecord = this.getBlockRecord(block);
+
+            for (int index = 0; index < this.getBlockRecordCount(block); index++) {
+                OpackValue opackValue = cursor.decode(cursor.readValidHeader(), true);
+
+                if (opackValue instanceof OpackObject) {
+                    Object key = ((OpackObject) opackValue).get(indexedField);
+
+                    if (key instanceof Number && ((Number) key).longValue() >= fromKey && ((Number) key).longValue() <= toKey) {
+                        recordConsumer.accept(blockRecord + index, opackValue);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads all records with multiple threads, each scanning a contiguous run of blocks through its own mapping and codec
+     * The consumer is called concurrently, and records are not delivered in order.
+     *
+     * @param parallelism    the number of threads
+     * @param recordConsumer the thread-safe consumer of the records
+     * @throws DecodeException if a problem occurs during decoding
+     * @throws IOException     if an I/O exception occurs
+     */
+    public synchronized void parallelScan(int parallelism, @NotNull RecordConsumer recordConsumer) throws DecodeException, IOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive, but " + parallelism + ".");
+        }
+
+        MappedFileReader mappedFileReader = this.getFrameCursor().reader;
+
+        int blockCount = this.getBlockCount();
+        int taskCount = Math.min(parallelism, blockCount);
+
+        if (taskCount == 0) {
+            return;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(taskCount);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int task = 0; task < taskCount; task++) {
+                int fromBlock = (int) ((long) blockCount * task / taskCount);
+                int toBlock = (int) ((long) blockCount * (task + 1) / taskCount);
+
+                futures.add(executorService.submit(() -> {
+                    FrameCursor cursor = new FrameCursor(mappedFileReader.duplicate(), this.denseCodecBuilder.build());
+                    cursor.reader.setPosition(this.getBlockPosition(fromBlock));
+
+                    long recordNumber = this.getBlockRecord(fromBlock);
+                    long toRecord = toBlock == blockCount ? this.recordCount : this.getBlockRecord(toBlock);
+
+                    for (; recordNumber < toRecord; recordNumber++) {
+                        recordConsumer.accept(recordNumber, cursor.decode(cursor.readValidHeader(), true));
+                    }
+
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IOException(interruptedException);
+        } catch (ExecutionException executionException) {
+            Throwable cause = executionException.getCause();
+
+            if (cause instanceof DecodeException) {
+                throw (DecodeException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new IOException(cause);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the number of blocks, including the open block if it has records
+     *
+     * @return the block count
+     */
+    private int getBlockCount() {
+        return this.blockSize + (this.openBlockCount > 0 ? 1 : 0);
+    }
+
+    private long getBlockRecord(int block) {
+        return block < this.blockSize ? this.blockRecords[block] : this.openBlockRecord;
+    }
+
+    private long getBlockPosition(int block) {
+        return block < this.blockSize ? this.blockPositions[block] : this.openBlockPosition;
+    }
+
+    private long getBlockMinKey(int block) {
+        return block < this.blockSize ? this.blockMinKeys[block] : this.openBlockMinKey;
+    }
+
+    private long getBlockMaxKey(int block) {
+        return block < this.blockSize ? this.blockMaxKeys[block] : this.openBlockMaxKey;
+    }
+
+    private int getBlockRecordCount(int block) {
+        return block < this.blockSize ? this.blockCounts[block] : this.openBlockCount;
+    }
+
+    /**
+     * Returns the block that contains the record
+     *
+     * @param recordNumber the number of the record
+     * @return the block
+     */
+    private int findBlock(long recordNumber) {
+        if (this.openBlockCount > 0 && recordNumber >= this.openBlockRecord) {
+            return this.blockSize;
+        }
+
+        int index = Arrays.binarySearch(this.blockRecords, 0, this.blockSize, recordNumber);
+
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Returns the frame cursor over the memory mapping, flushing appended records and extending the mapping over the grown data file if needed
+     * The mapping is made of small segments, so that extending it maps only the appended tail and the last partial segment.
+     *
+     * @return the frame cursor
+     * @throws IOException if an I/O exception occurs
+     */
+    private @NotNull FrameCursor getFrameCursor() throws IOException {
+        if (this.unflushed) {
+            this.denseRecordWriter.flush();
+            this.unflushed = false;
+        }
+
+        long dataSize = this.dataBasePosition + this.denseRecordWriter.getPosition();
+
+        if (this.frameCursor == null || this.mappedFileReader == null) {
+            this.mappedFileReader = MappedFileReader.of(this.dataChannel, 0, dataSize, MAPPING_SEGMENT_SHIFT);
+            this.frameCursor = new FrameCursor(this.mappedFileReader, this.denseCodec);
+        } else if (this.mappedFileReader.getSize() != dataSize) {
+            this.mappedFileReader = this.mappedFileReader.extend(this.dataChannel, dataSize);
+            this.frameCursor.reader = this.mappedFileReader;
+        }
+
+        return this.frameCursor;
+    }
+
+    /**
+     * Forces the appended records to the storage device and closes the files
+     *
+     * @throws IOException if an I/O exception occurs
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            this.sync();
+        } finally {
+            this.mappedFileReader = null;
+            this.frameCursor = null;
+
+            this.denseRecordWriter.close();
+            this.indexChannel.close();
+        }
+    }
+
+    /**
+     * Parses frames from a memory mapping of the data file
+     */
+    private static final class FrameCursor {
+        private @NotNull MappedFileReader reader;
+        private final @NotNull DenseCodec denseCodec;
+        private final @NotNull CRC32C crc32c;
+        private final byte @NotNull [] lengthBuffer;
+
+        private byte @NotNull [] payloadBuffer;
+        private long payloadPosition;
+        private int payloadLength;
+        private boolean checksummed;
+
+        FrameCursor(@NotNull MappedFileReader reader, @NotNull DenseCodec denseCodec) {
+            this.reader = reader;
+            this.denseCodec = denseCodec;
+            this.crc32c = new CRC32C();
+            this.lengthBuffer = new byte[CONST_MAX_VARINT_SIZE];
+
+            this.payloadBuffer = new byte[1024];
+        }
+
+        /**
+         * Reads the header of the frame at the current position, leaving the position at the payload
+         *
+         * @return the payload length, or -1 if the frame is invalid or truncated
+         * @throws IOException if an I/O exception occurs
+         */
+        int readHeader() throws IOException {
+            long remaining = this.reader.getSize() - this.reader.getPosition();
+
+            if (remaining < CONST_SYNC_MARKER.length + 2) {
+                return -1;
+            }
+
+            for (byte marker : CONST_SYNC_MARKER) {
+                if ((byte) this.reader.readByte() != marker) {
+                    return -1;
+                }
+            }
+
+            int flags = this.reader.readByte() & 0xFF;
+
+            if ((flags & ~CONST_KNOWN_FLAGS) != 0) {
+                return -1;
+            }
+
+            int length = 0;
+            int shift = 0;
+
+            while (true) {
+                if (shift > 28 || this.reader.getPosition() >= this.reader.getSize()) {
+                    return -1;
+                }
+
+                int value = this.reader.readByte() & 0xFF;
+                length |= (value & 0x7F) << shift;
+
+                if ((value & 0x80) == 0) {
+                    break;
+                }
+
+                shift += 7;
+            }
+
+            this.checksummed = (flags & CONST_FLAG_CHECKSUM) != 0;
+            this.payloadPosition = this.reader.getPosition();
+            this.payloadLength = length;
+
+            if (length < 0 || this.reader.getSize() - this.payloadPosition < length + (this.checksummed ? CONST_CHECKSUM_SIZE : 0L)) {
+                return -1;
+            }
+
+            return length;
+        }
+
+        /**
+         * Reads the header of the frame at the current position, which must be valid
+         *
+         * @return the payload length
+         * @throws DecodeException if the frame is invalid
+         * @throws IOException     if an I/O exception occurs
+         */
+        int readValidHeader() throws DecodeException, IOException {
+            long frameStart = this.reader.getPosition();
+            int length = this.readHeader();
+
+            if (length < 0) {
+                throw new DecodeException("Frame at " + frameStart + " is corrupted in dense record log.");
+            }
+
+            return length;
+        }
+
+        /**
+         * Verifies the checksum of the frame whose header was just read, leaving the position at the payload
+         *
+         * @param length the payload length
+         * @return true if the frame has no checksum or the checksum matches
+         * @throws IOException if an I/O exception occurs
+         */
+        boolean verify(int length) throws IOException {
+            if (!this.checksummed) {
+                return true;
+            }
+
+            if (this.payloadBuffer.length < length) {
+                this.payloadBuffer = new byte[Math.max(length, this.payloadBuffer.length << 1)];
+            }
+
+            this.reader.readBytes(this.payloadBuffer, 0, length);
+            int checksum = this.reader.readInt();
+            this.reader.setPosition(this.payloadPosition);
+
+            int lengthSize = DenseRecordFormat.writeVarInt(length, this.lengthBuffer, 0);
+
+            this.crc32c.reset();
+            this.crc32c.update(this.lengthBuffer, 0, lengthSize);
+            this.crc32c.update(this.payloadBuffer, 0, length);
+
+            return checksum == (int) this.crc32c.getValue();
+        }
+
+        /**
+         * Decodes the payload of the frame whose header was just read, leaving the position after the frame
+         *
+         * @param length         the payload length
+         * @param verifyChecksum true if the checksum should be verified
+         * @return the decoded record
+         * @throws DecodeException if a problem occurs during decoding, if the checksum does not match
+         * @throws IOException     if an I/O exception occurs
+         */
+        @NotNull OpackValue decode(int length, boolean verifyChecksum) throws DecodeException, IOException {
+            OpackValue opackValue;
+
+            if (verifyChecksum && this.checksummed) {
+                if (!this.verify(length)) {
+                    throw new DecodeException("Frame at " + this.payloadPosition + " does not match its checksum in dense record log.");
+                }
+
+                opackValue = this.denseCodec.decode(new ByteArrayReader(this.payloadBuffer, 0, length));
+            } else {
+                opackValue = this.denseCodec.decode(this.reader);
+            }
+
+            this.skipRemaining();
+
+            return opackValue;
+        }
+
+        /**
+         * Moves the position after the frame whose header was just read
+         *
+         * @throws IOException if an I/O exception occurs
+         */
+        void skipRemaining() throws IOException {
+            this.reader.setPosition(this.payloadPosition + this.payloadLength + (this.checksummed ? CONST_CHECKSUM_SIZE : 0));
+        }
+    }
+
+    /**
+     * Scans frames through positional reads of the data file, without mapping it
+     */
+    private static final class FrameScanner {
+        private final @NotNull FileChannel fileChannel;
+        private final long size;
+        private final @NotNull CRC32C crc32c;
+        private final @NotNull ByteBuffer headerBuffer;
+
+        private byte @NotNull [] payloadBuffer;
+        private int payloadLength;
+
+        FrameScanner(@NotNull FileChannel fileChannel, long size) {
+            this.fileChannel = fileChannel;
+            this.size = size;
+            this.crc32c = new CRC32C();
+            this.headerBuffer = ByteBuffer.allocate(CONST_MAX_HEADER_SIZE);
+
+            this.payloadBuffer = new byte[1024];
+        }
+
+        /**
+         * Validates the frame at the position, reading its payload into the payload buffer if needed
+         *
+         * @param position    the position of the frame
+         * @param readPayload true if the payload should be read even if the frame has no checksum
+         * @return the end position of the frame, or -1 if the frame is invalid or truncated
+         * @throws IOException if an I/O exception occurs
+         */
+        long scan(long position, boolean readPayload) throws IOException {
+            long remaining = this.size - position;
+
+            if (remaining < CONST_SYNC_MARKER.length + 2) {
+                return -1;
+            }
+
+            this.headerBuffer.clear();
+            this.headerBuffer.limit((int) Math.min(CONST_MAX_HEADER_SIZE, remaining));
+            this.readFully(this.headerBuffer, position);
+
+            byte[] header = this.headerBuffer.array();
+
+            for (int index = 0; index < CONST_SYNC_MARKER.length; index++) {
+                if (header[index] != CONST_SYNC_MARKER[index]) {
+                    return -1;
+                }
+            }
+
+            int flags = header[CONST_SYNC_MARKER.length] & 0xFF;
+
+            if ((flags & ~CONST_KNOWN_FLAGS) != 0) {
+                return -1;
+            }
+
+            int cursor = CONST_SYNC_MARKER.length + 1;
+            int length = 0;
+            int shift = 0;
+
+            while (true) {
+                if (shift > 28 || cursor >= this.headerBuffer.limit()) {
+                    return -1;
+                }
+
+                int value = header[cursor++] & 0xFF;
+                length |= (value & 0x7F) << shift;
+
+                if ((value & 0x80) == 0) {
+                    break;
+                }
+
+                shift += 7;
+            }
+
+            boolean checksummed = (flags & CONST_FLAG_CHECKSUM) != 0;
+            long frameLength = cursor + (long) length + (checksummed ? CONST_CHECKSUM_SIZE : 0);
+
+            if (length < 0 || length > Integer.MAX_VALUE - CONST_CHECKSUM_SIZE || frameLength > remaining) {
+                return -1;
+            }
+
+            if (checksummed || readPayload) {
+                int payloadSize = length + (checksummed ? CONST_CHECKSUM_SIZE : 0);
+
+                if (this.payloadBuffer.length < payloadSize) {
+                    this.payloadBuffer = new byte[Math.max(payloadSize, this.payloadBuffer.length << 1)];
+                }
+
+                this.readFully(ByteBuffer.wrap(this.payloadBuffer, 0, payloadSize), position + cursor);
+                this.payloadLength = length;
+
+                if (checksummed) {
+                    int checksum = ByteBuffer.wrap(this.payloadBuffer, length, CONST_CHECKSUM_SIZE).getInt();
+
+                    this.crc32c.reset();
+                    this.crc32c.update(header, CONST_SYNC_MARKER.length + 1, cursor - CONST_SYNC_MARKER.length - 1);
+                    this.crc32c.update(this.payloadBuffer, 0, length);
+
+                    if (checksum != (int) this.crc32c.getValue()) {
+                        return -1;
+                    }
+                }
+            }
+
+            return position + frameLength;
+        }
+
+        /**
+         * Reads the remaining bytes of the byte buffer from the position of the file
+         *
+         * @param byteBuffer the byte buffer to fill
+         * @param position   the position within the file
+         * @throws IOException if an I/O exception occurs, if the end of the file is reached
+         */
+        private void readFully(@NotNull ByteBuffer byteBuffer, long position) throws IOException {
+            while (byteBuffer.hasRemaining()) {
+                int read = this.fileChannel.read(byteBuffer, position);
+
+                if (read < 0) {
+                    throw new EOFException("Reached end of data file at " + position + ".");
+                }
+
+                position += read;
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.record;
+
+import com.realtimetech.opack.codec.dense.DenseCodec;
+import com.realtimetech.opack.codec.dense.reader.ByteArrayReader;
+import com.realtimetech.opack.exception.DecodeException;
+import com.realtimetech.opack.value.OpackValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+import static com.realtimetech.opack.codec.dense.record.DenseRecordFormat.*;
+
+/**
+ * Reads frames written by {@link DenseRecordWriter}, decoding each payload in place from a reused buffer
+ * Corrupted frames (bad checksum, malformed length, truncated or undecodable payload) are skipped by scanning to the next sync marker.
+ */
+public class DenseRecordReader implements Closeable {
+    private final @NotNull DenseCodec denseCodec;
+    private final @NotNull InputStream inputStream;
+    private final int maxFrameLength;
+    private final @NotNull CRC32C crc32c;
+
+    private byte @NotNull [] buffer;
+    private int position;
+    private int limit;
+    private long bufferOffset;
+    private boolean endOfStream;
+
+    private int payloadOffset;
+    private int payloadLength;
+    private int frameLength;
+    private boolean frameChecksummed;
+    private long framePosition;
+
+    private long skippedBytes;
+    private long corruptedFrameCount;
+
+    /**
+     * Constructs a DenseRecordReader
+     *
+     * @param denseCodec  the dense codec to decode records
+     * @param inputStream the input stream to read frames from
+     */
+    public DenseRecordReader(@NotNull DenseCodec denseCodec, @NotNull InputStream inputStream) {
+        this(denseCodec, inputStream, CONST_DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Constructs a DenseRecordReader
+     *
+     * @param denseCodec     the dense codec to decode records
+     * @param inputStream    the input stream to read frames from
+     * @param maxFrameLength the maximum payload length, longer frames are treated as corrupted
+     */
+    public DenseRecordReader(@NotNull DenseCodec denseCodec, @NotNull InputStream inputStream, int maxFrameLength) {
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("Max frame length must be positive, but " + maxFrameLength + ".");
+        }
+
+        this.denseCodec = denseCodec;
+        this.inputStream = inputStream;
+        this.maxFrameLength = maxFrameLength;
+        this.crc32c = new CRC32C();
+
+        this.buffer = new byte[8192];
+        this.position = 0;
+        this.limit = 0;
+        this.bufferOffset = 0;
+        this.endOfStream = false;
+
+        this.framePosition = -1;
+
+        this.skippedBytes = 0;
+        this.corruptedFrameCount = 0;
+    }
+
+    /**
+     * Returns the position of the frame last read in the stream, or -1 if no frame has been read
+     *
+     * @return the frame position
+     */
+    public long getFramePosition() {
+        return framePosition;
+    }
+
+    /**
+     * Returns the number of bytes skipped to resynchronize after corruption
+     *
+     * @return the skipped bytes
+     */
+    public long getSkippedBytes() {
+        return skippedBytes;
+    }
+
+    /**
+     * Returns the number of frames that had a sync marker but were corrupted
+     *
+     * @return the corrupted frame count
+     */
+    public long getCorruptedFrameCount() {
+        return corruptedFrameCount;
+    }
+
+    /**
+     * Reads and decodes the next valid frame
+     *
+     * @return the decoded value, or null if the end of the stream has been reached
+     * @throws DecodeException if a checksummed frame is intact but cannot be decoded
+     * @throws IOException     if an I/O exception occurs
+     */
+    public @Nullable OpackValue read() throws DecodeException, IOException {
+        while (this.nextFrame()) {
+            OpackValue opackValue;
+
+            try {
+                opackValue = this.denseCodec.decode(new ByteArrayReader(this.buffer, this.payloadOffset, this.payloadLength));
+            } catch (DecodeException decodeException) {
+                if (this.frameChecksummed) {
+                    // The frame is intact, so the failure is not corruption
+                    this.position += this.frameLength;
+                    throw decodeException;
+                }
+
+                this.skipCorruptedFrame();
+                continue;
+            }
+
+            this.position += this.frameLength;
+
+            return opackValue;
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds the next frame whose header and checksum are valid, without consuming it
+     *
+     * @return true if a frame is found, false if the end of the stream has been reached
+     * @throws IOException if an I/O exception occurs
+     */
+    private boolean nextFrame() throws IOException {
+        while (true) {
+            if (!this.ensure(CONST_SYNC_MARKER.length)) {
+                this.skippedBytes += this.limit - this.position;
+                this.position = this.limit;
+
+                return false;
+            }
+
+            if (!this.isSyncMarker()) {
+                this.position++;
+                this.skippedBytes++;
+                continue;
+            }
+
+            int cursor = CONST_SYNC_MARKER.length;
+
+            if (!this.ensure(cursor + 1)) {
+                this.skipCorruptedFrame();
+                continue;
+            }
+
+            int flags = this.buffer[this.position + cursor++] & 0xFF;
+
+            if ((flags & ~CONST_KNOWN_FLAGS) != 0) {
+                this.skipCorruptedFrame();
+                continue;
+            }
+
+            int length = 0;
+            boolean terminated = false;
+
+            for (int index = 0; index < CONST_MAX_VARINT_SIZE; index++) {
+                if (!this.ensure(cursor + 1)) {
+                    break;
+                }
+
+                byte value = this.buffer[this.position + cursor++];
+                length |= (value & 0x7F) << (index * 7);
+
+                if ((value & 0x80) == 0) {
+                    terminated = true;
+                    break;
+                }
+            }
+
+            if (!terminated || length < 0 || length > this.maxFrameLength) {
+                this.skipCorruptedFrame();
+                continue;
+            }
+
+            boolean checksummed = (flags & CONST_FLAG_CHECKSUM) != 0;
+            int frameLength = cursor + length + (checksummed ? CONST_CHECKSUM_SIZE : 0);
+
+            if (!this.ensure(frameLength)) {
+                this.skipCorruptedFrame();
+                continue;
+            }
+
+            if (checksummed) {
+                int checksumOffset = this.position + cursor + length;
+
+                this.crc32c.reset();
+                this.crc32c.update(this.buffer, this.position + CONST_SYNC_MARKER.length + 1, cursor - CONST_SYNC_MARKER.length - 1 + length);
+
+                int checksum = ((this.buffer[checksumOffset] & 0xFF) << 24) |
+                        ((this.buffer[checksumOffset + 1] & 0xFF) << 16) |
+                        ((this.buffer[checksumOffset + 2] & 0xFF) << 8) |
+                        (this.buffer[checksumOffset + 3] & 0xFF);
+
+                if (checksum != (int) this.crc32c.getValue()) {
+                    this.skipCorruptedFrame();
+                    continue;
+                }
+            }
+
+            this.payloadOffset = this.position + cursor;
+            this.payloadLength = length;
+            this.frameLength = frameLength;
+            this.frameChecksummed = checksummed;
+            this.framePosition = this.bufferOffset + this.position;
+
+            return true;
+        }
+    }
+
+    /**
+     * Returns true if the sync marker starts at the current position
+     *
+     * @return true if the sync marker is found
+     */
+    private boolean isSyncMarker() {
+        for (int index = 0; index < CONST_SYNC_MARKER.length; index++) {
+            if (this.buffer[this.position + index] != CONST_SYNC_MARKER[index]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Skips the sync marker of a corrupted frame, so that scanning resumes right after it
+     */
+    private void skipCorruptedFrame() {
+        this.position++;
+        this.skippedBytes++;
+        this.corruptedFrameCount++;
+    }
+
+    /**
+     * Ensures that the buffer holds at least the size of bytes from the current position, reading more from the input stream if needed
+     *
+     * @param size the required size
+     * @return false if the end of the stream has been reached before
+     * @throws IOException if an I/O exception occurs
+     */
+    private boolean ensure(int size) throws IOException {
+        if (this.limit - this.position >= size) {
+            return true;
+        }
+
+        if (this.position > 0) {
+            System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit - this.position);
+
+            this.limit -= this.position;
+            this.bufferOffset += this.position;
+            this.position = 0;
+        }
+
+        if (size > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(size, this.buffer.length << 1));
+        }
+
+        while (this.limit < size && !this.endOfStream) {
+            int read = this.inputStream.read(this.buffer, this.limit, this.buffer.length - this.limit);
+
+            if (read < 0) {
+                this.endOfStream = true;
+            } else {
+                this.limit += read;
+            }
+        }
+
+        return this.limit >= size;
+    }
+
+    /**
+     * Closes the underlying input stream
+     *
+     * @throws IOException if an I/O exception occurs
+     */
+    @Override
+    public void close() throws IOException {
+        this.inputStream.close();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.record;
+
+import com.realtimetech.opack.codec.dense.DenseCodec;
+import com.realtimetech.opack.codec.dense.writer.ByteArrayWriter;
+import com.realtimetech.opack.exception.EncodeException;
+import com.realtimetech.opack.value.OpackValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32C;
+
+import static com.realtimetech.opack.codec.dense.record.DenseRecordFormat.*;
+
+/**
+ * Writes dense documents back to back as length-prefixed frames, see {@link DenseRecordReader}
+ * The payload buffer and frame header are reused, so writing a record allocates nothing once the buffer has grown.
+ */
+public class DenseRecordWriter implements Closeable, Flushable {
+    private final @NotNull DenseCodec denseCodec;
+    private final @NotNull OutputStream outputStream;
+    private final boolean enableChecksum;
+    private final int maxFrameLength;
+
+    private final @NotNull ByteArrayWriter payloadWriter;
+    private final byte @NotNull [] headerBuffer;
+    private final byte @NotNull [] checksumBuffer;
+    private final @NotNull CRC32C crc32c;
+
+    private long position;
+    private long recordCount;
+
+    /**
+     * Constructs a DenseRecordWriter that writes checksummed frames
+     *
+     * @param denseCodec   the dense codec to encode records
+     * @param outputStream the output stream to write frames to
+     */
+    public DenseRecordWriter(@NotNull DenseCodec denseCodec, @NotNull OutputStream outputStream) {
+        this(denseCodec, outputStream, true);
+    }
+
+    /**
+     * Constructs a DenseRecordWriter
+     *
+     * @param denseCodec     the dense codec to encode records
+     * @param outputStream   the output stream to write frames to
+     * @param enableChecksum true if a CRC32C checksum should be written per frame
+     */
+    public DenseRecordWriter(@NotNull DenseCodec denseCodec, @NotNull OutputStream outputStream, boolean enableChecksum) {
+        this(denseCodec, outputStream, enableChecksum, CONST_DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Constructs a DenseRecordWriter
+     *
+     * @param denseCodec     the dense codec to encode records
+     * @param outputStream   the output stream to write frames to
+     * @param enableChecksum true if a CRC32C checksum should be written per frame
+     * @param maxFrameLength the maximum payload length, must match the max frame length of the {@link DenseRecordReader DenseRecordReader}
+     */
+    public DenseRecordWriter(@NotNull DenseCodec denseCodec, @NotNull OutputStream outputStream, boolean enableChecksum, int maxFrameLength) {
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("Max frame length must be positive, but " + maxFrameLength + ".");
+        }
+
+        this.denseCodec = denseCodec;
+        this.outputStream = outputStream;
+        this.enableChecksum = enableChecksum;
+        this.maxFrameLength = maxFrameLength;
+
+        this.payloadWriter = new ByteArrayWriter();
+        this.headerBuffer = new byte[CONST_MAX_HEADER_SIZE];
+        this.checksumBuffer = new byte[CONST_CHECKSUM_SIZE];
+        this.crc32c = new CRC32C();
+
+        this.position = 0;
+        this.recordCount = 0;
+    }
+
+    /**
+     * Returns the number of bytes written by this writer
+     *
+     * @return the position
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the number of records written by this writer
+     *
+     * @return the record count
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Encodes the {@link OpackValue OpackValue} and writes it as a frame
+     *
+     * @param opackValue the opack value to write
+     * @return the position of the written frame
+     * @throws EncodeException if a problem occurs during encoding
+     * @throws IOException     if an I/O error occurs
+     */
+    public long write(@NotNull OpackValue opackValue) throws EncodeException, IOException {
+        return this.writeObject(opackValue);
+    }
+
+    /**
+     * Encodes the {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue} and writes it as a frame
+     *
+     * @param object the object to write
+     * @return the position of the written frame
+     * @throws EncodeException if a problem occurs during encoding
+     * @throws IOException     if an I/O error occurs
+     */
+    public long writeObject(@Nullable Object object) throws EncodeException, IOException {
+        this.payloadWriter.reset();
+        this.denseCodec.encodeObject(this.payloadWriter, object);
+
+        return this.writeFrame(this.payloadWriter.getBytes(), 0, this.payloadWriter.getLength());
+    }
+
+    /**
+     * Writes already encoded dense bytes as a frame
+     *
+     * @param payload the byte array that holds the payload
+     * @param offset  the start offset of the payload
+     * @param length  the length of the payload
+     * @return the position of the written frame
+     * @throws IOException if the payload is longer than the max frame length, or an I/O error occurs
+     */
+    public long writeFrame(byte @NotNull [] payload, int offset, int length) throws IOException {
+        if (length < 0 || length > this.maxFrameLength) {
+            throw new IOException("Frame length must be between 0 and " + this.maxFrameLength + ", but " + length + ".");
+        }
+
+        long framePosition = this.position;
+
+        System.arraycopy(CONST_SYNC_MARKER, 0, this.headerBuffer, 0, CONST_SYNC_MARKER.length);
+        this.headerBuffer[CONST_SYNC_MARKER.length] = (byte) (this.enableChecksum ? CONST_FLAG_CHECKSUM : 0);
+
+        int lengthOffset = CONST_SYNC_MARKER.length + 1;
+        int headerLength = DenseRecordFormat.writeVarInt(length, this.headerBuffer, lengthOffset);
+
+        this.outputStream.write(this.headerBuffer, 0, headerLength);
+        this.outputStream.write(payload, offset, length);
+        this.position += headerLength + length;
+
+        if (this.enableChecksum) {
+            this.crc32c.reset();
+            this.crc32c.update(this.headerBuffer, lengthOffset, headerLength - lengthOffset);
+            this.crc32c.update(payload, offset, length);
+
+            int checksum = (int) this.crc32c.getValue();
+
+            this.checksumBuffer[0] = (byte) (checksum >> 24);
+            this.checksumBuffer[1] = (byte) (checksum >> 16);
+            this.checksumBuffer[2] = (byte) (checksum >> 8);
+            this.checksumBuffer[3] = (byte) checksum;
+
+            this.outputStream.write(this.checksumBuffer);
+            this.position += CONST_CHECKSUM_SIZE;
+        }
+
+        this.recordCount++;
+
+        return framePosition;
+    }
+
+    /**
+     * Flushes the underlying output stream
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        this.outputStream.flush();
+    }
+
+    /**
+     * Closes the underlying output stream
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        this.outputStream.close();
+    }
+}
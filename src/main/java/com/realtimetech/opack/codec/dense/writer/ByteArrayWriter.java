@@ -22,9 +22,13 @@
 
 package com.realtimetech.opack.codec.dense.writer;
 
+import com.realtimetech.opack.util.CharsetUtil;
 import org.jetbrains.annotations.NotNull;
 
-public class ByteArrayWriter implements Writer {
+import java.io.IOException;
+
+public class ByteArrayWriter implements PatchableWriter {
+    private final int initialSize;
     private byte @NotNull [] bytes;
 
     private int currentIndex;
@@ -43,6 +47,7 @@ public class ByteArrayWriter implements Writer {
      * @param initialSize the initial size
      */
     public ByteArrayWriter(int initialSize) {
+        this.initialSize = initialSize;
         this.bytes = new byte[0];
 
         this.currentIndex = 0;
@@ -60,6 +65,16 @@ public class ByteArrayWriter implements Writer {
         return this.currentIndex;
     }
 
+    /**
+     * Returns the backing byte array without copying, only the first {@link #getLength()} bytes are written data
+     * The returned array is replaced when this writer grows.
+     *
+     * @return the backing byte array
+     */
+    public byte @NotNull [] getBytes() {
+        return this.bytes;
+    }
+
     /**
      * Reset this writer
      */
@@ -67,6 +82,22 @@ public class ByteArrayWriter implements Writer {
         this.currentIndex = 0;
     }
 
+    /**
+     * Reset this writer, and shrinks the byte array back to the initial size if it has grown beyond the retained size
+     *
+     * @param retainedSize the largest byte array size kept for reuse
+     */
+    public void reset(int retainedSize) {
+        this.currentIndex = 0;
+
+        if (this.actualLength > retainedSize) {
+            this.bytes = new byte[0];
+            this.actualLength = 1;
+
+            this.increaseArray(this.initialSize);
+        }
+    }
+
     /**
      * If the needSize is larger than the current size, increase an array
      *
@@ -180,10 +211,49 @@ public class ByteArrayWriter implements Writer {
      * @param bytes the byte array to write
      */
     public void writeBytes(byte @NotNull [] bytes) {
-        this.increaseArray(bytes.length);
+        this.writeBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Writes the specified portion of bytes to this output stream
+     *
+     * @param bytes  the byte array to write
+     * @param offset the start offset in the byte array
+     * @param length the number of bytes to write
+     */
+    public void writeBytes(byte @NotNull [] bytes, int offset, int length) {
+        this.increaseArray(length);
+
+        System.arraycopy(bytes, offset, this.bytes, this.currentIndex, length);
+        this.currentIndex += length;
+    }
 
-        System.arraycopy(bytes, 0, this.bytes, this.currentIndex, bytes.length);
-        this.currentIndex += bytes.length;
+    /**
+     * Overwrites the int previously written at a specific position
+     *
+     * @param position the position of the int to overwrite
+     * @param value    the int
+     * @throws IOException if the position is out of the written range
+     */
+    public void patchInt(int position, int value) throws IOException {
+        if (position < 0 || position + 4 > this.currentIndex) {
+            throw new IOException("Position " + position + " is out of written range. (length " + this.currentIndex + ")");
+        }
+
+        this.bytes[position] = (byte) ((value >> 24) & 0xff);
+        this.bytes[position + 1] = (byte) ((value >> 16) & 0xff);
+        this.bytes[position + 2] = (byte) ((value >> 8) & 0xff);
+        this.bytes[position + 3] = (byte) ((value) & 0xff);
+    }
+
+    /**
+     * Writes the data currently written in the buffer to another writer
+     *
+     * @param writer the writer to write to
+     * @throws IOException if an I/O error occurs, if the output stream has been closed.
+     */
+    public void writeTo(@NotNull Writer writer) throws IOException {
+        writer.writeBytes(this.bytes, 0, this.currentIndex);
     }
 
     /**
@@ -194,4 +264,29 @@ public class ByteArrayWriter implements Writer {
         System.arraycopy(this.bytes, 0, byteArray, 0, this.currentIndex);
         return byteArray;
     }
+
+    /**
+     * Writes the characters of the string as ISO-8859-1, one byte per character
+     *
+     * @param string the string to write
+     */
+    public void writeLatin1String(@NotNull String string) {
+        int length = string.length();
+        this.increaseArray(length);
+
+        CharsetUtil.encodeLatin1(string, 0, length, this.bytes, this.currentIndex);
+        this.currentIndex += length;
+    }
+
+    /**
+     * Writes the string as UTF-8 without creating an intermediate byte array
+     *
+     * @param string        the string to write
+     * @param encodedLength the UTF-8 length of the string
+     */
+    public void writeUtf8String(@NotNull String string, int encodedLength) {
+        this.increaseArray(encodedLength);
+
+        this.currentIndex = CharsetUtil.encodeUtf8(string, this.bytes, this.currentIndex);
+    }
 }
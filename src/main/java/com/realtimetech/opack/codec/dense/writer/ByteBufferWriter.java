@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.writer;
+
+import com.realtimetech.opack.util.CharsetUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class ByteBufferWriter implements PatchableWriter {
+    private final @NotNull ByteBuffer byteBuffer;
+
+    private byte @NotNull [] stringBuffer;
+
+    /**
+     * Constructs a ByteBufferWriter that writes into the remaining space of the byte buffer
+     * The heap or direct byte buffer is written from its current position, but the position of the given buffer is not modified.
+     *
+     * @param byteBuffer the byte buffer to write into
+     */
+    public ByteBufferWriter(@NotNull ByteBuffer byteBuffer) {
+        this.byteBuffer = byteBuffer.slice().order(ByteOrder.BIG_ENDIAN);
+        this.stringBuffer = new byte[0];
+    }
+
+    /**
+     * Returns the number of bytes written
+     *
+     * @return the length
+     */
+    @Override
+    public int getLength() {
+        return this.byteBuffer.position();
+    }
+
+    /**
+     * Returns the number of bytes that can still be written
+     *
+     * @return the remaining space
+     */
+    public int getRemaining() {
+        return this.byteBuffer.remaining();
+    }
+
+    /**
+     * Reset this writer
+     */
+    public void reset() {
+        this.byteBuffer.clear();
+    }
+
+    /**
+     * Throws if the byte buffer does not have enough remaining space
+     *
+     * @param requireSize the required size
+     * @throws IOException if the byte buffer does not have enough remaining space
+     */
+    private void checkRemaining(int requireSize) throws IOException {
+        if (this.byteBuffer.remaining() < requireSize) {
+            throw new IOException("Not enough space in byte buffer. (required " + requireSize + ", remaining " + this.byteBuffer.remaining() + ")");
+        }
+    }
+
+    /**
+     * Writes the specified byte to this byte buffer
+     *
+     * @param value the byte
+     * @throws IOException if the byte buffer does not have enough remaining space
+     */
+    @Override
+    public void writeByte(int value) throws IOException {
+        this.checkRemaining(1);
+        this.byteBuffer.put((byte) value);
+    }
+
+    /**
+     * Writes the specified character to this byte buffer
+     *
+     * @param value the character
+     * @throws IOException if the byte buffer does not have enough remaining space
+     */
+    @Override
+    public void writeChar(char value) throws IOException {
+        this.checkRemaining(2);
+        this.byteBuffer.putChar(value);
+    }
+
+    /**
+     * Writes the specified short to this byte buffer
+     *
+     * @param value the short
+     * @throws IOException if the byte buffer does not have enough remaining space
+     */
+    @Override
+    public void writeShort(short value) throws IOException {
+        this.checkRemaining(2);
+        this.byteBuffer.putShort(value);
+    }
+
+    /**
+     * Writes the specified int to this byte buffer
+     *
+     * @param value the int
+     * @throws IOException if the byte buffer does not have enough remaining space
+     */
+    @Override
+    public void writeInt(int value) throws IOException {
+        this.checkRemaining(4);
+        this.byteBuffer.putInt(value);
+    }
+
+    /**
+     * Writes the specified float to this byte buffer
+     *
+     * @param value the float
+     * @throws IOException if the byte buffer does not have enough remaining space
+     */
+    @Override
+    public void writeFloat(float value) throws IOException {
+        this.writeInt(Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * Writes the specified long to this byte buffer
+     *
+     * @param value the long
+     * @throws IOException if the byte buffer does not have enough remaining space
+     */
+    @Override
+    public void writeLong(long value) throws IOException {
+        this.checkRemaining(8);
+        this.byteBuffer.putLong(value);
+    }
+
+    /**
+     * Writes the specified double to this byte buffer
+     *
+     * @param value the double
+     * @throws IOException if the byte buffer does not have enough remaining space
+     */
+    @Override
+    public void writeDouble(double value) throws IOException {
+        this.writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Writes the specified bytes to this byte buffer
+     *
+     * @param bytes the byte array to write
+     * @throws IOException if the byte buffer does not have enough remaining space
+     */
+    @Override
+    public void writeBytes(byte @NotNull [] bytes) throws IOException {
+        this.writeBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Writes the specified portion of bytes to this byte buffer
+     *
+     * @param bytes  the byte array to write
+     * @param offset the start offset in the byte array
+     * @param length the number of bytes to write
+     * @throws IOException if the byte buffer does not have enough remaining space
+     */
+    @Override
+    public void writeBytes(byte @NotNull [] bytes, int offset, int length) throws IOException {
+        this.checkRemaining(length);
+        this.byteBuffer.put(bytes, offset, length);
+    }
+
+    /**
+     * Overwrites the int previously written at a specific position
+     *
+     * @param position the position of the int to overwrite
+     * @param value    the int
+     * @throws IOException if the position is out of the written range
+     */
+    @Override
+    public void patchInt(int position, int value) throws IOException {
+        if (position < 0 || position + 4 > this.byteBuffer.position()) {
+            throw new IOException("Position " + position + " is out of written range. (length " + this.byteBuffer.position() + ")");
+        }
+
+        this.byteBuffer.putInt(position, value);
+    }
+
+    /**
+     * Returns the buffer to encode strings into when the byte buffer is not backed by an accessible array
+     *
+     * @param size the required size
+     * @return the string buffer
+     */
+    private byte @NotNull [] getStringBuffer(int size) {
+        if (this.stringBuffer.length < size) {
+            this.stringBuffer = new byte[Math.max(size, this.stringBuffer.length << 1)];
+        }
+
+        return this.stringBuffer;
+    }
+
+    /**
+     * Writes the characters of the string as ISO-8859-1, one byte per character
+     *
+     * @param string the string to write
+     * @throws IOException if the byte buffer does not have enough remaining space
+     */
+    @Override
+    public void writeLatin1String(@NotNull String string) throws IOException {
+        int length = string.length();
+        this.checkRemaining(length);
+
+        if (this.byteBuffer.hasArray()) {
+            int position = this.byteBuffer.position();
+
+            CharsetUtil.encodeLatin1(string, 0, length, this.byteBuffer.array(), this.byteBuffer.arrayOffset() + position);
+            this.byteBuffer.position(position + length);
+        } else {
+            byte[] bytes = this.getStringBuffer(length);
+
+            CharsetUtil.encodeLatin1(string, 0, length, bytes, 0);
+            this.byteBuffer.put(bytes, 0, length);
+        }
+    }
+
+    /**
+     * Writes the string as UTF-8 without creating an intermediate byte array
+     *
+     * @param string        the string to write
+     * @param encodedLength the UTF-8 length of the string
+     * @throws IOException if the byte buffer does not have enough remaining space
+     */
+    @Override
+    public void writeUtf8String(@NotNull String string, int encodedLength) throws IOException {
+        this.checkRemaining(encodedLength);
+
+        if (this.byteBuffer.hasArray()) {
+            int arrayOffset = this.byteBuffer.arrayOffset();
+            int end = CharsetUtil.encodeUtf8(string, this.byteBuffer.array(), arrayOffset + this.byteBuffer.position());
+
+            this.byteBuffer.position(end - arrayOffset);
+        } else {
+            byte[] bytes = this.getStringBuffer(encodedLength);
+
+            CharsetUtil.encodeUtf8(string, bytes, 0);
+            this.byteBuffer.put(bytes, 0, encodedLength);
+        }
+    }
+}
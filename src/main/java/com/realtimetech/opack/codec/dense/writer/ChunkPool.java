@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.writer;
+
+import org.jetbrains.annotations.NotNull;
+
+public class ChunkPool {
+    private final int chunkSize;
+
+    private final byte @NotNull [] @NotNull [] pooledChunks;
+    private int pooledSize;
+
+    /**
+     * Constructs a ChunkPool
+     *
+     * @param chunkSize       the size of each chunk
+     * @param maxPooledChunks the maximum number of released chunks kept for reuse
+     */
+    public ChunkPool(int chunkSize, int maxPooledChunks) {
+        if (chunkSize < 8) {
+            throw new IllegalArgumentException("Chunk size must be at least 8 bytes, but " + chunkSize + ".");
+        }
+
+        if (maxPooledChunks < 0) {
+            throw new IllegalArgumentException("Max pooled chunks must not be negative, but " + maxPooledChunks + ".");
+        }
+
+        this.chunkSize = chunkSize;
+
+        this.pooledChunks = new byte[maxPooledChunks][];
+        this.pooledSize = 0;
+    }
+
+    /**
+     * Returns the size of each chunk
+     *
+     * @return the chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Returns the number of chunks currently kept for reuse
+     *
+     * @return the pooled chunk count
+     */
+    public synchronized int getPooledCount() {
+        return this.pooledSize;
+    }
+
+    /**
+     * Takes a chunk from this pool, or allocates a new chunk if the pool is empty
+     *
+     * @return the chunk
+     */
+    public synchronized byte @NotNull [] acquire() {
+        if (this.pooledSize == 0) {
+            return new byte[this.chunkSize];
+        }
+
+        byte[] chunk = this.pooledChunks[--this.pooledSize];
+        this.pooledChunks[this.pooledSize] = null;
+
+        return chunk;
+    }
+
+    /**
+     * Returns the chunk to this pool, the chunk is dropped if the pool is full
+     *
+     * @param chunk the chunk to return
+     * @throws IllegalArgumentException if the chunk was not acquired from a pool of the same chunk size
+     */
+    public synchronized void release(byte @NotNull [] chunk) {
+        if (chunk.length != this.chunkSize) {
+            throw new IllegalArgumentException("Chunk of " + chunk.length + " bytes does not belong to a pool of " + this.chunkSize + " bytes chunk.");
+        }
+
+        if (this.pooledSize < this.pooledChunks.length) {
+            this.pooledChunks[this.pooledSize++] = chunk;
+        }
+    }
+}
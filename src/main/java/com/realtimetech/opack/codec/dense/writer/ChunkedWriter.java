@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.writer;
+
+import com.realtimetech.opack.util.CharsetUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Writer into fixed size chunks taken from a {@link ChunkPool}, which grows without copying the written bytes
+ * Each writer must be closed to return all of its chunks to the chunk pool, the writer must not be used after closing.
+ */
+public class ChunkedWriter implements PatchableWriter, Closeable {
+    private final @NotNull ChunkPool chunkPool;
+    private final int chunkSize;
+
+    private byte @NotNull [] @NotNull [] chunks;
+    private int chunkCount;
+    private int acquiredCount;
+
+    private byte @NotNull [] currentChunk;
+    private int currentIndex;
+
+    private @NotNull ByteBuffer @NotNull [] byteBuffers;
+    private byte @NotNull [] stringBuffer;
+
+    /**
+     * Constructs a ChunkedWriter that takes its chunks from the chunk pool
+     *
+     * @param chunkPool the chunk pool to acquire chunks from
+     */
+    public ChunkedWriter(@NotNull ChunkPool chunkPool) {
+        this.chunkPool = chunkPool;
+        this.chunkSize = chunkPool.getChunkSize();
+
+        this.chunks = new byte[4][];
+        this.chunks[0] = chunkPool.acquire();
+        this.chunkCount = 1;
+        this.acquiredCount = 1;
+
+        this.currentChunk = this.chunks[0];
+        this.currentIndex = 0;
+
+        this.byteBuffers = new ByteBuffer[0];
+        this.stringBuffer = new byte[0];
+    }
+
+    /**
+     * Returns the number of bytes written
+     *
+     * @return the length
+     */
+    @Override
+    public int getLength() {
+        return (this.chunkCount - 1) * this.chunkSize + this.currentIndex;
+    }
+
+    /**
+     * Reset this writer, the acquired chunks are kept for the next use
+     */
+    public void reset() {
+        this.chunkCount = 1;
+        this.currentChunk = this.chunks[0];
+        this.currentIndex = 0;
+    }
+
+    /**
+     * Returns all acquired chunks except the first one to the chunk pool, and reset this writer
+     * The first chunk is kept for the next use, and is returned by {@link #close()}.
+     */
+    public void release() {
+        for (int index = 1; index < this.acquiredCount; index++) {
+            this.chunkPool.release(this.chunks[index]);
+            this.chunks[index] = null;
+        }
+
+        this.acquiredCount = 1;
+        this.reset();
+    }
+
+    /**
+     * Returns all acquired chunks to the chunk pool, including the first one
+     */
+    @Override
+    public void close() {
+        for (int index = 0; index < this.acquiredCount; index++) {
+            this.chunkPool.release(this.chunks[index]);
+            this.chunks[index] = null;
+        }
+
+        this.acquiredCount = 0;
+        this.chunkCount = 0;
+        this.currentChunk = new byte[0];
+        this.currentIndex = 0;
+        this.byteBuffers = new ByteBuffer[0];
+    }
+
+    /**
+     * Moves to the next chunk, acquiring it from the chunk pool if needed
+     */
+    private void nextChunk() {
+        if (this.chunkCount == this.acquiredCount) {
+            if (this.acquiredCount == this.chunks.length) {
+                byte[][] oldChunks = this.chunks;
+                this.chunks = new byte[oldChunks.length << 1][];
+                System.arraycopy(oldChunks, 0, this.chunks, 0, oldChunks.length);
+            }
+
+            this.chunks[this.acquiredCount++] = this.chunkPool.acquire();
+        }
+
+        this.currentChunk = this.chunks[this.chunkCount++];
+        this.currentIndex = 0;
+    }
+
+    /**
+     * Writes the specified byte to this writer
+     *
+     * @param value the byte
+     */
+    @Override
+    public void writeByte(int value) {
+        if (this.currentIndex == this.chunkSize) {
+            this.nextChunk();
+        }
+
+        this.currentChunk[this.currentIndex++] = (byte) value;
+    }
+
+    /**
+     * Writes the specified character to this writer
+     *
+     * @param value the character
+     */
+    @Override
+    public void writeChar(char value) {
+        this.writeShort((short) value);
+    }
+
+    /**
+     * Writes the specified short to this writer
+     *
+     * @param value the short
+     */
+    @Override
+    public void writeShort(short value) {
+        if (this.chunkSize - this.currentIndex < 2) {
+            this.writeByte(value >> 8);
+            this.writeByte(value);
+            return;
+        }
+
+        this.currentChunk[this.currentIndex++] = (byte) ((value >> 8) & 0xff);
+        this.currentChunk[this.currentIndex++] = (byte) ((value) & 0xff);
+    }
+
+    /**
+     * Writes the specified int to this writer
+     *
+     * @param value the int
+     */
+    @Override
+    public void writeInt(int value) {
+        if (this.chunkSize - this.currentIndex < 4) {
+            this.writeByte(value >> 24);
+            this.writeByte(value >> 16);
+            this.writeByte(value >> 8);
+            this.writeByte(value);
+            return;
+        }
+
+        this.currentChunk[this.currentIndex++] = (byte) ((value >> 24) & 0xff);
+        this.currentChunk[this.currentIndex++] = (byte) ((value >> 16) & 0xff);
+        this.currentChunk[this.currentIndex++] = (byte) ((value >> 8) & 0xff);
+        this.currentChunk[this.currentIndex++] = (byte) ((value) & 0xff);
+    }
+
+    /**
+     * Writes the specified float to this writer
+     *
+     * @param value the float
+     */
+    @Override
+    public void writeFloat(float value) {
+        this.writeInt(Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * Writes the specified long to this writer
+     *
+     * @param value the long
+     */
+    @Override
+    public void writeLong(long value) {
+        this.writeInt((int) (value >> 32));
+        this.writeInt((int) value);
+    }
+
+    /**
+     * Writes the specified double to this writer
+     *
+     * @param value the double
+     */
+    @Override
+    public void writeDouble(double value) {
+        this.writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Writes the specified bytes to this writer
+     *
+     * @param bytes the byte array to write
+     */
+    @Override
+    public void writeBytes(byte @NotNull [] bytes) {
+        this.writeBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Writes the specified portion of bytes to this writer
+     *
+     * @param bytes  the byte array to write
+     * @param offset the start offset in the byte array
+     * @param length the number of bytes to write
+     */
+    @Override
+    public void writeBytes(byte @NotNull [] bytes, int offset, int length) {
+        while (length > 0) {
+            if (this.currentIndex == this.chunkSize) {
+                this.nextChunk();
+            }
+
+            int copyLength = Math.min(length, this.chunkSize - this.currentIndex);
+            System.arraycopy(bytes, offset, this.currentChunk, this.currentIndex, copyLength);
+
+            this.currentIndex += copyLength;
+            offset += copyLength;
+            length -= copyLength;
+        }
+    }
+
+    /**
+     * Writes the characters of the string as ISO-8859-1, one byte per character
+     *
+     * @param string the string to write
+     */
+    @Override
+    public void writeLatin1String(@NotNull String string) {
+        int length = string.length();
+        int start = 0;
+
+        while (start < length) {
+            if (this.currentIndex == this.chunkSize) {
+                this.nextChunk();
+            }
+
+            int end = Math.min(length, start + this.chunkSize - this.currentIndex);
+            CharsetUtil.encodeLatin1(string, start, end, this.currentChunk, this.currentIndex);
+
+            this.currentIndex += end - start;
+            start = end;
+        }
+    }
+
+    /**
+     * Writes the string as UTF-8, directly into the current chunk if it has enough space
+     *
+     * @param string        the string to write
+     * @param encodedLength the UTF-8 length of the string
+     */
+    @Override
+    public void writeUtf8String(@NotNull String string, int encodedLength) {
+        if (this.chunkSize - this.currentIndex >= encodedLength) {
+            this.currentIndex = CharsetUtil.encodeUtf8(string, this.currentChunk, this.currentIndex);
+            return;
+        }
+
+        if (this.stringBuffer.length < encodedLength) {
+            this.stringBuffer = new byte[Math.max(encodedLength, this.stringBuffer.length << 1)];
+        }
+
+        CharsetUtil.encodeUtf8(string, this.stringBuffer, 0);
+        this.writeBytes(this.stringBuffer, 0, encodedLength);
+    }
+
+    /**
+     * Overwrites the int previously written at a specific position
+     *
+     * @param position the position of the int to overwrite
+     * @param value    the int
+     * @throws IOException if the position is out of the written range
+     */
+    @Override
+    public void patchInt(int position, int value) throws IOException {
+        int length = this.getLength();
+
+        if (position < 0 || position + 4 > length) {
+            throw new IOException("Position " + position + " is out of written range. (length " + length + ")");
+        }
+
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            this.chunks[position / this.chunkSize][position % this.chunkSize] = (byte) ((value >> shift) & 0xff);
+            position++;
+        }
+    }
+
+    /**
+     * Returns the written chunks as byte buffers for gathering writes
+     * The byte buffers are views over the chunks of this writer and are reused by the next call, so they are only valid until this writer is modified.
+     *
+     * @return the byte buffers
+     */
+    public @NotNull ByteBuffer @NotNull [] toByteBuffers() {
+        if (this.byteBuffers.length != this.chunkCount) {
+            ByteBuffer[] oldByteBuffers = this.byteBuffers;
+            this.byteBuffers = new ByteBuffer[this.chunkCount];
+            System.arraycopy(oldByteBuffers, 0, this.byteBuffers, 0, Math.min(oldByteBuffers.length, this.chunkCount));
+        }
+
+        for (int index = 0; index < this.chunkCount; index++) {
+            ByteBuffer byteBuffer = this.byteBuffers[index];
+
+            if (byteBuffer == null || byteBuffer.array() != this.chunks[index]) {
+                byteBuffer = ByteBuffer.wrap(this.chunks[index]);
+                this.byteBuffers[index] = byteBuffer;
+            }
+
+            byteBuffer.clear();
+            byteBuffer.limit(index == this.chunkCount - 1 ? this.currentIndex : this.chunkSize);
+        }
+
+        return this.byteBuffers;
+    }
+
+    /**
+     * Writes the data currently written in the chunks to another writer
+     *
+     * @param writer the writer to write to
+     * @throws IOException if an I/O error occurs, if the output stream has been closed.
+     */
+    public void writeTo(@NotNull Writer writer) throws IOException {
+        for (int index = 0; index < this.chunkCount - 1; index++) {
+            writer.writeBytes(this.chunks[index], 0, this.chunkSize);
+        }
+
+        writer.writeBytes(this.currentChunk, 0, this.currentIndex);
+    }
+
+    /**
+     * @return a new byte array containing the data currently written in the chunks
+     */
+    public byte @NotNull [] toByteArray() {
+        byte[] byteArray = new byte[this.getLength()];
+
+        for (int index = 0; index < this.chunkCount - 1; index++) {
+            System.arraycopy(this.chunks[index], 0, byteArray, index * this.chunkSize, this.chunkSize);
+        }
+
+        System.arraycopy(this.currentChunk, 0, byteArray, (this.chunkCount - 1) * this.chunkSize, this.currentIndex);
+
+        return byteArray;
+    }
+}
@@ -22,6 +22,7 @@
 
 package com.realtimetech.opack.codec.dense.writer;
 
+import com.realtimetech.opack.util.CharsetUtil;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
@@ -40,6 +41,8 @@ public class OutputStreamWriter implements Writer {
 
     private final @NotNull OutputStream outputStream;
 
+    private byte @NotNull [] stringBuffer;
+
     /**
      * Constructs OutputStreamWriter
      *
@@ -47,6 +50,7 @@ public class OutputStreamWriter implements Writer {
      */
     OutputStreamWriter(@NotNull OutputStream outputStream) {
         this.outputStream = outputStream;
+        this.stringBuffer = new byte[0];
     }
 
     /**
@@ -140,4 +144,58 @@ public class OutputStreamWriter implements Writer {
     public void writeBytes(byte @NotNull [] bytes) throws IOException {
         this.outputStream.write(bytes);
     }
+
+    /**
+     * Writes the specified portion of bytes to this output stream
+     *
+     * @param bytes  the byte array to write
+     * @param offset the start offset in the byte array
+     * @param length the number of bytes to write
+     * @throws IOException if an I/O error occurs, if the output stream has been closed.
+     */
+    public void writeBytes(byte @NotNull [] bytes, int offset, int length) throws IOException {
+        this.outputStream.write(bytes, offset, length);
+    }
+
+    /**
+     * Returns the buffer to encode strings into before writing them to the output stream
+     *
+     * @param size the required size
+     * @return the string buffer
+     */
+    private byte @NotNull [] getStringBuffer(int size) {
+        if (this.stringBuffer.length < size) {
+            this.stringBuffer = new byte[Math.max(size, this.stringBuffer.length << 1)];
+        }
+
+        return this.stringBuffer;
+    }
+
+    /**
+     * Writes the characters of the string as ISO-8859-1, one byte per character
+     *
+     * @param string the string to write
+     * @throws IOException if an I/O error occurs, if the output stream has been closed.
+     */
+    public void writeLatin1String(@NotNull String string) throws IOException {
+        int length = string.length();
+        byte[] bytes = this.getStringBuffer(length);
+
+        CharsetUtil.encodeLatin1(string, 0, length, bytes, 0);
+        this.outputStream.write(bytes, 0, length);
+    }
+
+    /**
+     * Writes the string as UTF-8 without creating an intermediate byte array
+     *
+     * @param string        the string to write
+     * @param encodedLength the UTF-8 length of the string
+     * @throws IOException if an I/O error occurs, if the output stream has been closed.
+     */
+    public void writeUtf8String(@NotNull String string, int encodedLength) throws IOException {
+        byte[] bytes = this.getStringBuffer(encodedLength);
+
+        CharsetUtil.encodeUtf8(string, bytes, 0);
+        this.outputStream.write(bytes, 0, encodedLength);
+    }
 }
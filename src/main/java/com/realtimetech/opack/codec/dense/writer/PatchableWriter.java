@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.dense.writer;
+
+import java.io.IOException;
+
+/**
+ * A writer that can overwrite previously written bytes, used to write length prefixes after their content
+ */
+public interface PatchableWriter extends Writer {
+    /**
+     * Returns the number of bytes written so far
+     *
+     * @return the length
+     */
+    int getLength();
+
+    /**
+     * Overwrites the int previously written at a specific position
+     *
+     * @param position the position of the int to overwrite
+     * @param value    the int
+     * @throws IOException if the position is out of the written range
+     */
+    void patchInt(int position, int value) throws IOException;
+}
@@ -25,6 +25,8 @@ package com.realtimetech.opack.codec.dense.writer;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 public interface Writer {
     /**
@@ -90,4 +92,44 @@ public interface Writer {
      * @throws IOException if an I/O error occurs, if the output stream has been closed.
      */
     void writeBytes(byte @NotNull [] bytes) throws IOException;
+
+    /**
+     * Writes the specified portion of bytes to this output stream
+     * The default implementation writes a copy of the portion through {@link #writeBytes(byte[])}.
+     *
+     * @param bytes  the byte array to write
+     * @param offset the start offset in the byte array
+     * @param length the number of bytes to write
+     * @throws IOException if an I/O error occurs, if the output stream has been closed.
+     */
+    default void writeBytes(byte @NotNull [] bytes, int offset, int length) throws IOException {
+        if (offset == 0 && length == bytes.length) {
+            this.writeBytes(bytes);
+        } else {
+            this.writeBytes(Arrays.copyOfRange(bytes, offset, offset + length));
+        }
+    }
+
+    /**
+     * Writes the characters of the string as ISO-8859-1, one byte per character
+     * The string must only contain characters up to U+00FF. The default implementation writes the bytes of {@link String#getBytes(java.nio.charset.Charset)}.
+     *
+     * @param string the string to write
+     * @throws IOException if an I/O error occurs, if the output stream has been closed.
+     */
+    default void writeLatin1String(@NotNull String string) throws IOException {
+        this.writeBytes(string.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Writes the string as UTF-8 without creating an intermediate byte array
+     * The default implementation does create one, writing the bytes of {@link String#getBytes(java.nio.charset.Charset)}.
+     *
+     * @param string        the string to write
+     * @param encodedLength the UTF-8 length of the string, computed by {@link com.realtimetech.opack.util.CharsetUtil#getUtf8Length(String)}
+     * @throws IOException if an I/O error occurs, if the output stream has been closed.
+     */
+    default void writeUtf8String(@NotNull String string, int encodedLength) throws IOException {
+        this.writeBytes(string.getBytes(StandardCharsets.UTF_8));
+    }
 }
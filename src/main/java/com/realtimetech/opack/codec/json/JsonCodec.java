@@ -25,10 +25,9 @@ package com.realtimetech.opack.codec.json;
 import com.realtimetech.opack.codec.OpackCodec;
 import com.realtimetech.opack.codec.json.fast.FastJsonDouble;
 import com.realtimetech.opack.codec.json.fast.FastJsonLong;
-import com.realtimetech.opack.codec.json.ryu.RyuJsonDouble;
-import com.realtimetech.opack.codec.json.ryu.RyuJsonFloat;
 import com.realtimetech.opack.exception.DecodeException;
 import com.realtimetech.opack.exception.EncodeException;
+import com.realtimetech.opack.util.StringCache;
 import com.realtimetech.opack.util.StringWriter;
 import com.realtimetech.opack.util.UnsafeOpackValue;
 import com.realtimetech.opack.util.structure.FastStack;
@@ -40,7 +39,14 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -58,6 +64,9 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
         private int encodeStackInitialSize;
         private int encodeStringBufferSize;
         private int decodeStackInitialSize;
+        private int decodeBufferSize;
+        private int stringCacheSize;
+        private int stringCacheMaxLength;
 
         private boolean allowAnyValueToKey;
         private boolean enableConvertCharacterToString;
@@ -73,6 +82,9 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
             this.encodeStringBufferSize = 1024;
             this.encodeStackInitialSize = 128;
             this.decodeStackInitialSize = 128;
+            this.decodeBufferSize = 8192;
+            this.stringCacheSize = 1024;
+            this.stringCacheMaxLength = 32;
 
             this.roundingMode = RoundingMode.ROUND_EVEN;
         }
@@ -110,6 +122,41 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
             return this;
         }
 
+        /**
+         * Sets the size of the sliding buffer used for decoding from readers and streams
+         * The buffer only grows when a single number literal is longer than it.
+         *
+         * @param decodeBufferSize the new buffer size for decoding from readers and streams
+         * @return the current builder instance for method chaining
+         */
+        public @NotNull Builder setDecodeBufferSize(int decodeBufferSize) {
+            this.decodeBufferSize = decodeBufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of slots of the cache that decodes repeated keys and short string values into one canonical string
+         * A slot is overwritten on a collision, so the cache stays bounded. 0 disables the cache.
+         *
+         * @param stringCacheSize the new number of slots, rounded up to a power of two
+         * @return the current builder instance for method chaining
+         */
+        public @NotNull Builder setStringCacheSize(int stringCacheSize) {
+            this.stringCacheSize = stringCacheSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum length of the strings kept in the string cache
+         *
+         * @param stringCacheMaxLength the new maximum length of cached strings
+         * @return the current builder instance for method chaining
+         */
+        public @NotNull Builder setStringCacheMaxLength(int stringCacheMaxLength) {
+            this.stringCacheMaxLength = stringCacheMaxLength;
+            return this;
+        }
+
         /**
          * Sets whether any value is allowed for a key during the encoding or decoding process
          *
@@ -147,6 +194,15 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
             return this;
         }
 
+        /**
+         * Returns whether the output is formatted in a "pretty" style
+         *
+         * @return true if pretty formatting is enabled
+         */
+        public boolean isUsePrettyFormat() {
+            return this.usePrettyFormat;
+        }
+
         /**
          * Sets the rounding mode to be used for double string conversion
          *
@@ -168,6 +224,8 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
         }
     }
 
+    private static final char[] CONST_EMPTY_CHARACTER = new char[0];
+
     private static final char[] CONST_U2028 = "\\u2028".toCharArray();
     private static final char[] CONST_U2029 = "\\u2029".toCharArray();
 
@@ -207,7 +265,28 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
         CONST_REPLACEMENT_CHARACTERS['\f'] = new char[]{'\\', 'f'};
     }
 
-    private static char @Nullable [] getReplacementCharacter(char character) {
+    private static final boolean[] CONST_ESCAPE_CHARACTERS;
+    private static final boolean[] CONST_SPECIAL_STRING_CHARACTERS;
+
+    static {
+        CONST_ESCAPE_CHARACTERS = new boolean[128];
+        for (int i = 0; i < CONST_REPLACEMENT_CHARACTERS.length; i++) {
+            CONST_ESCAPE_CHARACTERS[i] = CONST_REPLACEMENT_CHARACTERS[i] != null;
+        }
+
+        // Characters that end a clean run while decoding a string literal
+        CONST_SPECIAL_STRING_CHARACTERS = new boolean[128];
+        CONST_SPECIAL_STRING_CHARACTERS['"'] = true;
+        CONST_SPECIAL_STRING_CHARACTERS['\\'] = true;
+        CONST_SPECIAL_STRING_CHARACTERS['\0'] = true;
+        CONST_SPECIAL_STRING_CHARACTERS['\b'] = true;
+        CONST_SPECIAL_STRING_CHARACTERS['\f'] = true;
+        CONST_SPECIAL_STRING_CHARACTERS['\n'] = true;
+        CONST_SPECIAL_STRING_CHARACTERS['\r'] = true;
+        CONST_SPECIAL_STRING_CHARACTERS['\t'] = true;
+    }
+
+    static char @Nullable [] getReplacementCharacter(char character) {
         char[] replacement = null;
 
         // Find escapable character
@@ -222,6 +301,72 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
         return replacement;
     }
 
+    private static boolean isEscapeCharacter(char character) {
+        return character < 0x80 ? CONST_ESCAPE_CHARACTERS[character] : (character == '\u2028' || character == '\u2029');
+    }
+
+    private static boolean isSpecialStringCharacter(char character) {
+        return character < 0x80 && CONST_SPECIAL_STRING_CHARACTERS[character];
+    }
+
+    static boolean isWhitespaceCharacter(char character) {
+        return character <= ' ' && (character == ' ' || character == '\n' || character == '\r' || character == '\t');
+    }
+
+    /**
+     * Returns the index of the first character that must be escaped, looking at four characters per step
+     * The characters are tested through the lookup table rather than packed into a long for a SWAR test,
+     * since a char array cannot be read as words and packing the characters measured no faster than the lookups.
+     *
+     * @param charArray the characters to scan
+     * @param index     the index to start from
+     * @param end       the index to stop at
+     * @return the index of the first character to escape, or the end
+     */
+    static int skipUnescapedCharacters(char @NotNull [] charArray, int index, int end) {
+        // Non-short-circuit or, so the four lookups run without branches between them
+        while (index + 4 <= end) {
+            if (isEscapeCharacter(charArray[index]) | isEscapeCharacter(charArray[index + 1]) |
+                    isEscapeCharacter(charArray[index + 2]) | isEscapeCharacter(charArray[index + 3])) {
+                break;
+            }
+
+            index += 4;
+        }
+
+        while (index < end && !isEscapeCharacter(charArray[index])) {
+            index++;
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the index of the first quote, backslash or disallowed control character of a string literal, looking at four characters per step
+     * The characters are tested through the lookup table, as in {@link #skipUnescapedCharacters(char[], int, int)}.
+     *
+     * @param charArray the characters to scan
+     * @param index     the index to start from
+     * @param end       the index to stop at
+     * @return the index of the first special character, or the end
+     */
+    static int skipPlainStringCharacters(char @NotNull [] charArray, int index, int end) {
+        while (index + 4 <= end) {
+            if (isSpecialStringCharacter(charArray[index]) | isSpecialStringCharacter(charArray[index + 1]) |
+                    isSpecialStringCharacter(charArray[index + 2]) | isSpecialStringCharacter(charArray[index + 3])) {
+                break;
+            }
+
+            index += 4;
+        }
+
+        while (index < end && !isSpecialStringCharacter(charArray[index])) {
+            index++;
+        }
+
+        return index;
+    }
+
     /**
      * Escapes a given character into printable string
      * If the character does not require escaping, it is returned as-is
@@ -229,7 +374,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
      * @param c the character that needs to be escaped
      * @return the escaped string representation of the character, or the character itself if no escaping is needed
      */
-    private static @NotNull String escapeChar(char c) {
+    static @NotNull String escapeChar(char c) {
         switch (c) {
             case '\b':
                 return "\\b";
@@ -256,10 +401,21 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
     private final @NotNull StringWriter encodeLiteralStringWriter;
     private final @NotNull StringWriter encodeStringWriter;
     private final @NotNull FastStack<@Nullable Object> encodeStack;
+    private @Nullable Utf8Writer encodeUtf8Writer;
+    private final @NotNull JsonNumberWriter encodeNumberWriter;
+    private char @NotNull [] encodeCharArray;
 
     private final @NotNull FastStack<@NotNull Integer> decodeBaseStack;
     private final @NotNull FastStack<@Nullable Object> decodeValueStack;
     private final @NotNull StringWriter decodeStringWriter;
+    private final @Nullable StringCache decodeStringCache;
+    private final int decodeBufferSize;
+
+    private char @Nullable [] decodeStreamBuffer;
+    private char @NotNull [] decodeCharArray;
+    private int decodeLength;
+    private long decodeDiscardedLength;
+    private @Nullable Reader decodeReader;
 
     private final boolean allowAnyValueToKey;
     private final boolean enableConvertCharacterToString;
@@ -278,16 +434,27 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
         this.encodeLiteralStringWriter = new StringWriter(builder.encodeStringBufferSize);
         this.encodeStringWriter = new StringWriter(builder.encodeStringBufferSize);
         this.encodeStack = new FastStack<>(builder.encodeStackInitialSize);
+        this.encodeUtf8Writer = null;
+        this.encodeCharArray = new char[64];
 
         this.decodeBaseStack = new FastStack<>(builder.decodeStackInitialSize);
         this.decodeValueStack = new FastStack<>(builder.decodeStackInitialSize);
         this.decodeStringWriter = new StringWriter();
+        this.decodeStringCache = builder.stringCacheSize > 0 ? new StringCache(builder.stringCacheSize, builder.stringCacheMaxLength) : null;
+        this.decodeBufferSize = builder.decodeBufferSize;
+
+        this.decodeStreamBuffer = null;
+        this.decodeCharArray = CONST_EMPTY_CHARACTER;
+        this.decodeLength = 0;
+        this.decodeDiscardedLength = 0;
+        this.decodeReader = null;
 
         this.allowAnyValueToKey = builder.allowAnyValueToKey;
         this.enableConvertCharacterToString = builder.enableConvertCharacterToString;
         this.usePrettyFormat = builder.usePrettyFormat;
 
         this.roundingMode = builder.roundingMode;
+        this.encodeNumberWriter = new JsonNumberWriter(this.roundingMode);
     }
 
 
@@ -317,6 +484,84 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
         return this.encodeStringWriter.toString();
     }
 
+    /**
+     * Encodes the {@link OpackValue OpackValue} into UTF-8 JSON bytes, written into the output stream
+     * The output stream is flushed, but not closed.
+     *
+     * @param outputStream the output stream to write into
+     * @param opackValue   the opack value to encode
+     * @throws EncodeException if a problem occurs during encoding, if an I/O error occurs
+     */
+    public synchronized void encode(@NotNull OutputStream outputStream, @NotNull OpackValue opackValue) throws EncodeException {
+        this.encodeObject(outputStream, opackValue);
+    }
+
+    /**
+     * Encodes the {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue} into UTF-8 JSON bytes, written into the output stream
+     * The output stream is flushed, but not closed.
+     *
+     * @param outputStream the output stream to write into
+     * @param object       the object to encode
+     * @throws EncodeException if a problem occurs during encoding, if an I/O error occurs
+     */
+    public synchronized void encodeObject(@NotNull OutputStream outputStream, @Nullable Object object) throws EncodeException {
+        Utf8Writer utf8Writer = this.getEncodeUtf8Writer();
+        utf8Writer.reset(outputStream);
+
+        this.encodeObject(utf8Writer, object);
+
+        try {
+            utf8Writer.flush();
+        } catch (IOException ioException) {
+            throw new EncodeException(ioException);
+        }
+    }
+
+    /**
+     * Encodes the {@link OpackValue OpackValue} into UTF-8 JSON bytes, written into the byte buffer from its position
+     * If the byte buffer has not enough remaining space, its position is left unchanged.
+     *
+     * @param byteBuffer the byte buffer to write into
+     * @param opackValue the opack value to encode
+     * @throws EncodeException if a problem occurs during encoding, if the byte buffer has not enough remaining space
+     */
+    public synchronized void encode(@NotNull ByteBuffer byteBuffer, @NotNull OpackValue opackValue) throws EncodeException {
+        this.encodeObject(byteBuffer, opackValue);
+    }
+
+    /**
+     * Encodes the {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue} into UTF-8 JSON bytes, written into the byte buffer from its position
+     * If the byte buffer has not enough remaining space, its position is left unchanged.
+     *
+     * @param byteBuffer the byte buffer to write into
+     * @param object     the object to encode
+     * @throws EncodeException if a problem occurs during encoding, if the byte buffer has not enough remaining space
+     */
+    public synchronized void encodeObject(@NotNull ByteBuffer byteBuffer, @Nullable Object object) throws EncodeException {
+        Utf8Writer utf8Writer = this.getEncodeUtf8Writer();
+        utf8Writer.reset(byteBuffer);
+
+        int position = byteBuffer.position();
+
+        try {
+            this.encodeObject(utf8Writer, object);
+            utf8Writer.flush();
+        } catch (IOException ioException) {
+            byteBuffer.position(position);
+            throw new EncodeException(ioException);
+        } catch (EncodeException encodeException) {
+            byteBuffer.position(position);
+            throw encodeException;
+        }
+    }
+
+    private @NotNull Utf8Writer getEncodeUtf8Writer() {
+        if (this.encodeUtf8Writer == null) {
+            this.encodeUtf8Writer = new Utf8Writer();
+        }
+
+        return this.encodeUtf8Writer;
+    }
 
     /**
      * Encodes the {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue} into JSON string
@@ -516,26 +761,30 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
             return false;
         } else if (objectType == String.class || (enableConvertCharacterToString && objectType == Character.class)) {
             String string = objectType == Character.class ? object.toString() : (String) object;
-            char[] charArray = string.toCharArray();
+            int length = string.length();
+
+            if (this.encodeCharArray.length < length) {
+                this.encodeCharArray = new char[Math.max(length, this.encodeCharArray.length << 1)];
+            }
+
+            char[] charArray = this.encodeCharArray;
+            string.getChars(0, length, charArray, 0);
 
             writer.write(CONST_STRING_OPEN_CHARACTER);
 
             int last = 0;
-            int length = charArray.length;
+            int index = 0;
 
-            for (int index = 0; index < length; index++) {
-                char character = charArray[index];
-                char[] replacement = JsonCodec.getReplacementCharacter(character);
-
-                if (replacement != null) {
-                    if (last < index) {
-                        // Write characters from the last index to just before escapable character
-                        writer.write(charArray, last, index - last);
-                    }
+            while ((index = JsonCodec.skipUnescapedCharacters(charArray, index, length)) < length) {
+                char[] replacement = JsonCodec.getReplacementCharacter(charArray[index]);
 
-                    writer.write(replacement);
-                    last = index + 1;
+                if (last < index) {
+                    // Write characters from the last index to just before escapable character
+                    writer.write(charArray, last, index - last);
                 }
+
+                writer.write(replacement);
+                last = ++index;
             }
 
             if (last < length) {
@@ -566,11 +815,13 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
             }
 
             if (objectType == Character.class) {
-                writer.write(Integer.toString((char) object));
+                this.encodeNumberWriter.writeLong(writer, (char) object);
             } else if (isDouble) {
-                writer.write(RyuJsonDouble.toString((Double) object, this.roundingMode));
+                this.encodeNumberWriter.writeDouble(writer, (Double) object);
             } else if (isFloat) {
-                writer.write(RyuJsonDouble.toString((Float) object, this.roundingMode));
+                this.encodeNumberWriter.writeDouble(writer, (Float) object);
+            } else if (objectType == Integer.class || objectType == Long.class || objectType == Short.class || objectType == Byte.class) {
+                this.encodeNumberWriter.writeLong(writer, ((Number) object).longValue());
             } else {
                 writer.write(object.toString());
             }
@@ -620,7 +871,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                     writer.write(CONST_SEPARATOR_CHARACTER);
                 }
 
-                writer.write(Byte.toString(array[index]));
+                this.encodeNumberWriter.writeLong(writer, array[index]);
             }
 
             writer.write(CONST_ARRAY_CLOSE_CHARACTER);
@@ -644,11 +895,11 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                     if (replacement != null) {
                         writer.write(replacement);
                     } else {
-                        writer.write(Character.toString(character));
+                        writer.write(character);
                     }
                     writer.write(CONST_STRING_CLOSE_CHARACTER);
                 } else {
-                    writer.write(Integer.toString(array[index]));
+                    this.encodeNumberWriter.writeLong(writer, array[index]);
                 }
             }
 
@@ -665,7 +916,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                     writer.write(CONST_SEPARATOR_CHARACTER);
                 }
 
-                writer.write(Short.toString(array[index]));
+                this.encodeNumberWriter.writeLong(writer, array[index]);
             }
 
             writer.write(CONST_ARRAY_CLOSE_CHARACTER);
@@ -681,7 +932,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                     writer.write(CONST_SEPARATOR_CHARACTER);
                 }
 
-                writer.write(Integer.toString(array[index]));
+                this.encodeNumberWriter.writeLong(writer, array[index]);
             }
 
             writer.write(CONST_ARRAY_CLOSE_CHARACTER);
@@ -697,7 +948,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                     writer.write(CONST_SEPARATOR_CHARACTER);
                 }
 
-                writer.write(RyuJsonFloat.toString(array[index], this.roundingMode));
+                this.encodeNumberWriter.writeFloat(writer, array[index]);
             }
 
             writer.write(CONST_ARRAY_CLOSE_CHARACTER);
@@ -713,7 +964,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                     writer.write(CONST_SEPARATOR_CHARACTER);
                 }
 
-                writer.write(Long.toString(array[index]));
+                this.encodeNumberWriter.writeLong(writer, array[index]);
             }
 
             writer.write(CONST_ARRAY_CLOSE_CHARACTER);
@@ -729,7 +980,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                     writer.write(CONST_SEPARATOR_CHARACTER);
                 }
 
-                writer.write(RyuJsonDouble.toString(array[index], this.roundingMode));
+                this.encodeNumberWriter.writeDouble(writer, array[index]);
             }
 
             writer.write(CONST_ARRAY_CLOSE_CHARACTER);
@@ -778,11 +1029,11 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                         if (replacement != null) {
                             writer.write(replacement);
                         } else {
-                            writer.write(Character.toString(character));
+                            writer.write(character);
                         }
                         writer.write(CONST_STRING_CLOSE_CHARACTER);
                     } else {
-                        writer.write(Integer.toString(array[index]));
+                        this.encodeNumberWriter.writeLong(writer, array[index]);
                     }
                 }
             }
@@ -803,7 +1054,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                 if (array[index] == null) {
                     writer.write(CONST_NULL_CHARACTER);
                 } else {
-                    writer.write(RyuJsonFloat.toString((Float) array[index], this.roundingMode));
+                    this.encodeNumberWriter.writeFloat(writer, (Float) array[index]);
                 }
             }
 
@@ -823,7 +1074,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                 if (array[index] == null) {
                     writer.write(CONST_NULL_CHARACTER);
                 } else {
-                    writer.write(RyuJsonDouble.toString((Double) array[index], this.roundingMode));
+                    this.encodeNumberWriter.writeDouble(writer, (Double) array[index]);
                 }
             }
 
@@ -846,7 +1097,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                 if (array[index] == null) {
                     writer.write(CONST_NULL_CHARACTER);
                 } else {
-                    writer.write(array[index].toString());
+                    this.encodeNumberWriter.writeLong(writer, ((Number) array[index]).longValue());
                 }
             }
 
@@ -868,14 +1119,366 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
      */
     @Override
     public synchronized @Nullable Object decodeObject(@NotNull String input) throws DecodeException {
+        char[] charArray = input.toCharArray();
+
+        try {
+            return this.decodeCharacters(charArray, 0, charArray.length, null);
+        } catch (IOException ioException) {
+            throw new DecodeException(ioException);
+        }
+    }
+
+    /**
+     * Decodes a range of JSON characters into {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue}
+     *
+     * @param charArray the characters to decode
+     * @param offset    the index of the first character
+     * @param length    the number of characters
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding
+     */
+    synchronized @Nullable Object decodeObject(char @NotNull [] charArray, int offset, int length) throws DecodeException {
+        try {
+            return this.decodeCharacters(charArray, offset, offset + length, null);
+        } catch (IOException ioException) {
+            throw new DecodeException(ioException);
+        }
+    }
+
+    /**
+     * Builds the structural index of the JSON string, so that values can be read on demand without decoding the whole tree, see {@link JsonTape}
+     *
+     * @param input the input to index
+     * @return the tape of the input
+     * @throws DecodeException if the input is not well-formed JSON
+     */
+    public @NotNull JsonTape decodeTape(@NotNull String input) throws DecodeException {
+        char[] charArray = input.toCharArray();
+
+        return JsonTape.parse(this, charArray, 0, charArray.length);
+    }
+
+    /**
+     * Builds the structural index of a range of JSON characters, see {@link #decodeTape(String)}
+     * The characters are referenced by the tape, not copied, and must not change while the tape is used.
+     *
+     * @param charArray the characters to index
+     * @param offset    the index of the first character
+     * @param length    the number of characters
+     * @return the tape of the input
+     * @throws DecodeException if the input is not well-formed JSON
+     */
+    public @NotNull JsonTape decodeTape(char @NotNull [] charArray, int offset, int length) throws DecodeException {
+        return JsonTape.parse(this, charArray, offset, length);
+    }
+
+    /**
+     * Creates a pull parser reading the JSON text of the reader token by token, through a buffer of the decode buffer size, see {@link JsonParser}
+     *
+     * @param reader the reader to parse
+     * @return the created parser
+     */
+    public @NotNull JsonParser createParser(@NotNull Reader reader) {
+        return new JsonParser(reader, this.decodeBufferSize);
+    }
+
+    /**
+     * Creates a pull parser reading the UTF-8 JSON text of the input stream token by token, see {@link #createParser(Reader)}
+     * Malformed UTF-8 is reported instead of being replaced. The input stream is not closed.
+     *
+     * @param inputStream the input stream to parse
+     * @return the created parser
+     */
+    public @NotNull JsonParser createParser(@NotNull InputStream inputStream) {
+        return new JsonParser(new Utf8Reader(inputStream), this.decodeBufferSize);
+    }
+
+    /**
+     * Creates a pull parser reading the JSON string token by token, see {@link JsonParser}
+     *
+     * @param input the input to parse
+     * @return the created parser
+     */
+    public @NotNull JsonParser createParser(@NotNull String input) {
+        char[] charArray = input.toCharArray();
+
+        return new JsonParser(charArray, 0, charArray.length);
+    }
+
+    /**
+     * Creates a pull parser reading a range of JSON characters token by token, see {@link JsonParser}
+     * The characters are not copied, and must not change while the parser is used.
+     *
+     * @param charArray the characters to parse
+     * @param offset    the index of the first character
+     * @param length    the number of characters
+     * @return the created parser
+     */
+    public @NotNull JsonParser createParser(char @NotNull [] charArray, int offset, int length) {
+        return new JsonParser(charArray, offset, length);
+    }
+
+    /**
+     * Creates a parser that does not block on input, fed with chunks of characters or UTF-8 bytes as they arrive, see {@link JsonParser}
+     *
+     * @return the created parser
+     */
+    public @NotNull JsonParser createFeedParser() {
+        return new JsonParser();
+    }
+
+    /**
+     * Creates a generator writing a JSON text to the writer token by token, with the rounding mode of this codec, see {@link JsonGenerator}
+     *
+     * @param writer the writer to write to
+     * @return the created generator
+     */
+    public @NotNull JsonGenerator createGenerator(@NotNull Writer writer) {
+        return new JsonGenerator(this, writer, this.roundingMode);
+    }
+
+    /**
+     * Creates a generator writing a UTF-8 JSON text to the output stream token by token, see {@link #createGenerator(Writer)}
+     * The output is buffered until the generator is flushed or closed, and the output stream is not closed.
+     *
+     * @param outputStream the output stream to write to
+     * @return the created generator
+     */
+    public @NotNull JsonGenerator createGenerator(@NotNull OutputStream outputStream) {
+        Utf8Writer utf8Writer = new Utf8Writer();
+        utf8Writer.reset(outputStream);
+
+        return new JsonGenerator(this, utf8Writer, this.roundingMode);
+    }
+
+    /**
+     * Decodes the JSON text of the reader into {@link OpackValue OpackValue}
+     * The reader is read through a sliding buffer, so the whole text is never held in memory. The reader is not closed.
+     *
+     * @param reader the reader to decode
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding, if an I/O error occurs
+     */
+    public synchronized @NotNull OpackValue decode(@NotNull Reader reader) throws DecodeException {
+        Object decodedObject = this.decodeObject(reader);
+
+        if (decodedObject instanceof OpackValue) {
+            return (OpackValue) decodedObject;
+        }
+
+        throw new DecodeException("Successfully decoded but given input is not an OpackValue.");
+    }
+
+    /**
+     * Decodes the JSON text of the reader into {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue}
+     * The reader is read through a sliding buffer, so the whole text is never held in memory. The reader is not closed.
+     *
+     * @param reader the reader to decode
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding, if an I/O error occurs
+     */
+    public synchronized @Nullable Object decodeObject(@NotNull Reader reader) throws DecodeException {
+        if (this.decodeStreamBuffer == null) {
+            this.decodeStreamBuffer = new char[Math.max(16, this.decodeBufferSize)];
+        }
+
+        try {
+            return this.decodeCharacters(this.decodeStreamBuffer, 0, 0, reader);
+        } catch (IOException ioException) {
+            throw new DecodeException(ioException);
+        }
+    }
+
+    /**
+     * Decodes the UTF-8 JSON bytes into {@link OpackValue OpackValue}
+     * The bytes are decoded into a sliding character buffer, so no string of the whole text is created. Malformed UTF-8 is reported instead of being replaced.
+     *
+     * @param bytes  the bytes to decode
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding
+     */
+    public synchronized @NotNull OpackValue decode(byte @NotNull [] bytes, int offset, int length) throws DecodeException {
+        return this.decode(new Utf8Reader(bytes, offset, length));
+    }
+
+    /**
+     * Decodes the UTF-8 JSON bytes into {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue}, see {@link #decode(byte[], int, int)}
+     *
+     * @param bytes  the bytes to decode
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding
+     */
+    public synchronized @Nullable Object decodeObject(byte @NotNull [] bytes, int offset, int length) throws DecodeException {
+        return this.decodeObject(new Utf8Reader(bytes, offset, length));
+    }
+
+    /**
+     * Decodes the remaining UTF-8 JSON bytes of the byte buffer into {@link OpackValue OpackValue}, see {@link #decode(byte[], int, int)}
+     * The byte buffer is read up to its limit.
+     *
+     * @param byteBuffer the byte buffer to decode
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding
+     */
+    public synchronized @NotNull OpackValue decode(@NotNull ByteBuffer byteBuffer) throws DecodeException {
+        return this.decode(new Utf8Reader(byteBuffer));
+    }
+
+    /**
+     * Decodes the remaining UTF-8 JSON bytes of the byte buffer into {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue}, see {@link #decode(byte[], int, int)}
+     * The byte buffer is read up to its limit.
+     *
+     * @param byteBuffer the byte buffer to decode
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding
+     */
+    public synchronized @Nullable Object decodeObject(@NotNull ByteBuffer byteBuffer) throws DecodeException {
+        return this.decodeObject(new Utf8Reader(byteBuffer));
+    }
+
+    /**
+     * Decodes the UTF-8 JSON text of the input stream into {@link OpackValue OpackValue}, see {@link #decode(Reader)}
+     * Malformed UTF-8 is reported instead of being replaced. The input stream is not closed.
+     *
+     * @param inputStream the input stream to decode
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding, if an I/O error occurs
+     */
+    public synchronized @NotNull OpackValue decode(@NotNull InputStream inputStream) throws DecodeException {
+        return this.decode(new Utf8Reader(inputStream));
+    }
+
+    /**
+     * Decodes the UTF-8 JSON text of the input stream into {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue}, see {@link #decode(Reader)}
+     * Malformed UTF-8 is reported instead of being replaced. The input stream is not closed.
+     *
+     * @param inputStream the input stream to decode
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding, if an I/O error occurs
+     */
+    public synchronized @Nullable Object decodeObject(@NotNull InputStream inputStream) throws DecodeException {
+        return this.decodeObject(new Utf8Reader(inputStream));
+    }
+
+    /**
+     * Decodes the UTF-8 JSON text of the channel into {@link OpackValue OpackValue}, see {@link #decode(Reader)}
+     * Malformed UTF-8 is reported instead of being replaced. The channel is not closed.
+     *
+     * @param channel the channel to decode
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding, if an I/O error occurs
+     */
+    public synchronized @NotNull OpackValue decode(@NotNull ReadableByteChannel channel) throws DecodeException {
+        return this.decode(new Utf8Reader(Channels.newInputStream(channel)));
+    }
+
+    /**
+     * Decodes the UTF-8 JSON text of the channel into {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue}, see {@link #decode(Reader)}
+     * Malformed UTF-8 is reported instead of being replaced. The channel is not closed.
+     *
+     * @param channel the channel to decode
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding, if an I/O error occurs
+     */
+    public synchronized @Nullable Object decodeObject(@NotNull ReadableByteChannel channel) throws DecodeException {
+        return this.decodeObject(new Utf8Reader(Channels.newInputStream(channel)));
+    }
+
+    /**
+     * Slides the characters from the anchor to the front of the decode buffer and reads from the reader behind them,
+     * until at least the required characters follow the anchor or the reader ends
+     * The buffer grows only if the characters to keep already fill it. Without a reader, nothing changes.
+     *
+     * @param anchor   the index of the first character to keep
+     * @param required the number of characters wanted from the anchor
+     * @return the number of characters the kept characters moved back by
+     * @throws IOException if an I/O error occurs
+     */
+    private int fillDecodeBuffer(int anchor, int required) throws IOException {
+        Reader reader = this.decodeReader;
+
+        if (reader == null) {
+            return 0;
+        }
+
+        char[] buffer = this.decodeCharArray;
+        int kept = this.decodeLength - anchor;
+
+        if (kept >= required) {
+            return 0;
+        }
+
+        if (anchor > 0) {
+            System.arraycopy(buffer, anchor, buffer, 0, kept);
+        }
+
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, required));
+            this.decodeCharArray = buffer;
+        }
+
+        int length = kept;
+
+        while (length < required) {
+            int read = reader.read(buffer, length, buffer.length - length);
+
+            if (read < 0) {
+                this.decodeReader = null;
+                break;
+            }
+
+            length += read;
+        }
+
+        this.decodeLength = length;
+        this.decodeDiscardedLength += anchor;
+
+        return anchor;
+    }
+
+    /**
+     * Decodes the JSON characters into {@link OpackValue#isAllowType(Class) Objects of the type allowed by OpackValue}
+     *
+     * @param charArray the characters to decode, or the buffer to read into if a reader is given
+     * @param offset    the index of the first character to decode
+     * @param end       the index after the last character to decode
+     * @param reader    the reader to refill the buffer from, or null if all characters are given
+     * @return the decoded result
+     * @throws DecodeException if a problem occurs during decoding
+     * @throws IOException     if an I/O error occurs
+     */
+    private @Nullable Object decodeCharacters(char @NotNull [] charArray, int offset, int end, @Nullable Reader reader) throws DecodeException, IOException {
         this.decodeBaseStack.reset();
         this.decodeValueStack.reset();
         this.decodeStringWriter.reset();
 
-        int pointer = 0;
+        this.decodeCharArray = charArray;
+        this.decodeLength = end;
+        this.decodeDiscardedLength = 0;
+        this.decodeReader = reader;
+
+        try {
+            return this.decodeCharacters(offset);
+        } finally {
+            if (reader != null && this.decodeStreamBuffer != null && this.decodeCharArray.length > this.decodeStreamBuffer.length) {
+                // Keep the grown buffer for the next stream
+                this.decodeStreamBuffer = this.decodeCharArray;
+            }
+
+            this.decodeCharArray = CONST_EMPTY_CHARACTER;
+            this.decodeLength = 0;
+            this.decodeReader = null;
+        }
+    }
+
+    private @Nullable Object decodeCharacters(int pointer) throws DecodeException, IOException {
+        char[] charArray = this.decodeCharArray;
+        int length = this.decodeLength;
 
-        int length = input.length();
-        char[] charArray = input.toCharArray();
         boolean valueMode = true;
         boolean emptyBase = false;
 
@@ -883,7 +1486,17 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
         OpackValue currentContext = null;
         Class<?> currentContextType = null;
 
-        while (pointer < length) {
+        while (true) {
+            if (pointer >= length) {
+                pointer -= this.fillDecodeBuffer(pointer, 1);
+                charArray = this.decodeCharArray;
+                length = this.decodeLength;
+
+                if (pointer >= length) {
+                    break;
+                }
+            }
+
             char currentChar = charArray[pointer++];
 
             switch (currentChar) {
@@ -892,7 +1505,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                  */
                 case '{': {
                     if (!valueMode) {
-                        throw new DecodeException("Expected value or comma(,) or colon(:), but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                        throw new DecodeException("Expected value or comma(,) or colon(:), but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                     }
 
                     currentContextIndex = this.decodeBaseStack.push(this.decodeValueStack.getSize());
@@ -904,7 +1517,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
 
                 case '[': {
                     if (!valueMode) {
-                        throw new DecodeException("Expected value or comma(,), but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                        throw new DecodeException("Expected value or comma(,), but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                     }
 
                     currentContextIndex = this.decodeBaseStack.push(this.decodeValueStack.getSize());
@@ -917,14 +1530,14 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                 case '}':
                 case ']': {
                     if (valueMode && !emptyBase) {
-                        throw new DecodeException("Expected value, but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                        throw new DecodeException("Expected value, but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                     }
 
                     int valueSize = this.decodeValueStack.getSize() - currentContextIndex - 1;
 
                     if (currentContextType == OpackObject.class) {
                         if (currentChar != '}') {
-                            throw new DecodeException("Expected character(}), but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                            throw new DecodeException("Expected character(}), but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                         }
 
                         OpackObject opackObject = (OpackObject) currentContext;
@@ -942,7 +1555,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                         }
                     } else if (currentContextType == OpackArray.class) {
                         if (currentChar != ']') {
-                            throw new DecodeException("Expected character(]), but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                            throw new DecodeException("Expected character(]), but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                         }
 
                         OpackArray opackArray = (OpackArray) currentContext;
@@ -977,15 +1590,15 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
 
                 case ':': {
                     if (this.decodeBaseStack.isEmpty()) {
-                        throw new DecodeException("Expected end of string, but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                        throw new DecodeException("Expected end of string, but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                     }
 
                     if (valueMode) {
-                        throw new DecodeException("Expected literal value, but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                        throw new DecodeException("Expected literal value, but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                     }
 
                     if (currentContextType == OpackArray.class) {
-                        throw new DecodeException("The array type cannot contain colons. at " + pointer + "(" + charArray[pointer - 1] + ").");
+                        throw new DecodeException("The array type cannot contain colons. at " + (this.decodeDiscardedLength + pointer) + "(" + charArray[pointer - 1] + ").");
                     }
 
                     valueMode = true;
@@ -995,18 +1608,18 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
 
                 case ',': {
                     if (this.decodeBaseStack.isEmpty()) {
-                        throw new DecodeException("Expected end of string, but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                        throw new DecodeException("Expected end of string, but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                     }
 
                     if (valueMode) {
-                        throw new DecodeException("Expected literal value, but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                        throw new DecodeException("Expected literal value, but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                     }
 
                     if (currentContextType == OpackObject.class) {
                         int valueSize = this.decodeValueStack.getSize() - currentContextIndex - 1;
 
                         if (valueSize % 2 != 0) {
-                            throw new DecodeException("Expected colons(:), but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                            throw new DecodeException("Expected colons(:), but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                         }
                     }
 
@@ -1019,14 +1632,18 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                 case '\r':
                 case '\n':
                 case '\t': {
-                    // Skip a no-meaning character
+                    // Skip a no-meaning character, and the rest of the run
+                    while (pointer < length && JsonCodec.isWhitespaceCharacter(charArray[pointer])) {
+                        pointer++;
+                    }
+
                     break;
                 }
 
                 default: {
                     // Literal Value Parse
                     if (!valueMode) {
-                        throw new DecodeException("Parsed unknown character at " + pointer + "(" + charArray[pointer - 1] + ").");
+                        throw new DecodeException("Parsed unknown character at " + (this.decodeDiscardedLength + pointer) + "(" + charArray[pointer - 1] + ").");
                     }
 
                     int startAnchor = pointer;
@@ -1037,7 +1654,23 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
 
                             // String Literal Parse
                             STRING_LOOP:
-                            while (pointer < length) {
+                            while (true) {
+                                pointer = JsonCodec.skipPlainStringCharacters(charArray, pointer, length);
+
+                                if (pointer >= length) {
+                                    // Flush the characters read so far, so the buffer can slide past them
+                                    this.decodeStringWriter.write(charArray, startAnchor, pointer - startAnchor);
+
+                                    pointer -= this.fillDecodeBuffer(pointer, 1);
+                                    charArray = this.decodeCharArray;
+                                    length = this.decodeLength;
+                                    startAnchor = pointer;
+
+                                    if (pointer >= length) {
+                                        break;
+                                    }
+                                }
+
                                 char literalChar = charArray[pointer++];
 
                                 switch (literalChar) {
@@ -1047,13 +1680,24 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                                     case '\n':
                                     case '\r':
                                     case '\t': {
-                                        throw new DecodeException("Not allow unescaped character(" + JsonCodec.escapeChar(literalChar) + ") in string literal, but got at " + pointer + ".");
+                                        throw new DecodeException("Not allow unescaped character(" + JsonCodec.escapeChar(literalChar) + ") in string literal, but got at " + (this.decodeDiscardedLength + pointer) + ".");
                                     }
                                     case '\"': {
-                                        this.decodeStringWriter.write(charArray, startAnchor, pointer - startAnchor - 1);
-
-                                        this.decodeValueStack.push(this.decodeStringWriter.toString());
-                                        this.decodeStringWriter.reset();
+                                        if (this.decodeStringWriter.getLength() == 0) {
+                                            // Clean literal, built straight from the characters
+                                            int literalLength = pointer - startAnchor - 1;
+
+                                            if (this.decodeStringCache != null) {
+                                                this.decodeValueStack.push(this.decodeStringCache.get(charArray, startAnchor, literalLength));
+                                            } else {
+                                                this.decodeValueStack.push(new String(charArray, startAnchor, literalLength));
+                                            }
+                                        } else {
+                                            this.decodeStringWriter.write(charArray, startAnchor, pointer - startAnchor - 1);
+
+                                            this.decodeValueStack.push(this.decodeStringWriter.toString());
+                                            this.decodeStringWriter.reset();
+                                        }
 
                                         pushed = true;
                                         break STRING_LOOP;
@@ -1062,6 +1706,14 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                                         // Escape Character Parse
                                         this.decodeStringWriter.write(charArray, startAnchor, pointer - startAnchor - 1);
 
+                                        pointer -= this.fillDecodeBuffer(pointer, 5);
+                                        charArray = this.decodeCharArray;
+                                        length = this.decodeLength;
+
+                                        if (pointer >= length) {
+                                            break STRING_LOOP;
+                                        }
+
                                         char nextChar = charArray[pointer++];
 
                                         switch (nextChar) {
@@ -1074,6 +1726,10 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
 
                                                 break;
                                             case 'u':
+                                                if (pointer + 4 > length) {
+                                                    throw new DecodeException("Expected 4 hex digits of unicode escape, but got end of file.");
+                                                }
+
                                                 char result = 0;
 
                                                 for (int i = 0; i < 4; i++) {
@@ -1088,7 +1744,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                                                     } else if (unicode >= 'A' && unicode <= 'F') {
                                                         result += (char) (unicode - 'A' + 10);
                                                     } else {
-                                                        throw new DecodeException("Parsed unknown unicode pattern character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                                                        throw new DecodeException("Parsed unknown unicode pattern character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                                                     }
                                                 }
 
@@ -1114,7 +1770,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                                                 this.decodeStringWriter.write('/');
                                                 break;
                                             default:
-                                                throw new DecodeException("Parsed unknown escape pattern character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                                                throw new DecodeException("Parsed unknown escape pattern character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                                         }
 
                                         startAnchor = pointer;
@@ -1144,7 +1800,20 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                             boolean decimal = false;
 
                             NUMBER_LOOP:
-                            while (pointer < length) {
+                            while (true) {
+                                if (pointer >= length) {
+                                    int shift = this.fillDecodeBuffer(startAnchor - 1, pointer - startAnchor + 2);
+
+                                    pointer -= shift;
+                                    startAnchor -= shift;
+                                    charArray = this.decodeCharArray;
+                                    length = this.decodeLength;
+
+                                    if (pointer >= length) {
+                                        break;
+                                    }
+                                }
+
                                 char literalChar = charArray[pointer++];
 
                                 switch (literalChar) {
@@ -1154,7 +1823,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                                         char previousChar = charArray[pointer - 2];
 
                                         if (previousChar < '0' || previousChar > '9') {
-                                            throw new DecodeException("Expected digit, but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                                            throw new DecodeException("Expected digit, but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                                         }
 
                                         decimal = true;
@@ -1181,7 +1850,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
 
                             if (decimal) {
                                 if (charArray[pointer - 1] == '.') {
-                                    throw new DecodeException("A decimal number cannot end with a dot(.) at " + pointer + "(" + charArray[pointer - 1] + ").");
+                                    throw new DecodeException("A decimal number cannot end with a dot(.) at " + (this.decodeDiscardedLength + pointer) + "(" + charArray[pointer - 1] + ").");
                                 }
 
                                 this.decodeValueStack.push(FastJsonDouble.parseDouble(charArray, startAnchor - 1, pointer - startAnchor + 1));
@@ -1193,9 +1862,17 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                         }
 
                         case 't': {
+                            pointer -= this.fillDecodeBuffer(pointer - 1, CONST_TRUE_CHARACTER.length);
+                            charArray = this.decodeCharArray;
+                            length = this.decodeLength;
+
+                            if (pointer - 1 + CONST_TRUE_CHARACTER.length > length) {
+                                throw new DecodeException("Expected true, but got end of file.");
+                            }
+
                             for (int i = 1; i < CONST_TRUE_CHARACTER.length; i++) {
                                 if (CONST_TRUE_CHARACTER[i] != charArray[pointer++]) {
-                                    throw new DecodeException("Expected character(" + CONST_TRUE_CHARACTER[i] + ") of true, but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                                    throw new DecodeException("Expected character(" + CONST_TRUE_CHARACTER[i] + ") of true, but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                                 }
                             }
 
@@ -1205,9 +1882,17 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                         }
 
                         case 'f': {
+                            pointer -= this.fillDecodeBuffer(pointer - 1, CONST_FALSE_CHARACTER.length);
+                            charArray = this.decodeCharArray;
+                            length = this.decodeLength;
+
+                            if (pointer - 1 + CONST_FALSE_CHARACTER.length > length) {
+                                throw new DecodeException("Expected false, but got end of file.");
+                            }
+
                             for (int i = 1; i < CONST_FALSE_CHARACTER.length; i++) {
                                 if (CONST_FALSE_CHARACTER[i] != charArray[pointer++]) {
-                                    throw new DecodeException("Expected character(" + CONST_TRUE_CHARACTER[i] + ") of true, but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                                    throw new DecodeException("Expected character(" + CONST_TRUE_CHARACTER[i] + ") of true, but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                                 }
                             }
 
@@ -1217,9 +1902,17 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                         }
 
                         case 'n': {
+                            pointer -= this.fillDecodeBuffer(pointer - 1, CONST_NULL_CHARACTER.length);
+                            charArray = this.decodeCharArray;
+                            length = this.decodeLength;
+
+                            if (pointer - 1 + CONST_NULL_CHARACTER.length > length) {
+                                throw new DecodeException("Expected null, but got end of file.");
+                            }
+
                             for (int i = 1; i < CONST_NULL_CHARACTER.length; i++) {
                                 if (CONST_NULL_CHARACTER[i] != charArray[pointer++]) {
-                                    throw new DecodeException("Expected character(" + CONST_NULL_CHARACTER[i] + ") of null, but got character(" + charArray[pointer - 1] + ") at " + pointer + ".");
+                                    throw new DecodeException("Expected character(" + CONST_NULL_CHARACTER[i] + ") of null, but got character(" + charArray[pointer - 1] + ") at " + (this.decodeDiscardedLength + pointer) + ".");
                                 }
                             }
 
@@ -1229,7 +1922,7 @@ public final class JsonCodec extends OpackCodec<String, Writer> {
                         }
 
                         default:
-                            throw new DecodeException("This value is not an opack value. Unknown value at " + pointer + "(" + currentChar + ").");
+                            throw new DecodeException("This value is not an opack value. Unknown value at " + (this.decodeDiscardedLength + pointer) + "(" + currentChar + ").");
                     }
 
                     valueMode = false;
@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.json;
+
+import com.realtimetech.opack.exception.DecodeException;
+import com.realtimetech.opack.util.UnsafeOpackValue;
+import com.realtimetech.opack.util.structure.FastStack;
+import com.realtimetech.opack.value.OpackArray;
+import com.realtimetech.opack.value.OpackObject;
+import com.realtimetech.opack.value.OpackValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ * Decodes JSON text pushed in arbitrary chunks, without blocking and without buffering the whole message
+ * Values are built from the tokens of a {@link JsonCodec#createFeedParser() feedable parser} while characters arrive, so only the token under construction is kept between chunks.
+ * The input may hold several root values separated by whitespace. This decoder is not thread-safe, use one decoder per connection.
+ */
+public class JsonFeedDecoder {
+    public enum Status {
+        /**
+         * All given input was consumed and the value is not complete yet
+         */
+        NEED_MORE,
+
+        /**
+         * A value is complete and can be taken by {@link #poll()}, the input after the value is kept for the next call of feed
+         */
+        COMPLETED
+    }
+
+    private final @NotNull JsonParser jsonParser;
+
+    private final @NotNull FastStack<@Nullable Object> containerStack;
+    private final @NotNull FastStack<@Nullable Object> pairStack;
+    private final @NotNull FastStack<@NotNull Integer> pairBaseStack;
+
+    private @Nullable Object container;
+
+    private boolean completed;
+    private @Nullable Object result;
+
+    private byte @NotNull [] byteArray;
+    private char @NotNull [] charArray;
+
+    /**
+     * Constructs a JsonFeedDecoder
+     *
+     * @param jsonCodec the json codec to create the feedable parser with
+     */
+    public JsonFeedDecoder(@NotNull JsonCodec jsonCodec) {
+        this.jsonParser = jsonCodec.createFeedParser();
+
+        this.containerStack = new FastStack<>();
+        this.pairStack = new FastStack<>();
+        this.pairBaseStack = new FastStack<>();
+
+        this.byteArray = new byte[0];
+        this.charArray = new char[0];
+    }
+
+    /**
+     * Discards the input and the value under construction, and waits for a new input
+     */
+    public void reset() {
+        this.jsonParser.reset();
+
+        this.containerStack.reset();
+        this.pairStack.reset();
+        this.pairBaseStack.reset();
+
+        this.container = null;
+
+        this.completed = false;
+        this.result = null;
+    }
+
+    /**
+     * Returns true if a completed value is waiting to be taken by {@link #poll()}
+     *
+     * @return true if a value is completed
+     */
+    public boolean isCompleted() {
+        return this.completed;
+    }
+
+    /**
+     * Takes the completed value, and prepares to decode the next value
+     *
+     * @return the completed value
+     * @throws IllegalStateException if no value is completed
+     */
+    public @Nullable Object poll() {
+        if (!this.completed) {
+            throw new IllegalStateException("No completed value, feed more input.");
+        }
+
+        Object value = this.result;
+
+        this.result = null;
+        this.completed = false;
+
+        return value;
+    }
+
+    /**
+     * Takes the completed value as {@link OpackValue OpackValue}
+     *
+     * @return the completed value
+     * @throws DecodeException       if the completed value is not an OpackValue
+     * @throws IllegalStateException if no value is completed
+     */
+    public @NotNull OpackValue pollValue() throws DecodeException {
+        Object value = this.poll();
+
+        if (value instanceof OpackValue) {
+            return (OpackValue) value;
+        }
+
+        throw new DecodeException("Successfully decoded but given input is not an OpackValue.");
+    }
+
+    /**
+     * Consumes the remaining UTF-8 bytes of the byte buffer and decodes until a value completes or the input runs out
+     * The byte buffer is consumed whole, but only once the input given before is used up, so that the completed values are taken by calling this again.
+     *
+     * @param byteBuffer the byte buffer that holds the received bytes
+     * @return {@link Status#COMPLETED} if a value is complete, {@link Status#NEED_MORE} otherwise
+     * @throws DecodeException if a problem occurs during decoding, the decoder must be {@link #reset() reset} afterwards
+     */
+    public @NotNull Status feed(@NotNull ByteBuffer byteBuffer) throws DecodeException {
+        if (this.jsonParser.needMoreInput() && !this.completed && byteBuffer.hasRemaining()) {
+            int length = byteBuffer.remaining();
+
+            if (byteBuffer.hasArray()) {
+                this.jsonParser.feed(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), length);
+            } else {
+                if (this.byteArray.length < length) {
+                    this.byteArray = new byte[length];
+                }
+
+                byteBuffer.duplicate().get(this.byteArray, 0, length);
+                this.jsonParser.feed(this.byteArray, 0, length);
+            }
+
+            byteBuffer.position(byteBuffer.limit());
+        }
+
+        return this.decode();
+    }
+
+    /**
+     * Consumes the remaining characters of the char buffer and decodes until a value completes or the input runs out, see {@link #feed(ByteBuffer)}
+     *
+     * @param charBuffer the char buffer that holds the received characters
+     * @return {@link Status#COMPLETED} if a value is complete, {@link Status#NEED_MORE} otherwise
+     * @throws DecodeException if a problem occurs during decoding, the decoder must be {@link #reset() reset} afterwards
+     */
+    public @NotNull Status feed(@NotNull CharBuffer charBuffer) throws DecodeException {
+        if (this.jsonParser.needMoreInput() && !this.completed && charBuffer.hasRemaining()) {
+            int length = charBuffer.remaining();
+
+            // The characters are copied, since the parser keeps referring to them until they are consumed
+            if (this.charArray.length < length) {
+                this.charArray = new char[length];
+            }
+
+            charBuffer.get(this.charArray, 0, length);
+            this.jsonParser.feed(this.charArray, 0, length);
+        }
+
+        return this.decode();
+    }
+
+    /**
+     * Marks the end of input, so that a number at the end completes and an unterminated value is reported
+     *
+     * @return {@link Status#COMPLETED} if a value is complete, {@link Status#NEED_MORE} otherwise
+     * @throws DecodeException if a value is not terminated, the decoder must be {@link #reset() reset} afterwards
+     */
+    public @NotNull Status endOfInput() throws DecodeException {
+        if (!this.jsonParser.needMoreInput()) {
+            Status status = this.decode();
+
+            if (status == Status.COMPLETED) {
+                return status;
+            }
+        }
+
+        this.jsonParser.endOfInput();
+
+        return this.decode();
+    }
+
+    private @NotNull Status decode() throws DecodeException {
+        JsonParser jsonParser = this.jsonParser;
+
+        while (!this.completed) {
+            JsonToken token = jsonParser.nextToken();
+
+            if (token == null || token == JsonToken.NOT_AVAILABLE) {
+                return Status.NEED_MORE;
+            }
+
+            Object value;
+
+            if (token == JsonToken.FIELD_NAME) {
+                this.pairStack.push(jsonParser.getText());
+                continue;
+            } else if (token.isStructStart()) {
+                if (this.container != null) {
+                    this.containerStack.push(this.container);
+                }
+
+                this.container = JsonParser.createContainer(token, this.pairStack, this.pairBaseStack);
+                continue;
+            } else if (token.isStructEnd()) {
+                value = this.container;
+
+                if (value instanceof OpackObject) {
+                    JsonParser.putPairs((OpackObject) value, this.pairStack, this.pairBaseStack.pop());
+                }
+
+                this.container = this.containerStack.isEmpty() ? null : this.containerStack.pop();
+            } else {
+                switch (token) {
+                    case VALUE_STRING:
+                        value = jsonParser.getText();
+                        break;
+                    case VALUE_NUMBER_INT:
+                    case VALUE_NUMBER_FLOAT:
+                        value = jsonParser.getNumber();
+                        break;
+                    case VALUE_TRUE:
+                        value = true;
+                        break;
+                    case VALUE_FALSE:
+                        value = false;
+                        break;
+                    default:
+                        value = null;
+                        break;
+                }
+            }
+
+            if (this.container == null) {
+                this.result = value;
+                this.completed = true;
+            } else if (this.container instanceof OpackObject) {
+                this.pairStack.push(value);
+            } else {
+                UnsafeOpackValue.getList((OpackArray) this.container).add(value);
+            }
+        }
+
+        return Status.COMPLETED;
+    }
+}
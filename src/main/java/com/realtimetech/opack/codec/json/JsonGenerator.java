@@ -0,0 +1,422 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.json;
+
+import com.realtimetech.opack.exception.EncodeException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Writes a JSON text token by token, created by {@link JsonCodec#createGenerator(Writer)}
+ * Commas and colons are placed automatically and the structure is checked on each call, so that only well-formed JSON is written.
+ * Several root values are separated by a line feed. This generator is not thread-safe.
+ */
+public class JsonGenerator implements Closeable, Flushable {
+    private static final char[] CONST_NULL_CHARACTER = new char[]{'n', 'u', 'l', 'l'};
+    private static final char[] CONST_TRUE_CHARACTER = new char[]{'t', 'r', 'u', 'e'};
+    private static final char[] CONST_FALSE_CHARACTER = new char[]{'f', 'a', 'l', 's', 'e'};
+
+    private final @NotNull JsonCodec jsonCodec;
+    private final @NotNull Writer writer;
+
+    private boolean @NotNull [] objectContexts;
+    private int depth;
+    private boolean first;
+    private boolean expectValue;
+
+    private char @NotNull [] charArray;
+    private final @NotNull JsonNumberWriter numberWriter;
+
+    /**
+     * Constructs a generator writing to the writer
+     *
+     * @param jsonCodec    the codec to encode values of {@link #writeObject(Object)} with
+     * @param writer       the writer to write to
+     * @param roundingMode the rounding mode for floating point numbers
+     */
+    JsonGenerator(@NotNull JsonCodec jsonCodec, @NotNull Writer writer, @NotNull RoundingMode roundingMode) {
+        this.jsonCodec = jsonCodec;
+        this.writer = writer;
+
+        this.objectContexts = new boolean[32];
+        this.first = true;
+
+        this.charArray = new char[256];
+        this.numberWriter = new JsonNumberWriter(roundingMode);
+    }
+
+    /**
+     * Returns the number of objects and arrays that are started and not ended
+     *
+     * @return the depth
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    private void beforeValue() throws EncodeException, IOException {
+        if (this.depth == 0) {
+            if (!this.first) {
+                this.writer.write('\n');
+            }
+
+            this.first = false;
+        } else if (this.objectContexts[this.depth - 1]) {
+            if (!this.expectValue) {
+                throw new EncodeException("Expected field name, but got value.");
+            }
+
+            this.expectValue = false;
+        } else {
+            if (!this.first) {
+                this.writer.write(',');
+            }
+
+            this.first = false;
+        }
+    }
+
+    /**
+     * Writes the start of an object
+     *
+     * @throws EncodeException if a field name is expected, if an I/O error occurs
+     */
+    public void writeStartObject() throws EncodeException {
+        this.writeStart(true);
+    }
+
+    /**
+     * Writes the start of an array
+     *
+     * @throws EncodeException if a field name is expected, if an I/O error occurs
+     */
+    public void writeStartArray() throws EncodeException {
+        this.writeStart(false);
+    }
+
+    private void writeStart(boolean object) throws EncodeException {
+        try {
+            this.beforeValue();
+            this.writer.write(object ? '{' : '[');
+        } catch (IOException ioException) {
+            throw new EncodeException(ioException);
+        }
+
+        if (this.depth == this.objectContexts.length) {
+            this.objectContexts = Arrays.copyOf(this.objectContexts, this.depth << 1);
+        }
+
+        this.objectContexts[this.depth++] = object;
+        this.first = true;
+    }
+
+    /**
+     * Writes the end of the current object
+     *
+     * @throws EncodeException if the current container is not an object or a field has no value, if an I/O error occurs
+     */
+    public void writeEndObject() throws EncodeException {
+        this.writeEnd(true);
+    }
+
+    /**
+     * Writes the end of the current array
+     *
+     * @throws EncodeException if the current container is not an array, if an I/O error occurs
+     */
+    public void writeEndArray() throws EncodeException {
+        this.writeEnd(false);
+    }
+
+    private void writeEnd(boolean object) throws EncodeException {
+        if (this.depth == 0 || this.objectContexts[this.depth - 1] != object) {
+            throw new EncodeException("Expected end of " + (this.depth == 0 ? "nothing" : this.objectContexts[this.depth - 1] ? "object" : "array") + ", but got end of " + (object ? "object" : "array") + ".");
+        }
+
+        if (this.expectValue) {
+            throw new EncodeException("Expected value of field, but got end of object.");
+        }
+
+        try {
+            this.writer.write(object ? '}' : ']');
+        } catch (IOException ioException) {
+            throw new EncodeException(ioException);
+        }
+
+        this.depth--;
+        this.first = false;
+    }
+
+    /**
+     * Writes the name of the next field of the current object
+     *
+     * @param name the field name
+     * @throws EncodeException if the current container is not an object or a value is expected, if an I/O error occurs
+     */
+    public void writeFieldName(@NotNull String name) throws EncodeException {
+        if (this.depth == 0 || !this.objectContexts[this.depth - 1] || this.expectValue) {
+            throw new EncodeException("Expected " + (this.expectValue ? "value" : "value outside of object") + ", but got field name.");
+        }
+
+        try {
+            if (!this.first) {
+                this.writer.write(',');
+            }
+
+            this.writeQuoted(name);
+            this.writer.write(':');
+        } catch (IOException ioException) {
+            throw new EncodeException(ioException);
+        }
+
+        this.first = false;
+        this.expectValue = true;
+    }
+
+    /**
+     * Writes a string value, escaped
+     *
+     * @param string the string, or null to write null
+     * @throws EncodeException if a field name is expected, if an I/O error occurs
+     */
+    public void writeString(@Nullable String string) throws EncodeException {
+        if (string == null) {
+            this.writeNull();
+            return;
+        }
+
+        try {
+            this.beforeValue();
+            this.writeQuoted(string);
+        } catch (IOException ioException) {
+            throw new EncodeException(ioException);
+        }
+    }
+
+    /**
+     * Writes a string value from a range of characters, escaped
+     *
+     * @param charArray the characters of the string
+     * @param offset    the index of the first character
+     * @param length    the number of characters
+     * @throws EncodeException if a field name is expected, if an I/O error occurs
+     */
+    public void writeString(char @NotNull [] charArray, int offset, int length) throws EncodeException {
+        try {
+            this.beforeValue();
+            this.writeQuoted(charArray, offset, offset + length);
+        } catch (IOException ioException) {
+            throw new EncodeException(ioException);
+        }
+    }
+
+    private void writeQuoted(@NotNull String string) throws IOException {
+        int length = string.length();
+
+        if (this.charArray.length < length) {
+            this.charArray = new char[Math.max(length, this.charArray.length << 1)];
+        }
+
+        string.getChars(0, length, this.charArray, 0);
+        this.writeQuoted(this.charArray, 0, length);
+    }
+
+    private void writeQuoted(char @NotNull [] charArray, int offset, int end) throws IOException {
+        Writer writer = this.writer;
+        int last = offset;
+        int index = offset;
+
+        writer.write('"');
+
+        while ((index = JsonCodec.skipUnescapedCharacters(charArray, index, end)) < end) {
+            char[] replacement = JsonCodec.getReplacementCharacter(charArray[index]);
+
+            if (last < index) {
+                writer.write(charArray, last, index - last);
+            }
+
+            writer.write(replacement);
+            last = ++index;
+        }
+
+        if (last < end) {
+            writer.write(charArray, last, end - last);
+        }
+
+        writer.write('"');
+    }
+
+    /**
+     * Writes a number value, without creating a string
+     *
+     * @param value the number
+     * @throws EncodeException if a field name is expected, if an I/O error occurs
+     */
+    public void writeNumber(long value) throws EncodeException {
+        try {
+            this.beforeValue();
+            this.numberWriter.writeLong(this.writer, value);
+        } catch (IOException ioException) {
+            throw new EncodeException(ioException);
+        }
+    }
+
+    /**
+     * Writes a number value
+     *
+     * @param value the number, must be finite
+     * @throws EncodeException if the number is not finite or a field name is expected, if an I/O error occurs
+     */
+    public void writeNumber(double value) throws EncodeException {
+        if (!Double.isFinite(value)) {
+            throw new EncodeException("Only finite values are allowed in json format.");
+        }
+
+        try {
+            this.beforeValue();
+            this.numberWriter.writeDouble(this.writer, value);
+        } catch (IOException ioException) {
+            throw new EncodeException(ioException);
+        }
+    }
+
+    /**
+     * Writes a number value
+     *
+     * @param value the number, must be finite
+     * @throws EncodeException if the number is not finite or a field name is expected, if an I/O error occurs
+     */
+    public void writeNumber(float value) throws EncodeException {
+        if (!Float.isFinite(value)) {
+            throw new EncodeException("Only finite values are allowed in json format.");
+        }
+
+        try {
+            this.beforeValue();
+            this.numberWriter.writeFloat(this.writer, value);
+        } catch (IOException ioException) {
+            throw new EncodeException(ioException);
+        }
+    }
+
+    /**
+     * Writes a number value
+     *
+     * @param value the number
+     * @throws EncodeException if a field name is expected, if an I/O error occurs
+     */
+    public void writeNumber(@NotNull BigInteger value) throws EncodeException {
+        this.writeRawValue(value.toString());
+    }
+
+    /**
+     * Writes a number value
+     *
+     * @param value the number
+     * @throws EncodeException if a field name is expected, if an I/O error occurs
+     */
+    public void writeNumber(@NotNull BigDecimal value) throws EncodeException {
+        this.writeRawValue(value.toString());
+    }
+
+    /**
+     * Writes a boolean value
+     *
+     * @param value the boolean
+     * @throws EncodeException if a field name is expected, if an I/O error occurs
+     */
+    public void writeBoolean(boolean value) throws EncodeException {
+        this.writeRawValue(value ? CONST_TRUE_CHARACTER : CONST_FALSE_CHARACTER);
+    }
+
+    /**
+     * Writes a null value
+     *
+     * @throws EncodeException if a field name is expected, if an I/O error occurs
+     */
+    public void writeNull() throws EncodeException {
+        this.writeRawValue(CONST_NULL_CHARACTER);
+    }
+
+    private void writeRawValue(@NotNull String value) throws EncodeException {
+        try {
+            this.beforeValue();
+            this.writer.write(value);
+        } catch (IOException ioException) {
+            throw new EncodeException(ioException);
+        }
+    }
+
+    private void writeRawValue(char @NotNull [] value) throws EncodeException {
+        try {
+            this.beforeValue();
+            this.writer.write(value);
+        } catch (IOException ioException) {
+            throw new EncodeException(ioException);
+        }
+    }
+
+    /**
+     * Writes a whole value with the codec, see {@link JsonCodec#encodeObject(Writer, Object)}
+     *
+     * @param object the value to write, of the type allowed by OpackValue
+     * @throws EncodeException if the value cannot be encoded or a field name is expected, if an I/O error occurs
+     */
+    public void writeObject(@Nullable Object object) throws EncodeException {
+        try {
+            this.beforeValue();
+        } catch (IOException ioException) {
+            throw new EncodeException(ioException);
+        }
+
+        this.jsonCodec.encodeObject(this.writer, object);
+    }
+
+    /**
+     * Flushes the writer of this generator
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        this.writer.flush();
+    }
+
+    /**
+     * Flushes and closes the writer of this generator
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+}
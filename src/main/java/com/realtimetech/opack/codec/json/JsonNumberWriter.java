@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.json;
+
+import com.realtimetech.opack.codec.json.ryu.RyuJsonDouble;
+import com.realtimetech.opack.codec.json.ryu.RyuJsonFloat;
+import com.realtimetech.opack.util.StringWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes numbers as JSON text without creating strings
+ * Integers are formatted two digits at a time through a lookup table, and floating point numbers through Ryu, straight into the buffer of a {@link StringWriter} or {@link Utf8Writer}, or else through a reused character array.
+ */
+final class JsonNumberWriter {
+    static final int MAX_LONG_LENGTH = 20;
+
+    private static final char[] DIGIT_TENS = new char[100];
+    private static final char[] DIGIT_ONES = new char[100];
+
+    static {
+        for (int index = 0; index < 100; index++) {
+            DIGIT_TENS[index] = (char) ('0' + index / 10);
+            DIGIT_ONES[index] = (char) ('0' + index % 10);
+        }
+    }
+
+    private final @NotNull RoundingMode roundingMode;
+    private final char @NotNull [] charArray;
+
+    JsonNumberWriter(@NotNull RoundingMode roundingMode) {
+        this.roundingMode = roundingMode;
+        this.charArray = new char[Math.max(MAX_LONG_LENGTH, RyuJsonDouble.MAX_LENGTH)];
+    }
+
+    /**
+     * Writes a long value as decimal digits
+     *
+     * @param writer the writer to write into
+     * @param value  the value
+     * @throws IOException if an I/O error occurs
+     */
+    void writeLong(@NotNull Writer writer, long value) throws IOException {
+        if (writer instanceof StringWriter) {
+            StringWriter stringWriter = (StringWriter) writer;
+            int length = stringWriter.getLength();
+
+            stringWriter.setLength(JsonNumberWriter.formatLong(value, stringWriter.reserve(MAX_LONG_LENGTH), length));
+        } else if (writer instanceof Utf8Writer) {
+            ((Utf8Writer) writer).writeLong(value);
+        } else {
+            writer.write(this.charArray, 0, JsonNumberWriter.formatLong(value, this.charArray, 0));
+        }
+    }
+
+    /**
+     * Writes a double value through Ryu
+     *
+     * @param writer the writer to write into
+     * @param value  the value, must be finite
+     * @throws IOException if an I/O error occurs
+     */
+    void writeDouble(@NotNull Writer writer, double value) throws IOException {
+        if (writer instanceof StringWriter) {
+            StringWriter stringWriter = (StringWriter) writer;
+            int length = stringWriter.getLength();
+
+            stringWriter.setLength(RyuJsonDouble.write(value, this.roundingMode, stringWriter.reserve(RyuJsonDouble.MAX_LENGTH), length));
+        } else {
+            writer.write(this.charArray, 0, RyuJsonDouble.write(value, this.roundingMode, this.charArray, 0));
+        }
+    }
+
+    /**
+     * Writes a float value through Ryu
+     *
+     * @param writer the writer to write into
+     * @param value  the value, must be finite
+     * @throws IOException if an I/O error occurs
+     */
+    void writeFloat(@NotNull Writer writer, float value) throws IOException {
+        if (writer instanceof StringWriter) {
+            StringWriter stringWriter = (StringWriter) writer;
+            int length = stringWriter.getLength();
+
+            stringWriter.setLength(RyuJsonFloat.write(value, this.roundingMode, stringWriter.reserve(RyuJsonFloat.MAX_LENGTH), length));
+        } else {
+            writer.write(this.charArray, 0, RyuJsonFloat.write(value, this.roundingMode, this.charArray, 0));
+        }
+    }
+
+    /**
+     * Returns the number of characters of a long value in decimal, including the sign
+     *
+     * @param value the value
+     * @return the length
+     */
+    static int getLength(long value) {
+        int length = 1;
+
+        if (value < 0) {
+            length++;
+        } else {
+            // Count on the negative side, which also holds Long.MIN_VALUE
+            value = -value;
+        }
+
+        long bound = -10;
+
+        for (int digits = 1; digits < 19; digits++) {
+            if (value > bound) {
+                return length;
+            }
+
+            length++;
+            bound *= 10;
+        }
+
+        return length;
+    }
+
+    /**
+     * Formats a long value as decimal digits into a character array
+     *
+     * @param value  the value
+     * @param chars  the array to write into, with at least {@link #MAX_LONG_LENGTH} characters from the offset
+     * @param offset the index to start writing at
+     * @return the index after the last written character
+     */
+    static int formatLong(long value, char @NotNull [] chars, int offset) {
+        int end = offset + JsonNumberWriter.getLength(value);
+        int index = end;
+        long remain = value < 0 ? value : -value;
+
+        while (remain <= -100) {
+            long quotient = remain / 100;
+            int pair = (int) (quotient * 100 - remain);
+
+            chars[--index] = DIGIT_ONES[pair];
+            chars[--index] = DIGIT_TENS[pair];
+            remain = quotient;
+        }
+
+        int pair = (int) -remain;
+
+        chars[--index] = DIGIT_ONES[pair];
+
+        if (pair >= 10) {
+            chars[--index] = DIGIT_TENS[pair];
+        }
+
+        if (value < 0) {
+            chars[--index] = '-';
+        }
+
+        return end;
+    }
+
+    /**
+     * Formats a long value as decimal digits into a byte array, as ASCII
+     *
+     * @param value  the value
+     * @param bytes  the array to write into, with at least {@link #MAX_LONG_LENGTH} bytes from the offset
+     * @param offset the index to start writing at
+     * @return the index after the last written byte
+     */
+    static int formatLong(long value, byte @NotNull [] bytes, int offset) {
+        int end = offset + JsonNumberWriter.getLength(value);
+        int index = end;
+        long remain = value < 0 ? value : -value;
+
+        while (remain <= -100) {
+            long quotient = remain / 100;
+            int pair = (int) (quotient * 100 - remain);
+
+            bytes[--index] = (byte) DIGIT_ONES[pair];
+            bytes[--index] = (byte) DIGIT_TENS[pair];
+            remain = quotient;
+        }
+
+        int pair = (int) -remain;
+
+        bytes[--index] = (byte) DIGIT_ONES[pair];
+
+        if (pair >= 10) {
+            bytes[--index] = (byte) DIGIT_TENS[pair];
+        }
+
+        if (value < 0) {
+            bytes[--index] = '-';
+        }
+
+        return end;
+    }
+}
@@ -0,0 +1,1290 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.json;
+
+import com.realtimetech.opack.codec.json.fast.FastJsonDouble;
+import com.realtimetech.opack.codec.json.fast.FastJsonLong;
+import com.realtimetech.opack.exception.DecodeException;
+import com.realtimetech.opack.util.UnsafeOpackValue;
+import com.realtimetech.opack.util.structure.FastStack;
+import com.realtimetech.opack.value.OpackArray;
+import com.realtimetech.opack.value.OpackObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Pull parser that reads a JSON text as a stream of {@link JsonToken tokens}, created by {@link JsonCodec#createParser(Reader)}
+ * Only the current token is held, so a text of any size is read in constant memory. Strings and numbers are kept as characters until they are read,
+ * and {@link #getLong()}, {@link #getDouble()} and {@link #getTextCharacters()} read them without creating objects.
+ * <p>
+ * The input may hold several root values separated by whitespace. This parser is not thread-safe.
+ * <p>
+ * A parser created by {@link JsonCodec#createFeedParser()} does not block on input. Chunks are given by {@link #feed(char[], int, int)} or {@link #feed(byte[], int, int)},
+ * and {@link #nextToken()} returns {@link JsonToken#NOT_AVAILABLE} when the chunk runs out, even in the middle of a string, number or escape.
+ * The partial token is kept in the parser, so the chunk can be reused by the caller and the next chunk continues the token.
+ */
+public class JsonParser implements Closeable {
+    private static final int STATE_ROOT = 0;
+    private static final int STATE_VALUE = 1;
+    private static final int STATE_FIRST_VALUE = 2;
+    private static final int STATE_FIRST_NAME = 3;
+    private static final int STATE_NAME = 4;
+    private static final int STATE_COLON = 5;
+    private static final int STATE_AFTER_VALUE = 6;
+
+    private static final int SCALAR_NONE = 0;
+    private static final int SCALAR_STRING = 1;
+    private static final int SCALAR_ESCAPE = 2;
+    private static final int SCALAR_UNICODE = 3;
+    private static final int SCALAR_NUMBER = 4;
+    private static final int SCALAR_WORD = 5;
+
+    private static final char[] CONST_NULL_CHARACTER = new char[]{'n', 'u', 'l', 'l'};
+    private static final char[] CONST_TRUE_CHARACTER = new char[]{'t', 'r', 'u', 'e'};
+    private static final char[] CONST_FALSE_CHARACTER = new char[]{'f', 'a', 'l', 's', 'e'};
+
+    private static final char[] CONST_OBJECT_OPEN_CHARACTER = new char[]{'{'};
+    private static final char[] CONST_OBJECT_CLOSE_CHARACTER = new char[]{'}'};
+    private static final char[] CONST_ARRAY_OPEN_CHARACTER = new char[]{'['};
+    private static final char[] CONST_ARRAY_CLOSE_CHARACTER = new char[]{']'};
+
+    private static final char[] CONST_EMPTY_CHARACTER = new char[0];
+
+    private static final double[] CONST_POWER_TABLE = new double[]{
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final @Nullable Reader reader;
+    private final boolean feedable;
+
+    private char @NotNull [] buffer;
+    private int pointer;
+    private int limit;
+    private long discardedLength;
+    private boolean endOfInput;
+
+    private boolean @NotNull [] objectContexts;
+    private int depth;
+    private int state;
+
+    private @Nullable JsonToken currentToken;
+
+    private int skipTargetDepth;
+    private boolean skipInString;
+    private boolean skipEscaped;
+
+    private int scalarState;
+    private boolean scalarName;
+    private int segmentStart;
+    private boolean numberDecimal;
+    private char numberLastCharacter;
+    private int unicodeValue;
+    private int unicodeDigits;
+    private char @NotNull [] word;
+    private int wordIndex;
+    private @NotNull JsonToken wordToken;
+
+    private char @NotNull [] textBuffer;
+    private int textBufferLength;
+
+    private char @NotNull [] textArray;
+    private int textOffset;
+    private int textLength;
+
+    private @Nullable CharsetDecoder feedDecoder;
+    private byte @NotNull [] feedByteCarry;
+    private int feedByteCarryLength;
+    private long feedByteLength;
+    private char @NotNull [] feedCharArray;
+
+    /**
+     * Constructs a parser reading through a sliding buffer from the reader
+     *
+     * @param reader     the reader to parse
+     * @param bufferSize the size of the buffer
+     */
+    JsonParser(@NotNull Reader reader, int bufferSize) {
+        this(reader, false, new char[Math.max(16, bufferSize)], 0, 0, false);
+    }
+
+    /**
+     * Constructs a parser that is fed with chunks of input
+     */
+    JsonParser() {
+        this(null, true, CONST_EMPTY_CHARACTER, 0, 0, false);
+    }
+
+    /**
+     * Constructs a parser over a range of characters, the characters are not copied
+     *
+     * @param charArray the characters to parse
+     * @param offset    the index of the first character
+     * @param length    the number of characters
+     */
+    JsonParser(char @NotNull [] charArray, int offset, int length) {
+        this(null, false, charArray, offset, offset + length, true);
+
+        if (offset < 0 || length < 0 || offset + length > charArray.length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length + ") out of bounds for length " + charArray.length);
+        }
+    }
+
+    private JsonParser(@Nullable Reader reader, boolean feedable, char @NotNull [] buffer, int pointer, int limit, boolean endOfInput) {
+        this.reader = reader;
+        this.feedable = feedable;
+        this.buffer = buffer;
+        this.pointer = pointer;
+        this.limit = limit;
+        this.endOfInput = endOfInput;
+
+        this.objectContexts = new boolean[32];
+        this.state = STATE_ROOT;
+        this.skipTargetDepth = -1;
+
+        this.word = CONST_NULL_CHARACTER;
+        this.wordToken = JsonToken.VALUE_NULL;
+
+        this.textBuffer = new char[64];
+        this.textArray = CONST_NULL_CHARACTER;
+
+        this.feedByteCarry = new byte[4];
+        this.feedCharArray = CONST_EMPTY_CHARACTER;
+    }
+
+    /**
+     * Returns true if this parser is fed with chunks of input, see {@link JsonCodec#createFeedParser()}
+     *
+     * @return true if this parser is feedable
+     */
+    public boolean isFeedable() {
+        return this.feedable;
+    }
+
+    /**
+     * Returns true if the fed characters are consumed and more input can be fed
+     *
+     * @return true if more input is needed
+     */
+    public boolean needMoreInput() {
+        return this.feedable && !this.endOfInput && this.pointer >= this.limit;
+    }
+
+    private void checkFeed() {
+        if (!this.needMoreInput()) {
+            throw new IllegalStateException(!this.feedable ? "This parser reads its own input, can not feed." : this.endOfInput ? "The end of input is already fed." : "The fed input is not consumed yet, read tokens until NOT_AVAILABLE.");
+        }
+    }
+
+    /**
+     * Feeds the next chunk of characters, which must only be given after {@link #nextToken()} returned {@link JsonToken#NOT_AVAILABLE}
+     * The characters are not copied. They must not change until the next {@link JsonToken#NOT_AVAILABLE}, after which the partial token is kept by the parser.
+     *
+     * @param charArray the characters to feed
+     * @param offset    the index of the first character
+     * @param length    the number of characters
+     * @throws IllegalStateException if this parser is not feedable, the previous chunk is not consumed or the end of input is fed
+     */
+    public void feed(char @NotNull [] charArray, int offset, int length) {
+        this.checkFeed();
+
+        if (offset < 0 || length < 0 || offset + length > charArray.length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length + ") out of bounds for length " + charArray.length);
+        }
+
+        this.discardedLength += this.limit - offset;
+        this.buffer = charArray;
+        this.pointer = offset;
+        this.limit = offset + length;
+        this.segmentStart = offset;
+    }
+
+    /**
+     * Feeds the next chunk of UTF-8 bytes, see {@link #feed(char[], int, int)}
+     * A multibyte sequence split between chunks is kept until the next chunk. The bytes are decoded into an internal buffer, so they can be reused right away.
+     *
+     * @param bytes  the bytes to feed
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @throws DecodeException       if the bytes are not well-formed UTF-8
+     * @throws IllegalStateException if this parser is not feedable, the previous chunk is not consumed or the end of input is fed
+     */
+    public void feed(byte @NotNull [] bytes, int offset, int length) throws DecodeException {
+        this.checkFeed();
+
+        if (this.feedDecoder == null) {
+            this.feedDecoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+        }
+
+        ByteBuffer input;
+
+        if (this.feedByteCarryLength > 0) {
+            byte[] joined = new byte[this.feedByteCarryLength + length];
+
+            System.arraycopy(this.feedByteCarry, 0, joined, 0, this.feedByteCarryLength);
+            System.arraycopy(bytes, offset, joined, this.feedByteCarryLength, length);
+            input = ByteBuffer.wrap(joined);
+        } else {
+            input = ByteBuffer.wrap(bytes, offset, length);
+        }
+
+        int inputStart = input.position();
+
+        if (this.feedCharArray.length < input.remaining()) {
+            this.feedCharArray = new char[Math.max(input.remaining(), this.feedCharArray.length << 1)];
+        }
+
+        CharBuffer output = CharBuffer.wrap(this.feedCharArray);
+        CoderResult coderResult = this.feedDecoder.decode(input, output, false);
+
+        if (coderResult.isError()) {
+            throw new DecodeException("Malformed UTF-8 byte sequence at byte " + (this.feedByteLength - this.feedByteCarryLength + input.position() - inputStart) + ".");
+        }
+
+        this.feedByteLength += length;
+        this.feedByteCarryLength = input.remaining();
+        input.get(this.feedByteCarry, 0, this.feedByteCarryLength);
+
+        this.feed(this.feedCharArray, 0, output.position());
+    }
+
+    /**
+     * Marks the end of the fed input, so that a number at the end completes and an unterminated value is reported
+     *
+     * @throws DecodeException       if the fed bytes end in the middle of a UTF-8 sequence
+     * @throws IllegalStateException if this parser is not feedable
+     */
+    public void endOfInput() throws DecodeException {
+        if (!this.feedable) {
+            throw new IllegalStateException("This parser reads its own input, can not feed.");
+        }
+
+        if (this.feedByteCarryLength > 0) {
+            throw new DecodeException("Expected continuation of UTF-8 byte sequence, but got end of file.");
+        }
+
+        this.endOfInput = true;
+    }
+
+    /**
+     * Discards all fed input and the state, so that this feedable parser can parse a new input
+     *
+     * @throws IllegalStateException if this parser is not feedable
+     */
+    public void reset() {
+        if (!this.feedable) {
+            throw new IllegalStateException("This parser reads its own input, can not reset.");
+        }
+
+        this.buffer = CONST_EMPTY_CHARACTER;
+        this.pointer = 0;
+        this.limit = 0;
+        this.discardedLength = 0;
+        this.endOfInput = false;
+
+        this.depth = 0;
+        this.state = STATE_ROOT;
+        this.currentToken = null;
+        this.skipTargetDepth = -1;
+        this.scalarState = SCALAR_NONE;
+        this.textBufferLength = 0;
+        this.textArray = CONST_NULL_CHARACTER;
+
+        this.feedByteCarryLength = 0;
+        this.feedByteLength = 0;
+
+        if (this.feedDecoder != null) {
+            this.feedDecoder.reset();
+        }
+    }
+
+    /**
+     * Returns the current token
+     *
+     * @return the current token, or null before the first token and after the end of input
+     */
+    public @Nullable JsonToken getCurrentToken() {
+        return this.currentToken;
+    }
+
+    /**
+     * Returns the number of objects and arrays that enclose the current position
+     *
+     * @return the depth
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Returns the position of the next character to read, counted from the start of the input
+     *
+     * @return the position
+     */
+    public long getPosition() {
+        return this.discardedLength + this.pointer;
+    }
+
+    /**
+     * Reads the next token
+     *
+     * @return the next token, {@link JsonToken#NOT_AVAILABLE} if the fed input ran out, or null if the input ended after a complete root value
+     * @throws DecodeException if the input is not well-formed JSON
+     */
+    public @Nullable JsonToken nextToken() throws DecodeException {
+        if (this.skipTargetDepth >= 0) {
+            return this.currentToken = this.scanSkip();
+        }
+
+        if (this.scalarState != SCALAR_NONE) {
+            return this.currentToken = this.scanScalar();
+        }
+
+        while (true) {
+            if (this.pointer >= this.limit && !this.loadMore()) {
+                if (!this.endOfInput) {
+                    return this.currentToken = JsonToken.NOT_AVAILABLE;
+                }
+
+                if (this.depth > 0) {
+                    throw new DecodeException(this.objectContexts[this.depth - 1] ? "Expected end of object(}), but got end of file." : "Expected end of array(]), but got end of file.");
+                }
+
+                if (this.state == STATE_COLON) {
+                    throw new DecodeException("Expected colon(:), but got end of file.");
+                }
+
+                return this.currentToken = null;
+            }
+
+            char[] buffer = this.buffer;
+            char character = buffer[this.pointer];
+
+            if (JsonCodec.isWhitespaceCharacter(character)) {
+                int index = this.pointer + 1;
+                int limit = this.limit;
+
+                while (index < limit && JsonCodec.isWhitespaceCharacter(buffer[index])) {
+                    index++;
+                }
+
+                this.pointer = index;
+                continue;
+            }
+
+            this.pointer++;
+
+            switch (this.state) {
+                case STATE_COLON:
+                    if (character != ':') {
+                        throw new DecodeException("Expected colon(:), but got character(" + character + ") at " + this.getPosition() + ".");
+                    }
+
+                    this.state = STATE_VALUE;
+                    continue;
+                case STATE_AFTER_VALUE:
+                    if (character == ',') {
+                        this.state = this.objectContexts[this.depth - 1] ? STATE_NAME : STATE_VALUE;
+                        continue;
+                    }
+
+                    if (character == '}' || character == ']') {
+                        return this.currentToken = this.closeContainer(character);
+                    }
+
+                    throw new DecodeException("Expected comma(,) or end of " + (this.objectContexts[this.depth - 1] ? "object(})" : "array(])") + ", but got character(" + character + ") at " + this.getPosition() + ".");
+                case STATE_FIRST_NAME:
+                case STATE_NAME:
+                    if (character == '}' && this.state == STATE_FIRST_NAME) {
+                        return this.currentToken = this.closeContainer(character);
+                    }
+
+                    if (character != '"') {
+                        throw new DecodeException("Expected field name(\"), but got character(" + character + ") at " + this.getPosition() + ".");
+                    }
+
+                    return this.currentToken = this.startScalar(SCALAR_STRING, true);
+                case STATE_FIRST_VALUE:
+                    if (character == ']') {
+                        return this.currentToken = this.closeContainer(character);
+                    }
+
+                    return this.currentToken = this.startValue(character);
+                default:
+                    return this.currentToken = this.startValue(character);
+            }
+        }
+    }
+
+    /**
+     * Skips the children of the current object or array, so that the current token becomes its end token
+     * The skipped characters are only checked for matching brackets and terminated strings, which is much cheaper than reading their tokens.
+     * Does nothing if the current token is not {@link JsonToken#START_OBJECT} or {@link JsonToken#START_ARRAY}.
+     * If the fed input runs out, the current token becomes {@link JsonToken#NOT_AVAILABLE} and the next {@link #nextToken()} continues skipping.
+     *
+     * @throws DecodeException if the input ends or a bracket does not match
+     */
+    public void skipChildren() throws DecodeException {
+        if (this.currentToken != JsonToken.START_OBJECT && this.currentToken != JsonToken.START_ARRAY) {
+            return;
+        }
+
+        this.skipTargetDepth = this.depth - 1;
+        this.skipInString = false;
+        this.skipEscaped = false;
+
+        this.currentToken = this.scanSkip();
+    }
+
+    private @NotNull JsonToken scanSkip() throws DecodeException {
+        int targetDepth = this.skipTargetDepth;
+        boolean inString = this.skipInString;
+        boolean escaped = this.skipEscaped;
+
+        while (true) {
+            if (this.pointer >= this.limit && !this.loadMore()) {
+                if (!this.endOfInput) {
+                    this.skipInString = inString;
+                    this.skipEscaped = escaped;
+
+                    return JsonToken.NOT_AVAILABLE;
+                }
+
+                throw new DecodeException(this.objectContexts[this.depth - 1] ? "Expected end of object(}), but got end of file." : "Expected end of array(]), but got end of file.");
+            }
+
+            char[] buffer = this.buffer;
+            int index = this.pointer;
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                    index++;
+                } else {
+                    index = JsonCodec.skipPlainStringCharacters(buffer, index, this.limit);
+
+                    if (index < this.limit) {
+                        char character = buffer[index++];
+
+                        if (character == '"') {
+                            inString = false;
+                        } else if (character == '\\') {
+                            escaped = true;
+                        } else {
+                            throw new DecodeException("Not allow unescaped character(" + JsonCodec.escapeChar(character) + ") in string literal, but got at " + (this.discardedLength + index) + ".");
+                        }
+                    }
+                }
+
+                this.pointer = index;
+                continue;
+            }
+
+            char character = buffer[index++];
+            this.pointer = index;
+
+            switch (character) {
+                case '"':
+                    inString = true;
+                    break;
+                case '{':
+                    this.pushContext(true);
+                    break;
+                case '[':
+                    this.pushContext(false);
+                    break;
+                case '}':
+                case ']':
+                    JsonToken token = this.closeContainer(character);
+
+                    if (this.depth == targetDepth) {
+                        this.skipTargetDepth = -1;
+                        return token;
+                    }
+
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Reads the current value and its children into {@link com.realtimetech.opack.value.OpackValue OpackValue}, as {@link JsonCodec#decodeObject(String)} would
+     * If the current token is a field name or there is no current token, the next value is read. After this call, the current token is the last token of the value.
+     * A feedable parser can not read a whole value, use {@link JsonFeedDecoder JsonFeedDecoder} instead.
+     *
+     * @return the value
+     * @throws DecodeException if the input is not well-formed JSON
+     */
+    public @Nullable Object readValue() throws DecodeException {
+        if (this.feedable) {
+            throw new IllegalStateException("A feedable parser can not read a whole value, use JsonFeedDecoder.");
+        }
+
+        JsonToken token = this.currentToken;
+
+        if (token == null || token == JsonToken.FIELD_NAME) {
+            token = this.nextToken();
+
+            if (token == null) {
+                throw new DecodeException("Expected value, but got end of file.");
+            }
+        }
+
+        if (token.isStructEnd()) {
+            throw new IllegalStateException("Current token(" + token + ") is not a value.");
+        }
+
+        if (!token.isStructStart()) {
+            return this.getScalarValue(token);
+        }
+
+        FastStack<Object> containerStack = new FastStack<>();
+        FastStack<Object> pairStack = new FastStack<>();
+        FastStack<Integer> pairBaseStack = new FastStack<>();
+
+        Object container = JsonParser.createContainer(token, pairStack, pairBaseStack);
+
+        while (true) {
+            token = this.nextToken();
+
+            if (token == null) {
+                throw new DecodeException("Expected value, but got end of file.");
+            }
+
+            Object value;
+
+            if (token == JsonToken.FIELD_NAME) {
+                pairStack.push(this.getText());
+                continue;
+            } else if (token.isStructStart()) {
+                containerStack.push(container);
+
+                container = JsonParser.createContainer(token, pairStack, pairBaseStack);
+                continue;
+            } else if (token.isStructEnd()) {
+                if (container instanceof OpackObject) {
+                    JsonParser.putPairs((OpackObject) container, pairStack, pairBaseStack.pop());
+                }
+
+                if (containerStack.isEmpty()) {
+                    return container;
+                }
+
+                value = container;
+                container = containerStack.pop();
+            } else {
+                value = this.getScalarValue(token);
+            }
+
+            if (container instanceof OpackObject) {
+                pairStack.push(value);
+            } else {
+                UnsafeOpackValue.getList((OpackArray) container).add(value);
+            }
+        }
+    }
+
+    /**
+     * Creates the container of the start token, and marks where the pairs of an object begin
+     *
+     * @param token         the start token
+     * @param pairStack     the stack of the keys and values of the open objects
+     * @param pairBaseStack the stack of the pair stack sizes at the start of the open objects
+     * @return the created container
+     */
+    static @NotNull Object createContainer(@NotNull JsonToken token, @NotNull FastStack<@Nullable Object> pairStack, @NotNull FastStack<@NotNull Integer> pairBaseStack) {
+        if (token == JsonToken.START_OBJECT) {
+            pairBaseStack.push(pairStack.getSize());
+
+            return new OpackObject();
+        }
+
+        return new OpackArray();
+    }
+
+    /**
+     * Puts the keys and values pushed since the base into the object, last pair first, as {@link JsonCodec#decode(String)} does
+     * This gives the same key order and keeps the same value of a duplicated key as the codec.
+     *
+     * @param opackObject the object to put into
+     * @param pairStack   the stack of keys and values, alternately
+     * @param base        the size of the pair stack at the start of the object
+     */
+    static void putPairs(@NotNull OpackObject opackObject, @NotNull FastStack<@Nullable Object> pairStack, int base) {
+        Map<Object, Object> opackObjectMap = UnsafeOpackValue.getMap(opackObject);
+
+        while (pairStack.getSize() > base) {
+            Object value = pairStack.pop();
+            Object key = pairStack.pop();
+
+            opackObjectMap.put(key, value);
+        }
+    }
+
+    private @Nullable Object getScalarValue(@NotNull JsonToken token) throws DecodeException {
+        switch (token) {
+            case VALUE_STRING:
+                return this.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return this.getNumber();
+            case VALUE_TRUE:
+                return true;
+            case VALUE_FALSE:
+                return false;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the text of the current token, the unescaped string of a field name or string, or the characters of a number or literal
+     *
+     * @return the text, or null if there is no current token
+     */
+    public @Nullable String getText() {
+        if (this.currentToken == null || this.currentToken == JsonToken.NOT_AVAILABLE) {
+            return null;
+        }
+
+        return new String(this.textArray, this.textOffset, this.textLength);
+    }
+
+    /**
+     * Writes the text of the current token to the writer, such as a reused {@link com.realtimetech.opack.util.StringWriter StringWriter}, without creating a string
+     *
+     * @param writer the writer to write the text to
+     * @return the number of characters written
+     * @throws IOException if the writer fails
+     */
+    public int getText(@NotNull Writer writer) throws IOException {
+        if (this.currentToken == null || this.currentToken == JsonToken.NOT_AVAILABLE) {
+            return 0;
+        }
+
+        writer.write(this.textArray, this.textOffset, this.textLength);
+
+        return this.textLength;
+    }
+
+    /**
+     * Returns the array holding the text of the current token, see {@link #getTextOffset()} and {@link #getTextLength()}
+     * The array may be the input or an internal buffer, and its content is only valid until the next token is read. It must not be modified.
+     *
+     * @return the text array
+     */
+    public char @NotNull [] getTextCharacters() {
+        return this.textArray;
+    }
+
+    /**
+     * Returns the index of the text of the current token in {@link #getTextCharacters()}
+     *
+     * @return the text offset
+     */
+    public int getTextOffset() {
+        return this.textOffset;
+    }
+
+    /**
+     * Returns the length of the text of the current token
+     *
+     * @return the text length
+     */
+    public int getTextLength() {
+        return this.currentToken == null || this.currentToken == JsonToken.NOT_AVAILABLE ? 0 : this.textLength;
+    }
+
+    private void checkNumberToken() {
+        if (this.currentToken != JsonToken.VALUE_NUMBER_INT && this.currentToken != JsonToken.VALUE_NUMBER_FLOAT) {
+            throw new IllegalStateException("Current token(" + this.currentToken + ") is not a number.");
+        }
+    }
+
+    /**
+     * Returns the number of the current token, a long or a double, or a BigInteger or BigDecimal if it does not fit
+     *
+     * @return the number
+     * @throws DecodeException if the number is malformed
+     */
+    public @NotNull Number getNumber() throws DecodeException {
+        this.checkNumberToken();
+
+        try {
+            if (this.currentToken == JsonToken.VALUE_NUMBER_FLOAT) {
+                return FastJsonDouble.parseDouble(this.textArray, this.textOffset, this.textLength);
+            }
+
+            return FastJsonLong.parseLong(this.textArray, this.textOffset, this.textLength);
+        } catch (NumberFormatException numberFormatException) {
+            throw new DecodeException(numberFormatException);
+        }
+    }
+
+    /**
+     * Returns the number of the current token as a long, without boxing for integers of up to 18 digits
+     *
+     * @return the long value, truncated if the number has a fraction
+     * @throws DecodeException if the number is malformed or out of range of long
+     */
+    public long getLong() throws DecodeException {
+        this.checkNumberToken();
+
+        char[] textArray = this.textArray;
+        int index = this.textOffset;
+        int end = index + this.textLength;
+        boolean negative = index < end && textArray[index] == '-';
+
+        if (negative) {
+            index++;
+        }
+
+        int digits = end - index;
+
+        if (this.currentToken == JsonToken.VALUE_NUMBER_INT && digits > 0 && digits <= 18 && (textArray[index] != '0' || digits == 1)) {
+            long result = 0;
+
+            while (index < end) {
+                int digit = textArray[index++] - '0';
+
+                if (digit < 0 || digit > 9) {
+                    result = -1;
+                    break;
+                }
+
+                result = result * 10 + digit;
+            }
+
+            if (result >= 0) {
+                return negative ? -result : result;
+            }
+        }
+
+        Number number = this.getNumber();
+
+        if (number instanceof BigInteger && ((BigInteger) number).bitLength() >= 64) {
+            throw new DecodeException("Number(" + number + ") is out of range of long.");
+        }
+
+        return number.longValue();
+    }
+
+    /**
+     * Returns the number of the current token as an int, see {@link #getLong()}
+     *
+     * @return the int value
+     * @throws DecodeException if the number is malformed or out of range of int
+     */
+    public int getInt() throws DecodeException {
+        long value = this.getLong();
+
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new DecodeException("Number(" + value + ") is out of range of int.");
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Returns the number of the current token as a double, without boxing for plain decimals of up to 15 digits
+     *
+     * @return the double value
+     * @throws DecodeException if the number is malformed
+     */
+    public double getDouble() throws DecodeException {
+        this.checkNumberToken();
+
+        char[] textArray = this.textArray;
+        int index = this.textOffset;
+        int end = index + this.textLength;
+        boolean negative = index < end && textArray[index] == '-';
+
+        if (negative) {
+            index++;
+        }
+
+        if (end - index > 0 && end - index <= 16 && (textArray[index] != '0' || end - index == 1 || textArray[index + 1] == '.')) {
+            long mantissa = 0;
+            int fractionDigits = -1;
+
+            for (; index < end; index++) {
+                char character = textArray[index];
+
+                if (character >= '0' && character <= '9') {
+                    mantissa = mantissa * 10 + (character - '0');
+
+                    if (fractionDigits >= 0) {
+                        fractionDigits++;
+                    }
+                } else if (character == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else {
+                    break;
+                }
+            }
+
+            if (index == end && fractionDigits != 0) {
+                // Both parts are exact in double, so a single division is correctly rounded
+                double value = fractionDigits > 0 ? mantissa / CONST_POWER_TABLE[fractionDigits] : mantissa;
+
+                return negative ? -value : value;
+            }
+        }
+
+        return this.getNumber().doubleValue();
+    }
+
+    /**
+     * Returns the boolean of the current token
+     *
+     * @return the boolean value
+     */
+    public boolean getBoolean() {
+        if (this.currentToken != JsonToken.VALUE_TRUE && this.currentToken != JsonToken.VALUE_FALSE) {
+            throw new IllegalStateException("Current token(" + this.currentToken + ") is not a boolean.");
+        }
+
+        return this.currentToken == JsonToken.VALUE_TRUE;
+    }
+
+    /**
+     * Closes the reader of this parser
+     *
+     * @throws IOException if the reader fails to close
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.reader != null) {
+            this.reader.close();
+        }
+    }
+
+    private boolean loadMore() throws DecodeException {
+        if (this.reader == null || this.endOfInput) {
+            // Fixed input is ended, and fed input waits for the next chunk
+            return false;
+        }
+
+        try {
+            this.discardedLength += this.limit;
+            this.pointer = 0;
+            this.limit = 0;
+
+            while (true) {
+                int read = this.reader.read(this.buffer, 0, this.buffer.length);
+
+                if (read < 0) {
+                    this.endOfInput = true;
+                    return false;
+                }
+
+                if (read > 0) {
+                    this.limit = read;
+                    return true;
+                }
+            }
+        } catch (IOException ioException) {
+            throw new DecodeException(ioException);
+        }
+    }
+
+    private void pushContext(boolean object) {
+        if (this.depth == this.objectContexts.length) {
+            this.objectContexts = Arrays.copyOf(this.objectContexts, this.depth << 1);
+        }
+
+        this.objectContexts[this.depth++] = object;
+    }
+
+    private @NotNull JsonToken closeContainer(char character) throws DecodeException {
+        boolean object = this.objectContexts[--this.depth];
+
+        if (object != (character == '}')) {
+            throw new DecodeException("Expected character(" + (object ? '}' : ']') + "), but got character(" + character + ") at " + this.getPosition() + ".");
+        }
+
+        this.completeValue();
+
+        if (object) {
+            this.setText(CONST_OBJECT_CLOSE_CHARACTER);
+            return JsonToken.END_OBJECT;
+        }
+
+        this.setText(CONST_ARRAY_CLOSE_CHARACTER);
+        return JsonToken.END_ARRAY;
+    }
+
+    private void completeValue() {
+        this.state = this.depth == 0 ? STATE_ROOT : STATE_AFTER_VALUE;
+    }
+
+    private void setText(char @NotNull [] textArray) {
+        this.textArray = textArray;
+        this.textOffset = 0;
+        this.textLength = textArray.length;
+    }
+
+    private @NotNull JsonToken startValue(char character) throws DecodeException {
+        switch (character) {
+            case '{':
+                this.pushContext(true);
+                this.state = STATE_FIRST_NAME;
+                this.setText(CONST_OBJECT_OPEN_CHARACTER);
+                return JsonToken.START_OBJECT;
+            case '[':
+                this.pushContext(false);
+                this.state = STATE_FIRST_VALUE;
+                this.setText(CONST_ARRAY_OPEN_CHARACTER);
+                return JsonToken.START_ARRAY;
+            case '"':
+                return this.startScalar(SCALAR_STRING, false);
+            case 't':
+                return this.startWord(CONST_TRUE_CHARACTER, JsonToken.VALUE_TRUE);
+            case 'f':
+                return this.startWord(CONST_FALSE_CHARACTER, JsonToken.VALUE_FALSE);
+            case 'n':
+                return this.startWord(CONST_NULL_CHARACTER, JsonToken.VALUE_NULL);
+            default:
+                if (character == '-' || (character >= '0' && character <= '9')) {
+                    this.pointer--;
+                    this.numberDecimal = false;
+                    this.numberLastCharacter = '0';
+
+                    return this.startScalar(SCALAR_NUMBER, false);
+                }
+
+                if (character == '}' || character == ']' || character == ',' || character == ':') {
+                    throw new DecodeException("Expected value, but got character(" + character + ") at " + this.getPosition() + ".");
+                }
+
+                throw new DecodeException("This value is not an opack value. Unknown value at " + this.getPosition() + "(" + character + ").");
+        }
+    }
+
+    private @NotNull JsonToken startWord(char @NotNull [] word, @NotNull JsonToken token) throws DecodeException {
+        this.word = word;
+        this.wordIndex = 1;
+        this.wordToken = token;
+
+        return this.startScalar(SCALAR_WORD, false);
+    }
+
+    private @NotNull JsonToken startScalar(int scalarState, boolean scalarName) throws DecodeException {
+        this.scalarState = scalarState;
+        this.scalarName = scalarName;
+        this.segmentStart = this.pointer;
+        this.textBufferLength = 0;
+
+        return this.scanScalar();
+    }
+
+    /**
+     * Scans the string, number or literal in progress, keeping its state so that it can continue on the next characters
+     *
+     * @return the token of the scanned value, or {@link JsonToken#NOT_AVAILABLE} if the fed input ran out
+     * @throws DecodeException if the value is malformed or the input ends in the value
+     */
+    private @NotNull JsonToken scanScalar() throws DecodeException {
+        while (true) {
+            switch (this.scalarState) {
+                case SCALAR_STRING: {
+                    int index = JsonCodec.skipPlainStringCharacters(this.buffer, this.pointer, this.limit);
+                    this.pointer = index;
+
+                    if (index >= this.limit) {
+                        if (!this.loadScalarMore()) {
+                            if (!this.endOfInput) {
+                                return JsonToken.NOT_AVAILABLE;
+                            }
+
+                            throw new DecodeException("Expected end of string(\"), but got end of file.");
+                        }
+
+                        break;
+                    }
+
+                    char character = this.buffer[index];
+                    this.pointer = index + 1;
+
+                    if (character == '"') {
+                        this.finishText(index);
+                        this.scalarState = SCALAR_NONE;
+
+                        if (this.scalarName) {
+                            this.state = STATE_COLON;
+                            return JsonToken.FIELD_NAME;
+                        }
+
+                        this.completeValue();
+                        return JsonToken.VALUE_STRING;
+                    } else if (character == '\\') {
+                        this.appendText(this.buffer, this.segmentStart, index - this.segmentStart);
+                        this.segmentStart = this.pointer;
+                        this.scalarState = SCALAR_ESCAPE;
+                    } else {
+                        throw new DecodeException("Not allow unescaped character(" + JsonCodec.escapeChar(character) + ") in string literal, but got at " + this.getPosition() + ".");
+                    }
+
+                    break;
+                }
+                case SCALAR_ESCAPE: {
+                    if (this.pointer >= this.limit) {
+                        if (!this.loadScalarMore()) {
+                            if (!this.endOfInput) {
+                                return JsonToken.NOT_AVAILABLE;
+                            }
+
+                            throw new DecodeException("Expected end of string(\"), but got end of file.");
+                        }
+
+                        break;
+                    }
+
+                    char character = this.buffer[this.pointer++];
+
+                    switch (character) {
+                        case '"':
+                        case '\\':
+                        case '/':
+                            this.appendText(character);
+                            break;
+                        case 'b':
+                            this.appendText('\b');
+                            break;
+                        case 'f':
+                            this.appendText('\f');
+                            break;
+                        case 'n':
+                            this.appendText('\n');
+                            break;
+                        case 'r':
+                            this.appendText('\r');
+                            break;
+                        case 't':
+                            this.appendText('\t');
+                            break;
+                        case 'u':
+                            this.unicodeValue = 0;
+                            this.unicodeDigits = 0;
+                            this.scalarState = SCALAR_UNICODE;
+                            break;
+                        default:
+                            throw new DecodeException("Parsed unknown escape pattern character(" + character + ") at " + this.getPosition() + ".");
+                    }
+
+                    if (this.scalarState == SCALAR_ESCAPE) {
+                        this.segmentStart = this.pointer;
+                        this.scalarState = SCALAR_STRING;
+                    }
+
+                    break;
+                }
+                case SCALAR_UNICODE: {
+                    while (this.unicodeDigits < 4 && this.pointer < this.limit) {
+                        char character = this.buffer[this.pointer++];
+                        int value;
+
+                        if (character >= '0' && character <= '9') {
+                            value = character - '0';
+                        } else if (character >= 'a' && character <= 'f') {
+                            value = character - 'a' + 10;
+                        } else if (character >= 'A' && character <= 'F') {
+                            value = character - 'A' + 10;
+                        } else {
+                            throw new DecodeException("Parsed unknown unicode pattern character(" + character + ") at " + this.getPosition() + ".");
+                        }
+
+                        this.unicodeValue = (this.unicodeValue << 4) | value;
+                        this.unicodeDigits++;
+                    }
+
+                    if (this.unicodeDigits < 4) {
+                        if (!this.loadScalarMore()) {
+                            if (!this.endOfInput) {
+                                return JsonToken.NOT_AVAILABLE;
+                            }
+
+                            throw new DecodeException("Expected 4 hex digits of unicode escape, but got end of file.");
+                        }
+
+                        break;
+                    }
+
+                    this.appendText((char) this.unicodeValue);
+                    this.segmentStart = this.pointer;
+                    this.scalarState = SCALAR_STRING;
+                    break;
+                }
+                case SCALAR_NUMBER: {
+                    char[] buffer = this.buffer;
+                    int index = this.pointer;
+                    int limit = this.limit;
+                    char lastCharacter = this.numberLastCharacter;
+
+                    while (index < limit) {
+                        char character = buffer[index];
+
+                        if (character == '.' || character == 'e' || character == 'E') {
+                            if (lastCharacter < '0' || lastCharacter > '9') {
+                                throw new DecodeException("Expected digit, but got character(" + character + ") at " + (this.discardedLength + index + 1) + ".");
+                            }
+
+                            this.numberDecimal = true;
+                        } else if ((character < '0' || character > '9') && character != '+' && character != '-') {
+                            break;
+                        }
+
+                        lastCharacter = character;
+                        index++;
+                    }
+
+                    this.pointer = index;
+                    this.numberLastCharacter = lastCharacter;
+
+                    if (index >= limit) {
+                        if (this.loadScalarMore()) {
+                            break;
+                        }
+
+                        if (!this.endOfInput) {
+                            return JsonToken.NOT_AVAILABLE;
+                        }
+                    }
+
+                    if (lastCharacter == '.') {
+                        throw new DecodeException("A decimal number cannot end with a dot(.) at " + this.getPosition() + ".");
+                    }
+
+                    this.finishText(this.pointer);
+                    this.scalarState = SCALAR_NONE;
+                    this.completeValue();
+
+                    return this.numberDecimal ? JsonToken.VALUE_NUMBER_FLOAT : JsonToken.VALUE_NUMBER_INT;
+                }
+                case SCALAR_WORD: {
+                    char[] word = this.word;
+
+                    while (this.wordIndex < word.length && this.pointer < this.limit) {
+                        char character = this.buffer[this.pointer];
+
+                        if (character != word[this.wordIndex]) {
+                            throw new DecodeException("Expected character(" + word[this.wordIndex] + ") of " + new String(word) + ", but got character(" + character + ") at " + this.getPosition() + ".");
+                        }
+
+                        this.pointer++;
+                        this.wordIndex++;
+                    }
+
+                    if (this.wordIndex < word.length) {
+                        if (!this.loadScalarMore()) {
+                            if (!this.endOfInput) {
+                                return JsonToken.NOT_AVAILABLE;
+                            }
+
+                            throw new DecodeException("Expected " + new String(word) + ", but got end of file.");
+                        }
+
+                        break;
+                    }
+
+                    this.setText(word);
+                    this.scalarState = SCALAR_NONE;
+                    this.completeValue();
+
+                    return this.wordToken;
+                }
+                default:
+                    throw new IllegalStateException("Unknown scalar state " + this.scalarState + ".");
+            }
+        }
+    }
+
+    /**
+     * Keeps the pending characters of the scalar in progress and loads more input
+     *
+     * @return true if more input is loaded
+     * @throws DecodeException if the reader fails
+     */
+    private boolean loadScalarMore() throws DecodeException {
+        if (this.scalarState == SCALAR_STRING || this.scalarState == SCALAR_NUMBER) {
+            this.appendText(this.buffer, this.segmentStart, this.pointer - this.segmentStart);
+        }
+
+        boolean loaded = this.loadMore();
+        this.segmentStart = this.pointer;
+
+        return loaded;
+    }
+
+    private void finishText(int end) {
+        if (this.textBufferLength == 0) {
+            // Nothing is kept in the text buffer, so the text is read in place
+            this.textArray = this.buffer;
+            this.textOffset = this.segmentStart;
+            this.textLength = end - this.segmentStart;
+        } else {
+            this.appendText(this.buffer, this.segmentStart, end - this.segmentStart);
+
+            this.textArray = this.textBuffer;
+            this.textOffset = 0;
+            this.textLength = this.textBufferLength;
+        }
+    }
+
+    private void ensureTextBuffer(int required) {
+        if (this.textBufferLength + required > this.textBuffer.length) {
+            this.textBuffer = Arrays.copyOf(this.textBuffer, Math.max(this.textBufferLength + required, this.textBuffer.length << 1));
+        }
+    }
+
+    private void appendText(char @NotNull [] charArray, int offset, int length) {
+        if (length > 0) {
+            this.ensureTextBuffer(length);
+
+            System.arraycopy(charArray, offset, this.textBuffer, this.textBufferLength, length);
+            this.textBufferLength += length;
+        }
+    }
+
+    private void appendText(char character) {
+        this.ensureTextBuffer(1);
+
+        this.textBuffer[this.textBufferLength++] = character;
+    }
+}
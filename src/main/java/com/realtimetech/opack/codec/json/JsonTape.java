@@ -0,0 +1,608 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.json;
+
+import com.realtimetech.opack.codec.json.fast.FastJsonDouble;
+import com.realtimetech.opack.codec.json.fast.FastJsonLong;
+import com.realtimetech.opack.exception.DecodeException;
+import com.realtimetech.opack.value.OpackValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Structural index of a JSON text, in the style of simdjson
+ * A single pass validates the structure and records the position of every value and container end on an int tape,
+ * so that values are navigated and parsed on demand, and any subtree can be decoded into {@link OpackValue OpackValue} with {@link #materialize(int)}.
+ * Unlike simdjson, there is no bitmap stage: the text is held as characters, which cannot be read as words, so the pass finds structural characters
+ * with the table-driven string scan of {@link JsonCodec} instead.
+ * <p>
+ * Values are addressed by node, the tape index of the value. Object children alternate between keys and values.
+ */
+public final class JsonTape {
+    public enum Type {
+        OBJECT,
+        ARRAY,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL
+    }
+
+    private static final int STATE_VALUE = 0;
+    private static final int STATE_VALUE_OR_CLOSE = 1;
+    private static final int STATE_COLON = 2;
+    private static final int STATE_COMMA_OR_CLOSE = 3;
+    private static final int STATE_DONE = 4;
+
+    private final @NotNull JsonCodec jsonCodec;
+    private final char @NotNull [] charArray;
+
+    /**
+     * Positions of the values and container ends in the characters
+     */
+    private final int @NotNull [] positions;
+
+    /**
+     * The tape index of the matching end for a container start, the number of elements or fields for a container end
+     */
+    private final int @NotNull [] links;
+    private final int size;
+
+    /**
+     * The index after the last character of the parsed range, literals are never scanned past it
+     */
+    private final int end;
+
+    private JsonTape(@NotNull JsonCodec jsonCodec, char @NotNull [] charArray, int end, int @NotNull [] positions, int @NotNull [] links, int size) {
+        this.jsonCodec = jsonCodec;
+        this.charArray = charArray;
+        this.end = end;
+        this.positions = positions;
+        this.links = links;
+        this.size = size;
+    }
+
+    /**
+     * Builds the tape of a range of JSON characters
+     *
+     * @param jsonCodec the codec to materialize values with
+     * @param charArray the characters to index
+     * @param offset    the index of the first character
+     * @param length    the number of characters
+     * @return the tape of the input
+     * @throws DecodeException if the input is not well-formed JSON
+     */
+    static @NotNull JsonTape parse(@NotNull JsonCodec jsonCodec, char @NotNull [] charArray, int offset, int length) throws DecodeException {
+        if (offset < 0 || length < 0 || offset + length > charArray.length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length + ") out of bounds for length " + charArray.length);
+        }
+
+        int end = offset + length;
+        int[] positions = new int[Math.max(16, length >> 3)];
+        int[] links = new int[positions.length];
+        int size = 0;
+
+        int[] containerStack = new int[32];
+        int depth = 0;
+
+        int state = STATE_VALUE;
+        int pointer = offset;
+
+        while (pointer < end) {
+            char character = charArray[pointer];
+
+            if (JsonCodec.isWhitespaceCharacter(character)) {
+                pointer++;
+                continue;
+            }
+
+            if (size + 1 >= positions.length) {
+                positions = Arrays.copyOf(positions, positions.length << 1);
+                links = Arrays.copyOf(links, links.length << 1);
+            }
+
+            switch (character) {
+                case ':':
+                    if (state != STATE_COLON) {
+                        throw new DecodeException("Unexpected colon(:) at " + pointer + ".");
+                    }
+
+                    state = STATE_VALUE;
+                    pointer++;
+                    continue;
+                case ',':
+                    if (state != STATE_COMMA_OR_CLOSE) {
+                        throw new DecodeException("Unexpected comma(,) at " + pointer + ".");
+                    }
+
+                    state = STATE_VALUE;
+                    pointer++;
+                    continue;
+                case '}':
+                case ']': {
+                    if (depth == 0 || (state != STATE_COMMA_OR_CLOSE && state != STATE_VALUE_OR_CLOSE)) {
+                        throw new DecodeException("Expected value, but got character(" + character + ") at " + pointer + ".");
+                    }
+
+                    int open = containerStack[--depth];
+                    char openCharacter = charArray[positions[open]];
+
+                    if ((openCharacter == '{') != (character == '}')) {
+                        throw new DecodeException("Expected character(" + (openCharacter == '{' ? '}' : ']') + "), but got character(" + character + ") at " + pointer + ".");
+                    }
+
+                    int count = links[open];
+
+                    positions[size] = pointer;
+                    links[size] = openCharacter == '{' ? count >> 1 : count;
+                    links[open] = size;
+                    size++;
+                    pointer++;
+                    break;
+                }
+                default: {
+                    if (state != STATE_VALUE && state != STATE_VALUE_OR_CLOSE) {
+                        throw new DecodeException("Expected comma(,) or colon(:) or end, but got character(" + character + ") at " + pointer + ".");
+                    }
+
+                    positions[size] = pointer;
+                    links[size] = 0;
+
+                    if (character == '{' || character == '[') {
+                        if (depth == containerStack.length) {
+                            containerStack = Arrays.copyOf(containerStack, depth << 1);
+                        }
+
+                        containerStack[depth++] = size++;
+                        state = STATE_VALUE_OR_CLOSE;
+                        pointer++;
+                        continue;
+                    }
+
+                    size++;
+                    pointer = JsonTape.skipScalar(charArray, pointer, end);
+                }
+            }
+
+            // A value is complete
+            if (depth == 0) {
+                state = STATE_DONE;
+            } else {
+                int open = containerStack[depth - 1];
+                int count = ++links[open];
+
+                state = charArray[positions[open]] == '{' && (count & 1) == 1 ? STATE_COLON : STATE_COMMA_OR_CLOSE;
+            }
+        }
+
+        if (depth != 0) {
+            throw new DecodeException(charArray[positions[containerStack[depth - 1]]] == '{' ? "Expected end of object(}), but got end of file." : "Expected end of array(]), but got end of file.");
+        }
+
+        if (state != STATE_DONE) {
+            throw new DecodeException("Empty json.");
+        }
+
+        return new JsonTape(jsonCodec, charArray, end, positions, links, size);
+    }
+
+    /**
+     * Skips a string, number, boolean or null literal
+     *
+     * @param charArray the characters
+     * @param pointer   the index of the first character of the literal
+     * @param end       the index after the last character
+     * @return the index after the literal
+     * @throws DecodeException if the literal is not terminated or unknown
+     */
+    private static int skipScalar(char @NotNull [] charArray, int pointer, int end) throws DecodeException {
+        char character = charArray[pointer];
+
+        switch (character) {
+            case '"': {
+                int index = pointer + 1;
+
+                while (true) {
+                    index = JsonCodec.skipPlainStringCharacters(charArray, index, end);
+
+                    if (index >= end) {
+                        throw new DecodeException("Expected end of string(\"), but got end of file.");
+                    }
+
+                    char literalCharacter = charArray[index];
+
+                    if (literalCharacter == '"') {
+                        return index + 1;
+                    } else if (literalCharacter == '\\') {
+                        index += 2;
+                    } else {
+                        throw new DecodeException("Not allow unescaped character(" + (int) literalCharacter + ") in string literal, but got at " + index + ".");
+                    }
+                }
+            }
+            case 't':
+                return JsonTape.skipWord(charArray, pointer, end, "true");
+            case 'f':
+                return JsonTape.skipWord(charArray, pointer, end, "false");
+            case 'n':
+                return JsonTape.skipWord(charArray, pointer, end, "null");
+            default:
+                if (character == '-' || (character >= '0' && character <= '9')) {
+                    return JsonTape.skipNumber(charArray, pointer, end);
+                }
+
+                throw new DecodeException("This value is not an opack value. Unknown value at " + pointer + "(" + character + ").");
+        }
+    }
+
+    private static int skipWord(char @NotNull [] charArray, int pointer, int end, @NotNull String word) throws DecodeException {
+        int length = word.length();
+
+        if (pointer + length > end) {
+            throw new DecodeException("Expected " + word + ", but got end of file.");
+        }
+
+        for (int index = 1; index < length; index++) {
+            if (charArray[pointer + index] != word.charAt(index)) {
+                throw new DecodeException("Expected character(" + word.charAt(index) + ") of " + word + ", but got character(" + charArray[pointer + index] + ") at " + (pointer + index) + ".");
+            }
+        }
+
+        return pointer + length;
+    }
+
+    private static int skipNumber(char @NotNull [] charArray, int pointer, int end) {
+        int index = pointer + 1;
+
+        while (index < end) {
+            char character = charArray[index];
+
+            if ((character >= '0' && character <= '9') || character == '.' || character == 'e' || character == 'E' || character == '+' || character == '-') {
+                index++;
+            } else {
+                break;
+            }
+        }
+
+        return index;
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= this.size || this.isEnd(node)) {
+            throw new IllegalArgumentException(node + " is not a value node of this tape.");
+        }
+    }
+
+    private boolean isEnd(int node) {
+        char character = this.charArray[this.positions[node]];
+
+        return character == '}' || character == ']';
+    }
+
+    private boolean isContainer(int node) {
+        char character = this.charArray[this.positions[node]];
+
+        return character == '{' || character == '[';
+    }
+
+    /**
+     * Returns the node of the root value
+     *
+     * @return the root node
+     */
+    public int getRoot() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of entries on the tape, values and container ends
+     *
+     * @return the tape size
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the type of the value
+     *
+     * @param node the node of the value
+     * @return the type
+     */
+    public @NotNull Type getType(int node) {
+        this.checkNode(node);
+
+        switch (this.charArray[this.positions[node]]) {
+            case '{':
+                return Type.OBJECT;
+            case '[':
+                return Type.ARRAY;
+            case '"':
+                return Type.STRING;
+            case 't':
+            case 'f':
+                return Type.BOOLEAN;
+            case 'n':
+                return Type.NULL;
+            default:
+                return Type.NUMBER;
+        }
+    }
+
+    private void checkType(int node, @NotNull Type type) {
+        Type nodeType = this.getType(node);
+
+        if (nodeType != type) {
+            throw new IllegalArgumentException("Expected " + type + " value, but got " + nodeType + " value at " + this.positions[node] + ".");
+        }
+    }
+
+    /**
+     * Returns the number of elements of an array, or the number of fields of an object
+     *
+     * @param node the node of the array or object
+     * @return the number of elements or fields
+     */
+    public int getLength(int node) {
+        this.checkNode(node);
+
+        if (!this.isContainer(node)) {
+            throw new IllegalArgumentException("Expected OBJECT or ARRAY value, but got " + this.getType(node) + " value at " + this.positions[node] + ".");
+        }
+
+        return this.links[this.links[node]];
+    }
+
+    /**
+     * Returns the first child of an array or object, the first key for an object
+     *
+     * @param node the node of the array or object
+     * @return the first child node, or -1 if the container is empty
+     */
+    public int getFirstChild(int node) {
+        this.checkNode(node);
+
+        if (!this.isContainer(node)) {
+            throw new IllegalArgumentException("Expected OBJECT or ARRAY value, but got " + this.getType(node) + " value at " + this.positions[node] + ".");
+        }
+
+        return this.isEnd(node + 1) ? -1 : node + 1;
+    }
+
+    /**
+     * Returns the next value in the same container, skipping the whole subtree of the value in constant time
+     *
+     * @param node the node of the value
+     * @return the next sibling node, or -1 if the value is the last one
+     */
+    public int getNextSibling(int node) {
+        this.checkNode(node);
+
+        int next = this.isContainer(node) ? this.links[node] + 1 : node + 1;
+
+        return next < this.size && !this.isEnd(next) ? next : -1;
+    }
+
+    /**
+     * Returns the value of a field of an object, comparing keys without decoding them unless they contain escapes
+     *
+     * @param node the node of the object
+     * @param name the name of the field
+     * @return the value node of the field, or -1 if the object has no such field
+     * @throws DecodeException if a key has a corrupted escape
+     */
+    public int getField(int node, @NotNull String name) throws DecodeException {
+        this.checkType(node, Type.OBJECT);
+
+        for (int key = this.getFirstChild(node); key != -1; ) {
+            int value = this.getNextSibling(key);
+
+            if (this.charArray[this.positions[key]] == '"' && this.equalsString(key, name)) {
+                return value;
+            }
+
+            key = this.getNextSibling(value);
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns an element of an array
+     *
+     * @param node  the node of the array
+     * @param index the index of the element
+     * @return the element node, or -1 if the index is out of range
+     */
+    public int getElement(int node, int index) {
+        this.checkType(node, Type.ARRAY);
+
+        if (index < 0) {
+            return -1;
+        }
+
+        int element = this.getFirstChild(node);
+
+        for (int i = 0; i < index && element != -1; i++) {
+            element = this.getNextSibling(element);
+        }
+
+        return element;
+    }
+
+    private boolean equalsString(int node, @NotNull String string) throws DecodeException {
+        char[] charArray = this.charArray;
+        int start = this.positions[node] + 1;
+        int length = string.length();
+
+        for (int index = 0; start + index < this.end; index++) {
+            char character = charArray[start + index];
+
+            if (character == '\\') {
+                return this.getString(node).equals(string);
+            }
+
+            // Escapes fall back above, so this is the closing quote, and the whole string must have been matched
+            if (character == '"') {
+                return index == length;
+            }
+
+            if (index == length || character != string.charAt(index)) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the string value, unescaping it only if it contains escapes
+     *
+     * @param node the node of the string
+     * @return the string
+     * @throws DecodeException if the string has a corrupted escape
+     */
+    public @NotNull String getString(int node) throws DecodeException {
+        this.checkType(node, Type.STRING);
+
+        int start = this.positions[node] + 1;
+        int end = JsonCodec.skipPlainStringCharacters(this.charArray, start, this.end);
+
+        if (end < this.end && this.charArray[end] == '"') {
+            return new String(this.charArray, start, end - start);
+        }
+
+        return (String) this.materialize(node);
+    }
+
+    /**
+     * Returns the number value, as the decoder would, a long or a double, or a BigInteger or BigDecimal if it does not fit
+     *
+     * @param node the node of the number
+     * @return the number
+     * @throws DecodeException if the number is malformed
+     */
+    public @NotNull Number getNumber(int node) throws DecodeException {
+        this.checkType(node, Type.NUMBER);
+
+        int start = this.positions[node];
+        int end = JsonTape.skipNumber(this.charArray, start, this.end);
+        boolean decimal = false;
+
+        for (int index = start + 1; index < end; index++) {
+            char character = this.charArray[index];
+
+            if (character == '.' || character == 'e' || character == 'E') {
+                char previousCharacter = this.charArray[index - 1];
+
+                if (previousCharacter < '0' || previousCharacter > '9') {
+                    throw new DecodeException("Expected digit, but got character(" + character + ") at " + (index + 1) + ".");
+                }
+
+                decimal = true;
+            }
+        }
+
+        try {
+            if (decimal) {
+                if (this.charArray[end - 1] == '.') {
+                    throw new DecodeException("A decimal number cannot end with a dot(.) at " + end + ".");
+                }
+
+                return FastJsonDouble.parseDouble(this.charArray, start, end - start);
+            }
+
+            return FastJsonLong.parseLong(this.charArray, start, end - start);
+        } catch (NumberFormatException numberFormatException) {
+            throw new DecodeException(numberFormatException);
+        }
+    }
+
+    /**
+     * Returns the number value as a long, see {@link #getNumber(int)}
+     *
+     * @param node the node of the number
+     * @return the long value
+     * @throws DecodeException if the number is malformed
+     */
+    public long getLong(int node) throws DecodeException {
+        return this.getNumber(node).longValue();
+    }
+
+    /**
+     * Returns the number value as a double, see {@link #getNumber(int)}
+     *
+     * @param node the node of the number
+     * @return the double value
+     * @throws DecodeException if the number is malformed
+     */
+    public double getDouble(int node) throws DecodeException {
+        return this.getNumber(node).doubleValue();
+    }
+
+    /**
+     * Returns the boolean value
+     *
+     * @param node the node of the boolean
+     * @return the boolean
+     */
+    public boolean getBoolean(int node) {
+        this.checkType(node, Type.BOOLEAN);
+
+        return this.charArray[this.positions[node]] == 't';
+    }
+
+    /**
+     * Returns whether the value is null
+     *
+     * @param node the node of the value
+     * @return true if the value is null
+     */
+    public boolean isNull(int node) {
+        return this.getType(node) == Type.NULL;
+    }
+
+    /**
+     * Decodes the value and its whole subtree, as {@link JsonCodec#decodeObject(String)} would
+     *
+     * @param node the node of the value
+     * @return the decoded value
+     * @throws DecodeException if a literal of the subtree is malformed
+     */
+    public @Nullable Object materialize(int node) throws DecodeException {
+        this.checkNode(node);
+
+        int start = this.positions[node];
+        int end;
+
+        if (this.isContainer(node)) {
+            end = this.positions[this.links[node]] + 1;
+        } else {
+            end = JsonTape.skipScalar(this.charArray, start, this.end);
+        }
+
+        return this.jsonCodec.decodeObject(this.charArray, start, end - start);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.json;
+
+/**
+ * Tokens produced by {@link JsonParser JsonParser}
+ */
+public enum JsonToken {
+    START_OBJECT,
+    END_OBJECT,
+    START_ARRAY,
+    END_ARRAY,
+    FIELD_NAME,
+    VALUE_STRING,
+    VALUE_NUMBER_INT,
+    VALUE_NUMBER_FLOAT,
+    VALUE_TRUE,
+    VALUE_FALSE,
+    VALUE_NULL,
+
+    /**
+     * The fed input ended inside a token or before the next token, see {@link JsonParser#feed(char[], int, int)}
+     */
+    NOT_AVAILABLE;
+
+    /**
+     * Returns whether the token is a string, number, boolean or null value
+     *
+     * @return true if the token is a scalar value
+     */
+    public boolean isScalarValue() {
+        return this.ordinal() >= VALUE_STRING.ordinal() && this != NOT_AVAILABLE;
+    }
+
+    /**
+     * Returns whether the token starts an object or an array
+     *
+     * @return true if the token is a container start
+     */
+    public boolean isStructStart() {
+        return this == START_OBJECT || this == START_ARRAY;
+    }
+
+    /**
+     * Returns whether the token ends an object or an array
+     *
+     * @return true if the token is a container end
+     */
+    public boolean isStructEnd() {
+        return this == END_OBJECT || this == END_ARRAY;
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.json;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes UTF-8 bytes into characters, rejecting malformed sequences instead of replacing them
+ * Byte arrays and heap byte buffers are decoded in place, other sources through a fixed-size chunk.
+ */
+final class Utf8Reader extends Reader {
+    private static final int CHUNK_SIZE = 8192;
+
+    private final @Nullable InputStream inputStream;
+    private final @Nullable ByteBuffer byteBuffer;
+
+    private byte @NotNull [] bytes;
+    private int position;
+    private int limit;
+
+    private long discardedLength;
+    private char pendingCharacter;
+
+    /**
+     * Constructs the Utf8Reader over a byte array region
+     *
+     * @param bytes  the bytes to decode
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     */
+    Utf8Reader(byte @NotNull [] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length + ") out of bounds for length " + bytes.length);
+        }
+
+        this.inputStream = null;
+        this.byteBuffer = null;
+
+        this.bytes = bytes;
+        this.position = offset;
+        this.limit = offset + length;
+        this.discardedLength = -offset;
+    }
+
+    /**
+     * Constructs the Utf8Reader over the remaining bytes of a byte buffer, which is read up to its limit
+     *
+     * @param byteBuffer the byte buffer to decode
+     */
+    Utf8Reader(@NotNull ByteBuffer byteBuffer) {
+        this.inputStream = null;
+
+        if (byteBuffer.hasArray()) {
+            this.byteBuffer = null;
+
+            this.bytes = byteBuffer.array();
+            this.position = byteBuffer.arrayOffset() + byteBuffer.position();
+            this.limit = byteBuffer.arrayOffset() + byteBuffer.limit();
+            this.discardedLength = -this.position;
+
+            byteBuffer.position(byteBuffer.limit());
+        } else {
+            this.byteBuffer = byteBuffer;
+
+            this.bytes = new byte[CHUNK_SIZE];
+            this.position = 0;
+            this.limit = 0;
+        }
+    }
+
+    /**
+     * Constructs the Utf8Reader over an input stream, which is not closed by this reader
+     *
+     * @param inputStream the input stream to decode
+     */
+    Utf8Reader(@NotNull InputStream inputStream) {
+        this.inputStream = inputStream;
+        this.byteBuffer = null;
+
+        this.bytes = new byte[CHUNK_SIZE];
+        this.position = 0;
+        this.limit = 0;
+    }
+
+    /**
+     * Slides the undecoded bytes to the front of the chunk and reads more behind them
+     *
+     * @return true if more bytes were read
+     * @throws IOException if an I/O error occurs
+     */
+    private boolean refill() throws IOException {
+        if (this.inputStream == null && this.byteBuffer == null) {
+            return false;
+        }
+
+        int kept = this.limit - this.position;
+
+        System.arraycopy(this.bytes, this.position, this.bytes, 0, kept);
+        this.discardedLength += this.position;
+        this.position = 0;
+        this.limit = kept;
+
+        int read;
+
+        if (this.inputStream != null) {
+            read = this.inputStream.read(this.bytes, kept, this.bytes.length - kept);
+        } else {
+            read = Math.min(this.byteBuffer.remaining(), this.bytes.length - kept);
+
+            if (read == 0) {
+                read = -1;
+            } else {
+                this.byteBuffer.get(this.bytes, kept, read);
+            }
+        }
+
+        if (read <= 0) {
+            return false;
+        }
+
+        this.limit += read;
+
+        return true;
+    }
+
+    private @NotNull IOException malformed(int position) {
+        return new IOException("Malformed UTF-8 byte sequence at byte " + (this.discardedLength + position) + ".");
+    }
+
+    @Override
+    public int read(char @NotNull [] characters, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+
+        int end = offset + length;
+        int index = offset;
+
+        if (this.pendingCharacter != 0) {
+            characters[index++] = this.pendingCharacter;
+            this.pendingCharacter = 0;
+        }
+
+        byte[] bytes = this.bytes;
+        int position = this.position;
+        int limit = this.limit;
+
+        while (index < end) {
+            if (position >= limit) {
+                this.position = position;
+
+                boolean refilled = this.refill();
+
+                bytes = this.bytes;
+                position = this.position;
+                limit = this.limit;
+
+                if (!refilled) {
+                    break;
+                }
+            }
+
+            // ASCII run, the common case of JSON text
+            int run = Math.min(end - index, limit - position);
+            int runEnd = position + run;
+
+            while (position < runEnd && bytes[position] >= 0) {
+                characters[index++] = (char) bytes[position++];
+            }
+
+            if (position >= runEnd) {
+                continue;
+            }
+
+            int lead = bytes[position] & 0xFF;
+            int sequenceLength = lead < 0xE0 ? 2 : lead < 0xF0 ? 3 : 4;
+
+            while (position + sequenceLength > limit) {
+                this.position = position;
+
+                boolean refilled = this.refill();
+
+                bytes = this.bytes;
+                position = this.position;
+                limit = this.limit;
+
+                if (!refilled) {
+                    throw this.malformed(position);
+                }
+            }
+
+            if (lead < 0xC2 || lead > 0xF4) {
+                throw this.malformed(position);
+            }
+
+            int second = bytes[position + 1] & 0xFF;
+
+            if (sequenceLength == 2) {
+                if ((second & 0xC0) != 0x80) {
+                    throw this.malformed(position);
+                }
+
+                characters[index++] = (char) (((lead & 0x1F) << 6) | (second & 0x3F));
+            } else if (sequenceLength == 3) {
+                int third = bytes[position + 2] & 0xFF;
+                int minimum = lead == 0xE0 ? 0xA0 : 0x80;
+                int maximum = lead == 0xED ? 0x9F : 0xBF;
+
+                if (second < minimum || second > maximum || (third & 0xC0) != 0x80) {
+                    throw this.malformed(position);
+                }
+
+                characters[index++] = (char) (((lead & 0x0F) << 12) | ((second & 0x3F) << 6) | (third & 0x3F));
+            } else {
+                int third = bytes[position + 2] & 0xFF;
+                int fourth = bytes[position + 3] & 0xFF;
+                int minimum = lead == 0xF0 ? 0x90 : 0x80;
+                int maximum = lead == 0xF4 ? 0x8F : 0xBF;
+
+                if (second < minimum || second > maximum || (third & 0xC0) != 0x80 || (fourth & 0xC0) != 0x80) {
+                    throw this.malformed(position);
+                }
+
+                int codePoint = ((lead & 0x07) << 18) | ((second & 0x3F) << 12) | ((third & 0x3F) << 6) | (fourth & 0x3F);
+
+                characters[index++] = Character.highSurrogate(codePoint);
+
+                if (index < end) {
+                    characters[index++] = Character.lowSurrogate(codePoint);
+                } else {
+                    this.pendingCharacter = Character.lowSurrogate(codePoint);
+                }
+            }
+
+            position += sequenceLength;
+        }
+
+        this.position = position;
+
+        return index == offset ? -1 : index - offset;
+    }
+
+    @Override
+    public void close() {
+        // The source is owned by the caller
+    }
+}
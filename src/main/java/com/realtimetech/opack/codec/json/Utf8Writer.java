@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.json;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes characters into UTF-8 bytes through a fixed-size chunk, writing unpaired surrogates as '?' like {@link String#getBytes(java.nio.charset.Charset)}
+ */
+final class Utf8Writer extends Writer {
+    private static final int CHUNK_SIZE = 8192;
+
+    private @Nullable OutputStream outputStream;
+    private @Nullable ByteBuffer byteBuffer;
+
+    private final byte @NotNull [] bytes;
+    private int length;
+
+    private char highSurrogate;
+
+    Utf8Writer() {
+        this.outputStream = null;
+        this.byteBuffer = null;
+        this.bytes = new byte[CHUNK_SIZE];
+    }
+
+    /**
+     * Targets an output stream, which is not closed by this writer, dropping any bytes not yet flushed
+     *
+     * @param outputStream the output stream to write into
+     */
+    void reset(@NotNull OutputStream outputStream) {
+        this.outputStream = outputStream;
+        this.byteBuffer = null;
+        this.length = 0;
+        this.highSurrogate = 0;
+    }
+
+    /**
+     * Targets a byte buffer, dropping any bytes not yet flushed
+     *
+     * @param byteBuffer the byte buffer to write into
+     */
+    void reset(@NotNull ByteBuffer byteBuffer) {
+        this.outputStream = null;
+        this.byteBuffer = byteBuffer;
+        this.length = 0;
+        this.highSurrogate = 0;
+    }
+
+    private void flushBytes() throws IOException {
+        if (this.length == 0) {
+            return;
+        }
+
+        if (this.outputStream != null) {
+            this.outputStream.write(this.bytes, 0, this.length);
+        } else if (this.byteBuffer != null) {
+            if (this.byteBuffer.remaining() < this.length) {
+                throw new IOException("The byte buffer has not enough remaining space for the encoded JSON.");
+            }
+
+            this.byteBuffer.put(this.bytes, 0, this.length);
+        }
+
+        this.length = 0;
+    }
+
+    private void writeCharacter(char character) throws IOException {
+        if (this.length + 4 > this.bytes.length) {
+            this.flushBytes();
+        }
+
+        byte[] bytes = this.bytes;
+
+        if (this.highSurrogate != 0) {
+            char highSurrogate = this.highSurrogate;
+            this.highSurrogate = 0;
+
+            if (Character.isLowSurrogate(character)) {
+                int codePoint = Character.toCodePoint(highSurrogate, character);
+
+                bytes[this.length++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[this.length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[this.length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[this.length++] = (byte) (0x80 | (codePoint & 0x3F));
+
+                return;
+            }
+
+            bytes[this.length++] = '?';
+
+            if (this.length + 4 > bytes.length) {
+                this.flushBytes();
+            }
+        }
+
+        if (character < 0x80) {
+            bytes[this.length++] = (byte) character;
+        } else if (character < 0x800) {
+            bytes[this.length++] = (byte) (0xC0 | (character >> 6));
+            bytes[this.length++] = (byte) (0x80 | (character & 0x3F));
+        } else if (Character.isHighSurrogate(character)) {
+            this.highSurrogate = character;
+        } else if (Character.isLowSurrogate(character)) {
+            bytes[this.length++] = '?';
+        } else {
+            bytes[this.length++] = (byte) (0xE0 | (character >> 12));
+            bytes[this.length++] = (byte) (0x80 | ((character >> 6) & 0x3F));
+            bytes[this.length++] = (byte) (0x80 | (character & 0x3F));
+        }
+    }
+
+    @Override
+    public void write(int character) throws IOException {
+        this.writeCharacter((char) character);
+    }
+
+    /**
+     * Writes a long value as decimal digits straight into the chunk
+     *
+     * @param value the value
+     * @throws IOException if an I/O error occurs, if the byte buffer has not enough remaining space
+     */
+    void writeLong(long value) throws IOException {
+        if (this.highSurrogate != 0) {
+            // An unpaired high surrogate before the digits
+            this.highSurrogate = 0;
+
+            if (this.length + 1 > this.bytes.length) {
+                this.flushBytes();
+            }
+
+            this.bytes[this.length++] = '?';
+        }
+
+        if (this.length + JsonNumberWriter.MAX_LONG_LENGTH > this.bytes.length) {
+            this.flushBytes();
+        }
+
+        this.length = JsonNumberWriter.formatLong(value, this.bytes, this.length);
+    }
+
+    @Override
+    public void write(char @NotNull [] characters, int offset, int length) throws IOException {
+        int end = offset + length;
+
+        while (offset < end) {
+            if (this.highSurrogate == 0) {
+                // ASCII run, the common case of JSON text
+                byte[] bytes = this.bytes;
+                int runEnd = offset + Math.min(end - offset, bytes.length - this.length);
+                int byteLength = this.length;
+
+                while (offset < runEnd && characters[offset] < 0x80) {
+                    bytes[byteLength++] = (byte) characters[offset++];
+                }
+
+                this.length = byteLength;
+
+                if (offset >= end) {
+                    break;
+                }
+
+                if (offset == runEnd && characters[offset] < 0x80) {
+                    this.flushBytes();
+                    continue;
+                }
+            }
+
+            this.writeCharacter(characters[offset++]);
+        }
+    }
+
+    @Override
+    public void write(@NotNull String string, int offset, int length) throws IOException {
+        int end = offset + length;
+
+        for (int index = offset; index < end; index++) {
+            this.writeCharacter(string.charAt(index));
+        }
+    }
+
+    /**
+     * Writes the pending bytes, an unpaired high surrogate at the end is written as '?'
+     *
+     * @throws IOException if an I/O error occurs, if the byte buffer has not enough remaining space
+     */
+    @Override
+    public void flush() throws IOException {
+        if (this.highSurrogate != 0) {
+            this.highSurrogate = 0;
+
+            if (this.length + 1 > this.bytes.length) {
+                this.flushBytes();
+            }
+
+            this.bytes[this.length++] = '?';
+        }
+
+        this.flushBytes();
+
+        if (this.outputStream != null) {
+            this.outputStream.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The target is owned by the caller
+        this.flush();
+    }
+}
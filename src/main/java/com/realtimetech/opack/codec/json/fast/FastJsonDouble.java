@@ -197,7 +197,7 @@ public final class FastJsonDouble {
                 index++;
             }
 
-            if (charArray[index] < '0' || charArray[index] > '9') {
+            if (index >= end || charArray[index] < '0' || charArray[index] > '9') {
                 throw new NumberFormatException("No exponent digits: \"" + new String(charArray, offset, count) + "\"");
             }
 
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.json.lines;
+
+import com.realtimetech.opack.codec.json.JsonCodec;
+import com.realtimetech.opack.exception.DecodeException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Base of the readers that cut a UTF-8 stream into chunks on a reading thread, and decode the chunks into values in parallel
+ * At most two chunks per core are decoded ahead of the consumer, so a slow consumer holds back the reading.
+ */
+abstract class ChunkedJsonReader implements Closeable {
+    static final int CONST_DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final @NotNull ThreadLocal<@NotNull JsonCodec> jsonCodecs;
+    private final @NotNull InputStream inputStream;
+    private final @NotNull ExecutorService executorService;
+    private final boolean ordered;
+    private final int chunkSize;
+    private final int maxPendingChunks;
+
+    private final @NotNull ArrayDeque<@NotNull Future<@NotNull List<@Nullable Object>>> pendingFutures;
+    private final @NotNull ExecutorCompletionService<@NotNull List<@Nullable Object>> completionService;
+
+    private byte @NotNull [] carry;
+    private int carryLength;
+    private long position;
+    private boolean endOfStream;
+
+    private @Nullable List<@Nullable Object> currentValues;
+    private int currentIndex;
+    private long readCount;
+
+    ChunkedJsonReader(JsonCodec.@NotNull Builder jsonCodecBuilder, @NotNull InputStream inputStream, @NotNull ExecutorService executorService, boolean ordered, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive, but " + chunkSize + ".");
+        }
+
+        this.jsonCodecs = ThreadLocal.withInitial(jsonCodecBuilder::build);
+        this.inputStream = inputStream;
+        this.executorService = executorService;
+        this.ordered = ordered;
+        this.chunkSize = chunkSize;
+        this.maxPendingChunks = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+        this.pendingFutures = new ArrayDeque<>();
+        this.completionService = new ExecutorCompletionService<>(executorService);
+
+        this.carry = new byte[0];
+        this.carryLength = 0;
+        this.position = 0;
+        this.endOfStream = false;
+
+        this.currentValues = null;
+        this.currentIndex = 0;
+        this.readCount = 0;
+    }
+
+    /**
+     * Scans the newly read bytes of a chunk, on the reading thread
+     * The scanner state is kept between calls, the bytes from the returned cut on are scanned already when the next chunk starts with them.
+     *
+     * @param buffer the bytes of the chunk
+     * @param from   the index of the first byte not scanned yet
+     * @param to     the index after the last byte
+     * @return the index after the last byte where the chunk can be cut, or -1 if there is none
+     * @throws DecodeException if the bytes can not be cut
+     */
+    abstract int scan(byte @NotNull [] buffer, int from, int to) throws DecodeException;
+
+    /**
+     * Decodes the values of a chunk, on a worker thread
+     *
+     * @param jsonCodec     the codec of the worker thread
+     * @param chunk         the bytes of the chunk
+     * @param chunkPosition the position of the chunk in the stream
+     * @param lastChunk     true if the chunk is the last of the stream
+     * @return the values
+     * @throws DecodeException if a value can not be decoded
+     */
+    abstract @NotNull List<@Nullable Object> decodeChunk(@NotNull JsonCodec jsonCodec, byte @NotNull [] chunk, long chunkPosition, boolean lastChunk) throws DecodeException;
+
+    /**
+     * Returns the number of values returned so far
+     *
+     * @return the read count
+     */
+    public long getReadCount() {
+        return this.readCount;
+    }
+
+    /**
+     * Returns true if another value can be taken, decoding chunks as needed
+     *
+     * @return true if a value remains
+     * @throws DecodeException if a value cannot be decoded
+     * @throws IOException     if an I/O exception occurs
+     */
+    boolean loadValues() throws DecodeException, IOException {
+        while (this.currentValues == null || this.currentIndex >= this.currentValues.size()) {
+            this.currentValues = null;
+            this.submitChunks();
+
+            if (this.pendingFutures.isEmpty()) {
+                return false;
+            }
+
+            this.currentValues = this.takeChunk();
+            this.currentIndex = 0;
+        }
+
+        return true;
+    }
+
+    /**
+     * Takes the next value, after {@link #loadValues()} returned true
+     *
+     * @return the value
+     */
+    @Nullable Object takeValue() {
+        this.readCount++;
+
+        return this.currentValues.set(this.currentIndex++, null);
+    }
+
+    private void submitChunks() throws DecodeException, IOException {
+        while (this.pendingFutures.size() < this.maxPendingChunks && !this.endOfStream) {
+            byte[] chunk = this.readChunk();
+
+            if (chunk.length == 0 && !this.endOfStream) {
+                continue;
+            }
+
+            long chunkPosition = this.position - chunk.length;
+            boolean lastChunk = this.endOfStream;
+            Callable<List<Object>> task = () -> this.decodeChunk(this.jsonCodecs.get(), chunk, chunkPosition, lastChunk);
+
+            this.pendingFutures.add(this.ordered ? this.executorService.submit(task) : this.completionService.submit(task));
+        }
+    }
+
+    private @NotNull List<@Nullable Object> takeChunk() throws DecodeException, IOException {
+        try {
+            Future<List<Object>> future;
+
+            if (this.ordered) {
+                future = this.pendingFutures.poll();
+            } else {
+                future = this.completionService.take();
+                this.pendingFutures.remove(future);
+            }
+
+            return future.get();
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a decoded chunk.", interruptedException);
+        } catch (ExecutionException executionException) {
+            Throwable cause = executionException.getCause();
+
+            if (cause instanceof DecodeException) {
+                throw (DecodeException) cause;
+            }
+
+            throw new DecodeException(cause);
+        }
+    }
+
+    /**
+     * Reads the bytes up to the last cut of the next chunk, the bytes after it are carried to the next chunk
+     *
+     * @return the chunk, with all remaining bytes at the end of the stream
+     * @throws DecodeException if the bytes can not be cut
+     * @throws IOException     if an I/O exception occurs
+     */
+    private byte @NotNull [] readChunk() throws DecodeException, IOException {
+        byte[] buffer = new byte[this.carryLength + this.chunkSize];
+        int length = this.carryLength;
+        int scanned = this.carryLength;
+
+        System.arraycopy(this.carry, 0, buffer, 0, this.carryLength);
+
+        while (true) {
+            while (length < buffer.length) {
+                int read = this.inputStream.read(buffer, length, buffer.length - length);
+
+                if (read < 0) {
+                    this.endOfStream = true;
+                    break;
+                }
+
+                length += read;
+            }
+
+            if (this.endOfStream) {
+                this.carryLength = 0;
+                this.position += length;
+
+                return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+            }
+
+            int cut = this.scan(buffer, scanned, length);
+
+            if (cut >= 0) {
+                int remain = length - cut;
+
+                if (this.carry.length < remain) {
+                    this.carry = new byte[Math.max(remain, this.chunkSize)];
+                }
+
+                System.arraycopy(buffer, cut, this.carry, 0, remain);
+                this.carryLength = remain;
+                this.position += cut;
+
+                return cut == buffer.length ? buffer : Arrays.copyOf(buffer, cut);
+            }
+
+            // A value longer than the chunk, grow until it can be cut
+            scanned = length;
+            buffer = Arrays.copyOf(buffer, buffer.length << 1);
+        }
+    }
+
+    /**
+     * Cancels the chunks read ahead and closes the input stream
+     *
+     * @throws IOException if an I/O exception occurs
+     */
+    @Override
+    public void close() throws IOException {
+        for (Future<List<Object>> future : this.pendingFutures) {
+            future.cancel(false);
+        }
+
+        this.pendingFutures.clear();
+
+        this.inputStream.close();
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.json.lines;
+
+import com.realtimetech.opack.codec.json.JsonCodec;
+import com.realtimetech.opack.exception.DecodeException;
+import com.realtimetech.opack.util.UnsafeOpackValue;
+import com.realtimetech.opack.value.OpackArray;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Reads the elements of one huge UTF-8 JSON array, decoding chunks of elements in parallel
+ * The reading thread only pre-scans the bytes for quotes, escapes and nesting depth, and cuts the input after the commas between the top-level elements.
+ * Each chunk is then split into its elements and decoded by a task with a codec of its worker thread.
+ * At most a fixed number of chunks are read ahead of the consumer, so a slow consumer holds back the reading.
+ * This reader is not thread-safe.
+ */
+public class JsonArrayReader extends ChunkedJsonReader {
+    private int scanDepth;
+    private boolean scanInString;
+    private boolean scanEscaped;
+
+    /**
+     * Constructs a JsonArrayReader that decodes 1 MiB chunks on the common fork join pool, in the order of the input
+     *
+     * @param jsonCodecBuilder the builder of the codecs of the worker threads
+     * @param inputStream      the input stream to read the array from
+     */
+    public JsonArrayReader(JsonCodec.@NotNull Builder jsonCodecBuilder, @NotNull InputStream inputStream) {
+        this(jsonCodecBuilder, inputStream, ForkJoinPool.commonPool(), true, CONST_DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a JsonArrayReader
+     *
+     * @param jsonCodecBuilder the builder of the codecs of the worker threads
+     * @param inputStream      the input stream to read the array from
+     * @param executorService  the executor to decode chunks on
+     * @param ordered          true to return the elements in the order of the input, false to return each chunk as soon as it is decoded
+     * @param chunkSize        the number of bytes read per chunk, a chunk grows to hold a longer element
+     */
+    public JsonArrayReader(JsonCodec.@NotNull Builder jsonCodecBuilder, @NotNull InputStream inputStream, @NotNull ExecutorService executorService, boolean ordered, int chunkSize) {
+        super(jsonCodecBuilder, inputStream, executorService, ordered, chunkSize);
+
+        this.scanDepth = 0;
+        this.scanInString = false;
+        this.scanEscaped = false;
+    }
+
+    /**
+     * Returns true if another element remains
+     *
+     * @return true if another element remains
+     * @throws DecodeException if an element cannot be decoded or the array is malformed
+     * @throws IOException     if an I/O exception occurs
+     */
+    public boolean hasNext() throws DecodeException, IOException {
+        return this.loadValues();
+    }
+
+    /**
+     * Reads the next element
+     *
+     * @return the element, null for a JSON null
+     * @throws DecodeException        if an element cannot be decoded or the array is malformed
+     * @throws IOException            if an I/O exception occurs
+     * @throws NoSuchElementException if no element remains
+     */
+    public @Nullable Object next() throws DecodeException, IOException {
+        if (!this.loadValues()) {
+            throw new NoSuchElementException("No element remains in the array.");
+        }
+
+        return this.takeValue();
+    }
+
+    /**
+     * Reads all remaining elements, calling the consumer on the calling thread
+     * Chunks are decoded ahead only as far as the consumer keeps up.
+     *
+     * @param consumer the consumer of the elements
+     * @throws DecodeException if an element cannot be decoded or the array is malformed
+     * @throws IOException     if an I/O exception occurs
+     */
+    public void readAll(@NotNull Consumer<@Nullable Object> consumer) throws DecodeException, IOException {
+        while (this.loadValues()) {
+            consumer.accept(this.takeValue());
+        }
+    }
+
+    /**
+     * Reads all remaining elements into an opack array
+     *
+     * @return the opack array
+     * @throws DecodeException if an element cannot be decoded or the array is malformed
+     * @throws IOException     if an I/O exception occurs
+     */
+    public @NotNull OpackArray readArray() throws DecodeException, IOException {
+        OpackArray opackArray = new OpackArray(16);
+        List<Object> list = UnsafeOpackValue.getList(opackArray);
+
+        while (this.loadValues()) {
+            list.add(this.takeValue());
+        }
+
+        return opackArray;
+    }
+
+    @Override
+    int scan(byte @NotNull [] buffer, int from, int to) {
+        int depth = this.scanDepth;
+        boolean inString = this.scanInString;
+        boolean escaped = this.scanEscaped;
+        int cut = -1;
+
+        for (int index = from; index < to; index++) {
+            byte currentByte = buffer[index];
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (currentByte == '\\') {
+                    escaped = true;
+                } else if (currentByte == '"') {
+                    inString = false;
+                }
+            } else if (currentByte == '"') {
+                inString = true;
+            } else if (currentByte == '[' || currentByte == '{') {
+                depth++;
+            } else if (currentByte == ']' || currentByte == '}') {
+                depth--;
+            } else if (currentByte == ',' && depth == 1) {
+                cut = index + 1;
+            }
+        }
+
+        this.scanDepth = depth;
+        this.scanInString = inString;
+        this.scanEscaped = escaped;
+
+        return cut;
+    }
+
+    @Override
+    @NotNull List<@Nullable Object> decodeChunk(@NotNull JsonCodec jsonCodec, byte @NotNull [] chunk, long chunkPosition, boolean lastChunk) throws DecodeException {
+        List<Object> elements = new ArrayList<>();
+        int index = 0;
+
+        if (chunkPosition == 0) {
+            index = skipWhitespace(chunk, index, chunk.length);
+
+            if (index >= chunk.length) {
+                throw new DecodeException("Expected start of array([), but got end of file.");
+            }
+
+            if (chunk[index] != '[') {
+                throw new DecodeException("Expected start of array([), but got '" + (char) (chunk[index] & 0xFF) + "' at byte " + index + ".");
+            }
+
+            index++;
+        }
+
+        int elementStart = index;
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+
+        for (; index < chunk.length; index++) {
+            byte currentByte = chunk[index];
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (currentByte == '\\') {
+                    escaped = true;
+                } else if (currentByte == '"') {
+                    inString = false;
+                }
+            } else if (currentByte == '"') {
+                inString = true;
+            } else if (currentByte == '[' || currentByte == '{') {
+                depth++;
+            } else if ((currentByte == ']' || currentByte == '}') && depth > 0) {
+                depth--;
+            } else if (currentByte == ',' && depth == 0) {
+                this.decodeElement(jsonCodec, chunk, elementStart, index, chunkPosition, elements, false);
+                elementStart = index + 1;
+            } else if (currentByte == ']' && depth == 0) {
+                this.decodeElement(jsonCodec, chunk, elementStart, index, chunkPosition, elements, true);
+
+                int end = skipWhitespace(chunk, index + 1, chunk.length);
+
+                if (!lastChunk || end < chunk.length) {
+                    throw new DecodeException("Unexpected character after end of array at byte " + (chunkPosition + (lastChunk ? end : index + 1)) + ".");
+                }
+
+                return elements;
+            } else if (currentByte == '}') {
+                throw new DecodeException("Unexpected end of object(}) at byte " + (chunkPosition + index) + ".");
+            }
+        }
+
+        if (lastChunk) {
+            throw new DecodeException("Expected end of array(]), but got end of file.");
+        }
+
+        return elements;
+    }
+
+    /**
+     * Decodes the element between the commas or brackets around it
+     *
+     * @param jsonCodec     the codec of the worker thread
+     * @param chunk         the bytes of the chunk
+     * @param start         the index after the opening comma or bracket
+     * @param end           the index of the closing comma or bracket
+     * @param chunkPosition the position of the chunk in the stream
+     * @param elements      the list to add the element to
+     * @param closing       true if the element is closed by the end of the array
+     * @throws DecodeException if the element is empty or cannot be decoded
+     */
+    private void decodeElement(@NotNull JsonCodec jsonCodec, byte @NotNull [] chunk, int start, int end, long chunkPosition, @NotNull List<@Nullable Object> elements, boolean closing) throws DecodeException {
+        int first = skipWhitespace(chunk, start, end);
+
+        if (first >= end) {
+            // Only the empty array has nothing before its closing bracket
+            if (closing && chunkPosition == 0 && elements.isEmpty()) {
+                return;
+            }
+
+            throw new DecodeException("Expected an element of array, but got '" + (char) chunk[end] + "' at byte " + (chunkPosition + end) + ".");
+        }
+
+        try {
+            elements.add(jsonCodec.decodeObject(chunk, first, end - first));
+        } catch (DecodeException decodeException) {
+            throw new DecodeException("Failed to decode the element at byte " + (chunkPosition + first) + ".", decodeException);
+        }
+    }
+
+    private static int skipWhitespace(byte @NotNull [] bytes, int index, int end) {
+        while (index < end && (bytes[index] == ' ' || bytes[index] == '\t' || bytes[index] == '\r' || bytes[index] == '\n')) {
+            index++;
+        }
+
+        return index;
+    }
+}
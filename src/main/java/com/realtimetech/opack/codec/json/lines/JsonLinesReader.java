@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.json.lines;
+
+import com.realtimetech.opack.codec.json.JsonCodec;
+import com.realtimetech.opack.exception.DecodeException;
+import com.realtimetech.opack.value.OpackValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Reads UTF-8 JSON Lines (NDJSON), one {@link OpackValue OpackValue} per line, decoding line-aligned chunks in parallel
+ * The input is cut into chunks at line feeds, which never occur inside a UTF-8 sequence or a JSON string, and each chunk is decoded by a task with a codec of its worker thread.
+ * At most a fixed number of chunks are read ahead of the consumer, so a slow consumer holds back the reading.
+ * Blank lines are skipped. This reader is not thread-safe.
+ */
+public class JsonLinesReader extends ChunkedJsonReader {
+    /**
+     * Constructs a JsonLinesReader that decodes 1 MiB chunks on the common fork join pool, in the order of the input
+     *
+     * @param jsonCodecBuilder the builder of the codecs of the worker threads, must not use pretty format
+     * @param inputStream      the input stream to read lines from
+     */
+    public JsonLinesReader(JsonCodec.@NotNull Builder jsonCodecBuilder, @NotNull InputStream inputStream) {
+        this(jsonCodecBuilder, inputStream, ForkJoinPool.commonPool(), true, CONST_DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a JsonLinesReader
+     *
+     * @param jsonCodecBuilder the builder of the codecs of the worker threads
+     * @param inputStream      the input stream to read lines from
+     * @param executorService  the executor to decode chunks on
+     * @param ordered          true to return the values in the order of the input, false to return each chunk as soon as it is decoded
+     * @param chunkSize        the number of bytes read per chunk, a chunk grows to hold a longer line
+     */
+    public JsonLinesReader(JsonCodec.@NotNull Builder jsonCodecBuilder, @NotNull InputStream inputStream, @NotNull ExecutorService executorService, boolean ordered, int chunkSize) {
+        super(jsonCodecBuilder, inputStream, executorService, ordered, chunkSize);
+    }
+
+    /**
+     * Reads the value of the next line
+     *
+     * @return the value, or null if the stream ended
+     * @throws DecodeException if a line cannot be decoded or is not an object or array
+     * @throws IOException     if an I/O exception occurs
+     */
+    public @Nullable OpackValue read() throws DecodeException, IOException {
+        if (!this.loadValues()) {
+            return null;
+        }
+
+        return (OpackValue) this.takeValue();
+    }
+
+    /**
+     * Reads the values of all remaining lines, calling the consumer on the calling thread
+     * Chunks are decoded ahead only as far as the consumer keeps up.
+     *
+     * @param consumer the consumer of the values
+     * @throws DecodeException if a line cannot be decoded or is not an object or array
+     * @throws IOException     if an I/O exception occurs
+     */
+    public void readAll(@NotNull Consumer<@NotNull OpackValue> consumer) throws DecodeException, IOException {
+        OpackValue opackValue;
+
+        while ((opackValue = this.read()) != null) {
+            consumer.accept(opackValue);
+        }
+    }
+
+    @Override
+    int scan(byte @NotNull [] buffer, int from, int to) {
+        for (int index = to - 1; index >= from; index--) {
+            if (buffer[index] == '\n') {
+                return index + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    @NotNull List<@Nullable Object> decodeChunk(@NotNull JsonCodec jsonCodec, byte @NotNull [] chunk, long chunkPosition, boolean lastChunk) throws DecodeException {
+        List<Object> values = new ArrayList<>();
+        int start = 0;
+
+        while (start < chunk.length) {
+            int end = start;
+
+            while (end < chunk.length && chunk[end] != '\n') {
+                end++;
+            }
+
+            int first = start;
+
+            while (first < end && (chunk[first] == ' ' || chunk[first] == '\t' || chunk[first] == '\r')) {
+                first++;
+            }
+
+            if (first < end) {
+                try {
+                    values.add(jsonCodec.decode(chunk, start, end - start));
+                } catch (DecodeException decodeException) {
+                    throw new DecodeException("Failed to decode the line at byte " + (chunkPosition + start) + ".", decodeException);
+                }
+            }
+
+            start = end + 1;
+        }
+
+        return values;
+    }
+}
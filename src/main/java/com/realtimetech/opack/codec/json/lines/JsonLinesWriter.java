@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.codec.json.lines;
+
+import com.realtimetech.opack.codec.json.JsonCodec;
+import com.realtimetech.opack.exception.EncodeException;
+import com.realtimetech.opack.value.OpackValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.*;
+
+/**
+ * Writes UTF-8 JSON Lines (NDJSON), one value per line, encoding batches of values in parallel
+ * Each batch is encoded by a task with a codec of its worker thread, and the encoded batches are written in the order of the values.
+ * At most a fixed number of batches are encoded ahead of the output, so a slow output holds back the writer.
+ * Values are encoded after {@link #write(OpackValue)} returns, so they must not change until {@link #flush()}. This writer is not thread-safe.
+ */
+public class JsonLinesWriter implements Closeable, Flushable {
+    private static final int CONST_DEFAULT_BATCH_SIZE = 1024;
+
+    private final @NotNull ThreadLocal<@NotNull JsonCodec> jsonCodecs;
+    private final @NotNull OutputStream outputStream;
+    private final @NotNull ExecutorService executorService;
+    private final int batchSize;
+    private final int maxPendingBatches;
+
+    private final @NotNull ArrayDeque<@NotNull Future<@NotNull ByteArrayOutputStream>> pendingFutures;
+
+    private @Nullable Object @NotNull [] batch;
+    private int batchLength;
+    private long writeCount;
+
+    /**
+     * Constructs a JsonLinesWriter that encodes batches of 1024 values on the common fork join pool
+     *
+     * @param jsonCodecBuilder the builder of the codecs of the worker threads, must not use pretty format
+     * @param outputStream     the output stream to write lines to
+     */
+    public JsonLinesWriter(JsonCodec.@NotNull Builder jsonCodecBuilder, @NotNull OutputStream outputStream) {
+        this(jsonCodecBuilder, outputStream, ForkJoinPool.commonPool(), CONST_DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a JsonLinesWriter
+     *
+     * @param jsonCodecBuilder the builder of the codecs of the worker threads, must not use pretty format
+     * @param outputStream     the output stream to write lines to
+     * @param executorService  the executor to encode batches on
+     * @param batchSize        the number of values encoded per task
+     * @throws IllegalArgumentException if the batch size is not positive, if the codec builder uses pretty format
+     */
+    public JsonLinesWriter(JsonCodec.@NotNull Builder jsonCodecBuilder, @NotNull OutputStream outputStream, @NotNull ExecutorService executorService, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, but " + batchSize + ".");
+        }
+
+        if (jsonCodecBuilder.isUsePrettyFormat()) {
+            throw new IllegalArgumentException("JSON Lines can not be written in pretty format, a value must stay on one line.");
+        }
+
+        this.jsonCodecs = ThreadLocal.withInitial(jsonCodecBuilder::build);
+        this.outputStream = outputStream;
+        this.executorService = executorService;
+        this.batchSize = batchSize;
+        this.maxPendingBatches = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+        this.pendingFutures = new ArrayDeque<>();
+
+        this.batch = new Object[batchSize];
+        this.batchLength = 0;
+        this.writeCount = 0;
+    }
+
+    /**
+     * Returns the number of values written so far
+     *
+     * @return the write count
+     */
+    public long getWriteCount() {
+        return this.writeCount;
+    }
+
+    /**
+     * Writes the value as the next line
+     *
+     * @param opackValue the value to write
+     * @throws EncodeException if a value of an earlier batch cannot be encoded
+     * @throws IOException     if an I/O error occurs
+     */
+    public void write(@NotNull OpackValue opackValue) throws EncodeException, IOException {
+        this.writeObject(opackValue);
+    }
+
+    /**
+     * Writes the object as the next line
+     *
+     * @param object the object to write, of the type allowed by OpackValue
+     * @throws EncodeException if a value of an earlier batch cannot be encoded
+     * @throws IOException     if an I/O error occurs
+     */
+    public void writeObject(@Nullable Object object) throws EncodeException, IOException {
+        this.batch[this.batchLength++] = object;
+        this.writeCount++;
+
+        if (this.batchLength == this.batchSize) {
+            this.submitBatch();
+
+            while (this.pendingFutures.size() >= this.maxPendingBatches) {
+                this.writeBatch();
+            }
+        }
+    }
+
+    private void submitBatch() {
+        Object[] values = this.batch;
+        int length = this.batchLength;
+
+        this.pendingFutures.add(this.executorService.submit(() -> this.encodeBatch(values, length)));
+
+        this.batch = new Object[this.batchSize];
+        this.batchLength = 0;
+    }
+
+    private @NotNull ByteArrayOutputStream encodeBatch(@Nullable Object @NotNull [] values, int length) throws EncodeException {
+        JsonCodec jsonCodec = this.jsonCodecs.get();
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(length * 64);
+
+        for (int index = 0; index < length; index++) {
+            jsonCodec.encodeObject(byteArrayOutputStream, values[index]);
+            byteArrayOutputStream.write('\n');
+        }
+
+        return byteArrayOutputStream;
+    }
+
+    private void writeBatch() throws EncodeException, IOException {
+        Future<ByteArrayOutputStream> future = this.pendingFutures.poll();
+
+        try {
+            future.get().writeTo(this.outputStream);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an encoded batch.", interruptedException);
+        } catch (ExecutionException executionException) {
+            Throwable cause = executionException.getCause();
+
+            if (cause instanceof EncodeException) {
+                throw (EncodeException) cause;
+            }
+
+            throw new EncodeException(cause);
+        }
+    }
+
+    /**
+     * Encodes the values written so far, writes them in order and flushes the output stream
+     *
+     * @throws IOException if an I/O error occurs, or a value cannot be encoded
+     */
+    @Override
+    public void flush() throws IOException {
+        if (this.batchLength > 0) {
+            this.submitBatch();
+        }
+
+        try {
+            while (!this.pendingFutures.isEmpty()) {
+                this.writeBatch();
+            }
+        } catch (EncodeException encodeException) {
+            throw new IOException(encodeException);
+        }
+
+        this.outputStream.flush();
+    }
+
+    /**
+     * Flushes and closes the output stream
+     *
+     * @throws IOException if an I/O error occurs, or a value cannot be encoded
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.outputStream.close();
+        }
+    }
+}
@@ -43,6 +43,11 @@ import org.jetbrains.annotations.NotNull;
 import java.math.BigInteger;
 
 public final class RyuJsonDouble {
+    /**
+     * The maximum number of characters written for a double value
+     */
+    public static final int MAX_LENGTH = 24;
+
     // Constants for internal double representation
     private static final int DOUBLE_MANTISSA_BITS = 52;
     private static final long DOUBLE_MANTISSA_MASK = (1L << DOUBLE_MANTISSA_BITS) - 1;
@@ -116,20 +121,35 @@ public final class RyuJsonDouble {
      * @return the string representation of the double value
      */
     public static String toString(double value, @NotNull RoundingMode roundingMode) {
+        char[] result = new char[MAX_LENGTH];
+
+        return new String(result, 0, write(value, roundingMode, result, 0));
+    }
+
+    /**
+     * Writes a double value into the caller's buffer using the Ryu algorithm, without creating a string
+     *
+     * @param value        the double value to convert
+     * @param roundingMode the rounding mode to apply
+     * @param result       the buffer to write into, with at least {@link #MAX_LENGTH} characters from the offset
+     * @param offset       the index to start writing at
+     * @return the index after the last written character
+     */
+    public static int write(double value, @NotNull RoundingMode roundingMode, char @NotNull [] result, int offset) {
         // Handle special cases: NaN, Infinity
         if (Double.isNaN(value)) {
-            return "NaN";
+            return writeText("NaN", result, offset);
         } else if (value == Double.POSITIVE_INFINITY) {
-            return "Infinity";
+            return writeText("Infinity", result, offset);
         } else if (value == Double.NEGATIVE_INFINITY) {
-            return "-Infinity";
+            return writeText("-Infinity", result, offset);
         }
 
         long rawBits = Double.doubleToLongBits(value);
         if (rawBits == 0) {
-            return "0.0";
+            return writeText("0.0", result, offset);
         } else if (rawBits == 0x8000000000000000L) {
-            return "-0.0";
+            return writeText("-0.0", result, offset);
         }
 
         int ieeeExponent = (int) ((rawBits >>> DOUBLE_MANTISSA_BITS) & DOUBLE_EXPONENT_MASK);
@@ -273,8 +293,7 @@ public final class RyuJsonDouble {
         }
 
         int outputLength = decimalDigitsCount - removedDigits;
-        char[] result = new char[24];
-        int index = 0;
+        int index = offset;
 
         if (isNegative) {
             result[index++] = '-';
@@ -313,7 +332,7 @@ public final class RyuJsonDouble {
 
             result[index++] = (char) ('0' + finalDecimalExponent % 10);
 
-            return new String(result, 0, index);
+            return index;
         } else {
             // Regular notation: separate integer and fractional parts based on the position of the decimal point.
             //noinspection DuplicatedCode
@@ -360,10 +379,16 @@ public final class RyuJsonDouble {
                 index += outputLength + 1;
             }
 
-            return new String(result, 0, index);
+            return index;
         }
     }
 
+    private static int writeText(@NotNull String text, char @NotNull [] result, int offset) {
+        text.getChars(0, text.length(), result, offset);
+
+        return offset + text.length();
+    }
+
     /**
      * Computes the number of bits required for 5^e
      */
@@ -43,6 +43,11 @@ import org.jetbrains.annotations.NotNull;
 import java.math.BigInteger;
 
 public final class RyuJsonFloat {
+    /**
+     * The maximum number of characters written for a float value
+     */
+    public static final int MAX_LENGTH = 15;
+
     // Constants for internal float representation
     private static final int FLOAT_MANTISSA_BITS = 23;
     private static final int FLOAT_MANTISSA_MASK = (1 << FLOAT_MANTISSA_BITS) - 1;
@@ -115,20 +120,35 @@ public final class RyuJsonFloat {
      * @return the string representation of the float value
      */
     public static String toString(float value, @NotNull RoundingMode roundingMode) {
+        char[] result = new char[MAX_LENGTH];
+
+        return new String(result, 0, write(value, roundingMode, result, 0));
+    }
+
+    /**
+     * Writes a float value into the caller's buffer using the Ryu algorithm, without creating a string
+     *
+     * @param value        the float value to convert
+     * @param roundingMode the rounding mode to apply
+     * @param result       the buffer to write into, with at least {@link #MAX_LENGTH} characters from the offset
+     * @param offset       the index to start writing at
+     * @return the index after the last written character
+     */
+    public static int write(float value, @NotNull RoundingMode roundingMode, char @NotNull [] result, int offset) {
         // Handle special cases: NaN, Infinity
         if (Float.isNaN(value)) {
-            return "NaN";
+            return writeText("NaN", result, offset);
         } else if (value == Float.POSITIVE_INFINITY) {
-            return "Infinity";
+            return writeText("Infinity", result, offset);
         } else if (value == Float.NEGATIVE_INFINITY) {
-            return "-Infinity";
+            return writeText("-Infinity", result, offset);
         }
 
         int rawBits = Float.floatToIntBits(value);
         if (rawBits == 0) {
-            return "0.0";
+            return writeText("0.0", result, offset);
         } else if (rawBits == 0x80000000) {
-            return "-0.0";
+            return writeText("-0.0", result, offset);
         }
 
         int ieeeExponent = (rawBits >> FLOAT_MANTISSA_BITS) & FLOAT_EXPONENT_MASK;
@@ -253,8 +273,7 @@ public final class RyuJsonFloat {
                 || (lastRemovedDigit >= 5)) ? 1 : 0);
         int outputLength = decimalDigitsCount - removedDigits;
 
-        char[] result = new char[15];
-        int index = 0;
+        int index = offset;
 
         if (isNegative) {
             result[index++] = '-';
@@ -335,7 +354,13 @@ public final class RyuJsonFloat {
             }
         }
 
-        return new String(result, 0, index);
+        return index;
+    }
+
+    private static int writeText(@NotNull String text, char @NotNull [] result, int offset) {
+        text.getChars(0, text.length(), result, offset);
+
+        return offset + text.length();
     }
 
     /**
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.util;
+
+import org.jetbrains.annotations.NotNull;
+
+public class CharsetUtil {
+    /**
+     * Returns true if all characters of the string can be encoded as ISO-8859-1, one byte per character
+     *
+     * @param string the string to check
+     * @return true if the string only contains characters up to U+00FF
+     */
+    public static boolean isLatin1(@NotNull String string) {
+        int length = string.length();
+
+        for (int index = 0; index < length; index++) {
+            if (string.charAt(index) > 0xFF) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the number of bytes of the string encoded as UTF-8
+     * Unpaired surrogates are counted as one byte, matching the replacement of {@link String#getBytes(java.nio.charset.Charset)}.
+     *
+     * @param string the string to measure
+     * @return the encoded length
+     */
+    public static int getUtf8Length(@NotNull String string) {
+        int length = string.length();
+        int encodedLength = length;
+
+        for (int index = 0; index < length; index++) {
+            char character = string.charAt(index);
+
+            if (character < 0x80) {
+                continue;
+            }
+
+            if (character < 0x800) {
+                encodedLength += 1;
+            } else if (Character.isSurrogate(character)) {
+                if (Character.isHighSurrogate(character) && index + 1 < length && Character.isLowSurrogate(string.charAt(index + 1))) {
+                    encodedLength += 2;
+                    index++;
+                }
+            } else {
+                encodedLength += 2;
+            }
+        }
+
+        return encodedLength;
+    }
+
+    /**
+     * Encodes the string as ISO-8859-1 into the byte array
+     * The string must only contain characters up to U+00FF.
+     *
+     * @param string the string to encode
+     * @param start  the index of the first character to encode
+     * @param end    the index after the last character to encode
+     * @param bytes  the byte array to encode into
+     * @param offset the start offset in the byte array
+     */
+    @SuppressWarnings("deprecation")
+    public static void encodeLatin1(@NotNull String string, int start, int end, byte @NotNull [] bytes, int offset) {
+        // Copies the low byte of each character, which is a plain array copy for compact strings
+        string.getBytes(start, end, bytes, offset);
+    }
+
+    /**
+     * Encodes the string as UTF-8 into the byte array
+     * The byte array must have at least {@link #getUtf8Length(String)} bytes from the offset.
+     *
+     * @param string the string to encode
+     * @param bytes  the byte array to encode into
+     * @param offset the start offset in the byte array
+     * @return the offset after the last written byte
+     */
+    public static int encodeUtf8(@NotNull String string, byte @NotNull [] bytes, int offset) {
+        int length = string.length();
+        int index = 0;
+
+        while (index < length) {
+            char character = string.charAt(index);
+
+            if (character >= 0x80) {
+                break;
+            }
+
+            bytes[offset++] = (byte) character;
+            index++;
+        }
+
+        for (; index < length; index++) {
+            char character = string.charAt(index);
+
+            if (character < 0x80) {
+                bytes[offset++] = (byte) character;
+            } else if (character < 0x800) {
+                bytes[offset++] = (byte) (0xC0 | (character >> 6));
+                bytes[offset++] = (byte) (0x80 | (character & 0x3F));
+            } else if (Character.isSurrogate(character)) {
+                if (Character.isHighSurrogate(character) && index + 1 < length && Character.isLowSurrogate(string.charAt(index + 1))) {
+                    int codePoint = Character.toCodePoint(character, string.charAt(++index));
+
+                    bytes[offset++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    bytes[offset++] = '?';
+                }
+            } else {
+                bytes[offset++] = (byte) (0xE0 | (character >> 12));
+                bytes[offset++] = (byte) (0x80 | ((character >> 6) & 0x3F));
+                bytes[offset++] = (byte) (0x80 | (character & 0x3F));
+            }
+        }
+
+        return offset;
+    }
+}
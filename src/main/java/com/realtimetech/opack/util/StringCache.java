@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bounded cache of canonical strings for decoders, looked up by the hash of a character or byte range and verified by content
+ * Each slot holds one string and is overwritten on a collision, so the cache never grows.
+ * Repeated keys and short values then share one string instance, whose hash code is computed once. This cache is not thread-safe.
+ */
+public final class StringCache {
+    private final @Nullable String @NotNull [] strings;
+    private final int mask;
+    private final int maxLength;
+
+    /**
+     * Constructs a StringCache
+     *
+     * @param size      the number of slots, rounded up to a power of two
+     * @param maxLength the maximum length of cached strings, longer strings are always created
+     */
+    public StringCache(int size, int maxLength) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("String cache size must be positive, but " + size + ".");
+        }
+
+        int capacity = Integer.highestOneBit(size);
+
+        if (capacity < size) {
+            capacity <<= 1;
+        }
+
+        this.strings = new String[capacity];
+        this.mask = capacity - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the maximum length of cached strings
+     *
+     * @return the maximum length
+     */
+    public int getMaxLength() {
+        return this.maxLength;
+    }
+
+    private int getSlot(int hash) {
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+
+    /**
+     * Returns the string of the characters, the cached instance if the same characters were seen before
+     *
+     * @param chars  the character array
+     * @param offset the offset of the characters
+     * @param length the number of characters
+     * @return the string
+     */
+    public @NotNull String get(char @NotNull [] chars, int offset, int length) {
+        if (length > this.maxLength) {
+            return new String(chars, offset, length);
+        }
+
+        // Same as String.hashCode, so a cached string compares by its cached hash first
+        int hash = 0;
+
+        for (int index = offset; index < offset + length; index++) {
+            hash = 31 * hash + chars[index];
+        }
+
+        int slot = this.getSlot(hash);
+        String string = this.strings[slot];
+
+        if (string != null && string.length() == length && string.hashCode() == hash) {
+            int index = 0;
+
+            while (index < length && string.charAt(index) == chars[offset + index]) {
+                index++;
+            }
+
+            if (index == length) {
+                return string;
+            }
+        }
+
+        string = new String(chars, offset, length);
+        this.strings[slot] = string;
+
+        return string;
+    }
+
+    /**
+     * Returns the string of the bytes, the cached instance if the same characters were seen before
+     * Only ISO-8859-1 ranges and ASCII-only UTF-8 ranges are cached, as their bytes map one to one to characters.
+     *
+     * @param bytes   the byte array
+     * @param offset  the offset of the bytes
+     * @param length  the number of bytes
+     * @param charset the charset of the bytes
+     * @return the string
+     */
+    public @NotNull String get(byte @NotNull [] bytes, int offset, int length, @NotNull Charset charset) {
+        if (length > this.maxLength) {
+            return new String(bytes, offset, length, charset);
+        }
+
+        boolean latin1 = charset == StandardCharsets.ISO_8859_1;
+
+        if (!latin1 && charset != StandardCharsets.UTF_8) {
+            return new String(bytes, offset, length, charset);
+        }
+
+        int hash = 0;
+
+        for (int index = offset; index < offset + length; index++) {
+            byte currentByte = bytes[index];
+
+            if (currentByte < 0 && !latin1) {
+                return new String(bytes, offset, length, charset);
+            }
+
+            hash = 31 * hash + (currentByte & 0xFF);
+        }
+
+        int slot = this.getSlot(hash);
+        String string = this.strings[slot];
+
+        if (string != null && string.length() == length && string.hashCode() == hash) {
+            int index = 0;
+
+            while (index < length && string.charAt(index) == (bytes[offset + index] & 0xFF)) {
+                index++;
+            }
+
+            if (index == length) {
+                return string;
+            }
+        }
+
+        string = new String(bytes, offset, length, charset);
+        this.strings[slot] = string;
+
+        return string;
+    }
+}
@@ -147,6 +147,28 @@ public class StringWriter extends Writer {
         return this.currentIndex;
     }
 
+    /**
+     * Ensures room for the given number of characters after the current length, and returns the backing array to write them into directly
+     * The written characters are committed by {@link #setLength(int)}.
+     *
+     * @param requireSize the number of characters to write
+     * @return the backing array, valid until the next write
+     */
+    public char @NotNull [] reserve(int requireSize) {
+        this.increaseArray(requireSize);
+
+        return this.chars;
+    }
+
+    /**
+     * Sets the current string length of this string writer, to commit the characters written into the array returned by {@link #reserve(int)}
+     *
+     * @param length the string length
+     */
+    public void setLength(int length) {
+        this.currentIndex = length;
+    }
+
     /**
      * Reset this string writer
      */
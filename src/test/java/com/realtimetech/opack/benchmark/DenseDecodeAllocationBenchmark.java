@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.benchmark;
+
+import com.realtimetech.opack.codec.dense.DenseCodec;
+import com.realtimetech.opack.exception.DecodeException;
+import com.realtimetech.opack.exception.EncodeException;
+import com.realtimetech.opack.value.OpackArray;
+import com.realtimetech.opack.value.OpackObject;
+import com.realtimetech.opack.value.OpackValue;
+
+import java.lang.management.ManagementFactory;
+
+public class DenseDecodeAllocationBenchmark {
+    static final int DEPTH = 256;
+    static final int WIDTH = 4;
+    static final int LOOP = 4096;
+
+    /**
+     * Creates a deeply nested document whose keys and leaves are cached small integers,
+     * so the produced values are only the containers themselves
+     *
+     * @return the created document
+     */
+    static OpackValue createNestedValue() {
+        OpackObject root = new OpackObject();
+        OpackObject current = root;
+
+        for (int depth = 0; depth < DEPTH; depth++) {
+            OpackArray opackArray = new OpackArray();
+
+            for (int index = 0; index < WIDTH; index++) {
+                opackArray.add(index);
+            }
+
+            OpackObject child = new OpackObject();
+            current.put(0, opackArray);
+            current.put(1, child);
+            current.put(2, depth % 100);
+
+            current = child;
+        }
+
+        return root;
+    }
+
+    static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public static void main(String[] args) throws EncodeException, DecodeException {
+        BenchmarkTable benchmarkTable = new BenchmarkTable(BenchmarkTable.ColumnType.STRING, BenchmarkTable.ColumnType.BYTES);
+        benchmarkTable.setTitles("Name", "Allocated / Operation");
+
+        DenseCodec denseCodec = DenseCodec.Builder.create().build();
+        OpackValue opackValue = createNestedValue();
+        byte[] bytes = denseCodec.encode(opackValue);
+
+        // Warm up
+        for (int index = 0; index < LOOP; index++) {
+            denseCodec.decode(bytes);
+            opackValue.clone();
+        }
+
+        long start = getAllocatedBytes();
+        for (int index = 0; index < LOOP; index++) {
+            denseCodec.decode(bytes);
+        }
+        long decodeAllocated = (getAllocatedBytes() - start) / LOOP;
+
+        start = getAllocatedBytes();
+        for (int index = 0; index < LOOP; index++) {
+            opackValue.clone();
+        }
+        long valueAllocated = (getAllocatedBytes() - start) / LOOP;
+
+        benchmarkTable.addRow("Dense Decoding", decodeAllocated);
+        benchmarkTable.addRow("Produced Values (Clone)", valueAllocated);
+
+        System.out.println(benchmarkTable);
+    }
+}
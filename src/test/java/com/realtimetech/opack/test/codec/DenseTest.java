@@ -24,16 +24,62 @@ package com.realtimetech.opack.test.codec;
 
 import com.realtimetech.opack.Opacker;
 import com.realtimetech.opack.codec.dense.DenseCodec;
+import com.realtimetech.opack.codec.dense.DenseFeedDecoder;
+import com.realtimetech.opack.codec.dense.DenseSchema;
+import com.realtimetech.opack.codec.dense.compress.BlockCompressedFile;
+import com.realtimetech.opack.codec.dense.compress.BlockCompressedInputStream;
+import com.realtimetech.opack.codec.dense.compress.BlockCompressedOutputStream;
+import com.realtimetech.opack.codec.dense.compress.BlockCompression;
+import com.realtimetech.opack.codec.dense.compress.CompressionDictionary;
+import com.realtimetech.opack.codec.dense.compress.CompressionDictionaryRegistry;
+import com.realtimetech.opack.codec.dense.compress.CompressionDictionaryTrainer;
+import com.realtimetech.opack.codec.dense.compress.DictionaryCompressor;
+import com.realtimetech.opack.codec.dense.reader.InputStreamReader;
+import com.realtimetech.opack.codec.dense.reader.Reader;
+import com.realtimetech.opack.codec.dense.record.DenseRecordLog;
+import com.realtimetech.opack.codec.dense.record.DenseRecordReader;
+import com.realtimetech.opack.codec.dense.record.DenseRecordWriter;
+import com.realtimetech.opack.codec.dense.writer.ByteArrayWriter;
+import com.realtimetech.opack.codec.dense.writer.ChunkPool;
+import com.realtimetech.opack.codec.dense.writer.ChunkedWriter;
+import com.realtimetech.opack.codec.dense.writer.OutputStreamWriter;
+import com.realtimetech.opack.codec.dense.writer.Writer;
 import com.realtimetech.opack.exception.DecodeException;
 import com.realtimetech.opack.exception.DeserializeException;
 import com.realtimetech.opack.exception.EncodeException;
 import com.realtimetech.opack.exception.SerializeException;
+import com.realtimetech.opack.exception.TypeCaptureException;
 import com.realtimetech.opack.test.OpackAssert;
+import com.realtimetech.opack.test.RandomUtil;
 import com.realtimetech.opack.test.opacker.other.ComplexTest;
+import com.realtimetech.opack.value.OpackArray;
 import com.realtimetech.opack.value.OpackObject;
 import com.realtimetech.opack.value.OpackValue;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public class DenseTest {
     @Test
@@ -72,4 +118,1034 @@ public class DenseTest {
 
         OpackAssert.assertEquals(originalObject, deserialized);
     }
+
+    @Test
+    public void mapped_file_to_object(@TempDir Path temporaryDirectory) throws DecodeException, EncodeException, IOException {
+        OpackValue opackValue = CommonOpackValue.create();
+        DenseCodec denseCodec = DenseCodec.Builder.create().build();
+
+        Path path = temporaryDirectory.resolve("dense.bin");
+        Files.write(path, denseCodec.encode(opackValue));
+
+        OpackValue decoded = denseCodec.decode(path);
+
+        Assertions.assertEquals(denseCodec.decode(denseCodec.encode(opackValue)), decoded);
+    }
+
+    @Test
+    public void deep_nested_and_container_key() throws DecodeException, EncodeException {
+        DenseCodec denseCodec = DenseCodec.Builder.create()
+                .setDecodeStackInitialSize(2)
+                .build();
+
+        OpackObject root = new OpackObject();
+        OpackObject current = root;
+
+        for (int depth = 0; depth < 512; depth++) {
+            OpackObject key = new OpackObject();
+            key.put("depth", depth);
+
+            OpackArray opackArray = new OpackArray();
+            opackArray.add(new OpackObject());
+            opackArray.add(depth);
+
+            OpackObject child = new OpackObject();
+            current.put(key, opackArray);
+            current.put("child", child);
+
+            current = child;
+        }
+
+        Assertions.assertEquals(root, denseCodec.decode(denseCodec.encode(root)));
+        Assertions.assertEquals(1024, denseCodec.decodeObject(denseCodec.encodeObject(1024)));
+    }
+
+    @Test
+    public void skippable_container_and_projection() throws DecodeException, EncodeException {
+        OpackObject opackValue = (OpackObject) CommonOpackValue.create();
+        opackValue.put("native", OpackArray.createWithArrayObject(new int[]{1, 2, 3}));
+
+        DenseCodec denseCodec = DenseCodec.Builder.create().build();
+        DenseCodec skippableDenseCodec = DenseCodec.Builder.create()
+                .setEnableSkippableContainer(true)
+                .build();
+
+        byte[] bytes = skippableDenseCodec.encode(opackValue);
+        OpackValue expected = denseCodec.decode(denseCodec.encode(opackValue));
+        Assertions.assertEquals(expected, denseCodec.decode(bytes));
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        skippableDenseCodec.encode(OutputStreamWriter.of(byteArrayOutputStream), opackValue);
+        Assertions.assertArrayEquals(bytes, byteArrayOutputStream.toByteArray());
+
+        OpackObject projection = denseCodec.decodeProjection(bytes, Arrays.asList("unicode", "object3", "native"));
+        Assertions.assertEquals(3, projection.size());
+        Assertions.assertEquals(((OpackObject) expected).get("unicode"), projection.get("unicode"));
+        Assertions.assertEquals(((OpackObject) expected).get("object3"), projection.get("object3"));
+        Assertions.assertEquals(((OpackObject) expected).get("native"), projection.get("native"));
+
+        OpackObject fallbackProjection = denseCodec.decodeProjection(denseCodec.encode(opackValue), Arrays.asList("unicode", "object3", "native"));
+        Assertions.assertEquals(projection, fallbackProjection);
+    }
+
+    public static class TelemetryClass {
+        private long timestamp = System.currentTimeMillis();
+        private String sensor = "sensor-" + RandomUtil.nextInt();
+        private double temperature = RandomUtil.nextDouble();
+        private int[] samples = new int[]{RandomUtil.nextInt(), RandomUtil.nextInt()};
+    }
+
+    @Test
+    public void minimal_reader_and_writer() throws DecodeException, EncodeException {
+        DenseCodec skippableDenseCodec = DenseCodec.Builder.create().setEnableSkippableContainer(true).build();
+        OpackObject opackValue = (OpackObject) CommonOpackValue.create();
+        opackValue.put("latin1", "caf\u00E9");
+        opackValue.put("utf8", "\uD55C\uAE00 \uD83D\uDE00");
+
+        byte[] bytes = skippableDenseCodec.encode(opackValue);
+
+        // Implements only the abstract methods of the interfaces, like an implementation written before the default methods
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+        Writer minimalWriter = new Writer() {
+            @Override
+            public void writeByte(int value) throws IOException {
+                dataOutputStream.writeByte(value);
+            }
+
+            @Override
+            public void writeChar(char value) throws IOException {
+                dataOutputStream.writeChar(value);
+            }
+
+            @Override
+            public void writeShort(short value) throws IOException {
+                dataOutputStream.writeShort(value);
+            }
+
+            @Override
+            public void writeInt(int value) throws IOException {
+                dataOutputStream.writeInt(value);
+            }
+
+            @Override
+            public void writeFloat(float value) throws IOException {
+                dataOutputStream.writeFloat(value);
+            }
+
+            @Override
+            public void writeLong(long value) throws IOException {
+                dataOutputStream.writeLong(value);
+            }
+
+            @Override
+            public void writeDouble(double value) throws IOException {
+                dataOutputStream.writeDouble(value);
+            }
+
+            @Override
+            public void writeBytes(byte[] bytes) throws IOException {
+                dataOutputStream.write(bytes);
+            }
+        };
+
+        DenseCodec denseCodec = DenseCodec.Builder.create().build();
+        denseCodec.encode(minimalWriter, opackValue);
+        Assertions.assertArrayEquals(denseCodec.encode(opackValue), byteArrayOutputStream.toByteArray());
+
+        DataInputStream dataInputStream = new DataInputStream(new ByteArrayInputStream(bytes));
+        Reader minimalReader = new Reader() {
+            @Override
+            public int readByte() throws IOException {
+                return dataInputStream.readUnsignedByte();
+            }
+
+            @Override
+            public char readChar() throws IOException {
+                return dataInputStream.readChar();
+            }
+
+            @Override
+            public short readShort() throws IOException {
+                return dataInputStream.readShort();
+            }
+
+            @Override
+            public int readInt() throws IOException {
+                return dataInputStream.readInt();
+            }
+
+            @Override
+            public float readFloat() throws IOException {
+                return dataInputStream.readFloat();
+            }
+
+            @Override
+            public long readLong() throws IOException {
+                return dataInputStream.readLong();
+            }
+
+            @Override
+            public double readDouble() throws IOException {
+                return dataInputStream.readDouble();
+            }
+
+            @Override
+            public void readBytes(byte[] bytes) throws IOException {
+                dataInputStream.readFully(bytes);
+            }
+        };
+
+        // Skips the other containers through the default skipBytes
+        OpackObject projection = skippableDenseCodec.decodeProjection(minimalReader, Arrays.asList("latin1", "utf8"));
+        Assertions.assertEquals(opackValue.get("latin1"), projection.get("latin1"));
+        Assertions.assertEquals(opackValue.get("utf8"), projection.get("utf8"));
+    }
+
+    @Test
+    public void schema_object() throws DecodeException, EncodeException, SerializeException, DeserializeException, TypeCaptureException, OpackAssert.AssertException {
+        Opacker opacker = Opacker.Builder.create().build();
+        DenseSchema denseSchema = DenseSchema.of(opacker, TelemetryClass.class);
+
+        TelemetryClass originalObject = new TelemetryClass();
+        OpackObject serialized = (OpackObject) opacker.serialize(originalObject);
+        assert serialized != null;
+
+        DenseCodec encodeCodec = DenseCodec.Builder.create().build();
+        byte[] describedBytes = encodeCodec.encode(serialized, denseSchema, true);
+        byte[] bytes = encodeCodec.encode(serialized, denseSchema, false);
+        Assertions.assertTrue(bytes.length < encodeCodec.encode(serialized).length);
+
+        // Unknown schema without description must be rejected
+        DenseCodec unknownCodec = DenseCodec.Builder.create().build();
+        Assertions.assertThrows(DecodeException.class, () -> unknownCodec.decode(bytes));
+
+        // Learns the schema from the description once per stream
+        DenseCodec learningCodec = DenseCodec.Builder.create().build();
+        Assertions.assertEquals(serialized, learningCodec.decode(describedBytes));
+        Assertions.assertEquals(serialized, learningCodec.decode(bytes));
+
+        // A description that does not hash to its fingerprint must be rejected, and must not be learned
+        byte[] corruptedBytes = describedBytes.clone();
+        byte[] fieldName = denseSchema.getFieldName(0).getBytes(StandardCharsets.UTF_8);
+        for (int index = 0; index <= corruptedBytes.length - fieldName.length; index++) {
+            if (Arrays.equals(Arrays.copyOfRange(corruptedBytes, index, index + fieldName.length), fieldName)) {
+                corruptedBytes[index] ^= 0x20;
+                break;
+            }
+        }
+        DenseCodec corruptedCodec = DenseCodec.Builder.create().build();
+        Assertions.assertThrows(DecodeException.class, () -> corruptedCodec.decode(corruptedBytes));
+        Assertions.assertThrows(DecodeException.class, () -> corruptedCodec.decode(bytes));
+
+        DenseCodec registeredCodec = DenseCodec.Builder.create().build();
+        registeredCodec.registerSchema(denseSchema);
+        Assertions.assertThrows(DecodeException.class, () -> registeredCodec.decode(corruptedBytes));
+        Assertions.assertEquals(serialized, registeredCodec.decode(describedBytes));
+        Assertions.assertFalse(registeredCodec.registerSchema(DenseSchema.of(denseSchema.getFieldNames())));
+        OpackValue decoded = registeredCodec.decode(bytes);
+        OpackAssert.assertEquals(originalObject, opacker.deserialize(TelemetryClass.class, decoded));
+
+        OpackObject projection = registeredCodec.decodeProjection(bytes, Arrays.asList("sensor"));
+        Assertions.assertEquals(1, projection.size());
+        Assertions.assertEquals(serialized.get("sensor"), projection.get("sensor"));
+
+        Assertions.assertThrows(EncodeException.class, () -> encodeCodec.encode(new OpackObject(), denseSchema, false));
+    }
+
+    @Test
+    public void with_big_integer_decimal() throws DecodeException, EncodeException {
+        DenseCodec denseCodec = DenseCodec.Builder.create().build();
+
+        OpackObject originalObject = new OpackObject();
+        originalObject.put("big_integer", new BigInteger("1" + Long.MAX_VALUE));
+        originalObject.put("small_big_integer", BigInteger.valueOf(Long.MIN_VALUE));
+        originalObject.put("big_decimal", new BigDecimal("1e400"));
+        originalObject.put("small_big_decimal", new BigDecimal("-12345.6789"));
+        originalObject.put("large_big_decimal", new BigDecimal("-123456789012345678901234567890.0123456789"));
+
+        OpackValue decodedObject = denseCodec.decode(denseCodec.encode(originalObject));
+
+        Assertions.assertEquals(originalObject, decodedObject);
+
+        OpackObject projection = denseCodec.decodeProjection(denseCodec.encode(originalObject), Arrays.asList("large_big_decimal"));
+        Assertions.assertEquals(originalObject.get("large_big_decimal"), projection.get("large_big_decimal"));
+    }
+
+    @Test
+    public void byte_buffer_and_chunked_writer() throws EncodeException, DecodeException, SerializeException {
+        Opacker opacker = Opacker.Builder.create().build();
+        DenseCodec denseCodec = DenseCodec.Builder.create().setEnableSkippableContainer(true).build();
+        OpackValue originalValue = opacker.serialize(new ComplexTest.ComplexClass());
+        assert originalValue != null;
+        byte[] expectedBytes = denseCodec.encode(originalValue);
+
+        for (ByteBuffer byteBuffer : new ByteBuffer[]{ByteBuffer.allocate(expectedBytes.length + 8), ByteBuffer.allocateDirect(expectedBytes.length + 8)}) {
+            byteBuffer.position(8);
+            Assertions.assertEquals(expectedBytes.length, denseCodec.encode(byteBuffer, originalValue));
+            Assertions.assertEquals(byteBuffer.capacity(), byteBuffer.position());
+
+            byte[] writtenBytes = new byte[expectedBytes.length];
+            byteBuffer.position(8);
+            byteBuffer.get(writtenBytes);
+            Assertions.assertArrayEquals(expectedBytes, writtenBytes);
+        }
+
+        ByteBuffer smallByteBuffer = ByteBuffer.allocate(expectedBytes.length - 1);
+        Assertions.assertThrows(EncodeException.class, () -> denseCodec.encode(smallByteBuffer, originalValue));
+        Assertions.assertEquals(0, smallByteBuffer.position());
+
+        ChunkPool chunkPool = new ChunkPool(1000, 1024);
+        ChunkedWriter chunkedWriter = new ChunkedWriter(chunkPool);
+
+        for (int round = 0; round < 2; round++) {
+            denseCodec.encode(chunkedWriter, originalValue);
+            Assertions.assertArrayEquals(expectedBytes, chunkedWriter.toByteArray());
+
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            for (ByteBuffer byteBuffer : chunkedWriter.toByteBuffers()) {
+                byteArrayOutputStream.write(byteBuffer.array(), byteBuffer.position(), byteBuffer.remaining());
+            }
+            Assertions.assertArrayEquals(expectedBytes, byteArrayOutputStream.toByteArray());
+
+            chunkedWriter.release();
+        }
+
+        Assertions.assertEquals(expectedBytes.length / 1000, chunkPool.getPooledCount());
+
+        // Closing returns the first chunk too, and closing again returns nothing
+        chunkedWriter.close();
+        chunkedWriter.close();
+        Assertions.assertEquals(expectedBytes.length / 1000 + 1, chunkPool.getPooledCount());
+
+        // A grown buffer is shrunk back to its initial size, so one large encode is not kept alive
+        ByteArrayWriter byteArrayWriter = new ByteArrayWriter(16);
+        byteArrayWriter.writeBytes(new byte[4096]);
+        byteArrayWriter.reset(8192);
+        Assertions.assertEquals(4096, byteArrayWriter.getBytes().length);
+        byteArrayWriter.reset(1024);
+        Assertions.assertEquals(16, byteArrayWriter.getBytes().length);
+
+        OpackArray largeArray = new OpackArray();
+        largeArray.add(OpackArray.createWithArrayObject(new byte[4 << 20]));
+        Assertions.assertEquals(4 << 20, ((OpackArray) ((OpackArray) denseCodec.decode(denseCodec.encode(largeArray))).get(0)).length());
+        Assertions.assertArrayEquals(expectedBytes, denseCodec.encode(originalValue));
+    }
+
+    @Test
+    public void latin1_and_utf8_string() throws EncodeException, DecodeException {
+        DenseCodec denseCodec = DenseCodec.Builder.create().build();
+        String unpairedSurrogate = "broken \uD800 surrogate";
+
+        OpackArray originalArray = new OpackArray();
+        originalArray.add("");
+        originalArray.add("ascii only");
+        originalArray.add("caf\u00E9 \u00FF");
+        originalArray.add("\uD55C\uAE00 \u0444 \uD83D\uDE00");
+        originalArray.add(unpairedSurrogate);
+
+        StringBuilder randomStringBuilder = new StringBuilder();
+        for (int index = 0; index < 4096; index++) {
+            randomStringBuilder.append((char) RandomUtil.nextInt(0x10000));
+        }
+        originalArray.add(randomStringBuilder.toString());
+
+        byte[] bytes = denseCodec.encode(originalArray);
+        OpackArray decodedArray = (OpackArray) denseCodec.decode(bytes);
+
+        Assertions.assertEquals(originalArray.length(), decodedArray.length());
+        for (int index = 0; index < originalArray.length(); index++) {
+            String expected = new String(((String) originalArray.get(index)).getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+            Assertions.assertEquals(expected, decodedArray.get(index));
+        }
+
+        ChunkedWriter chunkedWriter = new ChunkedWriter(new ChunkPool(16, 0));
+        denseCodec.encode(chunkedWriter, originalArray);
+        Assertions.assertArrayEquals(bytes, chunkedWriter.toByteArray());
+
+        ByteBuffer directByteBuffer = ByteBuffer.allocateDirect(bytes.length);
+        denseCodec.encode(directByteBuffer, originalArray);
+        Assertions.assertEquals(ByteBuffer.wrap(bytes), directByteBuffer.flip());
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        denseCodec.encode(OutputStreamWriter.of(byteArrayOutputStream), originalArray);
+        Assertions.assertArrayEquals(bytes, byteArrayOutputStream.toByteArray());
+        Assertions.assertEquals(decodedArray, denseCodec.decode(InputStreamReader.of(new ByteArrayInputStream(bytes))));
+
+        // Lengths are checked before the string buffer grows
+        InputStreamReader inputStreamReader = InputStreamReader.of(new ByteArrayInputStream(bytes));
+        Assertions.assertThrows(IOException.class, () -> inputStreamReader.readString(-1, StandardCharsets.UTF_8));
+        Assertions.assertThrows(IOException.class, () -> inputStreamReader.skipBytes(-1));
+        Assertions.assertThrows(IOException.class, () -> inputStreamReader.readString(Integer.MAX_VALUE, StandardCharsets.UTF_8));
+
+        // Data of the previous version, which only has the UTF-8 string tag, is still readable
+        byte[] previousVersionBytes = new byte[]{0x20, 0x22, 'D', 'S', 0x00, 0x01, 0x19, 0x00, 0x00, 0x00, 0x02, (byte) 0xC3, (byte) 0xA9};
+        Assertions.assertEquals("\u00E9", denseCodec.decodeObject(previousVersionBytes));
+    }
+
+    @Test
+    public void string_cache() throws EncodeException, DecodeException {
+        DenseCodec denseCodec = DenseCodec.Builder.create().build();
+        OpackArray originalArray = new OpackArray();
+
+        for (int index = 0; index < 2; index++) {
+            OpackObject opackObject = new OpackObject();
+            opackObject.put("name", "value");
+            opackObject.put("latin1", "caf\u00E9");
+            opackObject.put("utf8", "\uD55C\uAE00");
+            originalArray.add(opackObject);
+        }
+
+        byte[] bytes = denseCodec.encode(originalArray);
+
+        DenseFeedDecoder denseFeedDecoder = new DenseFeedDecoder(denseCodec);
+        Assertions.assertEquals(DenseFeedDecoder.Status.COMPLETED, denseFeedDecoder.feed(ByteBuffer.wrap(bytes)));
+
+        for (OpackArray decodedArray : new OpackArray[]{(OpackArray) denseCodec.decode(bytes), (OpackArray) denseFeedDecoder.poll()}) {
+            OpackObject firstObject = (OpackObject) decodedArray.get(0);
+            OpackObject secondObject = (OpackObject) decodedArray.get(1);
+
+            Assertions.assertEquals(originalArray, decodedArray);
+            Assertions.assertSame(firstObject.get("name"), secondObject.get("name"));
+            Assertions.assertSame(firstObject.get("latin1"), secondObject.get("latin1"));
+
+            // Non-ASCII UTF-8 is not cached, as its bytes do not map one to one to characters
+            Assertions.assertNotSame(firstObject.get("utf8"), secondObject.get("utf8"));
+        }
+
+        OpackArray uncachedArray = (OpackArray) DenseCodec.Builder.create().setStringCacheSize(0).build().decode(bytes);
+        Assertions.assertNotSame(((OpackObject) uncachedArray.get(0)).get("name"), ((OpackObject) uncachedArray.get(1)).get("name"));
+    }
+
+    @Test
+    public void feed_decoder() throws EncodeException, DecodeException, SerializeException, TypeCaptureException {
+        Opacker opacker = Opacker.Builder.create().build();
+        DenseCodec denseCodec = DenseCodec.Builder.create().setEnableSkippableContainer(true).build();
+
+        OpackObject originalObject = (OpackObject) opacker.serialize(new ComplexTest.ComplexClass());
+        assert originalObject != null;
+        originalObject.put("utf8_string", "\uD55C\uAE00 \uD83D\uDE00");
+        originalObject.put("big_decimal", new BigDecimal("-123456789012345678901234567890.0123456789"));
+        originalObject.put("big_integer", BigInteger.TEN);
+
+        OpackObject schemaObject = (OpackObject) opacker.serialize(new TelemetryClass());
+        assert schemaObject != null;
+
+        byte[] objectBytes = denseCodec.encode(originalObject);
+        byte[] schemaObjectBytes = denseCodec.encode(schemaObject, DenseSchema.of(opacker, TelemetryClass.class), true);
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        byteArrayOutputStream.writeBytes(objectBytes);
+        byteArrayOutputStream.writeBytes(schemaObjectBytes);
+        byteArrayOutputStream.writeBytes(denseCodec.encodeObject("primitive root"));
+        byte[] bytes = byteArrayOutputStream.toByteArray();
+
+        for (int chunkSize : new int[]{1, 7, 4096, bytes.length}) {
+            DenseFeedDecoder denseFeedDecoder = new DenseFeedDecoder(denseCodec);
+            List<Object> decodedValues = new ArrayList<>();
+
+            for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+                ByteBuffer byteBuffer = ByteBuffer.allocateDirect(Math.min(chunkSize, bytes.length - offset));
+                byteBuffer.put(bytes, offset, byteBuffer.capacity()).flip();
+
+                while (denseFeedDecoder.feed(byteBuffer) == DenseFeedDecoder.Status.COMPLETED) {
+                    decodedValues.add(denseFeedDecoder.poll());
+                }
+
+                Assertions.assertFalse(byteBuffer.hasRemaining());
+            }
+
+            Assertions.assertEquals(3, decodedValues.size());
+            Assertions.assertArrayEquals(denseCodec.encode(denseCodec.decode(objectBytes)), denseCodec.encode((OpackValue) decodedValues.get(0)));
+            Assertions.assertEquals(denseCodec.decode(schemaObjectBytes), decodedValues.get(1));
+            Assertions.assertEquals("primitive root", decodedValues.get(2));
+        }
+
+        DenseFeedDecoder denseFeedDecoder = new DenseFeedDecoder(denseCodec);
+        Assertions.assertThrows(DecodeException.class, () -> denseFeedDecoder.feed(ByteBuffer.wrap(new byte[]{0x00, 0x01, 0x02, 0x03, 0x04, 0x05})));
+
+        // Negative and oversized schema field counts must be rejected before allocating
+        byte[] fieldName = DenseSchema.of(opacker, TelemetryClass.class).getFieldName(0).getBytes(StandardCharsets.UTF_8);
+        int fieldCountIndex = -1;
+        for (int index = 0; index <= schemaObjectBytes.length - fieldName.length; index++) {
+            if (Arrays.equals(Arrays.copyOfRange(schemaObjectBytes, index, index + fieldName.length), fieldName)) {
+                fieldCountIndex = index - 8;
+                break;
+            }
+        }
+        Assertions.assertTrue(fieldCountIndex > 0);
+
+        for (int fieldCount : new int[]{-1, Integer.MAX_VALUE}) {
+            byte[] corruptedBytes = schemaObjectBytes.clone();
+            ByteBuffer.wrap(corruptedBytes).putInt(fieldCountIndex, fieldCount);
+
+            DecodeException feedException = Assertions.assertThrows(DecodeException.class, () -> new DenseFeedDecoder(denseCodec).feed(ByteBuffer.wrap(corruptedBytes)));
+            DecodeException decodeException = Assertions.assertThrows(DecodeException.class, () -> denseCodec.decode(corruptedBytes));
+            Assertions.assertTrue(feedException.getMessage().contains("field count"));
+            Assertions.assertTrue(decodeException.getMessage().contains("field count"));
+        }
+
+        // A big number without bytes is corrupted, not a NumberFormatException
+        BigInteger bigInteger = new BigInteger("1" + Long.MAX_VALUE);
+        byte[] bigIntegerBytes = denseCodec.encodeObject(bigInteger);
+        byte[] emptyBigIntegerBytes = Arrays.copyOf(bigIntegerBytes, bigIntegerBytes.length - bigInteger.toByteArray().length);
+        ByteBuffer.wrap(emptyBigIntegerBytes).putInt(emptyBigIntegerBytes.length - 4, 0);
+
+        Assertions.assertEquals(bigInteger, denseCodec.decodeObject(bigIntegerBytes));
+        Assertions.assertThrows(DecodeException.class, () -> denseCodec.decodeObject(emptyBigIntegerBytes));
+        Assertions.assertThrows(DecodeException.class, () -> new DenseFeedDecoder(denseCodec).feed(ByteBuffer.wrap(emptyBigIntegerBytes)));
+    }
+
+    @Test
+    public void record_framing() throws EncodeException, DecodeException, IOException {
+        DenseCodec denseCodec = DenseCodec.Builder.create().build();
+
+        for (boolean enableChecksum : new boolean[]{true, false}) {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            long[] framePositions = new long[1000];
+
+            try (DenseRecordWriter denseRecordWriter = new DenseRecordWriter(denseCodec, byteArrayOutputStream, enableChecksum)) {
+                for (int index = 0; index < framePositions.length; index++) {
+                    OpackObject opackObject = new OpackObject();
+                    opackObject.put("index", index);
+                    opackObject.put("payload", "record " + index + " ".repeat(index % 200));
+
+                    framePositions[index] = denseRecordWriter.write(opackObject);
+                }
+
+                Assertions.assertEquals(framePositions.length, denseRecordWriter.getRecordCount());
+            }
+
+            byte[] bytes = byteArrayOutputStream.toByteArray();
+
+            // Corrupt the payload of record 500, and cut the last record in half
+            bytes[(int) framePositions[500] + 20] ^= 0x5A;
+            bytes = Arrays.copyOf(bytes, (int) (framePositions[999] + (bytes.length - framePositions[999]) / 2));
+
+            try (DenseRecordReader denseRecordReader = new DenseRecordReader(denseCodec, new ByteArrayInputStream(bytes))) {
+                List<Integer> indexes = new ArrayList<>();
+                OpackValue opackValue;
+
+                while ((opackValue = denseRecordReader.read()) != null) {
+                    int index = (int) ((OpackObject) opackValue).get("index");
+
+                    Assertions.assertEquals(framePositions[index], denseRecordReader.getFramePosition());
+                    indexes.add(index);
+                }
+
+                if (enableChecksum) {
+                    Assertions.assertEquals(998, indexes.size());
+                    Assertions.assertFalse(indexes.contains(500));
+                    Assertions.assertEquals(2, denseRecordReader.getCorruptedFrameCount());
+                }
+
+                Assertions.assertFalse(indexes.contains(999));
+                Assertions.assertEquals(499, indexes.get(499));
+                Assertions.assertEquals(998, indexes.get(indexes.size() - 1));
+            }
+        }
+    }
+
+    @Test
+    public void record_max_frame_length() throws EncodeException, DecodeException, IOException {
+        DenseCodec denseCodec = DenseCodec.Builder.create().build();
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+        try (DenseRecordWriter denseRecordWriter = new DenseRecordWriter(denseCodec, byteArrayOutputStream, true, 64)) {
+            OpackObject opackObject = new OpackObject();
+            opackObject.put("value", "small");
+
+            denseRecordWriter.write(opackObject);
+
+            long position = denseRecordWriter.getPosition();
+
+            Assertions.assertThrows(IOException.class, () -> denseRecordWriter.writeObject("x".repeat(128)));
+            Assertions.assertEquals(position, denseRecordWriter.getPosition());
+            Assertions.assertEquals(1, denseRecordWriter.getRecordCount());
+        }
+
+        try (DenseRecordReader denseRecordReader = new DenseRecordReader(denseCodec, new ByteArrayInputStream(byteArrayOutputStream.toByteArray()), 64)) {
+            Assertions.assertEquals("small", ((OpackObject) denseRecordReader.read()).get("value"));
+            Assertions.assertNull(denseRecordReader.read());
+            Assertions.assertEquals(0, denseRecordReader.getCorruptedFrameCount());
+        }
+    }
+
+    @Test
+    public void record_log(@TempDir Path temporaryDirectory) throws EncodeException, DecodeException, IOException {
+        Path path = temporaryDirectory.resolve("records.log");
+        DenseRecordLog.Builder builder = DenseRecordLog.Builder.create(path).setIndexInterval(64).setIndexedField("key");
+
+        try (DenseRecordLog denseRecordLog = builder.open()) {
+            for (int index = 0; index < 1000; index++) {
+                OpackObject opackObject = new OpackObject();
+                opackObject.put("key", index * 10L);
+                opackObject.put("payload", "record " + index);
+
+                Assertions.assertEquals(index, denseRecordLog.append(opackObject));
+            }
+
+            Assertions.assertEquals("record 999", ((OpackObject) denseRecordLog.read(999)).get("payload"));
+        }
+
+        // Cut the last record in half, it is dropped on open
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            fileChannel.truncate(fileChannel.size() - 5);
+        }
+
+        try (DenseRecordLog denseRecordLog = builder.open()) {
+            Assertions.assertEquals(999, denseRecordLog.getRecordCount());
+
+            OpackObject opackObject = new OpackObject();
+            opackObject.put("key", 9990L);
+            opackObject.put("payload", "record 999");
+            denseRecordLog.append(opackObject);
+
+            for (int index : new int[]{0, 63, 64, 500, 960, 999}) {
+                Assertions.assertEquals("record " + index, ((OpackObject) denseRecordLog.read(index)).get("payload"));
+            }
+
+            List<Long> ranged = new ArrayList<>();
+            denseRecordLog.read(100, 110, (recordNumber, opackValue) -> ranged.add(recordNumber));
+            Assertions.assertEquals(10, ranged.size());
+            Assertions.assertEquals(100, ranged.get(0));
+
+            List<Long> found = new ArrayList<>();
+            denseRecordLog.findByKey(5000, 5200, (recordNumber, opackValue) -> found.add(recordNumber));
+            Assertions.assertEquals(21, found.size());
+            Assertions.assertEquals(500, found.get(0));
+
+            AtomicLong keySum = new AtomicLong();
+            AtomicLong recordCount = new AtomicLong();
+            denseRecordLog.parallelScan(4, (recordNumber, opackValue) -> {
+                keySum.addAndGet((long) ((OpackObject) opackValue).get("key"));
+                recordCount.incrementAndGet();
+            });
+            Assertions.assertEquals(1000, recordCount.get());
+            Assertions.assertEquals(10L * 999 * 1000 / 2, keySum.get());
+
+            denseRecordLog.sync();
+        }
+
+        // An intact frame with an undecodable payload is kept on open, and the records after it are not truncated
+        try (DenseRecordWriter denseRecordWriter = new DenseRecordWriter(DenseCodec.Builder.create().build(), Files.newOutputStream(path, StandardOpenOption.APPEND))) {
+            denseRecordWriter.writeFrame(new byte[]{(byte) 0xFF, (byte) 0xFF}, 0, 2);
+
+            OpackObject opackObject = new OpackObject();
+            opackObject.put("key", 10010L);
+            opackObject.put("payload", "record 1001");
+            denseRecordWriter.write(opackObject);
+        }
+
+        try (DenseRecordLog denseRecordLog = builder.open()) {
+            Assertions.assertEquals(1002, denseRecordLog.getRecordCount());
+            Assertions.assertEquals("record 1001", ((OpackObject) denseRecordLog.read(1001)).get("payload"));
+            Assertions.assertThrows(DecodeException.class, () -> denseRecordLog.read(1000));
+
+            // Reads between appends extend the mapping over the appended tail
+            for (int index = 1002; index < 1100; index++) {
+                OpackObject appendedObject = new OpackObject();
+                appendedObject.put("key", index * 10L);
+                appendedObject.put("payload", "record " + index);
+                denseRecordLog.append(appendedObject);
+
+                Assertions.assertEquals("record " + index, ((OpackObject) denseRecordLog.read(index)).get("payload"));
+                Assertions.assertEquals("record 0", ((OpackObject) denseRecordLog.read(0)).get("payload"));
+            }
+        }
+    }
+
+    @Test
+    public void block_compression(@TempDir Path temporaryDirectory) throws EncodeException, DecodeException, IOException {
+        DenseCodec denseCodec = DenseCodec.Builder.create().build();
+
+        OpackArray opackArray = new OpackArray();
+        for (int index = 0; index < 20000; index++) {
+            OpackObject opackObject = new OpackObject();
+            opackObject.put("id", index);
+            opackObject.put("name", "user " + index % 100);
+            opackObject.put("score", RandomUtil.nextInt(1000));
+            opackArray.add(opackObject);
+        }
+
+        byte[] originalBytes = denseCodec.encode(opackArray);
+        byte[] expectedBytes = denseCodec.encode(denseCodec.decode(originalBytes));
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        try {
+            for (BlockCompression blockCompression : BlockCompression.values()) {
+                for (boolean parallel : new boolean[]{false, true}) {
+                    Path path = temporaryDirectory.resolve(blockCompression + "_" + parallel + ".dz");
+                    long secondPosition;
+
+                    try (BlockCompressedOutputStream blockCompressedOutputStream = BlockCompressedOutputStream.Builder.create(Files.newOutputStream(path))
+                            .setBlockCompression(blockCompression)
+                            .setBlockSize(4096)
+                            .setExecutorService(parallel ? executorService : null)
+                            .build()) {
+                        denseCodec.encode(OutputStreamWriter.of(blockCompressedOutputStream), opackArray);
+                        secondPosition = blockCompressedOutputStream.getOriginalLength();
+                        denseCodec.encodeObject(OutputStreamWriter.of(blockCompressedOutputStream), opackArray.get(1234));
+                    }
+
+                    if (blockCompression != BlockCompression.NONE) {
+                        Assertions.assertTrue(Files.size(path) < originalBytes.length / 2, blockCompression + " did not compress");
+                    }
+
+                    try (BlockCompressedInputStream blockCompressedInputStream = new BlockCompressedInputStream(Files.newInputStream(path), parallel ? executorService : null, 8)) {
+                        InputStreamReader inputStreamReader = InputStreamReader.of(blockCompressedInputStream);
+
+                        Assertions.assertArrayEquals(expectedBytes, denseCodec.encode(denseCodec.decode(inputStreamReader)));
+                        Assertions.assertEquals(1234, ((OpackObject) denseCodec.decode(inputStreamReader)).get("id"));
+                        Assertions.assertEquals(-1, blockCompressedInputStream.read());
+                    }
+
+                    try (BlockCompressedFile blockCompressedFile = BlockCompressedFile.open(path)) {
+                        Assertions.assertTrue(blockCompressedFile.getBlockCount() > 1);
+
+                        OpackValue seekedValue = denseCodec.decode(InputStreamReader.of(blockCompressedFile.newInputStream(secondPosition)));
+                        Assertions.assertEquals(1234, ((OpackObject) seekedValue).get("id"));
+
+                        byte[] middleBytes = new byte[10000];
+                        Assertions.assertEquals(middleBytes.length, blockCompressedFile.read(5000, middleBytes, 0, middleBytes.length));
+                        Assertions.assertArrayEquals(Arrays.copyOfRange(originalBytes, 5000, 15000), middleBytes);
+                    }
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        // A corrupted block is detected by its checksum
+        Path path = temporaryDirectory.resolve("corrupted.dz");
+        try (BlockCompressedOutputStream blockCompressedOutputStream = BlockCompressedOutputStream.Builder.create(Files.newOutputStream(path)).build()) {
+            blockCompressedOutputStream.write(originalBytes);
+        }
+
+        byte[] compressedBytes = Files.readAllBytes(path);
+        compressedBytes[100] ^= 0x5A;
+
+        Assertions.assertThrows(IOException.class, () -> {
+            try (BlockCompressedInputStream blockCompressedInputStream = new BlockCompressedInputStream(new ByteArrayInputStream(compressedBytes))) {
+                blockCompressedInputStream.readAllBytes();
+            }
+        });
+
+        // An empty block is never written, so it is rejected as corrupted
+        byte[] emptyBlockBytes = Arrays.copyOf(compressedBytes, 9 + 13);
+        ByteBuffer.wrap(emptyBlockBytes).put(9, (byte) 0x00).putInt(10, 0).putInt(14, 0).putInt(18, 0);
+
+        Assertions.assertThrows(IOException.class, () -> {
+            try (BlockCompressedInputStream blockCompressedInputStream = new BlockCompressedInputStream(new ByteArrayInputStream(emptyBlockBytes))) {
+                blockCompressedInputStream.read();
+            }
+        });
+
+        // A corrupted block index is rejected on open, or at the block it points to
+        byte[] indexedOriginalBytes = Arrays.copyOf(originalBytes, 10 * 4096 + 100);
+        Path indexedPath = temporaryDirectory.resolve("indexed.dz");
+        try (BlockCompressedOutputStream blockCompressedOutputStream = BlockCompressedOutputStream.Builder.create(Files.newOutputStream(indexedPath)).setBlockSize(4096).build()) {
+            blockCompressedOutputStream.write(indexedOriginalBytes);
+        }
+
+        byte[] indexedBytes = Files.readAllBytes(indexedPath);
+        int indexPosition = (int) ByteBuffer.wrap(indexedBytes).getLong(indexedBytes.length - 12);
+        int secondEntry = indexPosition + 13 + 16;
+
+        Path corruptedIndexPath = temporaryDirectory.resolve("corrupted_index.dz");
+        List<Consumer<ByteBuffer>> corruptions = Arrays.asList(
+                byteBuffer -> byteBuffer.putLong(indexPosition + 13 + 8, 1),                            // First offset is not 0
+                byteBuffer -> byteBuffer.putLong(secondEntry + 8, 0),                                   // Offsets do not increase
+                byteBuffer -> byteBuffer.putLong(secondEntry + 8, 4096 * 2),                            // Offset gap exceeds the block size
+                byteBuffer -> byteBuffer.putLong(secondEntry, indexPosition),                           // Position is not before the index
+                byteBuffer -> byteBuffer.putLong(secondEntry, 0),                                       // Position is inside the header
+                byteBuffer -> byteBuffer.putLong(indexPosition + 5, indexedOriginalBytes.length + 4096) // Length does not match the blocks
+        );
+
+        for (Consumer<ByteBuffer> corruption : corruptions) {
+            byte[] corruptedIndexBytes = indexedBytes.clone();
+            corruption.accept(ByteBuffer.wrap(corruptedIndexBytes));
+            Files.write(corruptedIndexPath, corruptedIndexBytes);
+
+            Assertions.assertThrows(IOException.class, () -> BlockCompressedFile.open(corruptedIndexPath).close());
+        }
+
+        // Shortening the length keeps the index well formed, but the last block no longer matches its entry
+        byte[] shortenedIndexBytes = indexedBytes.clone();
+        ByteBuffer.wrap(shortenedIndexBytes).putLong(indexPosition + 5, indexedOriginalBytes.length - 1);
+        Files.write(corruptedIndexPath, shortenedIndexBytes);
+
+        try (BlockCompressedFile blockCompressedFile = BlockCompressedFile.open(corruptedIndexPath)) {
+            Assertions.assertEquals(16, blockCompressedFile.read(0, new byte[16], 0, 16));
+            Assertions.assertThrows(IOException.class, () -> blockCompressedFile.read(indexedOriginalBytes.length - 2, new byte[1], 0, 1));
+        }
+
+        try (BlockCompressedFile blockCompressedFile = BlockCompressedFile.open(indexedPath)) {
+            InputStream inputStream = blockCompressedFile.newInputStream(indexedOriginalBytes.length - 1);
+
+            Assertions.assertEquals(indexedOriginalBytes[indexedOriginalBytes.length - 1] & 0xFF, inputStream.read());
+            Assertions.assertEquals(-1, inputStream.read());
+            Assertions.assertEquals(-1, blockCompressedFile.read(indexedOriginalBytes.length, new byte[16], 0, 16));
+        }
+    }
+
+    @Test
+    public void dictionary_compression() throws EncodeException, IOException {
+        DenseCodec denseCodec = DenseCodec.Builder.create().build();
+        String[] eventTypes = new String[]{"page_view", "click", "purchase", "sign_in", "sign_out"};
+
+        List<byte[]> messages = new ArrayList<>();
+        for (int index = 0; index < 1200; index++) {
+            OpackObject opackObject = new OpackObject();
+            opackObject.put("timestamp", 1700000000000L + index * 37L);
+            opackObject.put("eventType", eventTypes[RandomUtil.nextInt(eventTypes.length)]);
+            opackObject.put("userId", "user-" + RandomUtil.nextInt(100000));
+            opackObject.put("sessionId", "session-" + RandomUtil.nextInt(1000));
+            opackObject.put("pagePath", "/products/category/" + RandomUtil.nextInt(50) + "/item");
+            opackObject.put("userAgent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
+            messages.add(denseCodec.encode(opackObject));
+        }
+
+        CompressionDictionary compressionDictionary = CompressionDictionaryTrainer.train(7, messages.subList(0, 1000), 16 * 1024);
+        Assertions.assertTrue(compressionDictionary.getBytes().length > 0);
+
+        CompressionDictionaryRegistry compressionDictionaryRegistry = new CompressionDictionaryRegistry();
+        compressionDictionaryRegistry.register(compressionDictionary);
+
+        CompressionDictionary emptyDictionary = CompressionDictionary.of(0, new byte[0]);
+        compressionDictionaryRegistry.register(emptyDictionary);
+
+        try (DictionaryCompressor dictionaryCompressor = new DictionaryCompressor(compressionDictionaryRegistry)) {
+            long originalLength = 0;
+            long plainLength = 0;
+            long dictionaryLength = 0;
+
+            for (byte[] message : messages.subList(1000, messages.size())) {
+                byte[] frame = dictionaryCompressor.compress(compressionDictionary, message);
+
+                Assertions.assertEquals(7, DictionaryCompressor.getDictionaryId(frame));
+                Assertions.assertArrayEquals(message, dictionaryCompressor.decompress(frame));
+
+                originalLength += message.length;
+                plainLength += dictionaryCompressor.compress(emptyDictionary, message).length;
+                dictionaryLength += frame.length;
+            }
+
+            Assertions.assertTrue(dictionaryLength * 2 < plainLength, "dictionary " + dictionaryLength + ", plain " + plainLength + ", original " + originalLength);
+
+            // Incompressible messages are stored
+            byte[] randomBytes = new byte[64];
+            for (int index = 0; index < randomBytes.length; index++) {
+                randomBytes[index] = (byte) RandomUtil.nextInt(256);
+            }
+            byte[] storedFrame = dictionaryCompressor.compress(compressionDictionary, randomBytes);
+            Assertions.assertTrue(storedFrame.length <= randomBytes.length + 3);
+            Assertions.assertArrayEquals(randomBytes, dictionaryCompressor.decompress(storedFrame));
+
+            compressionDictionaryRegistry.unregister(7);
+            Assertions.assertThrows(IOException.class, () -> dictionaryCompressor.decompress(dictionaryCompressor.compress(compressionDictionary, messages.get(0))));
+        }
+    }
+
+    @Test
+    public void floating_point_array_compression() throws EncodeException, DecodeException {
+        DenseCodec plainDenseCodec = DenseCodec.Builder.create().build();
+        DenseCodec denseCodec = DenseCodec.Builder.create().setEnableFloatingPointArrayCompression(true).build();
+
+        double[] series = new double[10000];
+        float[] floatSeries = new float[10000];
+        double value = 20.0;
+        for (int index = 0; index < series.length; index++) {
+            value += (RandomUtil.nextInt(5) - 2) * 0.25;
+            series[index] = index % 7 == 0 ? series[Math.max(index - 1, 0)] : value;
+            floatSeries[index] = (float) value;
+        }
+
+        double[] randomDoubles = new double[1000];
+        for (int index = 0; index < randomDoubles.length; index++) {
+            randomDoubles[index] = Double.longBitsToDouble(((long) RandomUtil.nextInt(Integer.MAX_VALUE) << 32) ^ RandomUtil.nextInt(Integer.MAX_VALUE));
+        }
+
+        double[] specialDoubles = new double[]{0.0, -0.0, Double.NaN, Double.longBitsToDouble(0x7FF8000000000123L), Double.POSITIVE_INFINITY, Double.MIN_VALUE, Double.MAX_VALUE, 1.5, 1.5};
+        float[] specialFloats = new float[]{0.0f, -0.0f, Float.NaN, Float.NEGATIVE_INFINITY, Float.MIN_VALUE, Float.MAX_VALUE, 3.25f, 3.25f};
+
+        OpackObject opackObject = new OpackObject();
+        opackObject.put("series", OpackArray.createWithArrayObject(series));
+        opackObject.put("floatSeries", OpackArray.createWithArrayObject(floatSeries));
+        opackObject.put("random", OpackArray.createWithArrayObject(randomDoubles));
+        opackObject.put("special", OpackArray.createWithArrayObject(specialDoubles));
+        opackObject.put("specialFloats", OpackArray.createWithArrayObject(specialFloats));
+        opackObject.put("empty", OpackArray.createWithArrayObject(new double[0]));
+        opackObject.put("single", OpackArray.createWithArrayObject(new float[]{1.0f}));
+
+        byte[] plainBytes = plainDenseCodec.encode(opackObject);
+        byte[] bytes = denseCodec.encode(opackObject);
+        Assertions.assertTrue(bytes.length * 3 < plainBytes.length, "compressed " + bytes.length + ", plain " + plainBytes.length);
+
+        OpackObject decodedObject = (OpackObject) plainDenseCodec.decode(bytes);
+        Assertions.assertArrayEquals(plainDenseCodec.encode(plainDenseCodec.decode(plainBytes)), plainDenseCodec.encode(decodedObject));
+
+        OpackArray decodedSpecial = (OpackArray) decodedObject.get("special");
+        for (int index = 0; index < specialDoubles.length; index++) {
+            Assertions.assertEquals(Double.doubleToRawLongBits(specialDoubles[index]), Double.doubleToRawLongBits((double) decodedSpecial.get(index)));
+        }
+
+        OpackArray decodedSeries = (OpackArray) decodedObject.get("series");
+        for (int index = 0; index < series.length; index++) {
+            Assertions.assertEquals(series[index], (double) decodedSeries.get(index));
+        }
+
+        DenseFeedDecoder denseFeedDecoder = new DenseFeedDecoder(denseCodec);
+        for (byte singleByte : bytes) {
+            denseFeedDecoder.feed(ByteBuffer.wrap(new byte[]{singleByte}));
+        }
+        Assertions.assertTrue(denseFeedDecoder.isCompleted());
+        Assertions.assertArrayEquals(plainDenseCodec.encode(decodedObject), plainDenseCodec.encode(denseFeedDecoder.pollValue()));
+
+        // A negative length is corrupted data, not a NegativeArraySizeException
+        for (Object array : new Object[]{new double[]{1.5, 2.5}, new float[]{1.5f, 2.5f}}) {
+            byte[] negativeLengthBytes = denseCodec.encode(OpackArray.createWithArrayObject(array));
+            ByteBuffer.wrap(negativeLengthBytes).putInt(7, -1);
+
+            Assertions.assertThrows(DecodeException.class, () -> denseCodec.decode(negativeLengthBytes));
+            Assertions.assertThrows(DecodeException.class, () -> new DenseFeedDecoder(denseCodec).feed(ByteBuffer.wrap(negativeLengthBytes)));
+        }
+    }
+
+    @Test
+    public void integer_array_compression() throws EncodeException, DecodeException {
+        DenseCodec plainDenseCodec = DenseCodec.Builder.create().build();
+        DenseCodec denseCodec = DenseCodec.Builder.create().setEnableIntegerArrayCompression(true).build();
+
+        long[] timestamps = new long[5000];
+        int[] ids = new int[5000];
+        int[] flags = new int[5000];
+        long[] counters = new long[5000];
+        for (int index = 0; index < timestamps.length; index++) {
+            timestamps[index] = 1700000000000L + index * 1000L + (index % 10 == 0 ? RandomUtil.nextInt(3) : 0);
+            ids[index] = 100000 + index * 3 - RandomUtil.nextInt(2);
+            flags[index] = (index / 500) % 2 == 0 ? 7 : -7;
+            counters[index] = RandomUtil.nextInt(1000);
+        }
+
+        int[] randomInts = new int[1000];
+        long[] extremeLongs = new long[]{Long.MIN_VALUE, Long.MAX_VALUE, 0, -1, Long.MIN_VALUE, 1, Long.MAX_VALUE};
+        int[] extremeInts = new int[300];
+        for (int index = 0; index < randomInts.length; index++) {
+            randomInts[index] = RandomUtil.nextInt(Integer.MAX_VALUE) * (index % 2 == 0 ? 1 : -1);
+        }
+        for (int index = 0; index < extremeInts.length; index++) {
+            extremeInts[index] = index % 3 == 0 ? Integer.MIN_VALUE : index % 3 == 1 ? Integer.MAX_VALUE : index;
+        }
+
+        OpackObject opackObject = new OpackObject();
+        opackObject.put("timestamps", OpackArray.createWithArrayObject(timestamps));
+        opackObject.put("ids", OpackArray.createWithArrayObject(ids));
+        opackObject.put("flags", OpackArray.createWithArrayObject(flags));
+        opackObject.put("counters", OpackArray.createWithArrayObject(counters));
+        opackObject.put("random", OpackArray.createWithArrayObject(randomInts));
+        opackObject.put("extremeLongs", OpackArray.createWithArrayObject(extremeLongs));
+        opackObject.put("extremeInts", OpackArray.createWithArrayObject(extremeInts));
+        opackObject.put("empty", OpackArray.createWithArrayObject(new long[0]));
+
+        byte[] plainBytes = plainDenseCodec.encode(opackObject);
+        byte[] bytes = denseCodec.encode(opackObject);
+        Assertions.assertTrue(bytes.length * 3 < plainBytes.length, "compressed " + bytes.length + ", plain " + plainBytes.length);
+
+        OpackObject decodedObject = (OpackObject) plainDenseCodec.decode(bytes);
+        Assertions.assertArrayEquals(plainDenseCodec.encode(plainDenseCodec.decode(plainBytes)), plainDenseCodec.encode(decodedObject));
+
+        OpackArray decodedTimestamps = (OpackArray) decodedObject.get("timestamps");
+        for (int index = 0; index < timestamps.length; index++) {
+            Assertions.assertEquals(timestamps[index], (long) decodedTimestamps.get(index));
+        }
+
+        DenseFeedDecoder denseFeedDecoder = new DenseFeedDecoder(denseCodec);
+        for (int offset = 0; offset < bytes.length; offset += 13) {
+            denseFeedDecoder.feed(ByteBuffer.wrap(bytes, offset, Math.min(13, bytes.length - offset)));
+        }
+        Assertions.assertTrue(denseFeedDecoder.isCompleted());
+        Assertions.assertArrayEquals(plainDenseCodec.encode(decodedObject), plainDenseCodec.encode(denseFeedDecoder.pollValue()));
+
+        // A negative length is corrupted data, not a NegativeArraySizeException
+        for (Object array : new Object[]{new int[]{1, 2}, new long[]{1, 2}}) {
+            byte[] negativeLengthBytes = denseCodec.encode(OpackArray.createWithArrayObject(array));
+            ByteBuffer.wrap(negativeLengthBytes).putInt(7, -1);
+
+            Assertions.assertThrows(DecodeException.class, () -> denseCodec.decode(negativeLengthBytes));
+            Assertions.assertThrows(DecodeException.class, () -> new DenseFeedDecoder(denseCodec).feed(ByteBuffer.wrap(negativeLengthBytes)));
+        }
+    }
+
+    @Test
+    public void bitmap_native_array() throws EncodeException, DecodeException {
+        DenseCodec plainDenseCodec = DenseCodec.Builder.create().build();
+        DenseCodec denseCodec = DenseCodec.Builder.create().setEnableBitmapNativeArray(true).build();
+
+        boolean[] booleans = new boolean[1003];
+        Boolean[] wrapperBooleans = new Boolean[1003];
+        Byte[] wrapperBytes = new Byte[1003];
+        Character[] wrapperCharacters = new Character[1003];
+        Short[] wrapperShorts = new Short[1003];
+        Integer[] wrapperIntegers = new Integer[1003];
+        Float[] wrapperFloats = new Float[1003];
+        Long[] wrapperLongs = new Long[1003];
+        Double[] wrapperDoubles = new Double[1003];
+        for (int index = 0; index < booleans.length; index++) {
+            booleans[index] = RandomUtil.nextBoolean();
+
+            boolean present = index % 7 != 3;
+            wrapperBooleans[index] = present ? RandomUtil.nextBoolean() : null;
+            wrapperBytes[index] = present ? (byte) RandomUtil.nextInt(256) : null;
+            wrapperCharacters[index] = present ? (char) RandomUtil.nextInt(65536) : null;
+            wrapperShorts[index] = present ? (short) RandomUtil.nextInt(65536) : null;
+            wrapperIntegers[index] = present ? RandomUtil.nextInt(Integer.MAX_VALUE) - index : null;
+            wrapperFloats[index] = present ? RandomUtil.nextFloat() : null;
+            wrapperLongs[index] = present ? RandomUtil.nextLong() : null;
+            wrapperDoubles[index] = present ? RandomUtil.nextDouble() : null;
+        }
+
+        OpackObject opackObject = new OpackObject();
+        opackObject.put("booleans", OpackArray.createWithArrayObject(booleans));
+        opackObject.put("wrapperBooleans", OpackArray.createWithArrayObject(wrapperBooleans));
+        opackObject.put("wrapperBytes", OpackArray.createWithArrayObject(wrapperBytes));
+        opackObject.put("wrapperCharacters", OpackArray.createWithArrayObject(wrapperCharacters));
+        opackObject.put("wrapperShorts", OpackArray.createWithArrayObject(wrapperShorts));
+        opackObject.put("wrapperIntegers", OpackArray.createWithArrayObject(wrapperIntegers));
+        opackObject.put("wrapperFloats", OpackArray.createWithArrayObject(wrapperFloats));
+        opackObject.put("wrapperLongs", OpackArray.createWithArrayObject(wrapperLongs));
+        opackObject.put("wrapperDoubles", OpackArray.createWithArrayObject(wrapperDoubles));
+        opackObject.put("allNull", OpackArray.createWithArrayObject(new Integer[64]));
+        opackObject.put("short", OpackArray.createWithArrayObject(new boolean[]{true, false, true}));
+        opackObject.put("empty", OpackArray.createWithArrayObject(new Long[0]));
+
+        byte[] plainBytes = plainDenseCodec.encode(opackObject);
+        byte[] bytes = denseCodec.encode(opackObject);
+        Assertions.assertTrue(bytes.length < plainBytes.length, "bitmap " + bytes.length + ", plain " + plainBytes.length);
+
+        OpackObject decodedObject = (OpackObject) plainDenseCodec.decode(bytes);
+        Assertions.assertArrayEquals(plainDenseCodec.encode(plainDenseCodec.decode(plainBytes)), plainDenseCodec.encode(decodedObject));
+
+        OpackArray decodedIntegers = (OpackArray) decodedObject.get("wrapperIntegers");
+        for (int index = 0; index < wrapperIntegers.length; index++) {
+            Assertions.assertEquals(wrapperIntegers[index], decodedIntegers.get(index));
+        }
+
+        DenseFeedDecoder denseFeedDecoder = new DenseFeedDecoder(denseCodec);
+        for (int offset = 0; offset < bytes.length; offset += 13) {
+            denseFeedDecoder.feed(ByteBuffer.wrap(bytes, offset, Math.min(13, bytes.length - offset)));
+        }
+        Assertions.assertTrue(denseFeedDecoder.isCompleted());
+        Assertions.assertArrayEquals(plainDenseCodec.encode(decodedObject), plainDenseCodec.encode(denseFeedDecoder.pollValue()));
+
+        // A negative length is corrupted data, not a NegativeArraySizeException
+        for (Object array : new Object[]{booleans, wrapperIntegers}) {
+            byte[] negativeLengthBytes = denseCodec.encode(OpackArray.createWithArrayObject(array));
+            ByteBuffer.wrap(negativeLengthBytes).putInt(7, -1);
+
+            DecodeException decodeException = Assertions.assertThrows(DecodeException.class, () -> denseCodec.decode(negativeLengthBytes));
+            Assertions.assertTrue(decodeException.getMessage().contains("negative"));
+            Assertions.assertThrows(DecodeException.class, () -> new DenseFeedDecoder(denseCodec).feed(ByteBuffer.wrap(negativeLengthBytes)));
+        }
+    }
 }
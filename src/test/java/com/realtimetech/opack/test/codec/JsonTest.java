@@ -24,6 +24,14 @@ package com.realtimetech.opack.test.codec;
 
 import com.realtimetech.opack.Opacker;
 import com.realtimetech.opack.codec.json.JsonCodec;
+import com.realtimetech.opack.codec.json.JsonFeedDecoder;
+import com.realtimetech.opack.codec.json.JsonGenerator;
+import com.realtimetech.opack.codec.json.JsonParser;
+import com.realtimetech.opack.codec.json.JsonTape;
+import com.realtimetech.opack.codec.json.JsonToken;
+import com.realtimetech.opack.codec.json.lines.JsonArrayReader;
+import com.realtimetech.opack.codec.json.lines.JsonLinesReader;
+import com.realtimetech.opack.codec.json.lines.JsonLinesWriter;
 import com.realtimetech.opack.codec.json.ryu.RyuJsonDouble;
 import com.realtimetech.opack.codec.json.ryu.RyuJsonFloat;
 import com.realtimetech.opack.exception.DecodeException;
@@ -32,13 +40,23 @@ import com.realtimetech.opack.exception.EncodeException;
 import com.realtimetech.opack.exception.SerializeException;
 import com.realtimetech.opack.test.OpackAssert;
 import com.realtimetech.opack.test.opacker.other.ComplexTest;
+import com.realtimetech.opack.util.UnsafeOpackValue;
+import com.realtimetech.opack.value.OpackArray;
 import com.realtimetech.opack.value.OpackObject;
 import com.realtimetech.opack.value.OpackValue;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class JsonTest {
     @Test
@@ -180,6 +198,519 @@ public class JsonTest {
         OpackAssert.assertEquals(originalObject, decodedObject);
     }
 
+    @Test
+    public void stream_decode() throws DecodeException, EncodeException, OpackAssert.AssertException {
+        JsonCodec jsonCodec = JsonCodec.Builder.create().setDecodeBufferSize(16).build();
+
+        OpackObject originalObject = new OpackObject();
+        originalObject.put("text", "Long text with escapes \"\\\n\t\u2028 and unicode \uD55C\uAE00 \uD83D\uDE00 crossing the buffer many times");
+        originalObject.put("long", -5026738480679942478L);
+        originalObject.put("double", 123456.789e-300);
+        originalObject.put("big_integer", new BigInteger("1" + Long.MAX_VALUE + Long.MAX_VALUE));
+        originalObject.put("literals", CommonOpackValue.create());
+
+        String encoded = jsonCodec.encode(originalObject);
+        OpackValue expected = jsonCodec.decode(encoded);
+
+        // Deliver a few characters per read, so literals straddle the buffer boundaries
+        Reader trickleReader = new FilterReader(new StringReader(encoded)) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 3));
+            }
+        };
+        OpackAssert.assertEquals(expected, jsonCodec.decode(trickleReader));
+
+        byte[] bytes = encoded.getBytes(StandardCharsets.UTF_8);
+        OpackAssert.assertEquals(expected, jsonCodec.decode(new ByteArrayInputStream(bytes)));
+        OpackAssert.assertEquals(expected, jsonCodec.decode(Channels.newChannel(new ByteArrayInputStream(bytes))));
+
+        Assertions.assertThrows(DecodeException.class, () -> jsonCodec.decode(new StringReader("{\"value\":tru")));
+        Assertions.assertThrows(DecodeException.class, () -> jsonCodec.decode(new StringReader("[\"value\\u12")));
+        Assertions.assertThrows(DecodeException.class, () -> jsonCodec.decode(new ByteArrayInputStream(new byte[]{'"', (byte) 0xC3, '"'})));
+    }
+
+    @Test
+    public void utf8_bytes() throws DecodeException, EncodeException, OpackAssert.AssertException {
+        JsonCodec jsonCodec = JsonCodec.Builder.create().build();
+
+        OpackObject originalObject = new OpackObject();
+        originalObject.put("ascii", "plain text");
+        originalObject.put("unicode", "\u00e9\u00e8 \uD55C\uAE00 \uD83D\uDE00 \u2028");
+        originalObject.put("literals", CommonOpackValue.create());
+
+        String encoded = jsonCodec.encode(originalObject);
+        byte[] expectedBytes = encoded.getBytes(StandardCharsets.UTF_8);
+        OpackValue expected = jsonCodec.decode(encoded);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        jsonCodec.encode(outputStream, originalObject);
+        Assertions.assertArrayEquals(expectedBytes, outputStream.toByteArray());
+
+        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(expectedBytes.length + 8);
+        byteBuffer.put((byte) ' ');
+        jsonCodec.encode(byteBuffer, originalObject);
+        Assertions.assertEquals(expectedBytes.length + 1, byteBuffer.position());
+
+        byteBuffer.flip();
+        OpackAssert.assertEquals(expected, jsonCodec.decode(byteBuffer));
+        Assertions.assertFalse(byteBuffer.hasRemaining());
+
+        byte[] paddedBytes = new byte[expectedBytes.length + 4];
+        System.arraycopy(expectedBytes, 0, paddedBytes, 2, expectedBytes.length);
+        OpackAssert.assertEquals(expected, jsonCodec.decode(paddedBytes, 2, expectedBytes.length));
+        OpackAssert.assertEquals(expected, jsonCodec.decode(ByteBuffer.wrap(paddedBytes, 2, expectedBytes.length)));
+
+        ByteBuffer smallByteBuffer = ByteBuffer.allocate(8);
+        Assertions.assertThrows(EncodeException.class, () -> jsonCodec.encode(smallByteBuffer, originalObject));
+        Assertions.assertEquals(0, smallByteBuffer.position());
+
+        // Overlong, encoded surrogate, truncated and stray continuation sequences
+        byte[][] malformedInputs = new byte[][]{
+                {'"', (byte) 0xC0, (byte) 0x80, '"'},
+                {'"', (byte) 0xED, (byte) 0xA0, (byte) 0x80, '"'},
+                {'"', (byte) 0xF0, (byte) 0x9F},
+                {'"', (byte) 0x80, '"'},
+                {'"', (byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80, '"'}
+        };
+        for (byte[] malformedInput : malformedInputs) {
+            Assertions.assertThrows(DecodeException.class, () -> jsonCodec.decode(malformedInput, 0, malformedInput.length));
+        }
+    }
+
+    @Test
+    public void string_escape_positions() throws DecodeException, EncodeException {
+        JsonCodec jsonCodec = JsonCodec.Builder.create().build();
+        String specialCharacters = "\"\\/\b\f\n\r\t\u0000\u001f\u2028\u2029\u00e9\uD83D\uDE00";
+
+        // Every special character at every position of a clean run, so it lands on each lane of the four characters per step scan
+        for (int specialIndex = 0; specialIndex < specialCharacters.length(); specialIndex++) {
+            for (int position = 0; position <= 9; position++) {
+                String string = "abcdefghi".substring(0, position) + specialCharacters.charAt(specialIndex) + "jklmnopqr".substring(position);
+
+                OpackObject opackObject = new OpackObject();
+                opackObject.put("value", string);
+
+                String encoded = jsonCodec.encode(opackObject);
+                Assertions.assertEquals(string, ((OpackObject) jsonCodec.decode(encoded)).get("value"), encoded);
+            }
+        }
+
+        Assertions.assertThrows(DecodeException.class, () -> jsonCodec.decode("[\"abcdefg\nhijk\"]"));
+    }
+
+    @Test
+    public void tape() throws DecodeException, EncodeException, OpackAssert.AssertException {
+        JsonCodec jsonCodec = JsonCodec.Builder.create().build();
+        String input = "{\"name\": \"opack\", \"escaped\\u0041\": \"a\\nb\", \"list\": [1, 2.5, true, null, {\"deep\": [[]]}], \"empty\": {}, \"last\": -7}";
+        JsonTape jsonTape = jsonCodec.decodeTape(input);
+
+        int root = jsonTape.getRoot();
+        Assertions.assertEquals(JsonTape.Type.OBJECT, jsonTape.getType(root));
+        Assertions.assertEquals(5, jsonTape.getLength(root));
+        Assertions.assertEquals("opack", jsonTape.getString(jsonTape.getField(root, "name")));
+        Assertions.assertEquals("a\nb", jsonTape.getString(jsonTape.getField(root, "escapedA")));
+        Assertions.assertEquals(-7, jsonTape.getLong(jsonTape.getField(root, "last")));
+        Assertions.assertEquals(-1, jsonTape.getField(root, "missing"));
+        Assertions.assertEquals(-1, jsonTape.getField(root, "name\": \"opack"));
+        Assertions.assertEquals(-1, jsonTape.getField(root, "last\"}"));
+        Assertions.assertEquals(0, jsonTape.getLength(jsonTape.getField(root, "empty")));
+        Assertions.assertEquals(-1, jsonTape.getFirstChild(jsonTape.getField(root, "empty")));
+
+        int list = jsonTape.getField(root, "list");
+        Assertions.assertEquals(5, jsonTape.getLength(list));
+        Assertions.assertEquals(1, jsonTape.getLong(jsonTape.getElement(list, 0)));
+        Assertions.assertEquals(2.5, jsonTape.getDouble(jsonTape.getElement(list, 1)));
+        Assertions.assertTrue(jsonTape.getBoolean(jsonTape.getElement(list, 2)));
+        Assertions.assertTrue(jsonTape.isNull(jsonTape.getElement(list, 3)));
+        Assertions.assertEquals(-1, jsonTape.getElement(list, 5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> jsonTape.getString(list));
+
+        // Materialized subtrees equal the decoded subtrees
+        OpackObject decoded = (OpackObject) jsonCodec.decode(input);
+        OpackAssert.assertEquals(decoded, jsonTape.materialize(root));
+        OpackAssert.assertEquals(decoded.get("list"), jsonTape.materialize(list));
+        OpackAssert.assertEquals(((OpackArray) decoded.get("list")).get(4), jsonTape.materialize(jsonTape.getElement(list, 4)));
+
+        Assertions.assertEquals(3, jsonCodec.decodeTape(" 3 ").getLong(0));
+
+        // Literals are read only within the parsed range
+        char[] rangeCharArray = "[12]345\"".toCharArray();
+        JsonTape rangeTape = jsonCodec.decodeTape(rangeCharArray, 1, 2);
+        Assertions.assertEquals(12, rangeTape.getLong(0));
+        Assertions.assertEquals(12L, rangeTape.materialize(0));
+        Assertions.assertEquals("ab", jsonCodec.decodeTape("\"ab\"cd\"".toCharArray(), 0, 4).getString(0));
+
+        String[] malformedInputs = {"", " ", "{", "[1,]", "{\"a\" 1}", "{\"a\": 1]", "[1] 2", "[tru]", "[\"abc]", "[1 2]", ":", "[,1]"};
+
+        for (String malformedInput : malformedInputs) {
+            Assertions.assertThrows(DecodeException.class, () -> jsonCodec.decodeTape(malformedInput), malformedInput);
+        }
+    }
+
+    @Test
+    public void pull_parser_and_generator() throws DecodeException, EncodeException, IOException {
+        JsonCodec jsonCodec = JsonCodec.Builder.create().setDecodeBufferSize(16).build();
+        String input = "{\"id\": 9007199254740993, \"ratio\": 0.25, \"name\": \"long enough to cross the buffer \\u00e9\", \"skip\": {\"a\": [1, \"]\", {}]}, \"ok\": true}";
+
+        try (JsonParser jsonParser = jsonCodec.createParser(new StringReader(input))) {
+            Assertions.assertEquals(JsonToken.START_OBJECT, jsonParser.nextToken());
+
+            Assertions.assertEquals(JsonToken.FIELD_NAME, jsonParser.nextToken());
+            Assertions.assertEquals("id", jsonParser.getText());
+            Assertions.assertEquals(JsonToken.VALUE_NUMBER_INT, jsonParser.nextToken());
+            Assertions.assertEquals(9007199254740993L, jsonParser.getLong());
+
+            jsonParser.nextToken();
+            Assertions.assertEquals(JsonToken.VALUE_NUMBER_FLOAT, jsonParser.nextToken());
+            Assertions.assertEquals(0.25, jsonParser.getDouble());
+
+            jsonParser.nextToken();
+            Assertions.assertEquals(JsonToken.VALUE_STRING, jsonParser.nextToken());
+
+            StringWriter stringWriter = new StringWriter();
+            jsonParser.getText(stringWriter);
+            Assertions.assertEquals("long enough to cross the buffer \u00e9", stringWriter.toString());
+
+            jsonParser.nextToken();
+            Assertions.assertEquals(JsonToken.START_OBJECT, jsonParser.nextToken());
+            jsonParser.skipChildren();
+            Assertions.assertEquals(JsonToken.END_OBJECT, jsonParser.getCurrentToken());
+            Assertions.assertEquals(1, jsonParser.getDepth());
+
+            Assertions.assertEquals(JsonToken.FIELD_NAME, jsonParser.nextToken());
+            Assertions.assertEquals(true, jsonParser.readValue());
+            Assertions.assertEquals(JsonToken.END_OBJECT, jsonParser.nextToken());
+            Assertions.assertNull(jsonParser.nextToken());
+        }
+
+        Assertions.assertEquals(jsonCodec.decodeObject(input), jsonCodec.createParser(input).readValue());
+        Assertions.assertThrows(DecodeException.class, () -> jsonCodec.createParser("[1, 2").readValue());
+        Assertions.assertThrows(DecodeException.class, () -> jsonCodec.createParser("{\"a\" 1}").readValue());
+
+        StringWriter stringWriter = new StringWriter();
+
+        try (JsonGenerator jsonGenerator = jsonCodec.createGenerator(stringWriter)) {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeFieldName("values");
+            jsonGenerator.writeStartArray();
+            jsonGenerator.writeNumber(Long.MIN_VALUE);
+            jsonGenerator.writeNumber(1.5);
+            jsonGenerator.writeString("quote\"");
+            jsonGenerator.writeNull();
+            jsonGenerator.writeEndArray();
+            jsonGenerator.writeFieldName("nested");
+            jsonGenerator.writeObject(jsonCodec.decodeObject("{\"a\":[true]}"));
+
+            Assertions.assertThrows(EncodeException.class, jsonGenerator::writeNull);
+            Assertions.assertThrows(EncodeException.class, jsonGenerator::writeEndArray);
+
+            jsonGenerator.writeEndObject();
+        }
+
+        Assertions.assertEquals("{\"values\":[-9223372036854775808,1.5,\"quote\\\"\",null],\"nested\":{\"a\":[true]}}", stringWriter.toString());
+    }
+
+    @Test
+    public void feed_decoder() throws DecodeException, EncodeException {
+        JsonCodec jsonCodec = JsonCodec.Builder.create().build();
+        OpackObject opackObject = new OpackObject();
+        opackObject.put("text", "escaped \"\u00e9\uD83D\uDE00\" text");
+        opackObject.put("number", -12345.678e-3);
+        opackObject.put("list", jsonCodec.decodeObject("[1, true, null, {}]"));
+
+        // Two bodies split byte by byte, so chunks end inside strings, numbers, escapes and UTF-8 sequences
+        byte[] bytes = (jsonCodec.encode(opackObject) + " 42").getBytes(StandardCharsets.UTF_8);
+        JsonFeedDecoder jsonFeedDecoder = new JsonFeedDecoder(jsonCodec);
+        List<Object> values = new ArrayList<>();
+
+        for (byte b : bytes) {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(new byte[]{b});
+
+            while (jsonFeedDecoder.feed(byteBuffer) == JsonFeedDecoder.Status.COMPLETED) {
+                values.add(jsonFeedDecoder.poll());
+            }
+        }
+
+        Assertions.assertEquals(1, values.size());
+        Assertions.assertEquals(JsonFeedDecoder.Status.COMPLETED, jsonFeedDecoder.endOfInput());
+        values.add(jsonFeedDecoder.poll());
+
+        Assertions.assertEquals(Arrays.asList(opackObject, 42L), values);
+
+        jsonFeedDecoder.reset();
+        Assertions.assertThrows(DecodeException.class, () -> {
+            jsonFeedDecoder.feed(CharBuffer.wrap("{\"a\": [1, 2"));
+            jsonFeedDecoder.endOfInput();
+        });
+
+        JsonParser jsonParser = jsonCodec.createFeedParser();
+        Assertions.assertEquals(JsonToken.NOT_AVAILABLE, jsonParser.nextToken());
+
+        jsonParser.feed("[\"ab".toCharArray(), 0, 4);
+        Assertions.assertEquals(JsonToken.START_ARRAY, jsonParser.nextToken());
+        Assertions.assertEquals(JsonToken.NOT_AVAILABLE, jsonParser.nextToken());
+
+        jsonParser.feed("\\".toCharArray(), 0, 1);
+        Assertions.assertEquals(JsonToken.NOT_AVAILABLE, jsonParser.nextToken());
+
+        jsonParser.feed("u0041c\", 1".toCharArray(), 0, 10);
+        Assertions.assertEquals(JsonToken.VALUE_STRING, jsonParser.nextToken());
+        Assertions.assertEquals("abAc", jsonParser.getText());
+        Assertions.assertEquals(JsonToken.NOT_AVAILABLE, jsonParser.nextToken());
+
+        jsonParser.feed("5]".toCharArray(), 0, 2);
+        Assertions.assertEquals(JsonToken.VALUE_NUMBER_INT, jsonParser.nextToken());
+        Assertions.assertEquals(15, jsonParser.getInt());
+        Assertions.assertEquals(JsonToken.END_ARRAY, jsonParser.nextToken());
+    }
+
+    @Test
+    public void key_order_across_entry_points() throws DecodeException, EncodeException {
+        JsonCodec jsonCodec = JsonCodec.Builder.create().build();
+        String input = "{\"a\": 1, \"b\": {\"x\": [1, {\"p\": 1, \"q\": 2}], \"y\": 2}, \"a\": 3, \"c\": \"d\"}";
+
+        OpackValue decodedValue = jsonCodec.decode(input);
+        String expected = jsonCodec.encode(decodedValue);
+
+        // The first value of a duplicated key is kept
+        Assertions.assertEquals(1L, ((OpackObject) decodedValue).get("a"));
+
+        Assertions.assertEquals(expected, jsonCodec.encodeObject(Objects.requireNonNull(jsonCodec.createParser(input).readValue())));
+
+        JsonFeedDecoder jsonFeedDecoder = new JsonFeedDecoder(jsonCodec);
+        Assertions.assertEquals(JsonFeedDecoder.Status.COMPLETED, jsonFeedDecoder.feed(CharBuffer.wrap(input)));
+        Assertions.assertEquals(expected, jsonCodec.encode(jsonFeedDecoder.pollValue()));
+
+        JsonTape jsonTape = jsonCodec.decodeTape(input);
+        Assertions.assertEquals(expected, jsonCodec.encodeObject(Objects.requireNonNull(jsonTape.materialize(jsonTape.getRoot()))));
+    }
+
+    @Test
+    public void json_lines() throws DecodeException, EncodeException, IOException {
+        JsonCodec.Builder jsonCodecBuilder = JsonCodec.Builder.create();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        List<OpackValue> values = new ArrayList<>();
+
+        try {
+            for (int index = 0; index < 5000; index++) {
+                OpackObject opackObject = new OpackObject();
+                opackObject.put("index", (long) index);
+                opackObject.put("text", index % 1000 == 0 ? String.join("", Collections.nCopies(3000, "\u00e9")) : "line " + index);
+                values.add(opackObject);
+            }
+
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+            try (JsonLinesWriter jsonLinesWriter = new JsonLinesWriter(jsonCodecBuilder, byteArrayOutputStream, executorService, 64)) {
+                for (OpackValue value : values) {
+                    jsonLinesWriter.write(value);
+                }
+            }
+
+            byte[] bytes = byteArrayOutputStream.toByteArray();
+
+            // Pretty format would break values over several lines
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new JsonLinesWriter(JsonCodec.Builder.create().setUsePrettyFormat(true), new ByteArrayOutputStream()));
+
+            // Small chunks, so that long lines grow a chunk
+            try (JsonLinesReader jsonLinesReader = new JsonLinesReader(jsonCodecBuilder, new ByteArrayInputStream(bytes), executorService, true, 1024)) {
+                List<OpackValue> readValues = new ArrayList<>();
+                jsonLinesReader.readAll(readValues::add);
+
+                Assertions.assertEquals(values, readValues);
+            }
+
+            try (JsonLinesReader jsonLinesReader = new JsonLinesReader(jsonCodecBuilder, new ByteArrayInputStream(bytes), executorService, false, 4096)) {
+                Set<OpackValue> readValues = new HashSet<>();
+                jsonLinesReader.readAll(readValues::add);
+
+                Assertions.assertEquals(new HashSet<>(values), readValues);
+            }
+
+            byte[] blankLines = "\n{\"a\": 1}\r\n  \n[2]".getBytes(StandardCharsets.UTF_8);
+
+            try (JsonLinesReader jsonLinesReader = new JsonLinesReader(jsonCodecBuilder, new ByteArrayInputStream(blankLines))) {
+                Assertions.assertEquals(jsonCodecBuilder.build().decode("{\"a\": 1}"), jsonLinesReader.read());
+                Assertions.assertEquals(jsonCodecBuilder.build().decode("[2]"), jsonLinesReader.read());
+                Assertions.assertNull(jsonLinesReader.read());
+            }
+
+            byte[] malformed = "{\"a\": 1}\n{\"a\" 2}\n".getBytes(StandardCharsets.UTF_8);
+
+            try (JsonLinesReader jsonLinesReader = new JsonLinesReader(jsonCodecBuilder, new ByteArrayInputStream(malformed))) {
+                Assertions.assertThrows(DecodeException.class, jsonLinesReader::read);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void json_array_reader() throws DecodeException, EncodeException, IOException {
+        JsonCodec.Builder jsonCodecBuilder = JsonCodec.Builder.create();
+        JsonCodec jsonCodec = jsonCodecBuilder.build();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        try {
+            OpackArray opackArray = new OpackArray();
+
+            for (int index = 0; index < 5000; index++) {
+                OpackObject opackObject = new OpackObject();
+                opackObject.put("index", (long) index);
+                opackObject.put("text", index % 1000 == 0 ? String.join("", Collections.nCopies(3000, "é,]")) : "a, [b] {c} \"" + index);
+                opackObject.put("nested", OpackArray.createWithArrayObject(new int[]{index, index + 1}));
+                opackArray.add(opackObject);
+                opackArray.add(index % 7 == 0 ? null : "element, " + index);
+            }
+
+            byte[] bytes = jsonCodec.encode(opackArray).getBytes(StandardCharsets.UTF_8);
+            OpackValue expected = jsonCodec.decode(new String(bytes, StandardCharsets.UTF_8));
+
+            // Small chunks, so that long elements grow a chunk
+            try (JsonArrayReader jsonArrayReader = new JsonArrayReader(jsonCodecBuilder, new ByteArrayInputStream(bytes), executorService, true, 1024)) {
+                Assertions.assertEquals(expected, jsonArrayReader.readArray());
+                Assertions.assertEquals(opackArray.length(), jsonArrayReader.getReadCount());
+            }
+
+            try (JsonArrayReader jsonArrayReader = new JsonArrayReader(jsonCodecBuilder, new ByteArrayInputStream(bytes), executorService, false, 4096)) {
+                List<Object> elements = new ArrayList<>();
+                jsonArrayReader.readAll(elements::add);
+
+                Assertions.assertEquals(opackArray.length(), elements.size());
+                Assertions.assertTrue(elements.containsAll(UnsafeOpackValue.getList((OpackArray) expected)));
+            }
+
+            try (JsonArrayReader jsonArrayReader = new JsonArrayReader(jsonCodecBuilder, new ByteArrayInputStream(" [ 1 , \"a\" , [ ] ]\n".getBytes(StandardCharsets.UTF_8)))) {
+                Assertions.assertTrue(jsonArrayReader.hasNext());
+                Assertions.assertEquals(1L, jsonArrayReader.next());
+                Assertions.assertEquals("a", jsonArrayReader.next());
+                Assertions.assertEquals(new OpackArray(), jsonArrayReader.next());
+                Assertions.assertFalse(jsonArrayReader.hasNext());
+            }
+
+            try (JsonArrayReader jsonArrayReader = new JsonArrayReader(jsonCodecBuilder, new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8)))) {
+                Assertions.assertEquals(0, jsonArrayReader.readArray().length());
+            }
+
+            for (String malformed : new String[]{"", "{\"a\": 1}", "[1, 2", "[1, 2,]", "[1,, 2]", "[1, 2] 3", "[1, {\"a\" 2}]"}) {
+                try (JsonArrayReader jsonArrayReader = new JsonArrayReader(jsonCodecBuilder, new ByteArrayInputStream(malformed.getBytes(StandardCharsets.UTF_8)), executorService, true, 4)) {
+                    Assertions.assertThrows(DecodeException.class, jsonArrayReader::readArray, malformed);
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void number_formatting() throws EncodeException {
+        JsonCodec jsonCodec = JsonCodec.Builder.create().build();
+        Random random = new Random(0);
+        long[] longs = new long[512];
+        int index = 0;
+
+        for (long power = 1; index < 57; power *= 10) {
+            longs[index++] = power - 1;
+            longs[index++] = power;
+            longs[index++] = -power;
+
+            if (power > Long.MAX_VALUE / 10) {
+                break;
+            }
+        }
+
+        longs[index++] = Long.MIN_VALUE;
+        longs[index++] = Long.MAX_VALUE;
+
+        while (index < longs.length) {
+            longs[index++] = random.nextLong() >> random.nextInt(64);
+        }
+
+        int[] ints = new int[256];
+        double[] doubles = new double[256];
+        float[] floats = new float[256];
+
+        for (index = 0; index < ints.length; index++) {
+            ints[index] = random.nextInt() >> random.nextInt(32);
+            doubles[index] = Double.longBitsToDouble(random.nextLong() & 0x7FEFFFFFFFFFFFFFL) * (index % 2 == 0 ? 1 : -1);
+            floats[index] = (float) random.nextGaussian() * random.nextInt(1000000);
+        }
+
+        StringBuilder expected = new StringBuilder("[[");
+
+        for (index = 0; index < longs.length; index++) {
+            expected.append(index == 0 ? "" : ",").append(longs[index]);
+        }
+
+        expected.append("],[");
+
+        for (index = 0; index < ints.length; index++) {
+            expected.append(index == 0 ? "" : ",").append(ints[index]);
+        }
+
+        expected.append("],[");
+
+        for (index = 0; index < doubles.length; index++) {
+            expected.append(index == 0 ? "" : ",").append(RyuJsonDouble.toString(doubles[index]));
+        }
+
+        expected.append("],[");
+
+        for (index = 0; index < floats.length; index++) {
+            expected.append(index == 0 ? "" : ",").append(RyuJsonFloat.toString(floats[index]));
+        }
+
+        expected.append("],-9223372036854775808,-32768,0,1.5]");
+
+        OpackArray opackArray = new OpackArray();
+        opackArray.add(OpackArray.createWithArrayObject(longs));
+        opackArray.add(OpackArray.createWithArrayObject(ints));
+        opackArray.add(OpackArray.createWithArrayObject(doubles));
+        opackArray.add(OpackArray.createWithArrayObject(floats));
+        opackArray.add(Long.MIN_VALUE);
+        opackArray.add(Short.MIN_VALUE);
+        opackArray.add((byte) 0);
+        opackArray.add(1.5);
+
+        Assertions.assertEquals(expected.toString(), jsonCodec.encode(opackArray));
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        jsonCodec.encode(byteArrayOutputStream, opackArray);
+
+        Assertions.assertEquals(expected.toString(), new String(byteArrayOutputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void string_cache() throws DecodeException {
+        String longValue = String.join("", Collections.nCopies(40, "x"));
+        String input = "[{\"name\": \"value\", \"long\": \"" + longValue + "\"}, {\"name\": \"value\", \"long\": \"" + longValue + "\"}]";
+
+        OpackArray cachedArray = (OpackArray) JsonCodec.Builder.create().build().decode(input);
+        OpackObject firstObject = (OpackObject) cachedArray.get(0);
+        OpackObject secondObject = (OpackObject) cachedArray.get(1);
+
+        Assertions.assertSame(this.findKey(firstObject, "name"), this.findKey(secondObject, "name"));
+        Assertions.assertSame(firstObject.get("name"), secondObject.get("name"));
+        Assertions.assertNotSame(firstObject.get("long"), secondObject.get("long"));
+        Assertions.assertEquals(firstObject.get("long"), secondObject.get("long"));
+
+        OpackArray uncachedArray = (OpackArray) JsonCodec.Builder.create().setStringCacheSize(0).build().decode(input);
+
+        Assertions.assertNotSame(this.findKey((OpackObject) uncachedArray.get(0), "name"), this.findKey((OpackObject) uncachedArray.get(1), "name"));
+        Assertions.assertEquals(cachedArray, uncachedArray);
+    }
+
+    private Object findKey(OpackObject opackObject, String key) {
+        for (Object object : opackObject.keySet()) {
+            if (key.equals(object)) {
+                return object;
+            }
+        }
+
+        return null;
+    }
+
     private void testRyuFloat(float value) {
         String string1 = Float.toString(value);
         String string2 = RyuJsonFloat.toString(value);
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2025 REALTIMETECH All Rights Reserved
+ *
+ * Licensed either under the Apache License, Version 2.0, or (at your option)
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation (subject to the "Classpath" exception),
+ * either version 2, or any later version (collectively, the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.gnu.org/licenses/
+ *     http://www.gnu.org/software/classpath/license.html
+ *
+ * or as provided in the LICENSE file that accompanied this code.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.realtimetech.opack.test.codec;
+
+import com.realtimetech.opack.codec.dense.reader.MappedFileReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class MappedFileReaderTest {
+    @Test
+    public void segment_boundary(@TempDir Path temporaryDirectory) throws IOException {
+        ByteBuffer byteBuffer = ByteBuffer.allocate(80);
+        byteBuffer.put(new byte[12]);
+        byteBuffer.putLong(0x0102030405060708L);        // 12..20, across the first boundary
+        byteBuffer.putShort((short) 0x7FFE);             // 20..22
+        byteBuffer.put(new byte[9]);
+        byteBuffer.putShort((short) -2);                 // 31..33, across the second boundary
+        byteBuffer.putInt(0x11223344);                   // 33..37
+        byteBuffer.put(new byte[10]);
+        byteBuffer.putInt(-123456789);                   // 47..51, across the third boundary
+        byteBuffer.put("straddling string".getBytes(StandardCharsets.UTF_8)); // 51..68, across the fourth boundary
+
+        byte[] bytes = Arrays.copyOf(byteBuffer.array(), byteBuffer.position());
+        Path path = temporaryDirectory.resolve("segments.bin");
+        Files.write(path, bytes);
+
+        MappedFileReader mappedFileReader;
+
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // 16 byte segments
+            mappedFileReader = MappedFileReader.of(fileChannel, 0, bytes.length, 4);
+        }
+
+        mappedFileReader.setPosition(12);
+        Assertions.assertEquals(0x0102030405060708L, mappedFileReader.readLong());
+        Assertions.assertEquals((short) 0x7FFE, mappedFileReader.readShort());
+
+        mappedFileReader.setPosition(31);
+        Assertions.assertEquals((short) -2, mappedFileReader.readShort());
+        Assertions.assertEquals(0x11223344, mappedFileReader.readInt());
+
+        mappedFileReader.setPosition(47);
+        Assertions.assertEquals(-123456789, mappedFileReader.readInt());
+        Assertions.assertEquals("straddling string", mappedFileReader.readString(17, StandardCharsets.UTF_8));
+        Assertions.assertEquals(bytes.length, mappedFileReader.getPosition());
+
+        byte[] readBytes = new byte[bytes.length - 3];
+        mappedFileReader.setPosition(3);
+        mappedFileReader.readBytes(readBytes);
+        Assertions.assertArrayEquals(Arrays.copyOfRange(bytes, 3, bytes.length), readBytes);
+
+        // Negative sizes from corrupt data are rejected without moving the position
+        mappedFileReader.setPosition(40);
+        Assertions.assertThrows(IOException.class, () -> mappedFileReader.skipBytes(-8));
+        Assertions.assertThrows(IOException.class, () -> mappedFileReader.readBytes(new byte[4], 0, -1));
+        Assertions.assertThrows(IOException.class, () -> mappedFileReader.readString(-1, StandardCharsets.UTF_8));
+        Assertions.assertThrows(IOException.class, () -> mappedFileReader.skipBytes(bytes.length));
+        Assertions.assertEquals(40, mappedFileReader.getPosition());
+    }
+
+    @Test
+    public void extend(@TempDir Path temporaryDirectory) throws IOException {
+        Path path = temporaryDirectory.resolve("extend.bin");
+        byte[] bytes = new byte[100];
+
+        for (int index = 0; index < bytes.length; index++) {
+            bytes[index] = (byte) index;
+        }
+
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            fileChannel.write(ByteBuffer.wrap(bytes, 0, 40), 0);
+
+            // 16 byte segments, the third one is partial
+            MappedFileReader mappedFileReader = MappedFileReader.of(fileChannel, 0, 40, 4);
+            Assertions.assertThrows(IOException.class, () -> mappedFileReader.extend(fileChannel, 39));
+
+            fileChannel.write(ByteBuffer.wrap(bytes, 40, 60), 40);
+
+            MappedFileReader extendedReader = mappedFileReader.extend(fileChannel, bytes.length);
+            byte[] readBytes = new byte[bytes.length];
+            extendedReader.readBytes(readBytes);
+
+            Assertions.assertArrayEquals(bytes, readBytes);
+            Assertions.assertEquals(bytes.length, extendedReader.getSize());
+            Assertions.assertEquals(40, mappedFileReader.getSize());
+
+            // Duplicates read independently of each other
+            MappedFileReader duplicatedReader = extendedReader.duplicate();
+            extendedReader.setPosition(30);
+            Assertions.assertEquals(0, duplicatedReader.getPosition());
+            Assertions.assertEquals(0x00010203, duplicatedReader.readInt());
+            Assertions.assertEquals(30, extendedReader.readByte());
+
+            // Lengths are checked before the string buffer grows
+            Assertions.assertThrows(IOException.class, () -> extendedReader.readString(-1, StandardCharsets.UTF_8));
+            Assertions.assertThrows(IOException.class, () -> extendedReader.readString(Integer.MAX_VALUE, StandardCharsets.UTF_8));
+            Assertions.assertEquals(31, extendedReader.readByte());
+        }
+    }
+}